@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+/**
+ * Heap storage of a compact graph, using primitive arrays.
+ *
+ * @author Cristian Frăsinaru
+ */
+class ArrayCompactStorage extends CompactStorage {
+
+    int[] offsets;
+    int[] targets;
+    double[][] edgeData; //edgeData[k][offsets[i] + pos]
+    double[] vertexWeight;
+    int[] predOffsets;
+    int[] predSources;
+    int[] predIndex;
+
+    @Override
+    long offset(int i) {
+        return offsets[i];
+    }
+
+    @Override
+    int target(long idx) {
+        return targets[(int) idx];
+    }
+
+    @Override
+    boolean hasEdgeData(int dataType) {
+        return dataType < edgeData.length && edgeData[dataType] != null;
+    }
+
+    @Override
+    double edgeData(int dataType, long idx) {
+        return edgeData[dataType][(int) idx];
+    }
+
+    @Override
+    boolean hasVertexWeights() {
+        return vertexWeight != null;
+    }
+
+    @Override
+    double vertexWeight(int i) {
+        return vertexWeight[i];
+    }
+
+    @Override
+    boolean hasPredecessors() {
+        return predOffsets != null;
+    }
+
+    @Override
+    long predOffset(int i) {
+        return predOffsets[i];
+    }
+
+    @Override
+    int predSource(long k) {
+        return predSources[(int) k];
+    }
+
+    @Override
+    long predIndex(long k) {
+        return predIndex[(int) k];
+    }
+}
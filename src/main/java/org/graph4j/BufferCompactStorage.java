@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage of a compact graph, outside the Java heap: either in a
+ * memory-mapped file or in direct buffers. The data is not subject to garbage
+ * collection and it is released by {@link #close()}.
+ *
+ * Since a buffer cannot exceed 2GB, each array is stored as a sequence of
+ * segments.
+ *
+ * @see GraphSnapshot
+ * @author Cristian Frăsinaru
+ */
+class BufferCompactStorage extends CompactStorage {
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int SHIFT = 27; //elements per segment
+    static final long MASK = (1L << SHIFT) - 1;
+    private static Object unsafe;
+    private static Method cleaner;
+
+    static {
+        //there is no public API for releasing a buffer before Java 19
+        try {
+            var unsafeClass = Class.forName("sun.misc.Unsafe");
+            var field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            cleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            cleaner = null; //the buffers will be released by the garbage collector
+        }
+    }
+
+    LongBuffer[] offsets;
+    IntBuffer[] targets;
+    DoubleBuffer[][] edgeData; //null columns for missing edge data
+    DoubleBuffer[] vertexWeight;
+    LongBuffer[] predOffsets;
+    IntBuffer[] predSources;
+    LongBuffer[] predIndex;
+    //the buffers to be released
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    @Override
+    long offset(int i) {
+        return offsets[i >>> SHIFT].get((int) (i & MASK));
+    }
+
+    @Override
+    int target(long idx) {
+        return targets[(int) (idx >>> SHIFT)].get((int) (idx & MASK));
+    }
+
+    @Override
+    boolean hasEdgeData(int dataType) {
+        return dataType < edgeData.length && edgeData[dataType] != null;
+    }
+
+    @Override
+    double edgeData(int dataType, long idx) {
+        return edgeData[dataType][(int) (idx >>> SHIFT)].get((int) (idx & MASK));
+    }
+
+    @Override
+    boolean hasVertexWeights() {
+        return vertexWeight != null;
+    }
+
+    @Override
+    double vertexWeight(int i) {
+        return vertexWeight[i >>> SHIFT].get((int) (i & MASK));
+    }
+
+    @Override
+    boolean hasPredecessors() {
+        return predOffsets != null;
+    }
+
+    @Override
+    long predOffset(int i) {
+        return predOffsets[i >>> SHIFT].get((int) (i & MASK));
+    }
+
+    @Override
+    int predSource(long k) {
+        return predSources[(int) (k >>> SHIFT)].get((int) (k & MASK));
+    }
+
+    @Override
+    long predIndex(long k) {
+        return predIndex[(int) (k >>> SHIFT)].get((int) (k & MASK));
+    }
+
+    /**
+     * Unmaps, or frees, the buffers. The storage must not be accessed
+     * afterwards.
+     */
+    @Override
+    void close() {
+        offsets = predOffsets = predIndex = null;
+        targets = predSources = null;
+        edgeData = null;
+        vertexWeight = null;
+        for (var buf : buffers) {
+            release(buf);
+        }
+        buffers.clear();
+    }
+
+    //retains the buffers, in order to release them on close
+    ByteBuffer[] own(ByteBuffer[] segments) {
+        buffers.addAll(List.of(segments));
+        return segments;
+    }
+
+    //maps count elements of the specified size, starting at position
+    static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode,
+            long position, long count, int size) throws IOException {
+        var segments = new ByteBuffer[numSegments(count)];
+        for (int s = 0; s < segments.length; s++) {
+            long first = (long) s << SHIFT;
+            segments[s] = channel.map(mode,
+                    position + first * size, segmentLength(count, s) * size).order(ORDER);
+        }
+        return segments;
+    }
+
+    //allocates direct buffers for count elements of the specified size
+    static ByteBuffer[] allocate(long count, int size) {
+        var segments = new ByteBuffer[numSegments(count)];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = ByteBuffer.allocateDirect((int) (segmentLength(count, s) * size)).order(ORDER);
+        }
+        return segments;
+    }
+
+    private static int numSegments(long count) {
+        return (int) ((count + MASK) >>> SHIFT);
+    }
+
+    private static long segmentLength(long count, int s) {
+        return Math.min(MASK + 1, count - ((long) s << SHIFT));
+    }
+
+    static IntBuffer[] ints(ByteBuffer[] bytes) {
+        var views = new IntBuffer[bytes.length];
+        for (int s = 0; s < bytes.length; s++) {
+            views[s] = bytes[s].duplicate().order(ORDER).clear().asIntBuffer();
+        }
+        return views;
+    }
+
+    static LongBuffer[] longs(ByteBuffer[] bytes) {
+        var views = new LongBuffer[bytes.length];
+        for (int s = 0; s < bytes.length; s++) {
+            views[s] = bytes[s].duplicate().order(ORDER).clear().asLongBuffer();
+        }
+        return views;
+    }
+
+    static DoubleBuffer[] doubles(ByteBuffer[] bytes) {
+        var views = new DoubleBuffer[bytes.length];
+        for (int s = 0; s < bytes.length; s++) {
+            views[s] = bytes[s].duplicate().order(ORDER).clear().asDoubleBuffer();
+        }
+        return views;
+    }
+
+    //random access to the elements stored in segments
+    static int getInt(ByteBuffer[] segments, long idx) {
+        return segments[(int) (idx >>> SHIFT)].getInt((int) (idx & MASK) * Integer.BYTES);
+    }
+
+    static void putInt(ByteBuffer[] segments, long idx, int value) {
+        segments[(int) (idx >>> SHIFT)].putInt((int) (idx & MASK) * Integer.BYTES, value);
+    }
+
+    static void putLong(ByteBuffer[] segments, long idx, long value) {
+        segments[(int) (idx >>> SHIFT)].putLong((int) (idx & MASK) * Long.BYTES, value);
+    }
+
+    static double getDouble(ByteBuffer[] segments, long idx) {
+        return segments[(int) (idx >>> SHIFT)].getDouble((int) (idx & MASK) * Double.BYTES);
+    }
+
+    static void putDouble(ByteBuffer[] segments, long idx, double value) {
+        segments[(int) (idx >>> SHIFT)].putDouble((int) (idx & MASK) * Double.BYTES, value);
+    }
+
+    static void release(ByteBuffer[] segments) {
+        for (var buf : segments) {
+            release(buf);
+        }
+    }
+
+    private static void release(ByteBuffer buf) {
+        if (cleaner == null || !buf.isDirect()) {
+            return;
+        }
+        try {
+            cleaner.invoke(unsafe, buf);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //the buffer will be released by the garbage collector
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import static org.graph4j.Graph.DEFAULT_EDGE_WEIGHT;
+import static org.graph4j.Graph.WEIGHT;
+import org.graph4j.util.VertexSet;
+
+/**
+ * A read-only implementation of a directed graph that uses the compressed
+ * sparse row representation, both for the successors and for the predecessors
+ * of the vertices.
+ *
+ * The predecessor lists store, for each arc, its position in the successors
+ * array, so the data of an arc is kept in a single place.
+ *
+ * @see CompactGraphImpl
+ * @author Cristian Frăsinaru
+ * @param <V> the type of vertex labels in this graph
+ * @param <E> the type of edge labels in this graph
+ */
+class CompactDigraphImpl<V, E> extends CompactGraphImpl<V, E> implements Digraph<V, E> {
+
+    //the predecessors of vertices[i] are stored in the storage between
+    //predOffset(i) and predOffset(i+1), together with the positions of the arcs;
+    //the heap arrays of the predecessor lists are null if the storage is off-heap or closed
+    protected int[] predOffsets;
+    protected int[] predSources;
+    protected int[] predIndex;
+
+    protected CompactDigraphImpl() {
+    }
+
+    protected CompactDigraphImpl(GraphImpl<V, E> graph) {
+        super(graph);
+        initPredecessors((ArrayCompactStorage) storage);
+        setStorage(storage);
+    }
+
+    /**
+     * Creates a read-only digraph backed by the specified storage, which must
+     * contain the predecessor lists.
+     */
+    protected CompactDigraphImpl(String name, int[] vertices, long numEdges,
+            boolean allowingMultipleEdges, boolean allowingSelfLoops,
+            int edgeDataSize, int[] selfLoops, CompactStorage storage) {
+        super(name, vertices, numEdges, true, allowingMultipleEdges, allowingSelfLoops,
+                edgeDataSize, selfLoops, storage);
+        if (!storage.hasPredecessors()) {
+            throw new IllegalArgumentException("The predecessor lists are missing.");
+        }
+    }
+
+    private void initPredecessors(ArrayCompactStorage st) {
+        int n = numVertices;
+        int[] offsets = st.offsets;
+        int[] targets = st.targets;
+        int[] predOffsets = st.predOffsets = new int[n + 1];
+        for (int u : targets) {
+            predOffsets[indexOf(u) + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            predOffsets[i + 1] += predOffsets[i];
+        }
+        int[] predSources = st.predSources = new int[targets.length];
+        int[] predIndex = st.predIndex = new int[targets.length];
+        int[] next = Arrays.copyOf(predOffsets, n);
+        for (int vi = 0; vi < n; vi++) {
+            int v = vertices[vi];
+            for (int idx = offsets[vi], end = offsets[vi + 1]; idx < end; idx++) {
+                int ui = indexOf(targets[idx]);
+                int k = next[ui]++;
+                predSources[k] = v;
+                predIndex[k] = idx;
+            }
+        }
+    }
+
+    @Override
+    protected void setStorage(CompactStorage storage) {
+        super.setStorage(storage);
+        if (storage instanceof ArrayCompactStorage && storage.hasPredecessors()) {
+            var st = (ArrayCompactStorage) storage;
+            this.predOffsets = st.predOffsets;
+            this.predSources = st.predSources;
+            this.predIndex = st.predIndex;
+        } else {
+            this.predOffsets = null;
+            this.predSources = null;
+            this.predIndex = null;
+        }
+    }
+
+    @Override
+    public Digraph<V, E> freeze() {
+        return this;
+    }
+
+    @Override
+    public int indegree(int v) {
+        int vi = checkVertex(v);
+        int[] off = predOffsets;
+        return off != null ? off[vi + 1] - off[vi] : (int) (storage.predOffset(vi + 1) - storage.predOffset(vi));
+    }
+
+    @Override
+    public int[] indegrees() {
+        int[] indegrees = new int[numVertices];
+        var st = storage;
+        for (int i = 0; i < numVertices; i++) {
+            indegrees[i] = (int) (st.predOffset(i + 1) - st.predOffset(i));
+        }
+        return indegrees;
+    }
+
+    @Override
+    public int[] predecessors(int v) {
+        int vi = checkVertex(v);
+        int[] ps = predSources;
+        if (ps != null) {
+            return Arrays.copyOfRange(ps, predOffsets[vi], predOffsets[vi + 1]);
+        }
+        var st = storage;
+        long from = st.predOffset(vi);
+        int[] pred = new int[(int) (st.predOffset(vi + 1) - from)];
+        for (int j = 0; j < pred.length; j++) {
+            pred[j] = st.predSource(from + j);
+        }
+        return pred;
+    }
+
+    @Override
+    public void forEachPredecessor(int v, IntConsumer action) {
+        int vi = checkVertex(v);
+        int[] ps = predSources;
+        if (ps != null) {
+            for (int k = predOffsets[vi], end = predOffsets[vi + 1]; k < end; k++) {
+                action.accept(ps[k]);
+            }
+            return;
+        }
+        var st = storage;
+        for (long k = st.predOffset(vi), end = st.predOffset(vi + 1); k < end; k++) {
+            action.accept(st.predSource(k));
+        }
+    }
+
+    @Override
+    public Edge[] incomingEdgesTo(int v) {
+        int vi = checkVertex(v);
+        var st = storage;
+        long from = st.predOffset(vi);
+        Edge[] edges = new Edge[(int) (st.predOffset(vi + 1) - from)];
+        for (int j = 0; j < edges.length; j++) {
+            edges[j] = edgeAt(indexOf(st.predSource(from + j)), st.predIndex(from + j));
+        }
+        return edges;
+    }
+
+    @Override
+    public SuccessorIterator successorIterator(int v, int pos) {
+        return new SuccessorIteratorImpl(v, pos);
+    }
+
+    @Override
+    public PredecessorIterator predecessorIterator(int v, int pos) {
+        return new PredecessorIteratorImpl(v, pos);
+    }
+
+    @Override
+    public NeighborIterator neighborIterator(int v, boolean allEdges) {
+        if (allEdges) {
+            return new SuccessorPredecessorIteratorImpl(v);
+        }
+        return neighborIterator(v);
+    }
+
+    @Override
+    public Graph<V, E> supportGraph() {
+        return ((GraphImpl<V, E>) copy(false, false, true, false, false)).supportGraph();
+    }
+
+    @Override
+    public Digraph<V, E> copy() {
+        return copy(true, true, true, true, true);
+    }
+
+    @Override
+    public Digraph<V, E> copy(boolean vertexWeights, boolean vertexLabels,
+            boolean edges, boolean edgeWeights, boolean edgeLabels) {
+        return (Digraph<V, E>) super.copy(vertexWeights, vertexLabels, edges, edgeWeights, edgeLabels);
+    }
+
+    @Override
+    public Digraph<V, E> subgraph(VertexSet vertexSet) {
+        return (Digraph<V, E>) super.subgraph(vertexSet);
+    }
+
+    @Override
+    public Digraph<V, E> subgraph(Collection<Edge> edges) {
+        return (Digraph<V, E>) super.subgraph(edges);
+    }
+
+    @Override
+    public Digraph<V, E> complement() {
+        return (Digraph<V, E>) super.complement();
+    }
+
+    //successors: same as NeighborIterator
+    protected class SuccessorIteratorImpl extends NeighborIteratorImpl
+            implements SuccessorIterator<E> {
+
+        public SuccessorIteratorImpl(int v, int pos) {
+            super(v, pos);
+        }
+    }
+
+    //predecessors
+    protected class PredecessorIteratorImpl implements PredecessorIterator<E> {
+
+        protected final long from;
+        protected final long to;
+        protected long k; //the current position in the predecessor lists
+        //the heap arrays, null if the storage is off-heap
+        protected final int[] ps;
+        protected final int[] pi;
+        protected final double[] w;
+
+        public PredecessorIteratorImpl(int v, int pos) {
+            int vi = checkVertex(v);
+            this.ps = predSources;
+            this.pi = predIndex;
+            this.w = weights;
+            this.from = storage.predOffset(vi);
+            this.to = storage.predOffset(vi + 1);
+            this.k = from + pos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return k < to - 1;
+        }
+
+        @Override
+        public int next() {
+            if (k >= to - 1) {
+                throw new NoSuchElementException();
+            }
+            ++k;
+            return ps != null ? ps[(int) k] : storage.predSource(k);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return k > from;
+        }
+
+        @Override
+        public int previous() {
+            if (k <= from) {
+                throw new NoSuchElementException();
+            }
+            --k;
+            return ps != null ? ps[(int) k] : storage.predSource(k);
+        }
+
+        @Override
+        public int adjListPos() {
+            checkPos();
+            var st = storage;
+            return (int) (st.predIndex(k) - st.offset(indexOf(st.predSource(k))));
+        }
+
+        @Override
+        public Edge edge() {
+            checkPos();
+            var st = storage;
+            return edgeAt(indexOf(st.predSource(k)), st.predIndex(k));
+        }
+
+        @Override
+        public double getEdgeWeight() {
+            return getEdgeData(WEIGHT, DEFAULT_EDGE_WEIGHT);
+        }
+
+        @Override
+        public double getEdgeData(int dataType) {
+            return getEdgeData(dataType, 0);
+        }
+
+        @Override
+        public double getEdgeData(int dataType, double defaultValue) {
+            checkPos();
+            if (dataType == WEIGHT && w != null) {
+                return w[pi[(int) k]];
+            }
+            var st = storage;
+            return hasEdgeData(dataType) ? st.edgeData(dataType, st.predIndex(k)) : defaultValue;
+        }
+
+        @Override
+        public E getEdgeLabel() {
+            checkPos();
+            return edgeLabel == null ? null : edgeLabel[(int) storage.predIndex(k)];
+        }
+
+        @Override
+        public void setEdgeWeight(double weight) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeData(int dataType, double value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void incEdgeData(int dataType, double amount) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeLabel(E label) {
+            throw readOnly();
+        }
+
+        @Override
+        public void removeEdge() {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean isSuccessor() {
+            return false;
+        }
+
+        @Override
+        public boolean isPredecessor() {
+            return true;
+        }
+
+        protected void checkPos() {
+            if (k < from) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    //successors and predecessors
+    protected class SuccessorPredecessorIteratorImpl implements NeighborIterator<E> {
+
+        private final NeighborIterator<E> succIterator;
+        private final NeighborIterator<E> predIterator;
+        private NeighborIterator<E> currentIterator;
+
+        public SuccessorPredecessorIteratorImpl(int v) {
+            succIterator = successorIterator(v);
+            predIterator = predecessorIterator(v);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (succIterator.hasNext()) {
+                currentIterator = succIterator;
+                return true;
+            }
+            if (predIterator.hasNext()) {
+                currentIterator = predIterator;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentIterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            if (predIterator.hasPrevious()) {
+                currentIterator = predIterator;
+                return true;
+            }
+            if (succIterator.hasPrevious()) {
+                currentIterator = succIterator;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return currentIterator.previous();
+        }
+
+        @Override
+        public int adjListPos() {
+            return currentIterator.adjListPos();
+        }
+
+        @Override
+        public Edge edge() {
+            return currentIterator.edge();
+        }
+
+        @Override
+        public double getEdgeWeight() {
+            return currentIterator.getEdgeWeight();
+        }
+
+        @Override
+        public double getEdgeData(int dataType) {
+            return currentIterator.getEdgeData(dataType);
+        }
+
+        @Override
+        public double getEdgeData(int dataType, double defaultValue) {
+            return currentIterator.getEdgeData(dataType, defaultValue);
+        }
+
+        @Override
+        public E getEdgeLabel() {
+            return currentIterator.getEdgeLabel();
+        }
+
+        @Override
+        public void setEdgeWeight(double weight) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeData(int dataType, double value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void incEdgeData(int dataType, double amount) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeLabel(E label) {
+            throw readOnly();
+        }
+
+        @Override
+        public void removeEdge() {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean isSuccessor() {
+            return currentIterator == succIterator;
+        }
+
+        @Override
+        public boolean isPredecessor() {
+            return currentIterator == predIterator;
+        }
+    }
+}
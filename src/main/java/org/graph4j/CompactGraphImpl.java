@@ -0,0 +1,1174 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import static org.graph4j.Graph.DEFAULT_EDGE_WEIGHT;
+import static org.graph4j.Graph.DEFAULT_VERTEX_WEIGHT;
+import static org.graph4j.Graph.WEIGHT;
+import org.graph4j.util.EdgeSet;
+import org.graph4j.util.VertexSet;
+
+/**
+ * A read-only implementation of a graph that uses the <em>compressed sparse
+ * row</em> (CSR) representation.
+ *
+ * The adjacency lists of all the vertices are stored contiguously in a single
+ * array {@code targets}, the neighbors of the vertex with the index {@code i}
+ * occupying the positions between {@code offsets[i]} (inclusive) and
+ * {@code offsets[i+1]} (exclusive). Each adjacency list is sorted ascending,
+ * so checking if an edge exists takes logarithmic time, without auxiliary
+ * structures. Edge data (weights, capacities, etc.) and edge labels are stored
+ * in arrays parallel with {@code targets}.
+ *
+ * Compared to {@link GraphImpl}, there is a single array header for all the
+ * adjacency lists, instead of one per vertex, and the neighbors of consecutive
+ * vertices are adjacent in memory.
+ *
+ * The primitive data is accessed through a {@link CompactStorage}, which may
+ * be kept in the heap or in a memory-mapped file. When it is kept in the heap,
+ * the traversal methods read the arrays {@code offsets}, {@code targets} and
+ * {@code weights} directly.
+ *
+ * Instances are created using {@link Graph#freeze()},
+ * {@link GraphBuilder#buildCompactGraph()} or
+ * {@link GraphSnapshot#load(java.nio.file.Path)}. Any method that would modify the
+ * graph throws {@code UnsupportedOperationException}. The methods creating
+ * copies of the graph return mutable graphs.
+ *
+ * @author Cristian Frăsinaru
+ * @param <V> the type of vertex labels in this graph
+ * @param <E> the type of edge labels in this graph
+ */
+class CompactGraphImpl<V, E> implements Graph<V, E> {
+
+    protected String name;
+    protected int numVertices;
+    protected long numEdges;
+
+    protected int[] vertices; //vertices[i] is the vertex with the index i
+    protected CompactStorage storage; //adjacency lists, edge data, vertex weights
+    //the heap arrays of the storage, null if it is off-heap or closed
+    protected int[] offsets;
+    protected int[] targets;
+    protected double[] weights;
+    protected int[] selfLoops; //only for pseudographs
+
+    protected int edgeDataSize;
+    protected V[] vertexLabel;
+    protected E[] edgeLabel;
+
+    protected VertexIndex vertexIndex; //null for the default vertex numbering
+    protected int maxVertexNumber;
+    protected Map<V, Integer> labelVertexMap;
+
+    protected boolean directed;
+    protected boolean allowingMultipleEdges;
+    protected boolean allowingSelfLoops;
+    protected boolean safeMode = true;
+
+    protected CompactGraphImpl() {
+    }
+
+    /**
+     * Creates a read-only copy of the specified graph.
+     *
+     * @param graph the graph to be frozen.
+     */
+    protected CompactGraphImpl(GraphImpl<V, E> graph) {
+        this.name = graph.name;
+        this.numVertices = graph.numVertices;
+        this.numEdges = graph.numEdges;
+        this.directed = graph.directed;
+        this.allowingMultipleEdges = graph.allowingMultipleEdges;
+        this.allowingSelfLoops = graph.allowingSelfLoops;
+        this.vertices = Arrays.copyOf(graph.vertices, numVertices);
+        this.maxVertexNumber = graph.maxVertexNumber();
+        if (graph.vertexIndex != null) {
+            this.vertexIndex = graph.vertexIndex.copy();
+        }
+        int n = numVertices;
+        long total = 0;
+        var st = new ArrayCompactStorage();
+        int[] offsets = st.offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            total += graph.degree[i];
+            if (total > Integer.MAX_VALUE) {
+                throw new UnsupportedOperationException(
+                        "Too many edges for a compact representation: " + numEdges);
+            }
+            offsets[i + 1] = (int) total;
+        }
+        int size = (int) total;
+        int[] targets = st.targets = new int[size];
+        for (int i = 0; i < n; i++) {
+            if (graph.degree[i] > 0) {
+                System.arraycopy(graph.adjList[i], 0, targets, offsets[i], graph.degree[i]);
+            }
+        }
+        //edge data, as columns
+        this.edgeDataSize = graph.edgeData != null
+                ? Math.max(graph.edgeDataSize, graph.edgeData.length) : graph.edgeDataSize;
+        double[][] edgeData = st.edgeData = new double[edgeDataSize][];
+        if (graph.edgeData != null) {
+            for (int k = 0; k < graph.edgeData.length; k++) {
+                if (graph.edgeData[k] == null) {
+                    continue;
+                }
+                edgeData[k] = new double[size];
+                for (int i = 0; i < n; i++) {
+                    for (int pos = 0; pos < graph.degree[i]; pos++) {
+                        edgeData[k][offsets[i] + pos] = graph.edgeData[k].get(i, pos);
+                    }
+                }
+            }
+        }
+        if (graph.edgeLabel != null) {
+            this.edgeLabel = (E[]) new Object[size];
+            for (int i = 0; i < n; i++) {
+                if (graph.degree[i] > 0) {
+                    System.arraycopy(graph.edgeLabel[i], 0, edgeLabel, offsets[i], graph.degree[i]);
+                }
+            }
+        }
+        if (graph.vertexWeight != null) {
+            st.vertexWeight = Arrays.copyOf(graph.vertexWeight, n);
+        }
+        if (graph.vertexLabel != null) {
+            this.vertexLabel = Arrays.copyOf(graph.vertexLabel, n);
+        }
+        if (allowingSelfLoops) {
+            this.selfLoops = new int[n];
+            for (int i = 0; i < n; i++) {
+                selfLoops[i] = graph.degree(vertices[i]) - graph.degree[i];
+            }
+        }
+        sortAdjacencyLists(st);
+        setStorage(st);
+    }
+
+    /**
+     * Creates a read-only graph backed by the specified storage.
+     */
+    protected CompactGraphImpl(String name, int[] vertices, long numEdges,
+            boolean directed, boolean allowingMultipleEdges, boolean allowingSelfLoops,
+            int edgeDataSize, int[] selfLoops, CompactStorage storage) {
+        this.name = name;
+        this.numVertices = vertices.length;
+        this.numEdges = numEdges;
+        this.directed = directed;
+        this.allowingMultipleEdges = allowingMultipleEdges;
+        this.allowingSelfLoops = allowingSelfLoops;
+        this.vertices = vertices;
+        this.edgeDataSize = edgeDataSize;
+        this.selfLoops = selfLoops;
+        setStorage(storage);
+        this.maxVertexNumber = IntStream.of(vertices).max().orElse(-1);
+        for (int i = 0; i < numVertices; i++) {
+            if (vertices[i] != i) {
+                vertexIndex = new VertexIndexArray(maxVertexNumber);
+                for (int j = 0; j < numVertices; j++) {
+                    vertexIndex.set(vertices[j], j);
+                }
+                break;
+            }
+        }
+    }
+
+    protected void setStorage(CompactStorage storage) {
+        this.storage = storage;
+        if (storage instanceof ArrayCompactStorage) {
+            var st = (ArrayCompactStorage) storage;
+            this.offsets = st.offsets;
+            this.targets = st.targets;
+            this.weights = st.hasEdgeData(WEIGHT) ? st.edgeData[WEIGHT] : null;
+        } else {
+            this.offsets = null;
+            this.targets = null;
+            this.weights = null;
+        }
+    }
+
+    //sorts each adjacency list ascending, moving the edge data along
+    private void sortAdjacencyLists(ArrayCompactStorage st) {
+        int[] offsets = st.offsets;
+        int[] targets = st.targets;
+        long[] keys = null;
+        for (int i = 0; i < numVertices; i++) {
+            int from = offsets[i];
+            int deg = offsets[i + 1] - from;
+            if (isSorted(targets, from, deg)) {
+                continue;
+            }
+            if (keys == null || keys.length < deg) {
+                keys = new long[Math.max(deg, 16)];
+            }
+            for (int j = 0; j < deg; j++) {
+                keys[j] = ((long) targets[from + j] << 32) | j;
+            }
+            Arrays.sort(keys, 0, deg);
+            int[] perm = new int[deg];
+            for (int j = 0; j < deg; j++) {
+                perm[j] = (int) keys[j];
+                targets[from + j] = (int) (keys[j] >>> 32);
+            }
+            for (double[] column : st.edgeData) {
+                if (column != null) {
+                    double[] values = Arrays.copyOfRange(column, from, from + deg);
+                    for (int j = 0; j < deg; j++) {
+                        column[from + j] = values[perm[j]];
+                    }
+                }
+            }
+            if (edgeLabel != null) {
+                Object[] labels = Arrays.copyOfRange(edgeLabel, from, from + deg);
+                for (int j = 0; j < deg; j++) {
+                    edgeLabel[from + j] = (E) labels[perm[j]];
+                }
+            }
+        }
+    }
+
+    private boolean isSorted(int[] targets, int from, int deg) {
+        for (int j = 1; j < deg; j++) {
+            if (targets[from + j - 1] > targets[from + j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The graph is read-only.");
+    }
+
+    @Override
+    public Graph<V, E> freeze() {
+        return this;
+    }
+
+    @Override
+    public void setEdgeDataFormat(int dataType, EdgeDataFormat format) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The off-heap memory is released immediately, so this method is not
+     * thread-safe: it must not be invoked while other threads are still
+     * accessing the graph.
+     */
+    @Override
+    public void close() {
+        var st = storage;
+        setStorage(CompactStorage.CLOSED);
+        st.close();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public int numVertices() {
+        return numVertices;
+    }
+
+    @Override
+    public long numEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public long maxEdges() {
+        if (allowingMultipleEdges) {
+            return Long.MAX_VALUE;
+        }
+        return directed ? Digraph.maxEdges(numVertices) : Graph.maxEdges(numVertices);
+    }
+
+    @Override
+    public int[] vertices() {
+        return vertices;
+    }
+
+    @Override
+    public boolean isComplete() {
+        if (!allowingMultipleEdges && !allowingSelfLoops) {
+            return numEdges == maxEdges();
+        }
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (i != j && (directed || i < j) && !containsEdge(vertices[i], vertices[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int vertexAt(int index) {
+        if (index < 0 || index >= numVertices) {
+            throw new IllegalArgumentException(
+                    "Index must be in the range [0," + (numVertices - 1) + "]: " + index);
+        }
+        return vertices[index];
+    }
+
+    @Override
+    public VertexIterator<V> vertexIterator() {
+        return new VertexteratorImpl<>(this);
+    }
+
+    @Override
+    public int indexOf(int v) {
+        if (vertexIndex == null) {
+            return v < 0 || v >= numVertices ? -1 : v;
+        }
+        return vertexIndex.indexOf(v);
+    }
+
+    protected int checkVertex(int v) {
+        int vi = indexOf(v);
+        if (vi < 0) {
+            throw new InvalidVertexException(v);
+        }
+        return vi;
+    }
+
+    @Override
+    public boolean isDefaultVertexNumbering() {
+        return vertexIndex == null;
+    }
+
+    @Override
+    public int maxVertexNumber() {
+        return maxVertexNumber;
+    }
+
+    //the position of u in targets, in the adjacency list of vertices[vi], or -1
+    protected long edgeIndex(int vi, int u) {
+        int[] tg = targets;
+        if (tg != null) {
+            return edgeIndex(tg, offsets[vi], offsets[vi + 1] - 1, u);
+        }
+        var st = storage;
+        long from = st.offset(vi);
+        long to = st.offset(vi + 1) - 1;
+        long found = -1;
+        while (from <= to) {
+            long mid = (from + to) >>> 1;
+            int w = st.target(mid);
+            if (w < u) {
+                from = mid + 1;
+            } else if (w > u) {
+                to = mid - 1;
+            } else {
+                found = mid;
+                to = mid - 1; //the first occurrence, for multigraphs
+            }
+        }
+        return found;
+    }
+
+    private static int edgeIndex(int[] tg, int from, int to, int u) {
+        int found = -1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int w = tg[mid];
+            if (w < u) {
+                from = mid + 1;
+            } else if (w > u) {
+                to = mid - 1;
+            } else {
+                found = mid;
+                to = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean containsEdge(int v, int u) {
+        int vi = checkVertex(v);
+        checkVertex(u);
+        return edgeIndex(vi, u) >= 0;
+    }
+
+    @Override
+    public int adjListPos(int v, int u) {
+        int vi = indexOf(v);
+        long idx = edgeIndex(vi, u);
+        return idx < 0 ? -1 : (int) (idx - storage.offset(vi));
+    }
+
+    @Override
+    public int[] neighbors(int v) {
+        int vi = checkVertex(v);
+        int[] tg = targets;
+        if (tg != null) {
+            return Arrays.copyOfRange(tg, offsets[vi], offsets[vi + 1]);
+        }
+        var st = storage;
+        long from = st.offset(vi);
+        int[] neighbors = new int[(int) (st.offset(vi + 1) - from)];
+        for (int j = 0; j < neighbors.length; j++) {
+            neighbors[j] = st.target(from + j);
+        }
+        return neighbors;
+    }
+
+    @Override
+    public int neighborAt(int v, int pos) {
+        int vi = checkVertex(v);
+        var st = storage;
+        if (pos < 0 || pos >= st.offset(vi + 1) - st.offset(vi)) {
+            throw new IllegalArgumentException("Invalid position in the adjacency list of " + v + ": " + pos);
+        }
+        return st.target(st.offset(vi) + pos);
+    }
+
+    @Override
+    public void forEachNeighbor(int v, IntConsumer action) {
+        int vi = checkVertex(v);
+        int[] tg = targets;
+        if (tg != null) {
+            for (int idx = offsets[vi], end = offsets[vi + 1]; idx < end; idx++) {
+                action.accept(tg[idx]);
+            }
+            return;
+        }
+        var st = storage;
+        for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+            action.accept(st.target(idx));
+        }
+    }
+
+    @Override
+    public void forEachEdgeOf(int v, EdgeConsumer action) {
+        int vi = checkVertex(v);
+        int[] tg = targets;
+        if (tg != null) {
+            double[] w = weights;
+            for (int idx = offsets[vi], end = offsets[vi + 1]; idx < end; idx++) {
+                action.accept(v, tg[idx], w != null ? w[idx] : DEFAULT_EDGE_WEIGHT);
+            }
+            return;
+        }
+        var st = storage;
+        boolean weighted = st.hasEdgeData(WEIGHT);
+        for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+            action.accept(v, st.target(idx), weighted ? st.edgeData(WEIGHT, idx) : DEFAULT_EDGE_WEIGHT);
+        }
+    }
+
+    @Override
+    public void forEachEdge(EdgeConsumer action) {
+        int[] tg = targets;
+        if (tg != null) {
+            int[] off = offsets;
+            double[] w = weights;
+            for (int vi = 0; vi < numVertices; vi++) {
+                int v = vertices[vi];
+                for (int idx = off[vi], end = off[vi + 1]; idx < end; idx++) {
+                    int u = tg[idx];
+                    if (directed || v <= u) {
+                        action.accept(v, u, w != null ? w[idx] : DEFAULT_EDGE_WEIGHT);
+                    }
+                }
+            }
+            return;
+        }
+        var st = storage;
+        boolean weighted = st.hasEdgeData(WEIGHT);
+        for (int vi = 0; vi < numVertices; vi++) {
+            int v = vertices[vi];
+            for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+                int u = st.target(idx);
+                if (directed || v <= u) {
+                    action.accept(v, u, weighted ? st.edgeData(WEIGHT, idx) : DEFAULT_EDGE_WEIGHT);
+                }
+            }
+        }
+    }
+
+    @Override
+    public NeighborIterator<E> neighborIterator(int v, int pos) {
+        return new NeighborIteratorImpl(v, pos);
+    }
+
+    @Override
+    public int degree(int v) {
+        int vi = checkVertex(v);
+        int[] off = offsets;
+        int deg = off != null ? off[vi + 1] - off[vi] : (int) (storage.offset(vi + 1) - storage.offset(vi));
+        return selfLoops == null ? deg : deg + selfLoops[vi];
+    }
+
+    @Override
+    public int[] degrees() {
+        int[] degrees = new int[numVertices];
+        var st = storage;
+        for (int i = 0; i < numVertices; i++) {
+            degrees[i] = (int) (st.offset(i + 1) - st.offset(i));
+            if (selfLoops != null) {
+                degrees[i] += selfLoops[i];
+            }
+        }
+        return degrees;
+    }
+
+    //the main create Edge method
+    protected Edge<E> edgeAt(int vi, long idx) {
+        var st = storage;
+        Double[] data = null;
+        if (hasAnyEdgeData()) {
+            data = new Double[edgeDataSize];
+            for (int k = 0; k < edgeDataSize; k++) {
+                if (st.hasEdgeData(k)) {
+                    data[k] = st.edgeData(k, idx);
+                }
+            }
+        }
+        var label = edgeLabel != null ? edgeLabel[(int) idx] : null;
+        var e = new Edge(vertices[vi], st.target(idx), label, data);
+        e.directed = directed;
+        return e;
+    }
+
+    private boolean hasAnyEdgeData() {
+        var st = storage;
+        for (int k = 0; k < edgeDataSize; k++) {
+            if (st.hasEdgeData(k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Edge[] edges() {
+        Edge[] edges = new Edge[(int) numEdges];
+        var st = storage;
+        int k = 0;
+        for (int i = 0; i < numVertices; i++) {
+            int v = vertices[i];
+            for (long idx = st.offset(i), end = st.offset(i + 1); idx < end; idx++) {
+                if (directed || v <= st.target(idx)) {
+                    edges[k++] = edgeAt(i, idx);
+                }
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public Edge[] edgesOf(int v) {
+        int vi = checkVertex(v);
+        var st = storage;
+        long from = st.offset(vi);
+        Edge[] edges = new Edge[(int) (st.offset(vi + 1) - from)];
+        for (int k = 0; k < edges.length; k++) {
+            edges[k] = edgeAt(vi, from + k);
+        }
+        return edges;
+    }
+
+    @Override
+    public EdgeIterator<E> edgeIterator() {
+        return new EdgeIteratorImpl<>(this);
+    }
+
+    @Override
+    public Edge<E> edge(int v, int u) {
+        int vi = checkVertex(v);
+        long idx = edgeIndex(vi, u);
+        if (idx < 0) {
+            throw new InvalidEdgeException(v, u);
+        }
+        return edgeAt(vi, idx);
+    }
+
+    @Override
+    public boolean hasEdgeWeights() {
+        return hasEdgeData(WEIGHT);
+    }
+
+    @Override
+    public boolean hasEdgeData(int dataType) {
+        return dataType < edgeDataSize && storage.hasEdgeData(dataType);
+    }
+
+    @Override
+    public boolean hasVertexWeights() {
+        return storage.hasVertexWeights();
+    }
+
+    @Override
+    public double getVertexWeight(int v) {
+        int vi = checkVertex(v);
+        var st = storage;
+        return st.hasVertexWeights() ? st.vertexWeight(vi) : DEFAULT_VERTEX_WEIGHT;
+    }
+
+    @Override
+    public double getEdgeWeight(int v, int u) {
+        return getEdgeData(WEIGHT, v, u, DEFAULT_EDGE_WEIGHT);
+    }
+
+    @Override
+    public double getEdgeData(int dataType, int v, int u, double defaultValue) {
+        int vi = checkVertex(v);
+        checkVertex(u);
+        long idx = edgeIndex(vi, u);
+        if (idx < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (dataType == WEIGHT && weights != null) {
+            return weights[(int) idx];
+        }
+        return hasEdgeData(dataType) ? storage.edgeData(dataType, idx) : defaultValue;
+    }
+
+    @Override
+    public int getEdgeDataSize() {
+        return edgeDataSize;
+    }
+
+    @Override
+    public V getVertexLabel(int v) {
+        int vi = checkVertex(v);
+        return vertexLabel == null ? null : vertexLabel[vi];
+    }
+
+    @Override
+    public E getEdgeLabel(int v, int u) {
+        int vi = checkVertex(v);
+        long idx = edgeIndex(vi, u);
+        if (idx < 0) {
+            throw new InvalidEdgeException(v, u);
+        }
+        return edgeLabel == null ? null : edgeLabel[(int) idx];
+    }
+
+    @Override
+    public boolean hasEdgeLabels() {
+        return edgeLabel != null;
+    }
+
+    @Override
+    public boolean hasVertexLabels() {
+        return vertexLabel != null;
+    }
+
+    @Override
+    public int findVertex(V label) {
+        if (vertexLabel == null) {
+            return -1;
+        }
+        var map = labelVertexMap;
+        if (map == null) {
+            map = new HashMap<>(numVertices);
+            for (int i = 0; i < numVertices; i++) {
+                map.put(vertexLabel[i], vertices[i]);
+            }
+            labelVertexMap = map;
+        }
+        return map.getOrDefault(label, -1);
+    }
+
+    @Override
+    public VertexSet findAllVertices(V label) {
+        var set = new VertexSet(this);
+        if (vertexLabel != null) {
+            for (int i = 0; i < numVertices; i++) {
+                if (Objects.equals(vertexLabel[i], label)) {
+                    set.add(vertices[i]);
+                }
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public Edge findEdge(E label) {
+        if (edgeLabel == null) {
+            return null;
+        }
+        var st = storage;
+        for (int i = 0; i < numVertices; i++) {
+            for (long idx = st.offset(i), end = st.offset(i + 1); idx < end; idx++) {
+                if (Objects.equals(edgeLabel[(int) idx], label)) {
+                    return edgeAt(i, idx);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public EdgeSet findAllEdges(E label) {
+        var set = new EdgeSet(this);
+        if (edgeLabel != null) {
+            var st = storage;
+            for (int i = 0; i < numVertices; i++) {
+                int v = vertices[i];
+                for (long idx = st.offset(i), end = st.offset(i + 1); idx < end; idx++) {
+                    if ((directed || v <= st.target(idx)) && Objects.equals(edgeLabel[(int) idx], label)) {
+                        set.add(edgeAt(i, idx));
+                    }
+                }
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public boolean isAllowingMultipleEdges() {
+        return allowingMultipleEdges;
+    }
+
+    @Override
+    public boolean isAllowingSelfLoops() {
+        return allowingSelfLoops;
+    }
+
+    @Override
+    public void setSafeMode(boolean safeMode) {
+        this.safeMode = safeMode;
+    }
+
+    @Override
+    public boolean isSafeMode() {
+        return safeMode;
+    }
+
+    //
+    //Creating mutable graphs
+    //
+    /**
+     * Creates a mutable graph containing the specified vertices, together with
+     * the edges between them.
+     */
+    protected GraphImpl<V, E> toGraphImpl(int[] vertexArray, VertexSet vertexSet,
+            boolean copyVertexData, boolean copyVertexLabels,
+            boolean copyEdges, boolean copyEdgeData, boolean copyEdgeLabels) {
+        int n = vertexArray.length;
+        var st = storage;
+        var builder = GraphBuilder.vertices(Arrays.copyOf(vertexArray, n));
+        builder.directed = directed;
+        builder.allowingMultiEdges = allowingMultipleEdges;
+        builder.allowingSelfLoops = allowingSelfLoops;
+        builder.edgeDataSize = edgeDataSize;
+        builder.estimatedAvgDegree(numVertices == 0 ? 0 : (int) (st.offset(numVertices) / numVertices));
+        GraphImpl<V, E> g = builder.build();
+        g.setName(name);
+        g.setSafeMode(false);
+        for (int v : vertexArray) {
+            int vi = indexOf(v);
+            int gi = g.indexOf(v);
+            if (st.hasVertexWeights() && copyVertexData) {
+                g.setVertexWeight(v, st.vertexWeight(vi));
+            }
+            if (vertexLabel != null && copyVertexLabels) {
+                g.setVertexLabel(v, vertexLabel[vi]);
+            }
+            if (!copyEdges) {
+                continue;
+            }
+            for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+                int u = st.target(idx);
+                if ((!directed && v > u) || (vertexSet != null && !vertexSet.contains(u))) {
+                    continue;
+                }
+                int pos = g.addEdge(v, u);
+                if (copyEdgeData) {
+                    for (int k = 0; k < edgeDataSize; k++) {
+                        if (st.hasEdgeData(k)) {
+                            g.setEdgeDataAt(k, gi, pos, st.edgeData(k, idx));
+                        }
+                    }
+                }
+                if (edgeLabel != null && copyEdgeLabels) {
+                    g.setEdgeLabelAt(gi, pos, edgeLabel[(int) idx]);
+                }
+            }
+        }
+        g.setSafeMode(true);
+        return g;
+    }
+
+    @Override
+    public Graph<V, E> copy() {
+        return copy(true, true, true, true, true);
+    }
+
+    @Override
+    public Graph<V, E> copy(boolean vertexWeights, boolean vertexLabels,
+            boolean edges, boolean edgeWeights, boolean edgeLabels) {
+        return toGraphImpl(vertices, null, vertexWeights, vertexLabels, edges, edgeWeights, edgeLabels);
+    }
+
+    @Override
+    public Multigraph<V, E> copyAsMultigraph() {
+        return toGraphImpl(vertices, null, true, true, true, true, true).copyAsMultigraph();
+    }
+
+    @Override
+    public Multigraph<V, E> copyAsPseudograph() {
+        return toGraphImpl(vertices, null, true, true, true, true, true).copyAsPseudograph();
+    }
+
+    @Override
+    public Graph<V, E> subgraph(VertexSet vertexSet) {
+        return toGraphImpl(vertexSet.vertices(), vertexSet, true, true, true, true, true);
+    }
+
+    @Override
+    public Graph<V, E> subgraph(Collection<Edge> edges) {
+        return toGraphImpl(vertices, null, true, true, false, false, false).subgraph(edges);
+    }
+
+    @Override
+    public Graph<V, E> complement() {
+        return toGraphImpl(vertices, null, true, true, true, true, true).complement();
+    }
+
+    @Override
+    public int[][] adjacencyMatrix() {
+        var st = storage;
+        int[][] adjMatrix = new int[numVertices][numVertices];
+        for (int vi = 0; vi < numVertices; vi++) {
+            for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+                adjMatrix[vi][indexOf(st.target(idx))]++;
+            }
+        }
+        return adjMatrix;
+    }
+
+    @Override
+    public double[][] weightMatrix() {
+        var st = storage;
+        double[][] weight = new double[numVertices][numVertices];
+        boolean weighted = st.hasEdgeData(WEIGHT);
+        for (int vi = 0; vi < numVertices; vi++) {
+            Arrays.fill(weight[vi], Double.POSITIVE_INFINITY);
+            weight[vi][vi] = 0;
+            for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+                weight[vi][indexOf(st.target(idx))] = weighted ? st.edgeData(WEIGHT, idx) : DEFAULT_EDGE_WEIGHT;
+            }
+        }
+        return weight;
+    }
+
+    @Override
+    public int[][] incidenceMatrix() {
+        var st = storage;
+        int[][] incMatrix = new int[numVertices][(int) numEdges];
+        int edgeIndex = 0;
+        for (int vi = 0; vi < numVertices; vi++) {
+            int v = vertices[vi];
+            for (long idx = st.offset(vi), end = st.offset(vi + 1); idx < end; idx++) {
+                int u = st.target(idx);
+                if (directed || v <= u) {
+                    incMatrix[vi][edgeIndex] = 1;
+                    incMatrix[indexOf(u)][edgeIndex] = (directed ? -1 : 1);
+                    edgeIndex++;
+                }
+            }
+        }
+        return incMatrix;
+    }
+
+    //
+    //Read-only
+    //
+    @Override
+    public int addEdge(int v, int u) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addEdge(Edge<E> e) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addEdge(int v, int u, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEdge(int v, int u) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllEdges(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addVertex() {
+        throw readOnly();
+    }
+
+    @Override
+    public int addVertex(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeVertex(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public int duplicateVertex(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public int contractVertices(int... vertices) {
+        throw readOnly();
+    }
+
+    @Override
+    public int splitEdge(int v, int u) {
+        throw readOnly();
+    }
+
+    @Override
+    public void renumberAdding(int amount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEdgeDataSize(int edgeDataSize) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addWeightedVertex(int v, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addWeightedVertex(double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVertexWeight(int v, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEdgeWeight(int v, int u, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEdgeData(int dataType, int v, int u, double value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void incEdgeData(int dataType, int v, int u, double amount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void resetEdgeData(int dataType, double value) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addLabeledVertex(int v, V label) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addLabeledVertex(V label) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addLabeledEdge(int v, int u, E label, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addLabeledEdge(int v, int u, E label) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVertexLabel(int v, V label) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEdgeLabel(int v, int u, E label) {
+        throw readOnly();
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        sb.append(name != null ? name + "=" : "");
+        sb.append("{");
+        sb.append("|V|=").append(numVertices);
+        sb.append(", |E|=").append(numEdges);
+        sb.append("}");
+        return sb.toString();
+    }
+
+    protected class NeighborIteratorImpl implements NeighborIterator<E> {
+
+        protected final int vi;
+        protected final long from;
+        protected final long to;
+        protected long idx; //the current position in targets
+        //the heap arrays, null if the storage is off-heap
+        protected final int[] tg;
+        protected final double[] w;
+
+        public NeighborIteratorImpl(int v, int pos) {
+            this.vi = checkVertex(v);
+            this.tg = targets;
+            this.w = weights;
+            this.from = storage.offset(vi);
+            this.to = storage.offset(vi + 1);
+            this.idx = from + pos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return idx < to - 1;
+        }
+
+        @Override
+        public int next() {
+            if (idx >= to - 1) {
+                throw new NoSuchElementException();
+            }
+            ++idx;
+            return tg != null ? tg[(int) idx] : storage.target(idx);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return idx > from;
+        }
+
+        @Override
+        public int previous() {
+            if (idx <= from) {
+                throw new NoSuchElementException();
+            }
+            --idx;
+            return tg != null ? tg[(int) idx] : storage.target(idx);
+        }
+
+        @Override
+        public int adjListPos() {
+            return (int) (idx - from);
+        }
+
+        @Override
+        public Edge edge() {
+            checkPos();
+            return edgeAt(vi, idx);
+        }
+
+        @Override
+        public double getEdgeWeight() {
+            return getEdgeData(WEIGHT, DEFAULT_EDGE_WEIGHT);
+        }
+
+        @Override
+        public double getEdgeData(int dataType) {
+            return getEdgeData(dataType, 0);
+        }
+
+        @Override
+        public double getEdgeData(int dataType, double defaultValue) {
+            checkPos();
+            if (dataType == WEIGHT && w != null) {
+                return w[(int) idx];
+            }
+            return hasEdgeData(dataType) ? storage.edgeData(dataType, idx) : defaultValue;
+        }
+
+        @Override
+        public E getEdgeLabel() {
+            checkPos();
+            return edgeLabel == null ? null : edgeLabel[(int) idx];
+        }
+
+        @Override
+        public void setEdgeWeight(double weight) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeData(int dataType, double value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void incEdgeData(int dataType, double amount) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEdgeLabel(E label) {
+            throw readOnly();
+        }
+
+        @Override
+        public void removeEdge() {
+            throw readOnly();
+        }
+
+        protected void checkPos() {
+            if (idx < from) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+/**
+ * The primitive data of a compact graph: the adjacency lists in CSR format,
+ * the edge data columns, the vertex weights and, in case of directed graphs,
+ * the predecessor lists.
+ *
+ * Positions in the adjacency lists are {@code long} values, so that
+ * implementations are not limited by the maximum size of a Java array.
+ *
+ * @see CompactGraphImpl
+ * @author Cristian Frăsinaru
+ */
+abstract class CompactStorage {
+
+    /**
+     * The storage of a closed graph: any access throws an
+     * {@code IllegalStateException}.
+     */
+    static final CompactStorage CLOSED = new Closed();
+
+    /**
+     * The adjacency list of the vertex with the index i occupies the positions
+     * from {@code offset(i)} (inclusive) to {@code offset(i+1)} (exclusive).
+     */
+    abstract long offset(int i);
+
+    abstract int target(long idx);
+
+    abstract boolean hasEdgeData(int dataType);
+
+    abstract double edgeData(int dataType, long idx);
+
+    abstract boolean hasVertexWeights();
+
+    abstract double vertexWeight(int i);
+
+    abstract boolean hasPredecessors();
+
+    abstract long predOffset(int i);
+
+    abstract int predSource(long k);
+
+    /**
+     * The position, in the adjacency list of the predecessor, of the arc
+     * stored at position k in the predecessor lists.
+     */
+    abstract long predIndex(long k);
+
+    /**
+     * Releases the resources held by this storage, if any.
+     */
+    void close() {
+    }
+
+    private static class Closed extends CompactStorage {
+
+        private static IllegalStateException closed() {
+            return new IllegalStateException("The graph has been closed.");
+        }
+
+        @Override
+        long offset(int i) {
+            throw closed();
+        }
+
+        @Override
+        int target(long idx) {
+            throw closed();
+        }
+
+        @Override
+        boolean hasEdgeData(int dataType) {
+            throw closed();
+        }
+
+        @Override
+        double edgeData(int dataType, long idx) {
+            throw closed();
+        }
+
+        @Override
+        boolean hasVertexWeights() {
+            throw closed();
+        }
+
+        @Override
+        double vertexWeight(int i) {
+            throw closed();
+        }
+
+        @Override
+        boolean hasPredecessors() {
+            throw closed();
+        }
+
+        @Override
+        long predOffset(int i) {
+            throw closed();
+        }
+
+        @Override
+        int predSource(long k) {
+            throw closed();
+        }
+
+        @Override
+        long predIndex(long k) {
+            throw closed();
+        }
+    }
+}
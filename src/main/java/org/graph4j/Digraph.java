@@ -17,6 +17,7 @@
 package org.graph4j;
 
 import java.util.Collection;
+import java.util.function.IntConsumer;
 import org.graph4j.util.VertexSet;
 
 /**
@@ -70,6 +71,19 @@ public interface Digraph<V, E> extends Graph<V, E> {
     @Override
     Digraph<V, E> copy();
 
+    /**
+     * Creates and returns a read-only copy of the digraph, using a compact
+     * representation for both the successors and the predecessors of the
+     * vertices.
+     *
+     * @return a read-only copy of the digraph.
+     * @see Graph#freeze()
+     */
+    @Override
+    default Digraph<V, E> freeze() {
+        return (Digraph<V, E>) Graph.super.freeze();
+    }
+
     /**
      * Creates the <em>complement</em> of the digraph. The complement of a
      * directed graph G has the same vertex set as G and its edge set consists
@@ -199,6 +213,20 @@ public interface Digraph<V, E> extends Graph<V, E> {
         return pred;
     }
 
+    /**
+     * Performs the given action for each predecessor of a vertex, without
+     * creating any objects. The action must not modify the digraph.
+     *
+     * @param v a vertex number.
+     * @param action the action to be performed for each predecessor of
+     * {@code v}.
+     */
+    default void forEachPredecessor(int v, IntConsumer action) {
+        for (var it = predecessorIterator(v); it.hasNext();) {
+            action.accept(it.next());
+        }
+    }
+
     /**
      * Creates an iterator over the predecessors of a specified vertex. The
      * iterator offers in {@code O(1)} time information regarding the edges
@@ -19,6 +19,7 @@ package org.graph4j;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
 import static org.graph4j.GraphImpl.WEIGHT;
 import org.graph4j.util.IntArrays;
 import org.graph4j.util.VertexSet;
@@ -95,6 +96,11 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
         return copy;
     }
 
+    @Override
+    public Digraph<V, E> freeze() {
+        return new CompactDigraphImpl<>(this);
+    }
+
     @Override
     public int addEdge(int v, int u) {
         int pos = super.addEdge(v, u);
@@ -106,6 +112,32 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
         return pos;
     }
 
+    @Override
+    void addEdges(int[] sources, int[] targets, double[] weights) {
+        super.addEdges(sources, targets, weights);
+        //the predecessor lists, allocated with their exact size
+        for (int vi = 0; vi < numVertices; vi++) {
+            for (int pos = 0; pos < degree[vi]; pos++) {
+                indegree[indexOf(adjList[vi][pos])]++;
+            }
+        }
+        for (int i = 0; i < numVertices; i++) {
+            if (indegree[i] > 0) {
+                predList[i] = new int[indegree[i]];
+                predPos[i] = new int[indegree[i]];
+            }
+            indegree[i] = 0;
+        }
+        for (int vi = 0; vi < numVertices; vi++) {
+            for (int pos = 0; pos < degree[vi]; pos++) {
+                int ui = indexOf(adjList[vi][pos]);
+                int k = indegree[ui]++;
+                predList[ui][k] = vertices[vi];
+                predPos[ui][k] = pos;
+            }
+        }
+    }
+
     //adds u to the predList of v (v <- ..., u, ...)
     protected int addToPredList(int v, int u) {
         int vi = indexOf(v);
@@ -126,9 +158,16 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
         int v = vertices[vi];
         int u = adjList[vi][pos];
         int ui = indexOf(u);
+        //the entry of the arc v -> u in the predecessors of u
+        int posvu = predListPosOf(ui, v, pos);
+        int lastPos = degree[vi] - 1;
+        if (pos < lastPos) {
+            //the last arc v -> w will be moved in the freed slot
+            int wi = indexOf(adjList[vi][lastPos]);
+            predPos[wi][predListPosOf(wi, v, lastPos)] = pos;
+        }
         super.removeEdgeAt(vi, pos); //removing the edge v -> u
         //remove v from the predecessors of u
-        int posvu = predListPosOf(u, v);
         if (posvu < indegree[ui] - 1) {
             swapPredWithLast(ui, posvu);
         }
@@ -153,6 +192,17 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
         }*/
     }
 
+    //Returns the position in the predecessor list of vertices[vi] of the arc
+    //u -> vertices[vi] stored at position pos in the adjacency list of u.
+    private int predListPosOf(int vi, int u, int pos) {
+        for (int i = 0; i < indegree[vi]; i++) {
+            if (predList[vi][i] == u && predPos[vi][i] == pos) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     //Returns the first position of u in the predecessor list of v.
     protected int predListPosOf(int v, int u) {
         int vi = indexOf(v);
@@ -194,6 +244,18 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
         return pred;
     }
 
+    @Override
+    public void forEachPredecessor(int v, IntConsumer action) {
+        int vi = indexOf(v);
+        if (vi < 0) {
+            throw new InvalidVertexException(v);
+        }
+        int[] pred = predList[vi];
+        for (int pos = 0, indeg = indegree[vi]; pos < indeg; pos++) {
+            action.accept(pred[pos]);
+        }
+    }
+
     @Override
     protected void growVertices() {
         super.growVertices();
@@ -351,7 +413,7 @@ class DigraphImpl<V, E> extends GraphImpl<V, E> implements Digraph<V, E> {
             }
             int u = predList[vi][pos]; //u -> v
             int ui = indexOf(u);
-            return edgeData[dataType][ui][predPos[vi][pos]];
+            return edgeData[dataType].get(ui, predPos[vi][pos]);
         }
 
         @Override
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+/**
+ * An operation that accepts the endpoints and the weight of an edge, as
+ * primitive values. It is used for visiting the edges of a graph without
+ * creating {@link Edge} or {@link NeighborIterator} objects.
+ *
+ * @see Graph#forEachEdge(EdgeConsumer)
+ * @see Graph#forEachEdgeOf(int, EdgeConsumer)
+ * @author Cristian Frăsinaru
+ */
+@FunctionalInterface
+public interface EdgeConsumer {
+
+    /**
+     * Performs this operation on the given edge.
+     *
+     * @param v the source of the edge.
+     * @param u the target of the edge.
+     * @param weight the weight of the edge.
+     */
+    void accept(int v, int u, double weight);
+}
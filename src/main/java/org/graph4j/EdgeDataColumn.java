@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+/**
+ * The values of an edge data type, stored in primitive arrays that are aligned
+ * with the adjacency lists: the value of the edge at position pos in the
+ * adjacency list of the vertex with the index vi is stored in row vi, at the
+ * same position.
+ *
+ * @see EdgeDataFormat
+ * @author Cristian Frăsinaru
+ */
+abstract class EdgeDataColumn {
+
+    static EdgeDataColumn create(EdgeDataFormat format, int numRows) {
+        switch (format) {
+            case FLOAT:
+                return new FloatEdgeDataColumn(numRows);
+            case INT:
+                return new IntEdgeDataColumn(numRows);
+            default:
+                return new DoubleEdgeDataColumn(numRows);
+        }
+    }
+
+    abstract EdgeDataFormat format();
+
+    abstract double get(int vi, int pos);
+
+    abstract void set(int vi, int pos, double value);
+
+    abstract boolean hasRow(int vi);
+
+    /**
+     * Allocates the row vi, with the specified length, or expands it to the
+     * specified length, keeping its values.
+     */
+    abstract void growRow(int vi, int length);
+
+    /**
+     * Moves the row from the index i to the index j, the row i becoming
+     * empty.
+     */
+    abstract void moveRow(int i, int j);
+
+    /**
+     * Changes the number of rows.
+     */
+    abstract void resize(int numRows);
+
+    /**
+     * Returns a deep copy of the first numRows rows.
+     */
+    abstract EdgeDataColumn copy(int numRows);
+
+    //copies the values of another column, converting them if necessary
+    void copyFrom(EdgeDataColumn other, int[] rowLengths) {
+        for (int vi = 0; vi < rowLengths.length; vi++) {
+            if (other.hasRow(vi)) {
+                growRow(vi, rowLengths[vi]);
+                for (int pos = 0; pos < rowLengths[vi]; pos++) {
+                    set(vi, pos, other.get(vi, pos));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+/**
+ * The primitive type used to store the values of an edge data type (weights,
+ * capacities, costs, etc.). Using {@code FLOAT} or {@code INT} halves the
+ * memory required by the values, at the expense of precision or range.
+ *
+ * @see Graph#setEdgeDataFormat(int, EdgeDataFormat)
+ * @author Cristian Frăsinaru
+ */
+public enum EdgeDataFormat {
+    /**
+     * The values are stored as {@code double} (the default).
+     */
+    DOUBLE,
+    /**
+     * The values are stored as {@code float}, with single precision.
+     */
+    FLOAT,
+    /**
+     * The values are stored as {@code int}; setting a value that is not an
+     * integer in the range of {@code int} throws an
+     * {@code IllegalArgumentException}.
+     */
+    INT;
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+import java.util.Arrays;
+
+/**
+ * Edge data values stored as {@code float}.
+ *
+ * @author Cristian Frăsinaru
+ */
+class FloatEdgeDataColumn extends EdgeDataColumn {
+
+    private float[][] rows;
+
+    FloatEdgeDataColumn(int numRows) {
+        this.rows = new float[numRows][];
+    }
+
+    @Override
+    EdgeDataFormat format() {
+        return EdgeDataFormat.FLOAT;
+    }
+
+    @Override
+    double get(int vi, int pos) {
+        return rows[vi][pos];
+    }
+
+    @Override
+    void set(int vi, int pos, double value) {
+        rows[vi][pos] = (float) value;
+    }
+
+    @Override
+    boolean hasRow(int vi) {
+        return rows[vi] != null;
+    }
+
+    @Override
+    void growRow(int vi, int length) {
+        rows[vi] = rows[vi] == null ? new float[length] : Arrays.copyOf(rows[vi], length);
+    }
+
+    @Override
+    void moveRow(int i, int j) {
+        rows[j] = rows[i];
+        rows[i] = null;
+    }
+
+    @Override
+    void resize(int numRows) {
+        rows = Arrays.copyOf(rows, numRows);
+    }
+
+    @Override
+    FloatEdgeDataColumn copy(int numRows) {
+        var copy = new FloatEdgeDataColumn(numRows);
+        for (int i = 0; i < numRows; i++) {
+            if (rows[i] != null) {
+                copy.rows[i] = Arrays.copyOf(rows[i], rows[i].length);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(rows);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return Arrays.deepEquals(rows, ((FloatEdgeDataColumn) obj).rows);
+    }
+}
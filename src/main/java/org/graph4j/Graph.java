@@ -18,6 +18,7 @@ package org.graph4j;
 
 import java.util.Collection;
 import java.util.Objects;
+import java.util.function.IntConsumer;
 import org.graph4j.util.VertexSet;
 
 /**
@@ -294,6 +295,80 @@ public interface Graph<V, E> extends Weighted, Labeled<V, E> {
      */
     NeighborIterator<E> neighborIterator(int v, int pos);
 
+    /**
+     * Returns the neighbor of a vertex found at a specified position in its
+     * adjacency list. Together with {@link #degree(int)}, this method allows
+     * iterating over the neighbors of a vertex without creating any objects.
+     * In case of pseudographs, the degree of a vertex also counts its self
+     * loops, so it may be larger than the size of its adjacency list.
+     *
+     * @param v a vertex number.
+     * @param pos a position in the adjacency list of {@code v}.
+     * @return the neighbor of {@code v} at the position {@code pos}.
+     */
+    default int neighborAt(int v, int pos) {
+        var it = neighborIterator(v, pos - 1);
+        if (!it.hasNext()) {
+            throw new IllegalArgumentException("Invalid position in the adjacency list of " + v + ": " + pos);
+        }
+        return it.next();
+    }
+
+    /**
+     * Performs the given action for each neighbor of a vertex, in the order
+     * they appear in its adjacency list. It is the most efficient way to
+     * iterate over the neighbors of a vertex, when no information regarding
+     * the edges is required. The action must not modify the graph.
+     *
+     * In case of directed graphs, the action is performed for each successor.
+     *
+     * @param v a vertex number.
+     * @param action the action to be performed for each neighbor of {@code v}.
+     */
+    default void forEachNeighbor(int v, IntConsumer action) {
+        for (var it = neighborIterator(v); it.hasNext();) {
+            action.accept(it.next());
+        }
+    }
+
+    /**
+     * Performs the given action for each edge incident with a vertex, in the
+     * order of its adjacency list. The action receives {@code v}, the neighbor
+     * and the weight of the edge as primitive values, so no {@code Edge}
+     * objects are created. The action must not modify the graph.
+     *
+     * In case of directed graphs, the action is performed for each edge
+     * outgoing from {@code v}.
+     *
+     * @param v a vertex number.
+     * @param action the action to be performed for each edge of {@code v}.
+     */
+    default void forEachEdgeOf(int v, EdgeConsumer action) {
+        for (var it = neighborIterator(v); it.hasNext();) {
+            int u = it.next();
+            action.accept(v, u, it.getEdgeWeight());
+        }
+    }
+
+    /**
+     * Performs the given action for each edge of the graph. In case of
+     * undirected graphs, each edge is visited once, having as source the
+     * endpoint with the smaller number. The action must not modify the graph.
+     *
+     * @param action the action to be performed for each edge of the graph.
+     */
+    default void forEachEdge(EdgeConsumer action) {
+        boolean directed = isDirected();
+        for (int v : vertices()) {
+            for (var it = neighborIterator(v); it.hasNext();) {
+                int u = it.next();
+                if (directed || v <= u) {
+                    action.accept(v, u, it.getEdgeWeight());
+                }
+            }
+        }
+    }
+
     /**
      * Returns the first position of u in the neighbor list of v.
      *
@@ -590,6 +665,52 @@ public interface Graph<V, E> extends Weighted, Labeled<V, E> {
      */
     Graph<V, E> copy();
 
+    /**
+     * Creates and returns a read-only copy of the graph, using a compact
+     * representation in which the adjacency lists of all vertices are stored
+     * contiguously, in a single array (compressed sparse row). The adjacency
+     * list of each vertex is sorted, so the positions of the neighbors may
+     * differ from the ones in this graph.
+     *
+     * The frozen graph requires less memory and offers faster access to the
+     * neighbors of a vertex, so it should be preferred when the graph is
+     * created once and then analyzed by various algorithms. Any attempt to
+     * modify it throws an {@code UnsupportedOperationException}. The methods
+     * creating copies of the frozen graph return mutable graphs.
+     *
+     * If the graph is already read-only, the method returns it. The default
+     * implementation copies the vertices and the edges of the graph into a
+     * new graph of the same type, which is then frozen.
+     *
+     * @return a read-only copy of the graph.
+     */
+    default Graph<V, E> freeze() {
+        var builder = GraphBuilder.verticesFrom(this);
+        boolean multi = isAllowingMultipleEdges();
+        boolean loops = isAllowingSelfLoops();
+        Graph<V, E> copy;
+        if (isDirected()) {
+            copy = loops ? builder.buildDirectedPseudograph()
+                    : multi ? builder.buildDirectedMultigraph() : builder.buildDigraph();
+        } else {
+            copy = loops ? builder.buildPseudograph()
+                    : multi ? builder.buildMultigraph() : builder.buildGraph();
+        }
+        for (var it = edgeIterator(); it.hasNext();) {
+            copy.addEdge(it.next());
+        }
+        return copy.freeze();
+    }
+
+    /**
+     * Releases the resources held by this graph, such as off-heap memory or
+     * memory-mapped files (see {@link GraphSnapshot}). The graph must not be
+     * used after it has been closed, by any thread. For graphs stored in the
+     * Java heap, this method does nothing.
+     */
+    default void close() {
+    }
+
     /**
      * Creates and returns an identical copy of the graph, as a
      * {@link Multigraph} object. If the input graph is directed, so it will be
@@ -803,4 +924,36 @@ public interface Graph<V, E> extends Weighted, Labeled<V, E> {
      * @return the maximum number of values that can be stored on edges.
      */
     int getEdgeDataSize();
+
+    /**
+     * Sets the primitive type used to store the values of the specified edge
+     * data type. By default, all values are stored as {@code double}; storing
+     * integer capacities as {@code INT}, or weights as {@code FLOAT}, halves
+     * the memory they require. If the graph already contains values of this
+     * type, they are converted.
+     *
+     * @param dataType the edge data type (for example {@link #WEIGHT}).
+     * @param format the primitive type used to store the values.
+     * @throws IllegalArgumentException if the existing values cannot be
+     * represented in the specified format.
+     * @throws UnsupportedOperationException if the graph supports only the
+     * default format, {@code DOUBLE}, and another one is specified.
+     */
+    default void setEdgeDataFormat(int dataType, EdgeDataFormat format) {
+        if (format != EdgeDataFormat.DOUBLE) {
+            throw new UnsupportedOperationException(
+                    "Edge data can be stored only as double: " + format);
+        }
+    }
+
+    /**
+     * Returns the primitive type used to store the values of the specified
+     * edge data type.
+     *
+     * @param dataType the edge data type (for example {@link #WEIGHT}).
+     * @return the primitive type used to store the values.
+     */
+    default EdgeDataFormat getEdgeDataFormat(int dataType) {
+        return EdgeDataFormat.DOUBLE;
+    }
 }
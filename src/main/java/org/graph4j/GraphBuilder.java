@@ -209,6 +209,11 @@ public class GraphBuilder extends GraphBuilderBase {
         return (GraphBuilder) super.estimatedAvgDegree(avgDegree);
     }
 
+    @Override
+    public GraphBuilder fromEdgeArrays(int[] sources, int[] targets, double[] weights) {
+        return (GraphBuilder) super.fromEdgeArrays(sources, targets, weights);
+    }
+
     @Override
     public GraphBuilder estimatedNumEdges(long numEdges) {
         return (GraphBuilder) super.estimatedNumEdges(numEdges);
@@ -229,6 +234,11 @@ public class GraphBuilder extends GraphBuilderBase {
         return (GraphBuilder) super.edgeDataSize(edgeDataSize);
     }
 
+    @Override
+    public GraphBuilder edgeDataFormat(int dataType, EdgeDataFormat format) {
+        return (GraphBuilder) super.edgeDataFormat(dataType, format);
+    }
+
     @Override
     public GraphBuilder addEdge(Edge e) {
         return (GraphBuilder) super.addEdge(e);
@@ -288,6 +298,28 @@ public class GraphBuilder extends GraphBuilderBase {
         return (Digraph) build();
     }
 
+    /**
+     * Builds a read-only undirected graph, without multiple edges or self
+     * loops, using the compact representation described in
+     * {@link Graph#freeze()}.
+     *
+     * @return a read-only simple undirected graph.
+     */
+    public Graph buildCompactGraph() {
+        return build().freeze();
+    }
+
+    /**
+     * Builds a read-only directed graph, without multiple edges or self loops,
+     * using the compact representation described in {@link Graph#freeze()}.
+     *
+     * @return a read-only simple directed graph.
+     */
+    public Digraph buildCompactDigraph() {
+        directed = true;
+        return (Digraph) build().freeze();
+    }
+
     /**
      * Builds an undirected graph, without self loops, allowing multiple edges
      * between two vertices.
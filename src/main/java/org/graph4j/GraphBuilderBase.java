@@ -34,6 +34,7 @@ abstract class GraphBuilderBase {
     protected final List<Integer> dynamicVertices = new ArrayList<>();
     protected final Map<Object, Integer> vertexLabelMap = new HashMap<>();
     protected final Map<Integer, Double> vertexWeightMap = new HashMap<>();
+    protected final Map<Integer, EdgeDataFormat> edgeDataFormatMap = new HashMap<>();
     protected Integer maxVertices;
     protected Long numEdges;
     protected Integer avgDegree;
@@ -49,6 +50,9 @@ abstract class GraphBuilderBase {
     protected final List<int[]> paths = new ArrayList();
     protected final List<int[]> cycles = new ArrayList();
     protected final List<int[]> cliques = new ArrayList();
+    protected int[] edgeSources;
+    protected int[] edgeTargets;
+    protected double[] edgeWeights;
 
     protected GraphBuilderBase() {
     }
@@ -127,6 +131,19 @@ abstract class GraphBuilderBase {
         return this;
     }
 
+    /**
+     * Sets the primitive type used to store the values of an edge data type.
+     *
+     * @param dataType the edge data type (for example {@link Graph#WEIGHT}).
+     * @param format the primitive type used to store the values.
+     * @return a reference to this object.
+     * @see Graph#setEdgeDataFormat(int, EdgeDataFormat)
+     */
+    public GraphBuilderBase edgeDataFormat(int dataType, EdgeDataFormat format) {
+        edgeDataFormatMap.put(dataType, format);
+        return this;
+    }
+
     /**
      * Adds an edge to the graph, specified using its vertex numbers.
      *
@@ -233,6 +250,36 @@ abstract class GraphBuilderBase {
         return this;
     }
 
+    /**
+     * Adds the edges sources[i]-targets[i] to the graph, in bulk. The edges
+     * are not checked one by one: the degrees of the vertices are computed
+     * first, each adjacency list is allocated only once, with its exact size,
+     * and the multiple edges (if not allowed) are removed using a parallel
+     * sort. This is the recommended way to create large graphs.
+     *
+     * If the builder was created with no vertices, the vertices of the graph
+     * will be the numbers from 0 to the maximum endpoint of an edge.
+     *
+     * @param sources the first endpoints of the edges.
+     * @param targets the second endpoints of the edges.
+     * @param weights the weights of the edges, may be {@code null}.
+     * @return a reference to this object.
+     */
+    public GraphBuilderBase fromEdgeArrays(int[] sources, int[] targets, double[] weights) {
+        if (sources.length != targets.length || (weights != null && weights.length != sources.length)) {
+            throw new IllegalArgumentException("The edge arrays must have the same length.");
+        }
+        if (vertices.length == 0 && dynamicVertices.isEmpty()) {
+            int max = Math.max(IntStream.of(sources).max().orElse(-1),
+                    IntStream.of(targets).max().orElse(-1));
+            vertices = IntStream.rangeClosed(0, max).toArray();
+        }
+        this.edgeSources = sources;
+        this.edgeTargets = targets;
+        this.edgeWeights = weights;
+        return this;
+    }
+
     protected int getVertex(int v) {
         if (vertices.length > 0) {
             if (!IntArrays.contains(vertices, v)) {
@@ -337,9 +384,10 @@ abstract class GraphBuilderBase {
         if (maxVertices == null || maxVertices < max) {
             maxVertices = max + 1;
         }
-        if (!edges.isEmpty()) {
-            if (numEdges == null || numEdges < edges.size()) {
-                numEdges = (long) edges.size();
+        long count = edges.size() + (edgeSources == null ? 0 : edgeSources.length);
+        if (count > 0) {
+            if (numEdges == null || numEdges < count) {
+                numEdges = count;
             }
         }
         //number of edges
@@ -375,6 +423,12 @@ abstract class GraphBuilderBase {
         validate();
         var g = newInstance();
         g.setName(name);
+        for (var entry : edgeDataFormatMap.entrySet()) {
+            g.setEdgeDataFormat(entry.getKey(), entry.getValue());
+        }
+        if (edgeSources != null) {
+            g.addEdges(edgeSources, edgeTargets, edgeWeights);
+        }
 
         //weights
         for (int v : vertexWeightMap.keySet()) {
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 import static org.graph4j.Graph.DEFAULT_EDGE_WEIGHT;
 import static org.graph4j.Graph.WEIGHT;
@@ -56,7 +57,8 @@ class GraphImpl<V, E> implements Graph<V, E> {
     protected double[] vertexWeight;
     protected int vertexDataSize = 1;
 
-    protected double[][][] edgeData; //weight, cost, flow, etc.
+    protected EdgeDataColumn[] edgeData; //weight, cost, flow, etc.
+    protected EdgeDataFormat[] edgeDataFormat; //null means DOUBLE
     protected int edgeDataSize = 1;
     protected V[] vertexLabel;
     protected E[][] edgeLabel;
@@ -76,6 +78,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
     protected int avgDegree; //this may improve the memory allocation
     protected static final int DEFAULT_NUM_VERTICES = 100;
     protected static final int DEFAULT_AVG_DEGREE = 10;
+    static final int BULK_PARALLEL_THRESHOLD = 100_000;
     //
     protected boolean safeMode = true;
 
@@ -218,13 +221,16 @@ class GraphImpl<V, E> implements Graph<V, E> {
             copy.adjMap = new AdjacencyMap[numVertices];
         }
         if (edgeData != null && copyEdgeData) {
-            copy.edgeData = new double[edgeData.length][][];
+            copy.edgeData = new EdgeDataColumn[edgeData.length];
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    copy.edgeData[k] = new double[numVertices][];
+                    copy.edgeData[k] = edgeData[k].copy(numVertices);
                 }
             }
         }
+        if (edgeDataFormat != null) {
+            copy.edgeDataFormat = edgeDataFormat.clone();
+        }
         if (edgeLabel != null) {
             copy.edgeLabel = new Object[numVertices][];
         }
@@ -236,13 +242,6 @@ class GraphImpl<V, E> implements Graph<V, E> {
                 if (adjPos != null && adjPos[i] != null) {
                     copy.adjPos[i] = Arrays.copyOf(adjPos[i], adjPos[i].length);
                 }
-                if (edgeData != null && copyEdgeData) {
-                    for (int k = 0; k < copy.edgeData.length; k++) {
-                        if (edgeData[k] != null && edgeData[k][i] != null) {
-                            copy.edgeData[k][i] = Arrays.copyOf(edgeData[k][i], edgeData[k][i].length);
-                        }
-                    }
-                }
                 if (edgeLabel != null && edgeLabel[i] != null && copyEdgeLabels) {
                     copy.edgeLabel[i] = Arrays.copyOf(edgeLabel[i], edgeLabel[i].length);
                 }
@@ -267,6 +266,11 @@ class GraphImpl<V, E> implements Graph<V, E> {
         copy.maxVertexNumber = maxVertexNumber;
     }
 
+    @Override
+    public Graph<V, E> freeze() {
+        return new CompactGraphImpl<>(this);
+    }
+
     @Override
     public Multigraph copyAsMultigraph() {
         if (this instanceof Pseudograph) {
@@ -299,18 +303,11 @@ class GraphImpl<V, E> implements Graph<V, E> {
                     "The new edge data size cannot be smaller than the current one: "
                     + edgeDataSize + " < " + this.edgeDataSize);
         }
-        var copyEdgeData = new double[edgeDataSize][][];
-        for (int k = 0; k < edgeData.length; k++) {
-            if (edgeData[k] != null) {
-                copyEdgeData[k] = new double[numVertices][];
-                for (int i = 0; i < numVertices; i++) {
-                    if (edgeData[k][i] != null) {
-                        copyEdgeData[k][i] = Arrays.copyOf(edgeData[k][i], edgeData[k][i].length);
-                    }
-                }
-            }
+        this.edgeData = Arrays.copyOf(edgeData, edgeDataSize);
+        if (edgeDataFormat != null) {
+            edgeDataFormat = Arrays.copyOf(edgeDataFormat, edgeDataSize);
         }
-        this.edgeData = copyEdgeData;
+        this.edgeDataSize = edgeDataSize;
     }
 
     @Override
@@ -500,8 +497,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         if (edgeData != null) {
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    edgeData[k][i] = edgeData[k][lastPos];
-                    edgeData[k][lastPos] = null;
+                    edgeData[k].moveRow(lastPos, i);
                 }
             }
         }
@@ -611,6 +607,139 @@ class GraphImpl<V, E> implements Graph<V, E> {
         return numVertices * v + pos;
     }
 
+    //allocates the adjacency lists with the specified sizes, before adding edges
+    void allocateAdjLists(int[] sizes) {
+        for (int i = 0; i < numVertices; i++) {
+            if (sizes[i] > 0) {
+                adjList[i] = new int[sizes[i]];
+                if (adjPos != null) {
+                    adjPos[i] = new int[sizes[i]];
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the edges sources[e]-targets[e] to a graph that has no edges. The
+     * degrees are counted first, so that each adjacency list is allocated only
+     * once, with its exact size, and the lists are filled in a single pass.
+     * Self loops (if not allowed) are ignored; in case of multiple edges (if
+     * not allowed), only the first occurrence is added.
+     */
+    void addEdges(int[] sources, int[] targets, double[] weights) {
+        int m = sources.length;
+        if (targets.length != m || (weights != null && weights.length != m)) {
+            throw new IllegalArgumentException("The edge arrays must have the same length.");
+        }
+        if (numEdges > 0) {
+            throw new IllegalStateException("The graph must not contain any edges.");
+        }
+        int n = numVertices;
+        boolean parallel = m >= BULK_PARALLEL_THRESHOLD;
+        //vertex indices
+        int[] from = new int[m];
+        int[] to = new int[m];
+        var range = IntStream.range(0, m);
+        (parallel ? range.parallel() : range).forEach(e -> {
+            from[e] = indexOf(sources[e]);
+            to[e] = indexOf(targets[e]);
+            if (from[e] < 0) {
+                throw new InvalidVertexException(sources[e]);
+            }
+            if (to[e] < 0) {
+                throw new InvalidVertexException(targets[e]);
+            }
+        });
+        boolean[] skip = allowingMultipleEdges ? null : findMultipleEdges(from, to, parallel);
+        //count the degrees and allocate the lists
+        int[] sizes = new int[n];
+        for (int e = 0; e < m; e++) {
+            if (skip != null && skip[e] || !allowingSelfLoops && from[e] == to[e]) {
+                continue;
+            }
+            sizes[from[e]]++;
+            if (!directed && from[e] != to[e]) {
+                sizes[to[e]]++;
+            }
+        }
+        allocateAdjLists(sizes);
+        adjSet = null;
+        adjMap = null;
+        EdgeDataColumn w = null;
+        if (weights != null) {
+            int dataType = bulkDataType();
+            initEdgeData(dataType);
+            w = edgeData[dataType];
+        }
+        //fill the lists
+        for (int e = 0; e < m; e++) {
+            int vi = from[e];
+            int ui = to[e];
+            if (skip != null && skip[e] || !allowingSelfLoops && vi == ui) {
+                continue;
+            }
+            int posuv = degree[vi]++;
+            adjList[vi][posuv] = targets[e];
+            int posvu = -1;
+            if (vi == ui) {
+                posvu = posuv;
+            } else if (!directed) {
+                posvu = degree[ui]++;
+                adjList[ui][posvu] = sources[e];
+            }
+            if (adjPos != null) {
+                adjPos[vi][posuv] = posvu;
+                if (posvu >= 0) {
+                    adjPos[ui][posvu] = posuv;
+                }
+            }
+            if (w != null) {
+                w.set(vi, posuv, weights[e]);
+                if (posvu >= 0) {
+                    w.set(ui, posvu, weights[e]);
+                }
+            }
+            numEdges++;
+        }
+    }
+
+    //the type of the edge values given to addEdges
+    int bulkDataType() {
+        return WEIGHT;
+    }
+
+    //marks all the occurrences of an edge, except the first one,
+    //using a parallel sort of the edges grouped by their first endpoint
+    private boolean[] findMultipleEdges(int[] from, int[] to, boolean parallel) {
+        int m = from.length;
+        int n = numVertices;
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[(directed ? from[e] : Math.min(from[e], to[e])) + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        long[] keys = new long[m]; //second endpoint, edge position
+        for (int e = 0; e < m; e++) {
+            int a = directed ? from[e] : Math.min(from[e], to[e]);
+            int b = directed ? to[e] : Math.max(from[e], to[e]);
+            keys[next[a]++] = ((long) b << 32) | e;
+        }
+        var range = IntStream.range(0, n);
+        (parallel ? range.parallel() : range).forEach(i -> Arrays.sort(keys, offsets[i], offsets[i + 1]));
+        boolean[] skip = new boolean[m];
+        for (int i = 0; i < n; i++) {
+            for (int k = offsets[i] + 1; k < offsets[i + 1]; k++) {
+                if ((keys[k] >>> 32) == (keys[k - 1] >>> 32)) {
+                    skip[(int) keys[k]] = true;
+                }
+            }
+        }
+        return skip;
+    }
+
     //Adds u to the adjacency list of v
     protected int addToAdjList(int v, int u) {
         int vi = indexOf(v);
@@ -709,6 +838,16 @@ class GraphImpl<V, E> implements Graph<V, E> {
         if (adjMap != null && adjMap[vi] != null) {
             if (!allowingMultipleEdges || multiplicity(v, u) == 0) {
                 adjMap[vi].remove(u);
+            } else {
+                //the removed occurrence may be the one stored in the map
+                int posu = adjMap[vi].position(u);
+                if (posu >= degree[vi] || adjList[vi][posu] != u) {
+                    posu = 0;
+                    while (adjList[vi][posu] != u) {
+                        posu++;
+                    }
+                    adjMap[vi].add(u, posu);
+                }
             }
         }
     }
@@ -729,10 +868,16 @@ class GraphImpl<V, E> implements Graph<V, E> {
                 adjPos[wi][pos] = pos;
             }
         }
+        if (adjMap != null && adjMap[vi] != null) {
+            int w = adjList[vi][pos];
+            if (adjMap[vi].position(w) == lastPos) {
+                adjMap[vi].add(w, pos);
+            }
+        }
         if (edgeData != null) {
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    edgeData[k][vi][pos] = edgeData[k][vi][degree[vi] - 1];
+                    edgeData[k].set(vi, pos, edgeData[k].get(vi, degree[vi] - 1));
                 }
             }
         }
@@ -780,7 +925,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
             data = new Double[edgeData.length];
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    data[k] = edgeData[k][vi][pos];
+                    data[k] = edgeData[k].get(vi, pos);
                 }
             }
         }
@@ -855,6 +1000,49 @@ class GraphImpl<V, E> implements Graph<V, E> {
         return adjList[vi];
     }
 
+    @Override
+    public int neighborAt(int v, int pos) {
+        int vi = checkVertex(v);
+        if (pos < 0 || pos >= degree[vi]) {
+            throw new IllegalArgumentException("Invalid position in the adjacency list of " + v + ": " + pos);
+        }
+        return adjList[vi][pos];
+    }
+
+    @Override
+    public void forEachNeighbor(int v, IntConsumer action) {
+        int vi = checkVertex(v);
+        int[] adj = adjList[vi];
+        for (int pos = 0, deg = degree[vi]; pos < deg; pos++) {
+            action.accept(adj[pos]);
+        }
+    }
+
+    @Override
+    public void forEachEdgeOf(int v, EdgeConsumer action) {
+        int vi = checkVertex(v);
+        int[] adj = adjList[vi];
+        var weights = hasEdgeWeights() ? edgeData[WEIGHT] : null;
+        for (int pos = 0, deg = degree[vi]; pos < deg; pos++) {
+            action.accept(v, adj[pos], weights != null ? weights.get(vi, pos) : DEFAULT_EDGE_WEIGHT);
+        }
+    }
+
+    @Override
+    public void forEachEdge(EdgeConsumer action) {
+        var weights = hasEdgeWeights() ? edgeData[WEIGHT] : null;
+        for (int vi = 0; vi < numVertices; vi++) {
+            int v = vertices[vi];
+            int[] adj = adjList[vi];
+            for (int pos = 0, deg = degree[vi]; pos < deg; pos++) {
+                int u = adj[pos];
+                if (directed || v <= u) {
+                    action.accept(v, u, weights != null ? weights.get(vi, pos) : DEFAULT_EDGE_WEIGHT);
+                }
+            }
+        }
+    }
+
     private AdjacencySet getAdjSet(int vi) {
         if (adjSet == null) {
             adjSet = new AdjacencySet[vertices.length];
@@ -938,17 +1126,55 @@ class GraphImpl<V, E> implements Graph<V, E> {
     }
 
     protected void initEdgeData() {
-        this.edgeData = new double[edgeDataSize][][];
+        this.edgeData = new EdgeDataColumn[edgeDataSize];
     }
 
     protected void initEdgeData(int dataType) {
         if (edgeData == null) {
             initEdgeData();
         }
-        this.edgeData[dataType] = new double[vertices.length][];
+        var column = EdgeDataColumn.create(getEdgeDataFormat(dataType), vertices.length);
         for (int i = 0; i < numVertices; i++) {
-            this.edgeData[dataType][i] = adjList[i] == null ? null : new double[adjList[i].length];
+            if (adjList[i] != null) {
+                column.growRow(i, adjList[i].length);
+            }
         }
+        this.edgeData[dataType] = column;
+    }
+
+    @Override
+    public void setEdgeDataFormat(int dataType, EdgeDataFormat format) {
+        if (edgeData == null) {
+            initEdgeData();
+        }
+        if (dataType < 0 || dataType >= edgeData.length) {
+            throw new IllegalArgumentException("Invalid edge data type: " + dataType);
+        }
+        if (format == getEdgeDataFormat(dataType)) {
+            return;
+        }
+        if (hasEdgeData(dataType)) {
+            //convert the existing values
+            var column = EdgeDataColumn.create(format, vertices.length);
+            int[] lengths = new int[numVertices];
+            for (int i = 0; i < numVertices; i++) {
+                lengths[i] = adjList[i] == null ? 0 : adjList[i].length;
+            }
+            column.copyFrom(edgeData[dataType], lengths);
+            edgeData[dataType] = column;
+        }
+        if (edgeDataFormat == null) {
+            edgeDataFormat = new EdgeDataFormat[edgeData.length];
+        }
+        edgeDataFormat[dataType] = format;
+    }
+
+    @Override
+    public EdgeDataFormat getEdgeDataFormat(int dataType) {
+        if (edgeDataFormat == null || dataType >= edgeDataFormat.length || edgeDataFormat[dataType] == null) {
+            return EdgeDataFormat.DOUBLE;
+        }
+        return edgeDataFormat[dataType];
     }
 
     protected void initEdgeWeights() {
@@ -972,7 +1198,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         }
         for (int i = 0; i < numVertices; i++) {
             for (int pos = 0; pos < degree[i]; pos++) {
-                edgeData[dataType][i][pos] = value;
+                edgeData[dataType].set(i, pos, value);
             }
         }
     }
@@ -1030,9 +1256,9 @@ class GraphImpl<V, E> implements Graph<V, E> {
         int v = vertices[vi];
         int u = adjList[vi][pos];
         int ui = indexOf(u);
-        edgeData[dataType][vi][pos] = value;
+        edgeData[dataType].set(vi, pos, value);
         if (v != u && !directed) {
-            edgeData[dataType][ui][adjPos[vi][pos]] = value;
+            edgeData[dataType].set(ui, adjPos[vi][pos], value);
         }
         if (labelEdgeMap != null) {
             Edge e = labelEdgeMap.get(edgeLabel[vi][pos]);
@@ -1054,11 +1280,11 @@ class GraphImpl<V, E> implements Graph<V, E> {
         if (!hasEdgeData(dataType)) {
             return defaultValue;
         }
-        return edgeData[dataType][vi][pos];
+        return edgeData[dataType].get(vi, pos);
     }
 
     protected void incEdgeDataAt(int dataType, int vi, int pos, double amount) {
-        double value = hasEdgeData(dataType) ? edgeData[dataType][vi][pos] : 0;
+        double value = hasEdgeData(dataType) ? edgeData[dataType].get(vi, pos) : 0;
         setEdgeDataAt(dataType, vi, pos, value + amount);
     }
 
@@ -1067,7 +1293,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         checkEdge(v, u);
         int vi = indexOf(v);
         int pos = adjListPos(v, u);
-        double value = hasEdgeData(dataType) ? edgeData[dataType][vi][pos] : 0;
+        double value = hasEdgeData(dataType) ? edgeData[dataType].get(vi, pos) : 0;
         setEdgeDataAt(dataType, vi, pos, value + amount);
     }
 
@@ -1256,7 +1482,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         if (edgeData != null) {
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    edgeData[k] = Arrays.copyOf(edgeData[k], newLen);
+                    edgeData[k].resize(newLen);
                 }
             }
         }
@@ -1288,11 +1514,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         if (edgeData != null) {
             for (int k = 0; k < edgeData.length; k++) {
                 if (edgeData[k] != null) {
-                    if (edgeData[k][vi] != null) {
-                        edgeData[k][vi] = Arrays.copyOf(edgeData[k][vi], newLen);
-                    } else {
-                        edgeData[k][vi] = new double[newLen];
-                    }
+                    edgeData[k].growRow(vi, newLen);
                 }
             }
         }
@@ -1363,7 +1585,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
                     if (edgeData != null) {
                         for (int k = 0; k < edgeData.length; k++) {
                             if (edgeData[k] != null) {
-                                sub.setEdgeDataAt(k, subIdx, subPos, edgeData[k][graphIdx][graphPos]);
+                                sub.setEdgeDataAt(k, subIdx, subPos, edgeData[k].get(graphIdx, graphPos));
                             }
                         }
                     }
@@ -1423,7 +1645,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
                 }
                 int vi = indexOf(v); //same as in copy
                 for (int k = 0; k < edgeData.length; k++) {
-                    if (edgeData[k][vi] != null) {
+                    if (edgeData[k] != null && edgeData[k].hasRow(vi)) {
                         copy.incEdgeDataAt(k, vi, pos, it.getData(k));
                     }
                 }
@@ -1464,8 +1686,8 @@ class GraphImpl<V, E> implements Graph<V, E> {
             int newPos = addEdge(newVertex, adjList[vi][pos]);
             if (edgeData != null) {
                 for (int k = 0; k < edgeData.length; k++) {
-                    if (edgeData[k][vi] != null) {
-                        setEdgeDataAt(k, newVertexId, newPos, edgeData[k][vi][pos]);
+                    if (edgeData[k] != null && edgeData[k].hasRow(vi)) {
+                        setEdgeDataAt(k, newVertexId, newPos, edgeData[k].get(vi, pos));
                     }
                 }
             }
@@ -1503,8 +1725,8 @@ class GraphImpl<V, E> implements Graph<V, E> {
                     }
                     //cumulate edge data                    
                     for (int k = 0; k < edgeData.length; k++) {
-                        if (edgeData[k][vi] != null) {
-                            incEdgeDataAt(k, newVertexId, newPos, edgeData[k][vi][pos]);
+                        if (edgeData[k] != null && edgeData[k].hasRow(vi)) {
+                            incEdgeDataAt(k, newVertexId, newPos, edgeData[k].get(vi, pos));
                         }
                     }
                 }
@@ -1558,7 +1780,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
             for (int pos = 0, deg = degree[vi]; pos < deg; pos++) {
                 int u = adjList[vi][pos];
                 weight[vi][indexOf(u)]
-                        = hasEdgeWeights ? edgeData[WEIGHT][vi][pos] : DEFAULT_EDGE_WEIGHT;
+                        = hasEdgeWeights ? edgeData[WEIGHT].get(vi, pos) : DEFAULT_EDGE_WEIGHT;
             }
         }
         return weight;
@@ -1791,7 +2013,7 @@ class GraphImpl<V, E> implements Graph<V, E> {
         public double getEdgeData(int dataType, double defaultValue) {
             checkPos();
             if (hasEdgeData(dataType)) {
-                return edgeData[dataType][vi][pos];
+                return edgeData[dataType].get(vi, pos);
             }
             return defaultValue;
         }
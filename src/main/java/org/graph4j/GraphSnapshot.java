@@ -0,0 +1,801 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import org.graph4j.io.GraphFormatException;
+
+/**
+ * Writes graphs to, and loads graphs from, a compact binary format.
+ *
+ * The file contains a header, followed by the vertex numbers, the adjacency
+ * lists in CSR format (offsets and targets), the vertex weights and the edge
+ * data columns (weights, capacities, costs, etc.), if present. In case of
+ * directed graphs, the predecessor lists are also stored. The sections are
+ * aligned to 8 bytes and all the values are written in little-endian order.
+ *
+ * Loading a snapshot memory-maps the file, the resulting read-only graph
+ * accessing the data directly from the mapping, so it is usable without
+ * parsing or copying the adjacency lists into the heap. Only the vertex
+ * numbers are copied.
+ *
+ * The same representation may be created directly in off-heap memory, using
+ * {@link #offHeapCopy(Graph)}. In both cases, the graph data is not subject to
+ * garbage collection, so very large graphs do not increase the GC pauses, and
+ * the number of edges is not limited by the maximum size of a Java array.
+ * The memory is released when the graph is closed, using {@link Graph#close()}.
+ *
+ * Graphs too large for the heap may be created from their edges, given as
+ * arrays or produced in chunks by an {@link EdgeSource}, using
+ * {@link #write(Path, int, boolean, boolean, EdgeSource)} or
+ * {@link #offHeapGraph(int, boolean, boolean, EdgeSource)}. The adjacency and
+ * predecessor lists are written directly in the memory-mapped file (or in the
+ * direct buffers), only the offsets being kept in the heap.
+ *
+ * Vertex and edge labels are not stored.
+ *
+ * @author Cristian Frăsinaru
+ */
+public final class GraphSnapshot {
+
+    static final int MAGIC = 0x534A3447; //"G4JS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    //flags
+    static final int DIRECTED = 1;
+    static final int MULTIPLE_EDGES = 2;
+    static final int SELF_LOOPS = 4;
+    static final int CUSTOM_NUMBERING = 8;
+    static final int VERTEX_WEIGHTS = 16;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Writes the specified graph to a file, in binary format.
+     *
+     * @param graph the graph to be written.
+     * @param file the path of the file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(Graph graph, Path file) throws IOException {
+        new GraphWriter(graph).write(file);
+    }
+
+    /**
+     * Writes the graph having the vertices from 0 to {@code numVertices - 1}
+     * and the edges sources[i]-targets[i] to a file, in binary format. The
+     * graph is not created in memory: the adjacency lists are written directly
+     * in the memory-mapped file. Multiple edges and self loops are kept.
+     *
+     * @param file the path of the file.
+     * @param numVertices the number of vertices.
+     * @param directed specifies if the graph is directed.
+     * @param sources the first endpoints of the edges.
+     * @param targets the second endpoints of the edges.
+     * @param weights the weights of the edges, may be {@code null}.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(Path file, int numVertices, boolean directed,
+            int[] sources, int[] targets, double[] weights) throws IOException {
+        write(file, numVertices, directed, weights != null,
+                consumer -> consumer.accept(sources, targets, weights, sources.length));
+    }
+
+    /**
+     * Writes the graph having the vertices from 0 to {@code numVertices - 1}
+     * and the edges produced by the specified source to a file, in binary
+     * format. The edges are read twice, first for counting the degrees and
+     * then for writing the adjacency lists directly in the memory-mapped file,
+     * so only {@code O(numVertices)} heap memory is used. Multiple edges and
+     * self loops are kept.
+     *
+     * @param file the path of the file.
+     * @param numVertices the number of vertices.
+     * @param directed specifies if the graph is directed.
+     * @param weighted specifies if the edges have weights.
+     * @param edges the source of the edges.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(Path file, int numVertices, boolean directed, boolean weighted,
+            EdgeSource edges) throws IOException {
+        new EdgeWriter(numVertices, directed, weighted, edges).write(file);
+    }
+
+    /**
+     * Creates a read-only copy of the specified graph, stored in off-heap
+     * memory. If the graph is directed, the returned object is a
+     * {@link Digraph}. The memory is released by invoking {@link Graph#close()}
+     * on the returned graph.
+     *
+     * @param graph the graph to be copied.
+     * @return a read-only graph, stored outside the Java heap.
+     */
+    public static Graph offHeapCopy(Graph graph) {
+        try {
+            return new GraphWriter(graph).offHeap();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //not an actual I/O operation
+        }
+    }
+
+    /**
+     * Creates a read-only graph stored in off-heap memory, having the vertices
+     * from 0 to {@code numVertices - 1} and the edges produced by the
+     * specified source, without creating it in the heap first. The edges are
+     * read twice, as in {@link #write(Path, int, boolean, boolean, EdgeSource)}.
+     *
+     * @param numVertices the number of vertices.
+     * @param directed specifies if the graph is directed.
+     * @param weighted specifies if the edges have weights.
+     * @param edges the source of the edges.
+     * @return a read-only graph, stored outside the Java heap.
+     * @throws IOException if reading the edges fails.
+     */
+    public static Graph offHeapGraph(int numVertices, boolean directed, boolean weighted,
+            EdgeSource edges) throws IOException {
+        return new EdgeWriter(numVertices, directed, weighted, edges).offHeap();
+    }
+
+    /**
+     * Loads a graph from a file created by
+     * {@link #write(Graph, Path)}, by memory-mapping it. The returned graph is
+     * read-only. If the stored graph was directed, the returned object is a
+     * {@link Digraph}.
+     *
+     * @param file the path of the file.
+     * @return a read-only graph, backed by the file.
+     * @throws IOException if an I/O error occurs.
+     * @throws GraphFormatException if the file is not a valid snapshot.
+     */
+    public static Graph load(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new GraphFormatException("Invalid graph snapshot: the header is missing", 0);
+            }
+            var buf = ByteBuffer.allocate(HEADER_SIZE).order(BufferCompactStorage.ORDER);
+            readFully(channel, buf, 0);
+            var h = new Header();
+            if (buf.getInt(0) != MAGIC) {
+                throw new GraphFormatException("Invalid graph snapshot: wrong magic number", 0);
+            }
+            int version = buf.getInt(4);
+            if (version != VERSION) {
+                throw new GraphFormatException("Unsupported graph snapshot version: " + version, 0);
+            }
+            h.flags = buf.getInt(8);
+            h.numVertices = buf.getInt(12);
+            h.numEdges = buf.getLong(16);
+            h.numTargets = buf.getLong(24);
+            h.edgeDataSize = buf.getInt(32);
+            int nameLength = buf.getInt(36);
+            h.columnMask = buf.getLong(40);
+            if (h.numVertices < 0 || h.numTargets < 0 || h.edgeDataSize < 0 || h.edgeDataSize > 64) {
+                throw new GraphFormatException("Invalid graph snapshot: corrupted header", 0);
+            }
+            if (nameLength >= 0) {
+                var nameBuf = ByteBuffer.allocate(nameLength);
+                readFully(channel, nameBuf, HEADER_SIZE);
+                h.name = new String(nameBuf.array(), StandardCharsets.UTF_8);
+            }
+            h.layout();
+            if (fileSize < h.end) {
+                throw new GraphFormatException("Invalid graph snapshot: the file is truncated", 0);
+            }
+            return h.load((position, count, size)
+                    -> BufferCompactStorage.map(channel, FileChannel.MapMode.READ_ONLY, position, count, size));
+        }
+    }
+
+    /**
+     * Produces the edges of a graph, in one or more chunks.
+     */
+    @FunctionalInterface
+    public interface EdgeSource {
+
+        /**
+         * Passes all the edges to the specified consumer, in chunks. It may be
+         * invoked several times and it must produce the same edges each time.
+         *
+         * @param consumer the consumer of the chunks.
+         * @throws IOException if reading the edges fails.
+         */
+        void forEachChunk(EdgeChunkConsumer consumer) throws IOException;
+    }
+
+    /**
+     * Receives a chunk of edges: sources[i]-targets[i], for i from 0 to
+     * {@code length - 1}. The weights are {@code null} for unweighted graphs.
+     * The arrays may be reused after the method returns.
+     */
+    @FunctionalInterface
+    public interface EdgeChunkConsumer {
+
+        void accept(int[] sources, int[] targets, double[] weights, int length);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position + buf.position());
+            if (read < 0) {
+                throw new GraphFormatException("Invalid graph snapshot: unexpected end of file", 0);
+            }
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    //the header and the positions of the sections in the file
+    private static class Header {
+
+        int flags;
+        int numVertices;
+        long numEdges;
+        long numTargets;
+        int edgeDataSize;
+        long columnMask;
+        String name;
+        //
+        long vertices, selfLoops, vertexWeights, offsets, targets;
+        long[] columns;
+        long predOffsets, predSources, predIndex;
+        long end;
+
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+
+        byte[] nameBytes() {
+            return name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        void layout() {
+            int n = numVertices;
+            byte[] bytes = nameBytes();
+            long pos = align(HEADER_SIZE + (bytes == null ? 0 : bytes.length));
+            vertices = pos;
+            if (has(CUSTOM_NUMBERING)) {
+                pos = align(pos + 4L * n);
+            }
+            selfLoops = pos;
+            if (has(SELF_LOOPS)) {
+                pos = align(pos + 4L * n);
+            }
+            vertexWeights = pos;
+            if (has(VERTEX_WEIGHTS)) {
+                pos += 8L * n;
+            }
+            offsets = pos;
+            pos += 8L * (n + 1);
+            targets = pos;
+            pos = align(pos + 4 * numTargets);
+            columns = new long[edgeDataSize];
+            for (int k = 0; k < edgeDataSize; k++) {
+                columns[k] = -1;
+                if ((columnMask & (1L << k)) != 0) {
+                    columns[k] = pos;
+                    pos += 8 * numTargets;
+                }
+            }
+            if (has(DIRECTED)) {
+                predOffsets = pos;
+                pos += 8L * (n + 1);
+                predSources = pos;
+                pos = align(pos + 4 * numTargets);
+                predIndex = pos;
+                pos += 8 * numTargets;
+            }
+            end = pos;
+        }
+
+        Graph load(Input in) throws IOException {
+            int n = numVertices;
+            int[] vertexArray = new int[n];
+            if (has(CUSTOM_NUMBERING)) {
+                copy(BufferCompactStorage.ints(in.map(vertices, n, Integer.BYTES)), vertexArray);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    vertexArray[i] = i;
+                }
+            }
+            int[] selfLoopArray = null;
+            if (has(SELF_LOOPS)) {
+                selfLoopArray = new int[n];
+                copy(BufferCompactStorage.ints(in.map(selfLoops, n, Integer.BYTES)), selfLoopArray);
+            }
+            var st = new BufferCompactStorage();
+            st.offsets = BufferCompactStorage.longs(st.own(in.map(offsets, n + 1, Long.BYTES)));
+            st.targets = BufferCompactStorage.ints(st.own(in.map(targets, numTargets, Integer.BYTES)));
+            if (has(VERTEX_WEIGHTS)) {
+                st.vertexWeight = BufferCompactStorage.doubles(st.own(in.map(vertexWeights, n, Double.BYTES)));
+            }
+            st.edgeData = new DoubleBuffer[edgeDataSize][];
+            for (int k = 0; k < edgeDataSize; k++) {
+                if (columns[k] >= 0) {
+                    st.edgeData[k] = BufferCompactStorage.doubles(st.own(in.map(columns[k], numTargets, Double.BYTES)));
+                }
+            }
+            if (has(DIRECTED)) {
+                st.predOffsets = BufferCompactStorage.longs(st.own(in.map(predOffsets, n + 1, Long.BYTES)));
+                st.predSources = BufferCompactStorage.ints(st.own(in.map(predSources, numTargets, Integer.BYTES)));
+                st.predIndex = BufferCompactStorage.longs(st.own(in.map(predIndex, numTargets, Long.BYTES)));
+                return new CompactDigraphImpl<>(name, vertexArray, numEdges,
+                        has(MULTIPLE_EDGES), has(SELF_LOOPS), edgeDataSize, selfLoopArray, st);
+            }
+            return new CompactGraphImpl<>(name, vertexArray, numEdges, false,
+                    has(MULTIPLE_EDGES), has(SELF_LOOPS), edgeDataSize, selfLoopArray, st);
+        }
+
+        private void copy(IntBuffer[] src, int[] dst) {
+            int pos = 0;
+            for (var buf : src) {
+                int len = buf.remaining();
+                buf.get(dst, pos, len);
+                pos += len;
+            }
+        }
+    }
+
+    //provides the buffers containing a section
+    @FunctionalInterface
+    private interface Input {
+
+        ByteBuffer[] map(long position, long count, int size) throws IOException;
+    }
+
+    //writing a section, value by value
+    private static class Section {
+
+        final ByteBuffer[] segments;
+        int s;
+
+        Section(ByteBuffer[] segments) {
+            this.segments = segments;
+        }
+
+        ByteBuffer current() {
+            if (!segments[s].hasRemaining()) {
+                s++;
+            }
+            return segments[s];
+        }
+
+        void putInt(int value) {
+            current().putInt(value);
+        }
+
+        void putLong(long value) {
+            current().putLong(value);
+        }
+
+        void putDouble(double value) {
+            current().putDouble(value);
+        }
+    }
+
+    //writes the sections of a snapshot, in a memory-mapped file or in direct buffers
+    private abstract static class Writer {
+
+        final Header h = new Header();
+        FileChannel channel; //null if writing off-heap
+        final Map<Long, ByteBuffer[]> buffers = new HashMap<>();
+
+        //computes the header
+        abstract void prepare() throws IOException;
+
+        abstract void writeSections() throws IOException;
+
+        void write(Path file) throws IOException {
+            prepare();
+            try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                this.channel = channel;
+                //the file must have its final size before being mapped
+                channel.write(ByteBuffer.allocate(1), h.end - 1);
+                writeHeader();
+                writeSections();
+            } finally {
+                release(buffers.values());
+                buffers.clear();
+            }
+        }
+
+        //the sections are written in direct buffers, identified by their position
+        Graph offHeap() throws IOException {
+            prepare();
+            try {
+                writeSections();
+            } catch (IOException | RuntimeException e) {
+                release(buffers.values());
+                throw e;
+            }
+            return h.load((position, count, size) -> buffers.get(position));
+        }
+
+        private void release(Collection<ByteBuffer[]> segments) {
+            for (var buf : segments) {
+                BufferCompactStorage.release(buf);
+            }
+        }
+
+        //the buffers of the section starting at the specified position
+        ByteBuffer[] region(long position, long count, int size) throws IOException {
+            var segments = channel != null
+                    ? BufferCompactStorage.map(channel, FileChannel.MapMode.READ_WRITE, position, count, size)
+                    : BufferCompactStorage.allocate(count, size);
+            buffers.put(position, segments);
+            return segments;
+        }
+
+        Section section(long position, long count, int size) throws IOException {
+            return new Section(region(position, count, size));
+        }
+
+        void writeHeader() throws IOException {
+            var out = ByteBuffer.allocate(HEADER_SIZE).order(BufferCompactStorage.ORDER);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(h.flags);
+            out.putInt(h.numVertices);
+            out.putLong(h.numEdges);
+            out.putLong(h.numTargets);
+            out.putInt(h.edgeDataSize);
+            byte[] name = h.nameBytes();
+            out.putInt(name == null ? -1 : name.length);
+            out.putLong(h.columnMask);
+            out.putLong(0);
+            out.putLong(0);
+            writeFully(out.flip(), 0);
+            if (name != null) {
+                writeFully(ByteBuffer.wrap(name), HEADER_SIZE);
+            }
+        }
+
+        private void writeFully(ByteBuffer buf, long position) throws IOException {
+            while (buf.hasRemaining()) {
+                channel.write(buf, position + buf.position());
+            }
+        }
+
+        void writeLongs(long position, long[] values) throws IOException {
+            var out = section(position, values.length, Long.BYTES);
+            for (long value : values) {
+                out.putLong(value);
+            }
+        }
+
+        void writeInts(long position, int[] values) throws IOException {
+            var out = section(position, values.length, Integer.BYTES);
+            for (int value : values) {
+                out.putInt(value);
+            }
+        }
+
+        //the predecessor lists of a digraph, computed from its adjacency lists
+        void writePredecessors(long[] offsets, int[] predCount,
+                IntUnaryOperator vertexAt, IntUnaryOperator indexOf) throws IOException {
+            int n = h.numVertices;
+            long[] predOffsets = new long[n + 1];
+            for (int i = 0; i < n; i++) {
+                predOffsets[i + 1] = predOffsets[i] + predCount[i];
+            }
+            writeLongs(h.predOffsets, predOffsets);
+            var targets = buffers.get(h.targets);
+            var predSources = region(h.predSources, h.numTargets, Integer.BYTES);
+            var predIndex = region(h.predIndex, h.numTargets, Long.BYTES);
+            long[] next = predOffsets; //the next free slot of each list
+            for (int i = 0; i < n; i++) {
+                int v = vertexAt.applyAsInt(i);
+                for (long idx = offsets[i]; idx < offsets[i + 1]; idx++) {
+                    int u = BufferCompactStorage.getInt(targets, idx);
+                    long slot = next[indexOf.applyAsInt(u)]++;
+                    BufferCompactStorage.putInt(predSources, slot, v);
+                    BufferCompactStorage.putLong(predIndex, slot, idx);
+                }
+            }
+        }
+    }
+
+    //writes an existing graph
+    private static class GraphWriter extends Writer {
+
+        final Graph graph;
+        final int n;
+        long[] offsets;
+        int[] predCount;
+
+        GraphWriter(Graph graph) {
+            this.graph = graph;
+            this.n = graph.numVertices();
+        }
+
+        @Override
+        void prepare() {
+            h.numVertices = n;
+            h.numEdges = graph.numEdges();
+            h.name = graph.getName();
+            boolean directed = graph.isDirected();
+            h.flags = (directed ? DIRECTED : 0)
+                    | (graph.isAllowingMultipleEdges() ? MULTIPLE_EDGES : 0)
+                    | (graph.isAllowingSelfLoops() ? SELF_LOOPS : 0)
+                    | (graph.isDefaultVertexNumbering() ? 0 : CUSTOM_NUMBERING)
+                    | (graph.hasVertexWeights() ? VERTEX_WEIGHTS : 0);
+            h.edgeDataSize = graph instanceof Network
+                    ? Math.max(graph.getEdgeDataSize(), Network.FLOW + 1) : graph.getEdgeDataSize();
+            if (h.edgeDataSize > 64) {
+                throw new UnsupportedOperationException("Too many edge data types: " + h.edgeDataSize);
+            }
+            for (int k = 0; k < h.edgeDataSize; k++) {
+                if (graph.hasEdgeData(k)) {
+                    h.columnMask |= 1L << k;
+                }
+            }
+            offsets = new long[n + 1];
+            if (directed) {
+                predCount = new int[n];
+            }
+            int[] count = new int[1];
+            for (int i = 0; i < n; i++) {
+                count[0] = 0;
+                graph.forEachNeighbor(graph.vertexAt(i), u -> {
+                    count[0]++;
+                    if (predCount != null) {
+                        predCount[graph.indexOf(u)]++;
+                    }
+                });
+                offsets[i + 1] = offsets[i] + count[0];
+            }
+            h.numTargets = offsets[n];
+            h.layout();
+        }
+
+        @Override
+        void writeSections() throws IOException {
+            if (h.has(CUSTOM_NUMBERING)) {
+                writeInts(h.vertices, graph.vertices());
+            }
+            if (h.has(VERTEX_WEIGHTS)) {
+                var out = section(h.vertexWeights, n, Double.BYTES);
+                for (int i = 0; i < n; i++) {
+                    out.putDouble(graph.getVertexWeight(graph.vertexAt(i)));
+                }
+            }
+            writeLongs(h.offsets, offsets);
+            writeAdjacency();
+            if (predCount != null) {
+                writePredecessors(offsets, predCount, graph::vertexAt, graph::indexOf);
+            }
+        }
+
+        //targets and edge data, in a single pass over the graph
+        void writeAdjacency() throws IOException {
+            var targetOut = section(h.targets, h.numTargets, Integer.BYTES);
+            var columnOut = new Section[h.edgeDataSize];
+            for (int k = 0; k < h.edgeDataSize; k++) {
+                if (h.columns[k] >= 0) {
+                    columnOut[k] = section(h.columns[k], h.numTargets, Double.BYTES);
+                }
+            }
+            Section selfLoopOut = h.has(SELF_LOOPS) ? section(h.selfLoops, n, Integer.BYTES) : null;
+            int[] adj = new int[16];
+            double[][] data = new double[h.edgeDataSize][16];
+            long[] keys = new long[16];
+            for (int i = 0; i < n; i++) {
+                int v = graph.vertexAt(i);
+                int deg = (int) (offsets[i + 1] - offsets[i]);
+                if (adj.length < deg) {
+                    adj = new int[deg];
+                    keys = new long[deg];
+                    for (int k = 0; k < h.edgeDataSize; k++) {
+                        data[k] = new double[deg];
+                    }
+                }
+                int j = 0;
+                for (var it = graph.neighborIterator(v); it.hasNext(); j++) {
+                    adj[j] = it.next();
+                    for (int k = 0; k < h.edgeDataSize; k++) {
+                        if (columnOut[k] != null) {
+                            data[k][j] = it.getEdgeData(k);
+                        }
+                    }
+                    keys[j] = ((long) adj[j] << 32) | j;
+                }
+                Arrays.sort(keys, 0, deg);
+                for (j = 0; j < deg; j++) {
+                    targetOut.putInt((int) (keys[j] >>> 32));
+                }
+                for (int k = 0; k < h.edgeDataSize; k++) {
+                    if (columnOut[k] != null) {
+                        for (j = 0; j < deg; j++) {
+                            columnOut[k].putDouble(data[k][(int) keys[j]]);
+                        }
+                    }
+                }
+                if (selfLoopOut != null) {
+                    selfLoopOut.putInt(graph.degree(v) - deg);
+                }
+            }
+        }
+    }
+
+    //writes a graph given by its edges, in two passes over them
+    private static class EdgeWriter extends Writer {
+
+        final int n;
+        final boolean directed;
+        final boolean weighted;
+        final EdgeSource edges;
+        long[] offsets;
+        int[] selfLoopCount;
+        int[] predCount;
+
+        EdgeWriter(int numVertices, boolean directed, boolean weighted, EdgeSource edges) {
+            if (numVertices < 0) {
+                throw new IllegalArgumentException("Invalid number of vertices: " + numVertices);
+            }
+            this.n = numVertices;
+            this.directed = directed;
+            this.weighted = weighted;
+            this.edges = edges;
+        }
+
+        //the first pass counts the degrees
+        @Override
+        void prepare() throws IOException {
+            h.numVertices = n;
+            h.flags = (directed ? DIRECTED : 0) | MULTIPLE_EDGES | SELF_LOOPS;
+            h.edgeDataSize = 1;
+            h.columnMask = weighted ? 1L << Graph.WEIGHT : 0;
+            long[] degree = new long[n + 1];
+            selfLoopCount = new int[n];
+            if (directed) {
+                predCount = new int[n];
+            }
+            edges.forEachChunk((sources, targets, weights, length) -> {
+                checkChunk(sources, targets, weights, length);
+                for (int e = 0; e < length; e++) {
+                    int v = sources[e], u = targets[e];
+                    checkVertex(v);
+                    checkVertex(u);
+                    degree[v + 1]++;
+                    if (v == u) {
+                        selfLoopCount[v]++;
+                    } else if (directed) {
+                        predCount[u]++;
+                    } else {
+                        degree[u + 1]++;
+                    }
+                    h.numEdges++;
+                }
+            });
+            if (directed) {
+                for (int v = 0; v < n; v++) {
+                    predCount[v] += selfLoopCount[v];
+                }
+            }
+            offsets = degree;
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            h.numTargets = offsets[n];
+            h.layout();
+        }
+
+        private void checkChunk(int[] sources, int[] targets, double[] weights, int length) {
+            if (sources.length < length || targets.length < length
+                    || (weights != null && weights.length < length)) {
+                throw new IllegalArgumentException("The chunk arrays are too short: " + length);
+            }
+            if (weighted && weights == null) {
+                throw new IllegalArgumentException("The edge weights are missing.");
+            }
+        }
+
+        private void checkVertex(int v) {
+            if (v < 0 || v >= n) {
+                throw new InvalidVertexException(v);
+            }
+        }
+
+        //the second pass places the edges in the adjacency lists
+        @Override
+        void writeSections() throws IOException {
+            writeLongs(h.offsets, offsets);
+            writeInts(h.selfLoops, selfLoopCount);
+            var targetBuf = region(h.targets, h.numTargets, Integer.BYTES);
+            var weightBuf = weighted ? region(h.columns[Graph.WEIGHT], h.numTargets, Double.BYTES) : null;
+            long[] next = Arrays.copyOf(offsets, n);
+            edges.forEachChunk((sources, targets, weights, length) -> {
+                checkChunk(sources, targets, weights, length);
+                for (int e = 0; e < length; e++) {
+                    int v = sources[e], u = targets[e];
+                    checkVertex(v);
+                    checkVertex(u);
+                    put(targetBuf, weightBuf, next, v, u, weighted ? weights[e] : 0);
+                    if (!directed && v != u) {
+                        put(targetBuf, weightBuf, next, u, v, weighted ? weights[e] : 0);
+                    }
+                }
+            });
+            for (int i = 0; i < n; i++) {
+                if (next[i] != offsets[i + 1]) {
+                    throw new IllegalStateException("The edge source produced different edges.");
+                }
+            }
+            sortAdjacency(targetBuf, weightBuf);
+            if (directed) {
+                writePredecessors(offsets, predCount, IntUnaryOperator.identity(), IntUnaryOperator.identity());
+            }
+        }
+
+        private void put(ByteBuffer[] targetBuf, ByteBuffer[] weightBuf, long[] next,
+                int v, int u, double weight) {
+            if (next[v] == offsets[v + 1]) {
+                throw new IllegalStateException("The edge source produced different edges.");
+            }
+            long idx = next[v]++;
+            BufferCompactStorage.putInt(targetBuf, idx, u);
+            if (weightBuf != null) {
+                BufferCompactStorage.putDouble(weightBuf, idx, weight);
+            }
+        }
+
+        //each adjacency list is sorted in place, together with the weights
+        private void sortAdjacency(ByteBuffer[] targetBuf, ByteBuffer[] weightBuf) {
+            long[] keys = new long[16];
+            double[] weights = new double[16];
+            for (int i = 0; i < n; i++) {
+                long start = offsets[i];
+                int deg = (int) (offsets[i + 1] - start);
+                if (keys.length < deg) {
+                    keys = new long[deg];
+                    weights = new double[deg];
+                }
+                for (int j = 0; j < deg; j++) {
+                    keys[j] = ((long) BufferCompactStorage.getInt(targetBuf, start + j) << 32) | j;
+                    if (weightBuf != null) {
+                        weights[j] = BufferCompactStorage.getDouble(weightBuf, start + j);
+                    }
+                }
+                Arrays.sort(keys, 0, deg);
+                for (int j = 0; j < deg; j++) {
+                    BufferCompactStorage.putInt(targetBuf, start + j, (int) (keys[j] >>> 32));
+                    if (weightBuf != null) {
+                        BufferCompactStorage.putDouble(weightBuf, start + j, weights[(int) keys[j]]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -186,6 +186,21 @@ public class NetworkBuilder extends GraphBuilderBase {
         return (NetworkBuilder) super.estimatedAvgDegree(avgDegree);
     }
 
+    /**
+     * Adds the arcs sources[i]-targets[i] to the network, in bulk. As for
+     * {@link Network#addEdge(int, int, double)}, the values are the
+     * capacities of the arcs, not their weights.
+     *
+     * @param sources the tails of the arcs.
+     * @param targets the heads of the arcs.
+     * @param capacities the capacities of the arcs, may be {@code null}.
+     * @return a reference to this object.
+     */
+    @Override
+    public NetworkBuilder fromEdgeArrays(int[] sources, int[] targets, double[] capacities) {
+        return (NetworkBuilder) super.fromEdgeArrays(sources, targets, capacities);
+    }
+
     @Override
     public NetworkBuilder estimatedNumEdges(long numEdges) {
         return (NetworkBuilder) super.estimatedNumEdges(numEdges);
@@ -206,6 +221,11 @@ public class NetworkBuilder extends GraphBuilderBase {
         return (NetworkBuilder) super.edgeDataSize(edgeDataSize);
     }
 
+    @Override
+    public NetworkBuilder edgeDataFormat(int dataType, EdgeDataFormat format) {
+        return (NetworkBuilder) super.edgeDataFormat(dataType, format);
+    }
+
     @Override
     public NetworkBuilder addEdge(Edge e) {
         return (NetworkBuilder) super.addEdge(e);
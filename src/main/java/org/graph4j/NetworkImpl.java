@@ -69,7 +69,7 @@ class NetworkImpl<V, E> extends DigraphImpl<V, E> implements Network<V, E> {
     @Override
     protected void initEdgeData() {
         //WEIGHT(0), CAPACITY(1), COST(2), FLOW(3)
-        this.edgeData = new double[4][][];
+        this.edgeData = new EdgeDataColumn[4];
 
     }
 
@@ -83,6 +83,23 @@ class NetworkImpl<V, E> extends DigraphImpl<V, E> implements Network<V, E> {
         return pos;
     }
 
+    @Override
+    void addEdges(int[] sources, int[] targets, double[] capacities) {
+        if (capacities != null) {
+            for (double capacity : capacities) {
+                if (capacity < 0) {
+                    throw new IllegalArgumentException("Capacity must be non-negative: " + capacity);
+                }
+            }
+        }
+        super.addEdges(sources, targets, capacities);
+    }
+
+    @Override
+    int bulkDataType() {
+        return CAPACITY;
+    }
+
     @Override
     public int addLabeledEdge(int v, int u, E label, double capacity) {
         int pos = addLabeledEdge(v, u, label);
@@ -84,11 +84,24 @@ class PseudographImpl<V, E> extends MultigraphImpl<V, E> implements Pseudograph<
         return pos;
     }
 
+    @Override
+    void addEdges(int[] sources, int[] targets, double[] weights) {
+        super.addEdges(sources, targets, weights);
+        //count the self loops added in bulk
+        for (int vi = 0; vi < numVertices; vi++) {
+            for (int pos = 0; pos < degree[vi]; pos++) {
+                if (adjList[vi][pos] == vertices[vi]) {
+                    selfLoops.put(vertices[vi], selfLoops.getOrDefault(vertices[vi], 0) + 1);
+                }
+            }
+        }
+    }
+
     @Override
     protected void removeEdgeAt(int vi, int pos) {
-        super.removeEdgeAt(vi, pos);
         int v = vertices[vi];
         int u = adjList[vi][pos];
+        super.removeEdgeAt(vi, pos);
         if (v == u) {
             selfLoops.put(v, selfLoops.get(v) - 1);
         }
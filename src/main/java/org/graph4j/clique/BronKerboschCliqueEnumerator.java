@@ -0,0 +1,456 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.clique;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.graph4j.Graph;
+import org.graph4j.SimpleGraphAlgorithm;
+import org.graph4j.util.Clique;
+
+/**
+ * Enumerates all the maximal cliques of a graph, delivering them to a
+ * consumer, sequentially or in parallel.
+ *
+ * The vertices are taken in a degeneracy ordering. For each vertex v, a
+ * subproblem determines the maximal cliques containing v whose other vertices
+ * are neighbors of v that come later in the ordering, using Bron-Kerbosch
+ * algorithm with Tomita pivoting. The sets of a subproblem are stored as
+ * bitsets over the neighbors of v, so that the intersections and the choice of
+ * the pivot operate on 64 vertices at a time. Subproblems that are too large
+ * (vertices of very high degree) are first split using sorted arrays of
+ * vertices. In parallel mode, the subproblems are processed by the common
+ * fork-join pool.
+ *
+ * D. Eppstein, M. Löffler, D. Strash, "Listing all maximal cliques in sparse
+ * graphs in near-optimal time", ISAAC 2010.
+ *
+ * E. Tomita, A. Tanaka, H. Takahashi, "The worst-case time complexity for
+ * generating all maximal cliques and computational experiments", Theoretical
+ * Computer Science 363 (2006) 28-42.
+ *
+ * @see BronKerboschCliqueIterator
+ * @author Cristian Frăsinaru
+ */
+public class BronKerboschCliqueEnumerator extends SimpleGraphAlgorithm {
+
+    static final int DENSE_LIMIT = 4096; //the maximum size of a subproblem using bitsets
+
+    private final boolean parallel;
+    private final int n;
+    private int[] adjStart, adj; //the sorted neighbors, as indices, in CSR format
+    private int[] order; //the degeneracy ordering, as indices
+    private int[] rank; //the positions of the vertices in the ordering
+    private ThreadLocal<Workspace> workspaces;
+
+    //receives a clique as an array of vertex indices
+    private interface CliqueSink {
+
+        void accept(int[] clique, int size);
+    }
+
+    /**
+     * Creates a sequential enumerator.
+     *
+     * @param graph the input graph.
+     */
+    public BronKerboschCliqueEnumerator(Graph graph) {
+        this(graph, false);
+    }
+
+    /**
+     *
+     * @param graph the input graph.
+     * @param parallel {@code true} if the cliques should be enumerated in
+     * parallel.
+     */
+    public BronKerboschCliqueEnumerator(Graph graph, boolean parallel) {
+        super(graph);
+        this.parallel = parallel;
+        this.n = graph.numVertices();
+    }
+
+    /**
+     * Invokes the consumer for each maximal clique of the graph. In parallel
+     * mode, the consumer may be invoked concurrently by multiple threads.
+     *
+     * @param consumer the consumer of the cliques.
+     */
+    public void forEach(Consumer<Clique> consumer) {
+        Objects.requireNonNull(consumer);
+        run((clique, size) -> {
+            int[] vertices = new int[size];
+            for (int i = 0; i < size; i++) {
+                vertices[i] = graph.vertexAt(clique[i]);
+            }
+            consumer.accept(new Clique(graph, vertices));
+        });
+    }
+
+    /**
+     *
+     * @return the maximal cliques of the graph.
+     */
+    public List<Clique> getCliques() {
+        if (!parallel) {
+            List<Clique> cliques = new ArrayList<>();
+            forEach(cliques::add);
+            return cliques;
+        }
+        List<Clique> cliques = Collections.synchronizedList(new ArrayList<>());
+        forEach(cliques::add);
+        return new ArrayList<>(cliques);
+    }
+
+    /**
+     * Counts the maximal cliques, without creating them.
+     *
+     * @return the number of maximal cliques of the graph.
+     */
+    public long count() {
+        var counter = new LongAdder();
+        run((clique, size) -> counter.increment());
+        return counter.sum();
+    }
+
+    private void run(CliqueSink sink) {
+        if (n == 0) {
+            return;
+        }
+        if (order == null) {
+            init();
+        }
+        var range = IntStream.range(0, n);
+        if (parallel) {
+            range = range.parallel();
+        }
+        range.forEach(i -> solveVertex(order[i], sink));
+    }
+
+    private void init() {
+        adjStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            adjStart[i + 1] = adjStart[i] + graph.degree(graph.vertexAt(i));
+        }
+        adj = new int[adjStart[n]];
+        for (int i = 0, p = 0; i < n; i++) {
+            for (var it = graph.neighborIterator(graph.vertexAt(i)); it.hasNext();) {
+                adj[p++] = graph.indexOf(it.next());
+            }
+            Arrays.sort(adj, adjStart[i], adjStart[i + 1]);
+        }
+        computeOrder();
+        workspaces = ThreadLocal.withInitial(Workspace::new);
+    }
+
+    //Batagelj-Zaversnik bucket algorithm: repeatedly removes a vertex of minimum degree
+    private void computeOrder() {
+        int[] deg = new int[n];
+        int maxDeg = 0;
+        for (int i = 0; i < n; i++) {
+            deg[i] = adjStart[i + 1] - adjStart[i];
+            maxDeg = Math.max(maxDeg, deg[i]);
+        }
+        int[] bin = new int[maxDeg + 1];
+        for (int i = 0; i < n; i++) {
+            bin[deg[i]]++;
+        }
+        for (int d = 0, start = 0; d <= maxDeg; d++) {
+            int num = bin[d];
+            bin[d] = start;
+            start += num;
+        }
+        order = new int[n];
+        rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = bin[deg[i]]++;
+            order[rank[i]] = i;
+        }
+        for (int d = maxDeg; d > 0; d--) {
+            bin[d] = bin[d - 1];
+        }
+        bin[0] = 0;
+        for (int k = 0; k < n; k++) {
+            int vi = order[k];
+            for (int j = adjStart[vi]; j < adjStart[vi + 1]; j++) {
+                int ui = adj[j];
+                if (deg[ui] > deg[vi]) {
+                    //move u to the beginning of its bin, then to the previous bin
+                    int du = deg[ui], pu = rank[ui], pw = bin[du], wi = order[pw];
+                    if (ui != wi) {
+                        rank[ui] = pw;
+                        order[pw] = ui;
+                        rank[wi] = pu;
+                        order[pu] = wi;
+                    }
+                    bin[du]++;
+                    deg[ui]--;
+                }
+            }
+        }
+    }
+
+    //the maximal cliques containing v and only later vertices
+    private void solveVertex(int vi, CliqueSink sink) {
+        int start = adjStart[vi], end = adjStart[vi + 1];
+        int numLater = 0;
+        for (int j = start; j < end; j++) {
+            if (rank[adj[j]] > rank[vi]) {
+                numLater++;
+            }
+        }
+        int[] cand = new int[numLater];
+        int[] excl = new int[end - start - numLater];
+        for (int j = start, p = 0, x = 0; j < end; j++) {
+            if (rank[adj[j]] > rank[vi]) {
+                cand[p++] = adj[j];
+            } else {
+                excl[x++] = adj[j];
+            }
+        }
+        var ws = workspaces.get();
+        ws.clique[0] = vi;
+        solve(ws, 1, cand, excl, sink);
+    }
+
+    //cand and excl are sorted arrays of vertex indices
+    private void solve(Workspace ws, int depth, int[] cand, int[] excl, CliqueSink sink) {
+        if (cand.length == 0) {
+            if (excl.length == 0) {
+                sink.accept(ws.clique, depth);
+            }
+            return;
+        }
+        if (cand.length + excl.length <= DENSE_LIMIT) {
+            ws.solveDense(depth, cand, excl, sink);
+            return;
+        }
+        //a level of the algorithm using sorted arrays
+        int pivot = -1, maxCount = -1;
+        for (int[] set : new int[][]{cand, excl}) {
+            for (int ui : set) {
+                int count = countCommon(cand, cand.length, ui);
+                if (count > maxCount) {
+                    maxCount = count;
+                    pivot = ui;
+                }
+            }
+        }
+        int[] ext = difference(cand, pivot);
+        int[] curCand = cand.clone();
+        int[] curExcl = Arrays.copyOf(excl, excl.length + ext.length);
+        int numCand = cand.length, numExcl = excl.length;
+        for (int wi : ext) {
+            ws.clique[depth] = wi;
+            solve(ws, depth + 1, intersect(curCand, numCand, wi), intersect(curExcl, numExcl, wi), sink);
+            //move w from cand to excl
+            int p = Arrays.binarySearch(curCand, 0, numCand, wi);
+            System.arraycopy(curCand, p + 1, curCand, p, numCand - p - 1);
+            numCand--;
+            p = -Arrays.binarySearch(curExcl, 0, numExcl, wi) - 1;
+            System.arraycopy(curExcl, p, curExcl, p + 1, numExcl - p);
+            curExcl[p] = wi;
+            numExcl++;
+        }
+    }
+
+    //the number of vertices in set[0..size) adjacent to u
+    private int countCommon(int[] set, int size, int ui) {
+        int count = 0;
+        for (int i = 0, j = adjStart[ui], jend = adjStart[ui + 1]; i < size && j < jend;) {
+            if (set[i] == adj[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (set[i] < adj[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    //the vertices in set[0..size) adjacent to u
+    private int[] intersect(int[] set, int size, int ui) {
+        int[] result = new int[Math.min(size, adjStart[ui + 1] - adjStart[ui])];
+        int count = 0;
+        for (int i = 0, j = adjStart[ui], jend = adjStart[ui + 1]; i < size && j < jend;) {
+            if (set[i] == adj[j]) {
+                result[count++] = set[i];
+                i++;
+                j++;
+            } else if (set[i] < adj[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    //the vertices in set not adjacent to u
+    private int[] difference(int[] set, int ui) {
+        int[] result = new int[set.length];
+        int count = 0;
+        int j = adjStart[ui], jend = adjStart[ui + 1];
+        for (int vi : set) {
+            while (j < jend && adj[j] < vi) {
+                j++;
+            }
+            if (j == jend || adj[j] != vi) {
+                result[count++] = vi;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    //the data structures used by a thread
+    private class Workspace {
+
+        final int[] clique = new int[n + 1]; //the current clique, as indices
+        final int[] local = new int[n]; //the local number of a vertex in a subproblem, or -1
+        int[] universe = new int[0]; //the vertices of a subproblem
+        long[] rows = new long[0]; //the adjacency bitsets of the subproblem
+        //the bitsets of cand, excl and ext for each level of the recursion
+        long[] candBuf = new long[0], exclBuf = new long[0], extBuf = new long[0];
+        int words;
+        int base; //the depth of the clique when the subproblem was created
+        CliqueSink sink;
+
+        Workspace() {
+            Arrays.fill(local, -1);
+        }
+
+        //local vertices: cand are 0..p-1, excl are p..d-1
+        void solveDense(int depth, int[] cand, int[] excl, CliqueSink sink) {
+            int p = cand.length, d = p + excl.length;
+            words = (d + 63) >>> 6;
+            if (universe.length < d) {
+                universe = new int[d];
+            }
+            System.arraycopy(cand, 0, universe, 0, p);
+            System.arraycopy(excl, 0, universe, p, excl.length);
+            for (int l = 0; l < d; l++) {
+                local[universe[l]] = l;
+            }
+            if (rows.length < d * words) {
+                rows = new long[d * words];
+            } else {
+                Arrays.fill(rows, 0, d * words, 0);
+            }
+            for (int l = 0; l < d; l++) {
+                int vi = universe[l], row = l * words;
+                for (int j = adjStart[vi], end = adjStart[vi + 1]; j < end; j++) {
+                    int lu = local[adj[j]];
+                    if (lu >= 0) {
+                        rows[row + (lu >>> 6)] |= 1L << lu;
+                    }
+                }
+            }
+            for (int l = 0; l < d; l++) {
+                local[universe[l]] = -1;
+            }
+            //the depth of the recursion is at most p + 1
+            int size = (p + 2) * words;
+            if (candBuf.length < size) {
+                candBuf = new long[size];
+                exclBuf = new long[size];
+                extBuf = new long[size];
+            }
+            for (int i = 0; i < words; i++) {
+                candBuf[i] = 0;
+                exclBuf[i] = 0;
+            }
+            for (int l = 0; l < p; l++) {
+                candBuf[l >>> 6] |= 1L << l;
+            }
+            for (int l = p; l < d; l++) {
+                exclBuf[l >>> 6] |= 1L << l;
+            }
+            this.base = depth;
+            this.sink = sink;
+            expand(0);
+            this.sink = null;
+        }
+
+        void expand(int level) {
+            int off = level * words;
+            int numCand = 0;
+            boolean emptyExcl = true;
+            for (int i = 0; i < words; i++) {
+                numCand += Long.bitCount(candBuf[off + i]);
+                emptyExcl &= exclBuf[off + i] == 0;
+            }
+            if (numCand == 0) {
+                if (emptyExcl) {
+                    sink.accept(clique, base + level);
+                }
+                return;
+            }
+            //the pivot has the maximum number of neighbors in cand
+            int pivot = -1, maxCount = -1;
+            for (int i = 0; i < words && maxCount < numCand; i++) {
+                long bits = candBuf[off + i] | exclBuf[off + i];
+                while (bits != 0) {
+                    int u = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int count = 0, row = u * words;
+                    for (int j = 0; j < words; j++) {
+                        count += Long.bitCount(candBuf[off + j] & rows[row + j]);
+                    }
+                    if (count > maxCount) {
+                        maxCount = count;
+                        pivot = u;
+                        if (count == numCand) {
+                            break;
+                        }
+                    }
+                }
+            }
+            int prow = pivot * words;
+            for (int i = 0; i < words; i++) {
+                extBuf[off + i] = candBuf[off + i] & ~rows[prow + i];
+            }
+            int next = off + words;
+            for (int i = 0; i < words; i++) {
+                long bits = extBuf[off + i];
+                while (bits != 0) {
+                    long bit = bits & -bits;
+                    int w = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int row = w * words;
+                    for (int j = 0; j < words; j++) {
+                        candBuf[next + j] = candBuf[off + j] & rows[row + j];
+                        exclBuf[next + j] = exclBuf[off + j] & rows[row + j];
+                    }
+                    clique[base + level] = universe[w];
+                    expand(level + 1);
+                    //move w from cand to excl
+                    candBuf[off + i] &= ~bit;
+                    exclBuf[off + i] |= bit;
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.graph4j.clique;
 
+import java.util.List;
 import org.graph4j.Graph;
 import org.graph4j.SimpleGraphAlgorithm;
 import org.graph4j.util.Clique;
@@ -23,9 +24,10 @@ import org.graph4j.util.VertexHeap;
 import org.graph4j.util.VertexSet;
 
 /**
- * Computes a maximal clique. This class contains both a simple heuristic for
- * determining a single maximal clique and a method that attempts to find the
- * maximum clique by enumerating all of them using Bron-Kerbosch algorithm.
+ * Computes a maximal clique. This class contains a simple heuristic for
+ * determining a single maximal clique, a method that enumerates all of them
+ * and a method that attempts to find the maximum clique, using
+ * {@link MaximumCliqueFinder}.
  *
  * A <em>maximal</em> clique is a clique that cannot be extended by including
  * one more adjacent vertex.
@@ -34,6 +36,7 @@ import org.graph4j.util.VertexSet;
  * Determining a maximum clique is a NP-hard problem.
  *
  * @see BronKerboschCliqueIterator
+ * @see MaximumCliqueFinder
  * @author Cristian Frăsinaru
  */
 public class MaximalCliqueFinder extends SimpleGraphAlgorithm {
@@ -120,32 +123,27 @@ public class MaximalCliqueFinder extends SimpleGraphAlgorithm {
     }
 
     /**
-     * This method iterates over all maximal cliques of the graph, in order to
-     * find the maximum one.If it cannot finish in the alloted time, it returns
-     * {@code null}.
+     * Returns all the maximal cliques of the graph. The cliques are created in
+     * parallel, using {@link BronKerboschCliqueEnumerator}.
+     *
+     * @return the maximal cliques of the graph.
+     */
+    public List<Clique> getMaximalCliques() {
+        return new BronKerboschCliqueEnumerator(graph, true).getCliques();
+    }
+
+    /**
+     * Determines the maximum clique using {@link MaximumCliqueFinder}. If it
+     * cannot finish in the alloted time, it returns {@code null}.
      *
      * @param timeLimit a time limit in milliseconds (0 for no time limit).
      * @return the maximum clique of the graph or {@code null} if it cannot be
      * found in the alloted time.
      */
     public Clique findMaximumClique(long timeLimit) {
-        if (graph.isComplete()) {
-            return new Clique(graph, graph.vertices());
-        }
-        long startTime = System.currentTimeMillis();
-        Clique maxClique = null;
-        var alg = new BronKerboschCliqueIterator(graph);
-        while (alg.hasNext()) {
-            if (timeLimit > 0
-                    && System.currentTimeMillis() - startTime > timeLimit) {
-                return null;
-            }
-            Clique clique = alg.next();
-            if (maxClique == null || clique.size() > maxClique.size()) {
-                maxClique = clique;
-            }
-        }
-        return maxClique;
+        var alg = new MaximumCliqueFinder(graph).setTimeLimit(timeLimit);
+        var clique = alg.findMaximumClique();
+        return alg.isOptimal() ? clique : null;
     }
 
 }
@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.clique;
+
+import java.util.Arrays;
+import org.graph4j.Graph;
+import org.graph4j.SimpleGraphAlgorithm;
+import org.graph4j.exceptions.AlgorithmTimeoutException;
+import org.graph4j.ordering.VertexOrderings;
+import org.graph4j.search.BranchAndBound;
+import org.graph4j.search.SearchContext;
+import org.graph4j.search.SearchSpace;
+import org.graph4j.util.Clique;
+
+/**
+ * Determines a maximum clique, or a maximum weight clique, of a graph. The
+ * vertices are renumbered in decreasing order of their degrees and the
+ * adjacency rows and the candidate sets are stored as bitsets. At each node
+ * of the search tree, the candidates are colored greedily, one color class at
+ * a time; the colors give upper bounds for the cliques that can still be
+ * created, and only the candidates whose bound may improve the best clique
+ * found so far are branched on. When a candidate would require branching,
+ * the algorithm tries to re-number it into an existing color class,
+ * exchanging it with its single conflicting vertex. In case of vertex
+ * weighted graphs, the bound of a color class is its maximum weight.
+ *
+ * The search tree is explored by a {@link BranchAndBound} engine, using
+ * multiple threads, starting with the clique found by
+ * {@link MaximalCliqueFinder#getMaximalClique()}. If the time limit is
+ * reached, the best clique found so far is returned and
+ * {@link #isOptimal()} returns {@code false}. The adjacency bitsets require
+ * quadratic memory, so this algorithm is intended for graphs having at most a
+ * few tens of thousands of vertices.
+ *
+ * P. San Segundo, D. Rodríguez-Losada, A. Jiménez, "An exact bit-parallel
+ * algorithm for the maximum clique problem", Computers &amp; Operations
+ * Research 38 (2011) 571-581.
+ *
+ * E. Tomita, Y. Sutani, T. Higashi, S. Takahashi, M. Wakatsuki, "A simple and
+ * faster branch-and-bound algorithm for finding a maximum clique", WALCOM
+ * 2010.
+ *
+ * @see MaximalCliqueFinder
+ * @author Cristian Frăsinaru
+ */
+public class MaximumCliqueFinder extends SimpleGraphAlgorithm {
+
+    private final int n;
+    private final int words;
+    private int[] vertices; //the vertices, in the order used by the bitsets
+    private long[][] adj;
+    private int numThreads; //0 for the common pool
+    private long timeLimit;
+    private boolean optimal;
+    private long nodesExplored;
+
+    /**
+     *
+     * @param graph the input graph.
+     */
+    public MaximumCliqueFinder(Graph graph) {
+        super(graph);
+        this.n = graph.numVertices();
+        this.words = (n + 63) >>> 6;
+    }
+
+    /**
+     *
+     * @return the number of threads used by the search, or {@code 0}
+     * if the search runs in the common pool.
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Sets the number of threads used by the search. By default, the search
+     * runs in the common fork-join pool.
+     *
+     * @param numThreads the number of threads.
+     * @return this object.
+     */
+    public MaximumCliqueFinder setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numThreads);
+        }
+        this.numThreads = numThreads;
+        return this;
+    }
+
+    /**
+     *
+     * @return the time limit, in milliseconds.
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets a time limit for the search.
+     *
+     * @param timeLimit a time limit in milliseconds (0 for no time limit).
+     * @return this object.
+     */
+    public MaximumCliqueFinder setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    /**
+     * Returns a clique of maximum size. If the time limit is reached, it
+     * returns the largest clique found.
+     *
+     * @return a maximum clique.
+     */
+    public Clique findMaximumClique() {
+        return compute(false);
+    }
+
+    /**
+     * Returns a clique of maximum weight, the weight of a clique being the sum
+     * of the weights of its vertices. If the time limit is reached, it returns
+     * the best clique found.
+     *
+     * @return a maximum weight clique.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * vertices.
+     */
+    public Clique findMaximumWeightClique() {
+        return compute(graph.hasVertexWeights());
+    }
+
+    /**
+     *
+     * @return {@code true} if the last search explored the whole search tree,
+     * so the returned clique is optimal.
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     *
+     * @return the number of nodes explored during the last search.
+     */
+    public long nodesExplored() {
+        return nodesExplored;
+    }
+
+    private void init() {
+        vertices = VertexOrderings.largestDegreeFirst(graph);
+        int[] pos = new int[n];
+        for (int i = 0; i < n; i++) {
+            pos[graph.indexOf(vertices[i])] = i;
+        }
+        adj = new long[n][words];
+        for (int i = 0; i < n; i++) {
+            for (var it = graph.neighborIterator(vertices[i]); it.hasNext();) {
+                int j = pos[graph.indexOf(it.next())];
+                adj[i][j >>> 6] |= 1L << j;
+            }
+        }
+    }
+
+    private Clique compute(boolean weighted) {
+        long startTime = System.currentTimeMillis();
+        optimal = false;
+        nodesExplored = 0;
+        double[] weight = new double[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = weighted ? graph.getVertexWeight(graph.vertexAt(i)) : 1;
+            if (weight[i] < 0) {
+                throw new IllegalArgumentException(
+                        "Negative weighted vertices are not permited: " + graph.vertexAt(i));
+            }
+        }
+        if (n == 0 || graph.isComplete()) {
+            optimal = true;
+            return new Clique(graph, graph.vertices());
+        }
+        if (adj == null) {
+            init();
+        }
+        var initial = new MaximalCliqueFinder(graph).getMaximalClique();
+        long remainingTime = 0;
+        if (timeLimit > 0) {
+            remainingTime = timeLimit - (System.currentTimeMillis() - startTime);
+            if (remainingTime <= 0) {
+                return initial;
+            }
+        }
+        var space = new CliqueSearch(weighted, weight);
+        var engine = BranchAndBound.maximizing(space)
+                .setTimeLimit(remainingTime)
+                .setIncumbent(initial.vertices(), weighted ? initial.computeVerticesWeight() : initial.size());
+        if (numThreads > 0) {
+            engine.setNumThreads(numThreads);
+        }
+        long[] all = new long[words];
+        for (int i = 0; i < n; i++) {
+            all[i >>> 6] |= 1L << i;
+        }
+        try {
+            engine.search(new CliqueNode(null, -1, 0, Double.NaN, all));
+            optimal = true;
+        } catch (AlgorithmTimeoutException e) {
+            //returns the best clique found so far
+        }
+        nodesExplored = engine.nodesExplored();
+        var clique = new Clique(graph, engine.getSolution());
+        assert clique.isValid();
+        return clique;
+    }
+
+    //a vertex added to the clique of its parent
+    private static class CliqueNode {
+
+        final CliqueNode parent;
+        final int vertex; //the position of the vertex, -1 for the empty clique
+        final double value; //the size or the weight of the clique
+        final double bound; //an upper bound of the cliques in the subtree
+        final long[] cand; //the candidates, as a bitset
+
+        CliqueNode(CliqueNode parent, int vertex, double value, double bound, long[] cand) {
+            this.parent = parent;
+            this.vertex = vertex;
+            this.value = value;
+            this.bound = bound;
+            this.cand = cand;
+        }
+    }
+
+    //the data used by a thread for coloring the candidates
+    private class Scratch {
+
+        final long[] uncolored = new long[words];
+        final long[] available = new long[words];
+        final int[] order = new int[n]; //the candidates to branch on
+        final double[] bound = new double[n]; //their bounds, in non-decreasing order
+        final int[] members = new int[n]; //the members of the current color class
+        long[][] classes = new long[0][]; //the color classes that are not branched on
+    }
+
+    private class CliqueSearch implements SearchSpace<CliqueNode, int[]> {
+
+        final boolean weighted;
+        final double[] weight; //by vertex position
+        final ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(Scratch::new);
+
+        CliqueSearch(boolean weighted, double[] weight) {
+            this.weighted = weighted;
+            this.weight = new double[n];
+            for (int i = 0; i < n; i++) {
+                this.weight[i] = weight[graph.indexOf(vertices[i])];
+            }
+        }
+
+        @Override
+        public void expand(CliqueNode node, SearchContext<CliqueNode, int[]> context) {
+            if (context.improves(node.value)) {
+                int size = 0;
+                for (var p = node; p.vertex >= 0; p = p.parent) {
+                    size++;
+                }
+                int[] clique = new int[size];
+                for (var p = node; p.vertex >= 0; p = p.parent) {
+                    clique[--size] = vertices[p.vertex];
+                }
+                context.submit(clique, node.value);
+            }
+            var scratch = scratches.get();
+            int count = color(node.cand, context.incumbentValue() - node.value, scratch);
+            long[] cand = node.cand.clone();
+            for (int i = count - 1; i >= 0; i--) {
+                double bound = node.value + scratch.bound[i];
+                if (!context.improves(bound)) {
+                    break;
+                }
+                int v = scratch.order[i];
+                long[] childCand = new long[words];
+                long[] row = adj[v];
+                for (int j = 0; j < words; j++) {
+                    childCand[j] = cand[j] & row[j];
+                }
+                context.branch(new CliqueNode(node, v, node.value + weight[v], bound, childCand));
+                cand[v >>> 6] &= ~(1L << v);
+            }
+        }
+
+        @Override
+        public double bound(CliqueNode node) {
+            return node.bound;
+        }
+
+        //colors the candidates, one class at a time, and returns the number of
+        //candidates whose bound exceeds the threshold
+        private int color(long[] cand, double threshold, Scratch s) {
+            long[] uncolored = s.uncolored, available = s.available;
+            System.arraycopy(cand, 0, uncolored, 0, words);
+            //the classes not exceeding the threshold are kept for re-numbering
+            int numClasses = 0;
+            int count = 0;
+            double total = 0;
+            boolean empty = isEmpty(uncolored);
+            while (!empty) {
+                System.arraycopy(uncolored, 0, available, 0, words);
+                int size = 0;
+                double max = 0;
+                for (int i = 0; i < words; i++) {
+                    while (available[i] != 0) {
+                        int v = (i << 6) + Long.numberOfTrailingZeros(available[i]);
+                        uncolored[i] &= ~(1L << v);
+                        available[i] &= ~(1L << v);
+                        if (!weighted && total + 1 > threshold && renumber(v, s.classes, numClasses)) {
+                            continue;
+                        }
+                        long[] row = adj[v];
+                        for (int j = i; j < words; j++) {
+                            available[j] &= ~row[j];
+                        }
+                        s.members[size++] = v;
+                        max = Math.max(max, weight[v]);
+                    }
+                }
+                empty = isEmpty(uncolored);
+                if (size == 0) {
+                    continue;
+                }
+                total += max;
+                if (total > threshold) {
+                    for (int k = 0; k < size; k++) {
+                        s.order[count] = s.members[k];
+                        s.bound[count++] = total;
+                    }
+                } else if (!weighted) {
+                    if (numClasses == s.classes.length) {
+                        var classes = new long[Math.max(4, 2 * numClasses)][];
+                        System.arraycopy(s.classes, 0, classes, 0, numClasses);
+                        s.classes = classes;
+                    }
+                    if (s.classes[numClasses] == null) {
+                        s.classes[numClasses] = new long[words];
+                    }
+                    long[] bits = s.classes[numClasses++];
+                    Arrays.fill(bits, 0);
+                    for (int k = 0; k < size; k++) {
+                        int v = s.members[k];
+                        bits[v >>> 6] |= 1L << v;
+                    }
+                }
+            }
+            return count;
+        }
+
+        //moves v into a class where it has a single neighbor w, if w can be
+        //moved into another class
+        private boolean renumber(int v, long[][] classes, int numClasses) {
+            long[] row = adj[v];
+            for (int k1 = 0; k1 < numClasses; k1++) {
+                long[] c1 = classes[k1];
+                int w = -1;
+                for (int i = 0; i < words; i++) {
+                    long common = c1[i] & row[i];
+                    if (common == 0) {
+                        continue;
+                    }
+                    if (w >= 0 || (common & (common - 1)) != 0) {
+                        w = -2;
+                        break;
+                    }
+                    w = (i << 6) + Long.numberOfTrailingZeros(common);
+                }
+                if (w == -1) {
+                    //no conflict
+                    c1[v >>> 6] |= 1L << v;
+                    return true;
+                }
+                if (w < 0) {
+                    continue;
+                }
+                long[] wrow = adj[w];
+                for (int k2 = 0; k2 < numClasses; k2++) {
+                    if (k2 != k1 && !intersects(classes[k2], wrow)) {
+                        c1[w >>> 6] &= ~(1L << w);
+                        classes[k2][w >>> 6] |= 1L << w;
+                        c1[v >>> 6] |= 1L << v;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean intersects(long[] a, long[] b) {
+            for (int i = 0; i < words; i++) {
+                if ((a[i] & b[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isEmpty(long[] bits) {
+            for (int i = 0; i < words; i++) {
+                if (bits[i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -17,14 +17,13 @@
 package org.graph4j.coloring;
 
 import org.graph4j.util.Domain;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import org.graph4j.Graph;
+import org.graph4j.exceptions.AlgorithmTimeoutException;
+import org.graph4j.search.BranchAndBound;
+import org.graph4j.search.SearchContext;
+import org.graph4j.search.SearchSpace;
 
 /**
  * Attempts at finding the optimum coloring of a graph using a systematic
@@ -32,6 +31,14 @@ import org.graph4j.Graph;
  * non-recursive manner, using multiple threads.
  *
  * <p>
+ * The search tree is explored by a {@link BranchAndBound} engine: each node
+ * of the tree branches on the colors of its pivot domain. A thread explores
+ * its own nodes in depth-first order, while idle threads steal the nodes
+ * closest to the root, which usually have the largest subtrees. The solutions
+ * are published in a concurrent set and the search is cancelled
+ * cooperatively, when enough solutions are found or the time limit expires.
+ *
+ * <p>
  * First, a maximal clique is computed that offers a lower bound <code>q</code>
  * of the chromatic number. The colors of the vertices in the maximal clique are
  * fixed before the backtracking algorithm starts.
@@ -51,8 +58,8 @@ import org.graph4j.Graph;
  */
 public abstract class BacktrackColoringBase extends ExactColoringBase {
 
-    protected List<Worker> workers;
     protected long nodesExplored;
+    private int numThreads; //0 for the common pool
 
     public BacktrackColoringBase(Graph graph) {
         super(graph);
@@ -70,27 +77,54 @@ public abstract class BacktrackColoringBase extends ExactColoringBase {
         super(graph, initialColoring, timeLimit);
     }
 
+    /**
+     *
+     * @return the number of threads exploring the search space, or {@code 0}
+     * if the search runs in the common pool.
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Sets the number of threads exploring the search space. By default, the
+     * search runs in the common fork-join pool.
+     *
+     * @param numThreads the number of threads.
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
     @Override
     protected void solve(int numColors) {
-        solutions = new HashSet<>();
+        solutions = ConcurrentHashMap.newKeySet();
         Node root = init(numColors);
         if (root == null) {
             return;
         }
-        //int cores = 1;
-        int cores = Runtime.getRuntime().availableProcessors();
-        this.workers = new ArrayList<>(cores);
-        for (int i = 0; i < cores; i++) {
-            var worker = new Worker(numColors, root);
-            workers.add(worker);
-            worker.start();
-        }
-        for (var worker : workers) {
-            try {
-                worker.join();
-            } catch (InterruptedException ex) {
+        long remainingTime = 0;
+        if (timeLimit > 0) {
+            remainingTime = timeLimit - (System.currentTimeMillis() - startTime);
+            if (remainingTime <= 0) {
+                timeExpired = true;
+                return;
             }
         }
+        var engine = BranchAndBound.maximizing(new ColoringSearch(graph.numVertices() * numColors))
+                .setTimeLimit(remainingTime);
+        if (numThreads > 0) {
+            engine.setNumThreads(numThreads);
+        }
+        try {
+            engine.search(new Decision(root));
+        } catch (AlgorithmTimeoutException e) {
+            timeExpired = true;
+        }
+        nodesExplored = engine.nodesExplored();
     }
 
     //returns false if it detects infeasibility
@@ -239,131 +273,105 @@ public abstract class BacktrackColoringBase extends ExactColoringBase {
         }
     }
 
-    //finds a node for a jobless thread
-    private Node findNode() {
-        List<Worker> aux = new ArrayList<>(workers);
-        Collections.shuffle(aux);
-        for (Worker w : aux) {
-            Node node = w.offerNode();
-            if (node != null) {
-                return node;
-            }
-        }
-        return null;
-    }
-
     /**
      *
-     * @return the number of nodes explored during the search.
+     * @return the number of nodes explored during the last search.
      */
-    @Deprecated
-    private long nodesExplored() {
+    public long nodesExplored() {
         return nodesExplored;
     }
 
-    //a thread exploring the search space
-    protected class Worker extends Thread {
+    //a decision in the search tree: the root node or vertex = color
+    private static class Decision {
 
-        boolean running;
-        int numColors;
-        final int[][] assignQueue;
-        final Deque<Node> nodeStack;
+        final Node parent;
+        final int color;
+        Node node; //the node created by this decision, if it has successors
 
-        Worker(int numColors, Node root) {
-            this.numColors = numColors;
-            assignQueue = new int[graph.numVertices() * numColors][2];
-            nodeStack = new ArrayDeque<>();
-            nodeStack.push(root);
+        Decision(Node root) {
+            this.parent = null;
+            this.color = -1;
+            this.node = root;
         }
 
-        @Override
-        public void run() {
-            running = true;
-            while (running) {
-                if (solutions.size() >= solutionsLimit) {
-                    return;
-                }
-                if (timeLimit > 0 && System.currentTimeMillis() - startTime > timeLimit) {
-                    timeExpired = true;
-                    return;
-                }
-                Node node;
-                int v, color;
-                synchronized (graph) {
-                    node = nodeStack.peek();
-                    if (node == null) {
-                        node = findNode();
-                        if (node == null) {
-                            return;
-                        }
-                    }
-                    if (node.coloring.isComplete()) {
-                        nodeStack.pop();
-                        if (!isValid(node.coloring)) {
-                            continue;
-                        }
-                        //found a solution
-                        solutions.add(node.coloring);
-                        continue;
-                    }
-                    assert node.minDomain != null;
+        Decision(Node parent, int color) {
+            this.parent = parent;
+            this.color = color;
+        }
+    }
 
-                    if (node.failed && !nodeStack.isEmpty()) {
-                        nodeStack.pop();
-                        continue;
-                    }
-                    if (node.minDomain.size() == 0) {
-                        //the current node has failed, remove it from stack
-                        //when popping a non propagator
-                        //it's parent should pe popped too
-                        if (!node.propagator && node.parent != null) {
-                            node.parent.failed = true;
-                        }
-                        //propagateFailure(node);
-                        nodeStack.pop();
-                        continue;
-                    }
-                    //pick a color in the node's domain
-                    v = node.minDomain.vertex();
-                    color = node.minDomain.poll();
-                }
+    //the search space explored by the branch-and-bound engine
+    private class ColoringSearch implements SearchSpace<Decision, Coloring> {
 
-                //create the new domains (lazy)
-                Domain[] newDomains = Arrays.copyOf(node.domains, node.domains.length);
-                //the domain of the selected vertex v becomes singleton
-                newDomains[graph.indexOf(v)] = new Domain(v, color);
+        final ThreadLocal<int[][]> assignQueues;
 
-                //create the new coloring
-                //color and propagate the assignment v=c
-                var newColoring = new Coloring(graph, node.coloring);
-                newColoring.setColor(v, color);
+        ColoringSearch(int queueSize) {
+            assignQueues = ThreadLocal.withInitial(() -> new int[queueSize][2]);
+        }
 
-                Node newNode = createNode(node, v, color, newDomains, newColoring);
-                nodesExplored++;
-                if (propagateAssignment(v, color, newNode, assignQueue)) {
-                    newNode.prepare();
-                    synchronized (graph) {
-                        nodeStack.push(newNode);
+        @Override
+        public void expand(Decision decision, SearchContext<Decision, Coloring> context) {
+            Node node = decision.parent == null ? decision.node : createChild(decision);
+            decision.node = null;
+            if (node == null) {
+                return;
+            }
+            if (node.coloring.isComplete()) {
+                if (isValid(node.coloring)) {
+                    //found a solution
+                    solutions.add(node.coloring);
+                    if (solutions.size() >= solutionsLimit) {
+                        context.stop();
                     }
                 }
+                return;
+            }
+            if (node.minDomain == null || node.minDomain.size() == 0) {
+                return;
+            }
+            decision.node = node;
+            //pick the colors in the node's domain
+            Domain dom = node.minDomain;
+            while (dom.size() > 0) {
+                context.branch(new Decision(node, dom.poll()));
             }
         }
 
-        private Node offerNode() {
-            synchronized (graph) {
-                if (nodeStack.isEmpty()) {
-                    return null;
-                }
-                Node selected = null;
-                Node node = nodeStack.peek();
-                while (node != null) {
-                    if (node.minDomain != null && node.minDomain.size() > 0) {
-                        selected = node;
-                    }
-                    node = node.parent;
-                }
-                return selected;
+        //returns null if the assignment is infeasible
+        private Node createChild(Decision decision) {
+            Node parent = decision.parent;
+            if (parent.failed) {
+                return null;
+            }
+            int v = parent.minDomain.vertex();
+            int color = decision.color;
+            //create the new domains (lazy)
+            Domain[] newDomains = Arrays.copyOf(parent.domains, parent.domains.length);
+            //the domain of the selected vertex v becomes singleton
+            newDomains[graph.indexOf(v)] = new Domain(v, color);
+
+            //create the new coloring
+            //color and propagate the assignment v=c
+            var newColoring = new Coloring(graph, parent.coloring);
+            newColoring.setColor(v, color);
+
+            Node newNode = createNode(parent, v, color, newDomains, newColoring);
+            if (!propagateAssignment(v, color, newNode, assignQueues.get())) {
+                return null;
+            }
+            newNode.prepare();
+            return newNode;
+        }
+
+        @Override
+        public void completed(Decision decision) {
+            //all the successors of the node have failed
+            //if the node was not a propagator, its parent fails too
+            Node node = decision.node;
+            if (node != null && !node.failed && !node.propagator && node.parent != null) {
+                node.parent.failed = true;
             }
+            decision.node = null;
         }
     }
 
@@ -38,7 +38,7 @@ public class Node {
     Domain minDomain;
     boolean removeSymmetricalColors;
     boolean propagator;
-    boolean failed;
+    volatile boolean failed;
 
     public Node(ExactColoringBase alg, Node parent, int vertex, int color, Domain[] domains, Coloring coloring,
             boolean removeSymmetricalColors) {
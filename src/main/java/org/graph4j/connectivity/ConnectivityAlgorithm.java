@@ -24,6 +24,7 @@ import org.graph4j.Graph;
 import org.graph4j.SimpleGraphAlgorithm;
 import org.graph4j.util.VertexSet;
 import org.graph4j.traversal.DFSIterator;
+import org.graph4j.traversal.ParallelBFS;
 import org.graph4j.util.Validator;
 
 /**
@@ -36,6 +37,7 @@ import org.graph4j.util.Validator;
 public class ConnectivityAlgorithm extends SimpleGraphAlgorithm {
 
     private Boolean connected;
+    private ParallelBFS parallelBFS;
     private List<VertexSet> connectedSets;
     private final Map<Integer, VertexSet> vertexSetMap = new HashMap<>();
     private List<Graph> components;
@@ -60,6 +62,10 @@ public class ConnectivityAlgorithm extends SimpleGraphAlgorithm {
         if (connected != null) {
             return connected;
         }
+        if (useParallelBFS()) {
+            connected = parallelBFS().run(graph.vertexAt(0)) == graph.numVertices();
+            return connected;
+        }
         var dfs = new DFSIterator(graph);
         connected = true;
         while (dfs.hasNext()) {
@@ -97,12 +103,18 @@ public class ConnectivityAlgorithm extends SimpleGraphAlgorithm {
      * @return {@code true} if v and u are connected, {@code false} otherwise.
      */
     public boolean hasPath(int v, int u) {
-        if (connected) {
+        if (connected != null && connected) {
             return true;
         }
         if (connectedSets != null) {
             return getConnectedSet(v).contains(u);
         }
+        if (useParallelBFS()) {
+            Validator.containsVertex(graph, u);
+            var bfs = parallelBFS();
+            bfs.run(v);
+            return bfs.levels()[graph.indexOf(u)] >= 0;
+        }
         var dfs = new DFSIterator(graph, v);
         while (dfs.hasNext()) {
             var node = dfs.next();
@@ -232,4 +244,18 @@ public class ConnectivityAlgorithm extends SimpleGraphAlgorithm {
         componentMap.put(v, vcomp);
         return vcomp;
     }
+
+    //large undirected graphs are traversed using a parallel BFS
+    private boolean useParallelBFS() {
+        return !graph.isDirected()
+                && graph.numVertices() >= ParallelBFS.PARALLEL_THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    private ParallelBFS parallelBFS() {
+        if (parallelBFS == null) {
+            parallelBFS = new ParallelBFS(graph);
+        }
+        return parallelBFS;
+    }
 }
@@ -21,5 +21,13 @@ package org.graph4j.exceptions;
  * @author Cristian Frăsinaru
  */
 public class AlgorithmTimeoutException extends RuntimeException {
- 
+
+    public AlgorithmTimeoutException() {
+        super("The algorithm did not finish in the alloted time.");
+    }
+
+    public AlgorithmTimeoutException(String message) {
+        super(message);
+    }
+
 }
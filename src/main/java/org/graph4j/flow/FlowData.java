@@ -16,15 +16,30 @@
  */
 package org.graph4j.flow;
 
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
-import java.util.TreeMap;
-import org.graph4j.Network;
+import java.util.TreeSet;
 import org.graph4j.Edge;
+import org.graph4j.EdgeConsumer;
+import org.graph4j.InvalidEdgeException;
+import org.graph4j.Network;
 
 /**
  * Utility class for representing the flow of a network.
  *
+ * <p>
+ * The flow values are stored in primitive arrays, parallel to the adjacency
+ * lists of the network: {@code getAt(vi, pos)} is the flow on the arc whose
+ * target is at position {@code pos} in the successor list of the vertex with
+ * the index {@code vi}. The flow data is valid as long as the structure of the
+ * network does not change.
+ *
+ * <p>
+ * A flow data may be used to warm-start a maximum flow algorithm, for example
+ * after modifying some of the capacities of the network.
+ *
+ * @see MaximumFlowBase#MaximumFlowBase(Network, FlowData)
  * @author Cristian Frăsinaru
  */
 public class FlowData {
@@ -32,45 +47,191 @@ public class FlowData {
     private final int source;
     private final int sink;
     private final Network graph;
-    private final Map<Edge, Double> map;
+    private final double[][] flow;
+    private Set<Edge> edges; //created on demand
 
+    /**
+     * Creates an empty (zero) flow for the specified network.
+     *
+     * @param graph the network.
+     */
     public FlowData(Network graph) {
         this.graph = graph;
         this.source = graph.getSource();
         this.sink = graph.getSink();
-        this.map = new TreeMap<>();
+        int n = graph.numVertices();
+        this.flow = new double[n][];
+        for (int vi = 0; vi < n; vi++) {
+            flow[vi] = new double[graph.degree(graph.vertexAt(vi))];
+        }
+    }
+
+    /**
+     * Creates a flow data using the {@link Network#FLOW} values of the edges
+     * of the network.
+     *
+     * @param graph the network.
+     * @return the current flow of the network.
+     */
+    public static FlowData of(Network graph) {
+        var flowData = new FlowData(graph);
+        flowData.read(graph);
+        return flowData;
+    }
+
+    /**
+     * Returns the network this flow is defined on.
+     *
+     * @return the network.
+     */
+    public Network getNetwork() {
+        return graph;
+    }
+
+    /**
+     * Returns the flow on the arc at the position {@code pos} in the successor
+     * list of the vertex with the index {@code vi}.
+     *
+     * @param vi a vertex index.
+     * @param pos a position in the successor list of the vertex.
+     * @return the flow on the arc.
+     */
+    public double getAt(int vi, int pos) {
+        return flow[vi][pos];
+    }
+
+    /**
+     * Sets the flow on the arc at the position {@code pos} in the successor
+     * list of the vertex with the index {@code vi}.
+     *
+     * @param vi a vertex index.
+     * @param pos a position in the successor list of the vertex.
+     * @param value the flow on the arc.
+     */
+    public void setAt(int vi, int pos, double value) {
+        flow[vi][pos] = value;
+    }
+
+    /**
+     * Returns the flow on the arc {@code vu}, or {@code 0} if there is no such
+     * arc.
+     *
+     * @param v the source of the arc.
+     * @param u the target of the arc.
+     * @return the flow on the arc {@code vu}.
+     */
+    public double get(int v, int u) {
+        int pos = graph.adjListPos(v, u);
+        return pos < 0 ? 0.0 : flow[graph.indexOf(v)][pos];
+    }
+
+    /**
+     * Sets the flow on the arc {@code vu}.
+     *
+     * @param v the source of the arc.
+     * @param u the target of the arc.
+     * @param value the flow on the arc.
+     * @throws InvalidEdgeException if the network does not contain the arc.
+     */
+    public void set(int v, int u, double value) {
+        int pos = graph.adjListPos(v, u);
+        if (pos < 0) {
+            throw new InvalidEdgeException(v, u);
+        }
+        flow[graph.indexOf(v)][pos] = value;
     }
 
     public void put(Edge e, double value) {
-        map.put(e, value);
+        set(e.source(), e.target(), value);
     }
 
     public double get(Edge e) {
-        return map.getOrDefault(e, 0.0);
+        return get(e.source(), e.target());
     }
 
+    /**
+     * Returns all the arcs of the network, including the ones with no flow.
+     * The set is created at the first invocation and it cannot be modified;
+     * for the arcs having a positive flow, {@link #forEach(EdgeConsumer)}
+     * should be preferred.
+     *
+     * @return the arcs of the network.
+     */
     public Set<Edge> edges() {
-        return map.keySet();
+        if (edges == null) {
+            edges = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(graph.edges())));
+        }
+        return edges;
     }
 
+    /**
+     * Performs the given action for each arc with a positive flow, the third
+     * argument of the consumer being the flow value.
+     *
+     * @param action the action to be performed.
+     */
+    public void forEach(EdgeConsumer action) {
+        for (int vi = 0, n = flow.length; vi < n; vi++) {
+            double[] row = flow[vi];
+            int v = graph.vertexAt(vi);
+            for (int pos = 0; pos < row.length; pos++) {
+                if (row[pos] > 0) {
+                    action.accept(v, graph.neighborAt(v, pos), row[pos]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the flow: the flow leaving the source minus the flow
+     * entering the source.
+     *
+     * @return the value of the flow.
+     */
     public double value() {
         double value = 0.0;
-        for (var it = graph.successorIterator(source); it.hasNext();) {
-            it.next();
-            value += map.get(it.edge());
+        for (double f : flow[graph.indexOf(source)]) {
+            value += f;
+        }
+        for (var it = graph.predecessorIterator(source); it.hasNext();) {
+            value -= get(it.next(), source);
         }
         return value;
     }
 
+    //copies the FLOW values of the network
+    void read(Network network) {
+        for (int vi = 0, n = flow.length; vi < n; vi++) {
+            double[] row = flow[vi];
+            int pos = 0;
+            for (var it = network.successorIterator(network.vertexAt(vi)); it.hasNext(); pos++) {
+                it.next();
+                row[pos] = it.getEdgeData(Network.FLOW, 0);
+            }
+        }
+    }
+
+    //sets the FLOW values of the network
+    void write(Network network) {
+        if (network == graph) {
+            for (int vi = 0, n = flow.length; vi < n; vi++) {
+                double[] row = flow[vi];
+                int pos = 0;
+                for (var it = network.successorIterator(network.vertexAt(vi)); it.hasNext(); pos++) {
+                    it.next();
+                    it.setEdgeData(Network.FLOW, row[pos]);
+                }
+            }
+        } else {
+            forEach((v, u, value) -> network.setEdgeData(Network.FLOW, v, u, value));
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (Edge e : map.keySet()) {
-            double w = map.get(e);
-            if (w > 0) {
-                sb.append(e).append(" :").append(w).append("\n");
-            }
-        }
+        forEach((v, u, value) -> sb.append(v).append("-").append(u)
+                .append(" :").append(value).append("\n"));
         return sb.toString();
     }
 
@@ -54,7 +54,9 @@ public abstract class MaximumFlowBase
     /**
      * Creates an algorithm for computing the maximum flow in a network,
      * initializing the edge flows using the values in the specified in
-     * {@code initialFlow}.
+     * {@code initialFlow}. The initial flow must be valid for the network, for
+     * example the maximum flow computed before increasing some capacities, in
+     * which case the algorithm continues from it (warm start).
      *
      * @param graph the input network.
      * @param initialFlow the initial flow.
@@ -72,9 +74,7 @@ public abstract class MaximumFlowBase
     protected void initFlow() {
         graph.resetEdgeData(FLOW, 0);
         if (initialFlow != null) {
-            for (var e : initialFlow.edges()) {
-                graph.setEdgeData(FLOW, e.source(), e.target(), initialFlow.get(e));
-            }
+            initialFlow.write(graph);
         }
     }
 
@@ -109,14 +109,7 @@ public abstract class MaximumFlowBase
         if (!computed) {
             computeMaximumFlow();
         }
-        FlowData flowData = new FlowData(graph);
-        for (var v : graph.vertices()) {
-            for (var it = graph.successorIterator(v); it.hasNext();) {
-                it.next();
-                flowData.put(it.edge(), it.getEdgeData(FLOW));
-            }
-        }
-        return flowData;
+        return FlowData.of(graph);
     }
 
     @Override
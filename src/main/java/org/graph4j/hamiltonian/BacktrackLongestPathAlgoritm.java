@@ -18,6 +18,9 @@ package org.graph4j.hamiltonian;
 
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
+import org.graph4j.search.BranchAndBound;
+import org.graph4j.search.SearchContext;
+import org.graph4j.search.SearchSpace;
 import org.graph4j.util.Validator;
 import org.graph4j.util.Path;
 
@@ -25,14 +28,18 @@ import org.graph4j.util.Path;
  * Backtracking algorithm for determining the longest path in a graph (directed
  * or not).
  *
+ * The search tree is explored by a {@link BranchAndBound} engine, using
+ * multiple threads. A partial path is abandoned if the number of the unvisited
+ * vertices that can still be reached from its last vertex cannot make it
+ * longer than the best path found so far.
+ *
  * @see Path
  * @author Cristian Frăsinaru
  */
 public class BacktrackLongestPathAlgoritm extends GraphAlgorithm {
 
-    private Path currentBest;
-    private Path currentPath;
     private int source, target;
+    private long nodesExplored;
 
     public BacktrackLongestPathAlgoritm(Graph graph) {
         super(graph);
@@ -45,19 +52,9 @@ public class BacktrackLongestPathAlgoritm extends GraphAlgorithm {
      * @return the longest path in the graph.
      */
     public Path getLongestPath() {
-        Path best = null;
-        for (int i = 0, n = graph.numVertices(); i < n; i++) {
-            source = graph.vertexAt(i);
-            target = -1;
-            compute();
-            if (best == null || currentBest.length() > best.length()) {
-                if (currentBest.isHamiltonian()) {
-                    return currentBest;
-                }
-                best = new Path(graph, currentBest.vertices());
-            }
-        }
-        return best;
+        this.source = -1;
+        this.target = -1;
+        return compute(new PathNode(graph.numVertices()));
     }
 
     /**
@@ -72,7 +69,7 @@ public class BacktrackLongestPathAlgoritm extends GraphAlgorithm {
         Validator.containsVertex(graph, source);
         this.source = source;
         this.target = -1;
-        return compute();
+        return compute(new PathNode(null, graph.indexOf(source), graph.numVertices()));
     }
 
     /**
@@ -89,39 +86,129 @@ public class BacktrackLongestPathAlgoritm extends GraphAlgorithm {
         Validator.containsVertex(graph, target);
         this.source = source;
         this.target = target;
-        return compute();
+        return compute(new PathNode(null, graph.indexOf(source), graph.numVertices()));
+    }
+
+    /**
+     *
+     * @return the number of nodes explored during the last search.
+     */
+    public long nodesExplored() {
+        return nodesExplored;
+    }
+
+    private Path compute(PathNode root) {
+        var engine = BranchAndBound.maximizing(new PathSearch());
+        PathNode best = engine.search(root);
+        nodesExplored = engine.nodesExplored();
+        if (best == null) {
+            return new Path(graph);
+        }
+        int[] vertices = new int[best.size];
+        for (var node = best; node != null; node = node.parent) {
+            vertices[node.size - 1] = graph.vertexAt(node.vertex);
+        }
+        var path = new Path(graph, vertices);
+        assert path.isValid();
+        return path;
     }
 
-    private Path compute() {
-        currentBest = new Path(graph);
-        currentPath = new Path(graph);
-        currentPath.add(source);
-        getPathRec();
-        assert currentBest.isValid();
-        return currentBest;
+    //a path starting in a source vertex, as vertex indices
+    private static class PathNode {
+
+        final PathNode parent;
+        final int vertex; //the last vertex, -1 if the path is empty
+        final int size; //the number of vertices
+        final long[] visited;
+
+        //the empty path, whose successors are all the vertices
+        PathNode(int n) {
+            this.parent = null;
+            this.vertex = -1;
+            this.size = 0;
+            this.visited = new long[(n + 63) >>> 6];
+        }
+
+        PathNode(PathNode parent, int vertex, int n) {
+            this.parent = parent;
+            this.vertex = vertex;
+            this.size = parent == null ? 1 : parent.size + 1;
+            this.visited = parent == null ? new long[(n + 63) >>> 6] : parent.visited.clone();
+            visited[vertex >>> 6] |= 1L << vertex;
+        }
+
+        boolean isVisited(int vi) {
+            return (visited[vi >>> 6] & (1L << vi)) != 0;
+        }
     }
 
-    private boolean getPathRec() {
-        int last = currentPath.lastVertex();
-        for (var it = graph.neighborIterator(last); it.hasNext();) {
-            int v = it.next();
-            if (currentPath.contains(v)) {
-                continue;
+    //the search space explored by the branch-and-bound engine
+    private class PathSearch implements SearchSpace<PathNode, PathNode> {
+
+        final int n = graph.numVertices();
+        final int ti = target < 0 ? -1 : graph.indexOf(target);
+        //used for counting the reachable vertices
+        final ThreadLocal<int[]> queues = ThreadLocal.withInitial(() -> new int[n]);
+        final ThreadLocal<boolean[]> reached = ThreadLocal.withInitial(() -> new boolean[n]);
+
+        @Override
+        public void expand(PathNode node, SearchContext<PathNode, PathNode> context) {
+            if (node.vertex < 0) {
+                for (int vi = 0; vi < n; vi++) {
+                    context.branch(new PathNode(null, vi, n));
+                }
+                return;
             }
-            assert graph.containsEdge(last, v);
-            currentPath.add(v);
-            if ((target < 0 || v == target) && (currentBest == null || currentPath.length() > currentBest.length())) {
-                currentBest = new Path(graph, currentPath.vertices());
-                if (currentBest.isHamiltonian()) {
-                    return false;
+            if (node.size > 1 && (ti < 0 || node.vertex == ti)) {
+                if (context.submit(node, node.size) && node.size == n) {
+                    //hamiltonian path
+                    context.stop();
                 }
             }
-            if (!getPathRec()) {
-                return false;
+            if (node.vertex == ti) {
+                return;
+            }
+            for (var it = graph.neighborIterator(graph.vertexAt(node.vertex)); it.hasNext();) {
+                int ui = graph.indexOf(it.next());
+                if (!node.isVisited(ui)) {
+                    context.branch(new PathNode(node, ui, n));
+                }
             }
-            currentPath.remove(v);
         }
-        return true;
+
+        //the path may be extended at most with the unvisited vertices reachable from its end
+        @Override
+        public double bound(PathNode node) {
+            if (node.vertex < 0) {
+                return Double.NaN;
+            }
+            if (node.vertex == ti) {
+                return node.size;
+            }
+            int[] queue = queues.get();
+            boolean[] mark = reached.get();
+            int head = 0, tail = 0;
+            queue[tail++] = node.vertex;
+            mark[node.vertex] = true;
+            while (head < tail) {
+                int vi = queue[head++];
+                for (var it = graph.neighborIterator(graph.vertexAt(vi)); it.hasNext();) {
+                    int ui = graph.indexOf(it.next());
+                    if (!mark[ui] && !node.isVisited(ui)) {
+                        mark[ui] = true;
+                        queue[tail++] = ui;
+                    }
+                }
+            }
+            boolean targetReached = ti < 0 || mark[ti];
+            for (int i = 0; i < tail; i++) {
+                mark[queue[i]] = false;
+            }
+            if (!targetReached) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return node.size + tail - 1;
+        }
     }
 
     @Deprecated
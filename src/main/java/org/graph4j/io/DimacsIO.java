@@ -17,8 +17,15 @@
 package org.graph4j.io;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 import org.graph4j.Graph;
 import org.graph4j.GraphBuilder;
 
@@ -34,45 +41,389 @@ import org.graph4j.GraphBuilder;
  * http://prolland.free.fr/works/research/dsat/dimacs.html
  * https://www.diag.uniroma1.it//challenge9/format.shtml#graph
  *
+ * The file is memory-mapped and split into chunks that are parsed in
+ * parallel, without creating a string for each line. Duplicate edges and
+ * self-loops are ignored. If an edge is specified more than once, the first
+ * occurrence is used.
+ *
  * @author Cristian Frăsinaru
  */
 public class DimacsIO {
 
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 28;
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final int MIN_EDGE_LINE = 6; //e v u\n
+
+    private int numVertices;
+    private long numEdges; //as specified in the p line
+    private long headerLines; //the number of lines up to and including the p line
+
+    /**
+     * Reads an undirected graph from a file in DIMACS format. The vertices of
+     * the graph are numbered from 1 to the number of nodes specified in the
+     * {@code p} line.
+     *
+     * @param file the path of the file.
+     * @return the graph described in the file.
+     * @throws UncheckedIOException if an I/O error occurs.
+     * @throws GraphFormatException if the file contains a malformed line.
+     */
     public Graph read(String file) {
-        Graph graph = null;
         try {
-            for (String line : Files.readAllLines(Paths.get(file))) {
-                if (line.trim().equals("")) {
-                    continue;
+            return read(Paths.get(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads an undirected graph from a file in DIMACS format. The vertices of
+     * the graph are numbered from 1 to the number of nodes specified in the
+     * {@code p} line.
+     *
+     * @param file the path of the file.
+     * @return the graph described in the file.
+     * @throws IOException if an I/O error occurs.
+     * @throws GraphFormatException if the file contains a malformed line.
+     */
+    public Graph read(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = readHeader(channel, size);
+            long[] bounds = chunkBounds(channel, start, size);
+            var chunks = new Chunk[bounds.length - 1];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new Chunk(channel, bounds[i], bounds[i + 1],
+                        estimateNumEdges(bounds[i + 1] - bounds[i], size - start));
+            }
+            try {
+                IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i].parse());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long line = headerLines;
+            for (var chunk : chunks) {
+                if (chunk.error != null) {
+                    throw new GraphFormatException(chunk.error, line + chunk.numLines);
                 }
-                char start = line.charAt(0);
-                String[] tokens = line.split("\\s+");
-                if (start == 'p') {
-                    int n = Integer.parseInt(tokens[2]);
-                    int m = Integer.parseInt(tokens[3]);
-                    graph = GraphBuilder.vertexRange(1, n).estimatedNumEdges(m).buildGraph();
-                } else if (start == 'e') {
-                    if (graph == null) {
-                        throw new RuntimeException("Invalid graph format - p line is missing");
+                line += chunk.numLines;
+            }
+            return build(chunks);
+        }
+    }
+
+    //reads the lines up to the p line, returns the position after it
+    private long readHeader(FileChannel channel, long size) throws IOException {
+        var buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+        int pos = 0;
+        int len = buf.limit();
+        long lineNumber = 0;
+        while (pos < len) {
+            int eol = pos;
+            while (eol < len && buf.get(eol) != '\n') {
+                eol++;
+            }
+            lineNumber++;
+            char type = (char) buf.get(pos);
+            if (type == 'e') {
+                throw new GraphFormatException("Invalid graph format - p line is missing", lineNumber);
+            }
+            if (type == 'p') {
+                String[] tokens = lineAt(buf, pos, eol).trim().split("\\s+");
+                try {
+                    if (tokens.length < 4) {
+                        throw new NumberFormatException();
                     }
-                    int v = Integer.parseInt(tokens[1]);
-                    int u = Integer.parseInt(tokens[2]);
-                    double d = -1;
-                    if (tokens.length >= 4) {
-                        d = Double.parseDouble(tokens[3]);
+                    numVertices = Integer.parseInt(tokens[2]);
+                    numEdges = Long.parseLong(tokens[3]);
+                } catch (NumberFormatException e) {
+                    throw new GraphFormatException("Malformed p line: " + lineAt(buf, pos, eol), lineNumber);
+                }
+                if (numVertices < 0) {
+                    throw new GraphFormatException("Invalid number of nodes: " + numVertices, lineNumber);
+                }
+                headerLines = lineNumber;
+                return Math.min(eol + 1, size);
+            }
+            pos = eol + 1;
+        }
+        throw new GraphFormatException("Invalid graph format - p line is missing", 0);
+    }
+
+    //splits the file in chunks, each of them ending with a new line
+    private long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, (size - start) / (4 * cores) + 1));
+        var bounds = new long[(int) ((size - start) / chunkSize) + 2];
+        int count = 0;
+        bounds[count++] = start;
+        var buf = ByteBuffer.allocate(4096);
+        long pos = start + chunkSize;
+        while (pos < size) {
+            //move to the beginning of the next line
+            boolean found = false;
+            while (!found && pos < size) {
+                buf.clear();
+                int read = channel.read(buf, pos);
+                if (read <= 0) {
+                    pos = size;
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buf.get(i) == '\n') {
+                        pos += i + 1;
+                        found = true;
+                        break;
                     }
-                    if (v != u) {
-                        if (d > 0) {
-                            graph.addEdge(v, u, d);
-                        } else {
-                            graph.addEdge(v, u);
-                        }
+                }
+                if (!found) {
+                    pos += read;
+                }
+            }
+            if (pos < size) {
+                bounds[count++] = pos;
+            }
+            pos += chunkSize;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    //the share of the edges declared in the p line, proportional to the chunk length
+    private int estimateNumEdges(long chunkLength, long totalLength) {
+        long maxEdges = chunkLength / MIN_EDGE_LINE + 1;
+        long estimate = numEdges <= 0 ? 0
+                : (long) ((double) numEdges * chunkLength / totalLength) + 16;
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.min(estimate, maxEdges));
+    }
+
+    //adds the edges in bulk; the duplicates are removed by the builder
+    private Graph build(Chunk[] chunks) {
+        long total = 0;
+        boolean weighted = false;
+        for (var chunk : chunks) {
+            total += chunk.size;
+            weighted |= chunk.weight != null;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new UnsupportedOperationException("Too many edges: " + total);
+        }
+        int m = (int) total;
+        var sources = new int[m];
+        var targets = new int[m];
+        var weights = weighted ? new double[m] : null;
+        int order = 0;
+        for (var chunk : chunks) {
+            for (int k = 0; k < chunk.size; k++, order++) {
+                sources[order] = chunk.source[k] + 1;
+                targets[order] = chunk.target[k] + 1;
+                if (weighted) {
+                    double w = chunk.weight == null ? -1 : chunk.weight[k];
+                    weights[order] = w > 0 ? w : Graph.DEFAULT_EDGE_WEIGHT;
+                }
+            }
+            chunk.source = chunk.target = null;
+            chunk.weight = null;
+        }
+        return GraphBuilder.vertexRange(1, numVertices)
+                .fromEdgeArrays(sources, targets, weights).buildGraph();
+    }
+
+    private static String lineAt(ByteBuffer buf, int from, int to) {
+        var bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = buf.get(i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII).stripTrailing();
+    }
+
+    //a part of the file, containing complete lines
+    private class Chunk {
+
+        final FileChannel channel;
+        final long start, end;
+        ByteBuffer buf;
+        int pos;
+        int numLines;
+        String error;
+        //the edges, as vertex indices
+        int[] source, target;
+        double[] weight;
+        int size;
+
+        Chunk(FileChannel channel, long start, long end, int capacity) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.source = new int[capacity];
+            this.target = new int[capacity];
+        }
+
+        void parse() {
+            try {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int len = buf.limit();
+            pos = 0;
+            while (pos < len) {
+                int eol = pos;
+                while (eol < len && buf.get(eol) != '\n') {
+                    eol++;
+                }
+                numLines++;
+                int lineStart = pos;
+                if (!parseLine(eol)) {
+                    error = "Malformed line: " + lineAt(buf, lineStart, eol);
+                    break;
+                }
+                pos = eol + 1;
+            }
+            buf = null;
+        }
+
+        //returns false if the line is malformed
+        boolean parseLine(int eol) {
+            if (pos >= eol) {
+                return true;
+            }
+            byte type = buf.get(pos);
+            if (type == 'p') {
+                return false;
+            }
+            if (type != 'e') {
+                return true; //comments, blank lines or unsupported lines
+            }
+            pos++;
+            if (!skipSpaces(eol)) {
+                return false;
+            }
+            long v = parseVertex(eol);
+            if (v < 0 || !skipSpaces(eol)) {
+                return false;
+            }
+            long u = parseVertex(eol);
+            if (u < 0) {
+                return false;
+            }
+            double w = -1;
+            if (skipSpaces(eol) && !isSpace(buf.get(pos))) {
+                w = parseDouble(eol);
+                if (Double.isNaN(w)) {
+                    return false;
+                }
+                skipSpaces(eol);
+            }
+            if (pos < eol) {
+                return false;
+            }
+            if (v != u) {
+                addEdge((int) v - 1, (int) u - 1, w);
+            }
+            return true;
+        }
+
+        void addEdge(int v, int u, double w) {
+            if (size == source.length) {
+                int newLen = size + (size >> 1) + 1;
+                source = Arrays.copyOf(source, newLen);
+                target = Arrays.copyOf(target, newLen);
+                if (weight != null) {
+                    weight = Arrays.copyOf(weight, newLen);
+                }
+            }
+            if (w > 0 && weight == null) {
+                weight = new double[source.length];
+                Arrays.fill(weight, 0, size, -1);
+            }
+            source[size] = v;
+            target[size] = u;
+            if (weight != null) {
+                weight[size] = w;
+            }
+            size++;
+        }
+
+        boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        //skips whitespace, returns true if at least one char was skipped
+        //and the line did not end
+        boolean skipSpaces(int eol) {
+            int from = pos;
+            while (pos < eol && isSpace(buf.get(pos))) {
+                pos++;
+            }
+            return pos > from && pos < eol;
+        }
+
+        //returns the vertex number, or -1 if invalid
+        long parseVertex(int eol) {
+            long value = 0;
+            int from = pos;
+            while (pos < eol) {
+                byte b = buf.get(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                if (value > numVertices) {
+                    return -1;
+                }
+                pos++;
+            }
+            if (pos == from || value < 1 || (pos < eol && !isSpace(buf.get(pos)))) {
+                return -1;
+            }
+            return value;
+        }
+
+        //returns NaN if the number is malformed
+        double parseDouble(int eol) {
+            int from = pos;
+            while (pos < eol && !isSpace(buf.get(pos))) {
+                pos++;
+            }
+            boolean negative = false;
+            int i = from;
+            if (buf.get(i) == '-' || buf.get(i) == '+') {
+                negative = buf.get(i) == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0, fraction = 0;
+            boolean point = false;
+            for (; i < pos; i++) {
+                byte b = buf.get(i);
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (point) {
+                        fraction++;
                     }
+                } else if (b == '.' && !point) {
+                    point = true;
+                } else {
+                    break;
                 }
             }
-        } catch (IOException ex) {
-            System.err.println(ex);
+            if (i == pos && digits > 0 && digits <= 15 && fraction < POW10.length) {
+                //exact, since both the mantissa and the power of 10 are exact
+                double value = mantissa / POW10[fraction];
+                return negative ? -value : value;
+            }
+            //exponent, many digits or invalid
+            try {
+                return Double.parseDouble(lineAt(buf, from, pos));
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
         }
-        return graph;
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.io;
+
+/**
+ * Thrown when the content of a file does not respect the expected graph
+ * format.
+ *
+ * @author Cristian Frăsinaru
+ */
+public class GraphFormatException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    private final long lineNumber;
+
+    /**
+     *
+     * @param msg a message.
+     * @param lineNumber the number of the malformed line, starting with 1, or
+     * {@code 0} if the error is not related to a specific line.
+     */
+    public GraphFormatException(String msg, long lineNumber) {
+        super(lineNumber > 0 ? "Line " + lineNumber + ": " + msg : msg);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     *
+     * @return the number of the malformed line, starting with 1, or {@code 0}
+     * if the error is not related to a specific line.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
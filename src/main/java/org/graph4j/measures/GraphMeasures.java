@@ -157,14 +157,74 @@ public class GraphMeasures {
 
     /**
      * A <em>triangle</em> is formed by three distinct vertices connected all
-     * with each other.
+     * with each other. In case of multigraphs, the triangles are counted
+     * according to the multiplicities of their edges, so the result may differ
+     * from the one of {@link #vertexTriangles(Graph)} and of the clustering
+     * coefficients, which consider the underlying simple graph.
      *
      * @param graph the input graph.
      * @return the number of triangles in the graph.
      * @see TriangleCounter
+     * @see ParallelTriangleCounter
      */
-    public static long numberOfTriangles(Graph graph) {        
-        return new TriangleCounter(graph).count();
+    public static long numberOfTriangles(Graph graph) {
+        if (graph.isAllowingMultipleEdges()) {
+            return new TriangleCounter(graph).count();
+        }
+        return new ParallelTriangleCounter(graph).count();
+    }
+
+    /**
+     * Returns the number of triangles containing each vertex. Multiple edges
+     * and self loops are ignored, that is the triangles of the underlying
+     * simple graph are counted.
+     *
+     * @param graph the input graph.
+     * @return the numbers of triangles, indexed by the vertex indices.
+     * @see ParallelTriangleCounter
+     */
+    public static long[] vertexTriangles(Graph graph) {
+        return new ParallelTriangleCounter(graph).vertexTriangles();
+    }
+
+    /**
+     * The local clustering coefficient of a vertex is the number of edges
+     * between its neighbors, divided by the number of pairs of neighbors. For
+     * multigraphs, the coefficients of the underlying simple graph are
+     * returned.
+     *
+     * @param graph the input graph.
+     * @return the local clustering coefficients, indexed by the vertex
+     * indices.
+     * @see ParallelTriangleCounter
+     */
+    public static double[] localClusteringCoefficients(Graph graph) {
+        return new ParallelTriangleCounter(graph).localClusteringCoefficients();
+    }
+
+    /**
+     * Multiple edges and self loops are ignored.
+     *
+     * @param graph the input graph.
+     * @return the average of the local clustering coefficients of the
+     * vertices.
+     * @see ParallelTriangleCounter
+     */
+    public static double averageClusteringCoefficient(Graph graph) {
+        return new ParallelTriangleCounter(graph).averageClusteringCoefficient();
+    }
+
+    /**
+     * The global clustering coefficient (transitivity) is the ratio between
+     * the number of closed triplets and the number of all triplets. Multiple
+     * edges and self loops are ignored.
+     *
+     * @param graph the input graph.
+     * @return the global clustering coefficient.
+     * @see ParallelTriangleCounter
+     */
+    public static double globalClusteringCoefficient(Graph graph) {
+        return new ParallelTriangleCounter(graph).globalClusteringCoefficient();
     }
 
     /**
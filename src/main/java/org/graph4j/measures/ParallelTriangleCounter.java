@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.measures;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import org.graph4j.Graph;
+import org.graph4j.UndirectedGraphAlgorithm;
+
+/**
+ * Counts the triangles of an undirected graph in parallel, globally and for
+ * each vertex, and computes the clustering coefficients. Multiple edges and
+ * self loops are ignored, that is the triangles of the underlying simple
+ * graph are counted.
+ *
+ * The vertices are ranked by their degrees and each edge is oriented from the
+ * lower ranked vertex to the higher ranked one, so that every vertex has at
+ * most <code>O(sqrt(|E|))</code> forward neighbors. The forward neighbors are
+ * stored as sorted arrays of ranks; for each edge (v,u), the triangles
+ * containing it are the common forward neighbors of v and u, found by merging
+ * the two arrays, or by galloping search if their sizes are very different.
+ * The vertices are processed in parallel, using the common fork-join pool.
+ *
+ * Complexity <code>O(|E|^{3/2})</code>.
+ *
+ * T. Schank, D. Wagner, "Finding, counting and listing all triangles in large
+ * graphs, an experimental study", WEA 2005.
+ *
+ * @see TriangleCounter
+ * @see GraphMeasures
+ * @author Cristian Frăsinaru
+ */
+public class ParallelTriangleCounter extends UndirectedGraphAlgorithm {
+
+    static final int GALLOP_RATIO = 32; //size ratio above which galloping is used
+
+    private final int n;
+    private int[] order; //order[r] = the index of the vertex with rank r
+    private int[] fwdStart, fwd; //forward neighbors, as ranks, in CSR format
+    private int[] degree; //the number of distinct neighbors, by vertex index
+    private long numTriangles = -1;
+    private long[] vertexTriangles; //by vertex index
+
+    /**
+     *
+     * @param graph the input graph.
+     */
+    public ParallelTriangleCounter(Graph graph) {
+        super(graph);
+        this.n = graph.numVertices();
+    }
+
+    /**
+     *
+     * @return the number of triangles in the graph.
+     */
+    public long count() {
+        if (numTriangles < 0) {
+            compute();
+        }
+        return numTriangles;
+    }
+
+    /**
+     * Returns the number of triangles containing each vertex, the values being
+     * indexed by the vertex indices.
+     *
+     * @return the numbers of triangles of the vertices.
+     */
+    public long[] vertexTriangles() {
+        if (vertexTriangles == null) {
+            compute();
+        }
+        return vertexTriangles;
+    }
+
+    //counts the triangles, globally and for each vertex, in a single pass
+    private void compute() {
+        if (fwd == null) {
+            init();
+        }
+        var counts = new AtomicLongArray(n);
+        numTriangles = IntStream.range(0, n).parallel()
+                .mapToLong(r -> countAt(r, counts))
+                .sum();
+        vertexTriangles = new long[n];
+        for (int r = 0; r < n; r++) {
+            vertexTriangles[order[r]] = counts.get(r);
+        }
+    }
+
+    /**
+     * The local clustering coefficient of a vertex is the number of edges
+     * between its neighbors, divided by the number of pairs of neighbors. It
+     * is 0 for vertices having less than two neighbors.
+     *
+     * @return the local clustering coefficients, indexed by the vertex
+     * indices.
+     */
+    public double[] localClusteringCoefficients() {
+        long[] triangles = vertexTriangles();
+        double[] coef = new double[n];
+        for (int i = 0; i < n; i++) {
+            long deg = numNeighbors(i);
+            if (deg > 1) {
+                coef[i] = 2.0 * triangles[i] / (deg * (deg - 1));
+            }
+        }
+        return coef;
+    }
+
+    /**
+     *
+     * @return the average of the local clustering coefficients.
+     */
+    public double averageClusteringCoefficient() {
+        if (n == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (double c : localClusteringCoefficients()) {
+            sum += c;
+        }
+        return sum / n;
+    }
+
+    /**
+     * The global clustering coefficient (transitivity) is the number of closed
+     * triplets divided by the number of all triplets, that is three times the
+     * number of triangles divided by the number of paths of length two.
+     *
+     * @return the global clustering coefficient.
+     */
+    public double globalClusteringCoefficient() {
+        long triangles = count();
+        long triplets = 0;
+        for (int i = 0; i < n; i++) {
+            long deg = numNeighbors(i);
+            triplets += deg * (deg - 1) / 2;
+        }
+        return triplets == 0 ? 0 : 3.0 * triangles / triplets;
+    }
+
+    //the number of distinct neighbors of the vertex at the specified index
+    private int numNeighbors(int vi) {
+        if (fwd == null) {
+            init();
+        }
+        return degree[vi];
+    }
+
+    private void init() {
+        int[] deg = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> deg[i] = graph.degree(graph.vertexAt(i)));
+        //counting sort by degree, the ties are broken by index
+        int maxDeg = 0;
+        for (int d : deg) {
+            maxDeg = Math.max(maxDeg, d);
+        }
+        int[] bin = new int[maxDeg + 2];
+        for (int d : deg) {
+            bin[d + 1]++;
+        }
+        for (int d = 1; d <= maxDeg + 1; d++) {
+            bin[d] += bin[d - 1];
+        }
+        order = new int[n];
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = bin[deg[i]]++;
+            order[rank[i]] = i;
+        }
+        //the forward neighbors, without duplicates and self loops
+        int[][] lists = new int[n][];
+        degree = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] neighbors = graph.neighbors(graph.vertexAt(i));
+            int[] ranks = new int[neighbors.length];
+            for (int j = 0; j < neighbors.length; j++) {
+                ranks[j] = rank[graph.indexOf(neighbors[j])];
+            }
+            Arrays.sort(ranks);
+            int r = rank[i], distinct = 0, count = 0;
+            for (int j = 0; j < ranks.length; j++) {
+                if (ranks[j] == r || (j > 0 && ranks[j] == ranks[j - 1])) {
+                    continue;
+                }
+                distinct++;
+                if (ranks[j] > r) {
+                    ranks[count++] = ranks[j];
+                }
+            }
+            degree[i] = distinct;
+            lists[r] = Arrays.copyOf(ranks, count);
+        });
+        fwdStart = new int[n + 1];
+        for (int r = 0; r < n; r++) {
+            fwdStart[r + 1] = fwdStart[r] + lists[r].length;
+        }
+        fwd = new int[fwdStart[n]];
+        IntStream.range(0, n).parallel().forEach(r -> {
+            System.arraycopy(lists[r], 0, fwd, fwdStart[r], lists[r].length);
+            lists[r] = null;
+        });
+    }
+
+    //the triangles whose lowest ranked vertex is r
+    private long countAt(int r, AtomicLongArray counts) {
+        long total = 0;
+        int start = fwdStart[r], end = fwdStart[r + 1];
+        for (int j = start; j < end; j++) {
+            int s = fwd[j];
+            //the common forward neighbors of r and s are after s in fwd[r]
+            int a = j + 1, b = fwdStart[s], bend = fwdStart[s + 1];
+            int sizeA = end - a, sizeB = bend - b;
+            if (sizeA == 0 || sizeB == 0) {
+                continue;
+            }
+            long found;
+            if (sizeA > GALLOP_RATIO * sizeB) {
+                found = gallop(b, bend, a, end, counts);
+            } else if (sizeB > GALLOP_RATIO * sizeA) {
+                found = gallop(a, end, b, bend, counts);
+            } else {
+                found = merge(a, end, b, bend, counts);
+            }
+            if (found > 0) {
+                counts.addAndGet(s, found);
+            }
+            total += found;
+        }
+        if (total > 0) {
+            counts.addAndGet(r, total); //every triangle found contains r
+        }
+        return total;
+    }
+
+    //the number of common values of fwd[a..aend) and fwd[b..bend)
+    private long merge(int a, int aend, int b, int bend, AtomicLongArray counts) {
+        long count = 0;
+        while (a < aend && b < bend) {
+            int x = fwd[a], y = fwd[b];
+            if (x == y) {
+                count++;
+                counts.incrementAndGet(x);
+            }
+            //branch-free advance
+            a += x <= y ? 1 : 0;
+            b += y <= x ? 1 : 0;
+        }
+        return count;
+    }
+
+    //searches each value of the small range in the large one, which is sorted
+    private long gallop(int small, int smallEnd, int large, int largeEnd, AtomicLongArray counts) {
+        long count = 0;
+        int lo = large;
+        for (int i = small; i < smallEnd && lo < largeEnd; i++) {
+            int x = fwd[i];
+            //exponential search for the first value >= x
+            int step = 1, hi = lo;
+            while (hi < largeEnd && fwd[hi] < x) {
+                lo = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int pos = Arrays.binarySearch(fwd, lo, Math.min(hi + 1, largeEnd), x);
+            if (pos >= 0) {
+                count++;
+                counts.incrementAndGet(x);
+                lo = pos + 1;
+            } else {
+                lo = -pos - 1;
+            }
+        }
+        return count;
+    }
+}
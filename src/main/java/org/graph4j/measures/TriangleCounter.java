@@ -18,6 +18,7 @@ package org.graph4j.measures;
 
 import org.graph4j.Graph;
 import org.graph4j.Multigraph;
+import org.graph4j.Pseudograph;
 import org.graph4j.UndirectedGraphAlgorithm;
 import org.graph4j.util.VertexList;
 
@@ -99,7 +100,7 @@ public class TriangleCounter extends UndirectedGraphAlgorithm {
      */
     public long count() {
         int n = graph.numVertices();
-        final int sqrtNumVertices = (int) Math.sqrt(n);
+        int sqrtNumVertices = (int) Math.sqrt(n);
 
         VertexList heavyHitters = new VertexList(graph, n);
         for (int v : graph.vertices()) {
@@ -110,20 +111,20 @@ public class TriangleCounter extends UndirectedGraphAlgorithm {
         long numberOfTriangles = naiveCount(heavyHitters);
 
         //for each vertex of the graph
-        for (int v : graph.vertices()) {
-            int vi = graph.indexOf(v);
+        for (int vi = 0; vi < n; vi++) {
+            int v = graph.vertexAt(vi);
             int vDeg = graph.degree(v);
             //for each neighbor of v
-            for (var vNeighbors = graph.neighborIterator(v); vNeighbors.hasNext();) {
-                int u = vNeighbors.next();
+            for (int vPos = 0, vSize = adjListSize(v); vPos < vSize; vPos++) {
+                int u = graph.neighborAt(v, vPos);
                 int ui = graph.indexOf(u);
                 if (vi >= ui) {
                     continue;
                 }
                 int uDeg = graph.degree(u);
                 //for each neighbor w of u (and v)
-                for (var uNeighbors = graph.neighborIterator(u); uNeighbors.hasNext();) {
-                    int w = uNeighbors.next();
+                for (int uPos = 0, uSize = adjListSize(u); uPos < uSize; uPos++) {
+                    int w = graph.neighborAt(u, uPos);
                     int wi = graph.indexOf(w);
                     int wDeg = graph.degree(w);
                     if (ui >= wi || (vDeg >= sqrtNumVertices && uDeg >= sqrtNumVertices && wDeg >= sqrtNumVertices)) {
@@ -138,4 +139,13 @@ public class TriangleCounter extends UndirectedGraphAlgorithm {
         }
         return numberOfTriangles;
     }
+
+    //the degree also counts the self loops, which are stored only once
+    private int adjListSize(int v) {
+        int deg = graph.degree(v);
+        if (graph.isAllowingSelfLoops()) {
+            deg -= ((Pseudograph) graph).selfLoops(v);
+        }
+        return deg;
+    }
 }
@@ -16,16 +16,13 @@
  */
 package org.graph4j.metrics;
 
-import java.util.Arrays;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
-import org.graph4j.traversal.BFSIterator;
+import org.graph4j.shortestpath.BitParallelAllPairsShortestPath;
 
 /**
- * Uses BFS from each vertex to compute the distances between all pairs of
- * vertices. Parallel implementation.
+ * Uses bit-parallel BFS, 64 sources at a time, to compute the distances
+ * between all pairs of vertices. Parallel implementation.
  *
  * Complexity O(n(n+m)).
  *
@@ -34,8 +31,6 @@ import org.graph4j.traversal.BFSIterator;
 @Deprecated
 class DistancesCalculator extends GraphAlgorithm {
 
-    private int[][] dist;
-
     public DistancesCalculator(Graph graph) {
         super(graph);
     }
@@ -46,44 +41,9 @@ class DistancesCalculator extends GraphAlgorithm {
      */
     public int[][] calculate() {
         int n = graph.numVertices();
-        this.dist = new int[n][n];
-        int cores = Runtime.getRuntime().availableProcessors();
-        var executor = Executors.newFixedThreadPool(cores);
-        for (int v : graph.vertices()) {
-            executor.execute(new Task(v));
-        }
-        executor.shutdown();
-        try {
-            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-        } catch (InterruptedException e) {
-        }
+        int[][] dist = new int[n][];
+        new BitParallelAllPairsShortestPath(graph).forEachRow((vi, d) -> dist[vi] = d.clone());
         return dist;
     }
 
-    //BFS starting in a specified vertex
-    private class Task implements Runnable {
-
-        int vertex;
-
-        public Task(int vertex) {
-            this.vertex = vertex;
-        }
-
-        @Override
-        public void run() {
-            int vi = graph.indexOf(vertex);
-            Arrays.fill(dist[vi], Integer.MAX_VALUE);
-            var bfs = new BFSIterator(graph, vertex);
-            while (bfs.hasNext()) {
-                var node = bfs.next();
-                if (node.component() > 0) {
-                    break;
-                }
-                int u = node.vertex();
-                int ui = graph.indexOf(u);
-                dist[vi][ui] = node.level();
-            }
-        }
-    }
-
 }
@@ -21,7 +21,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
-import org.graph4j.traversal.BFSIterator;
+import org.graph4j.traversal.BFSEngine;
 
 /**
  * Uses BFS from each vertex to compute all the eccentricities.
@@ -32,10 +32,10 @@ import org.graph4j.traversal.BFSIterator;
  *
  * @author Cristian Frăsinaru
  */
-@Deprecated
 class EccentricitiesCalculator extends GraphAlgorithm {
 
     private int[] ecc;
+    private ThreadLocal<BFSEngine> engines; //per-thread scratch buffers
 
     public EccentricitiesCalculator(Graph graph) {
         super(graph);
@@ -49,6 +49,7 @@ class EccentricitiesCalculator extends GraphAlgorithm {
         int n = graph.numVertices();
         this.ecc = new int[n];
         Arrays.fill(ecc, Integer.MAX_VALUE);
+        this.engines = BFSEngine.threadLocal(graph);
         int cores = Runtime.getRuntime().availableProcessors();
         var executor = Executors.newFixedThreadPool(cores);
         for (int v : graph.vertices()) {
@@ -59,6 +60,7 @@ class EccentricitiesCalculator extends GraphAlgorithm {
             executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
         } catch (InterruptedException e) {
         }
+        engines = null;
         return ecc;
     }
 
@@ -74,15 +76,9 @@ class EccentricitiesCalculator extends GraphAlgorithm {
         @Override
         public void run() {
             int vi = graph.indexOf(vertex);
-            var bfs = new BFSIterator(graph, vertex);
-            while (bfs.hasNext()) {
-                var node = bfs.next();
-                if (node.component() > 0) {
-                    ecc[vi] = Integer.MAX_VALUE;
-                    return;
-                }
-                ecc[vi] = node.level();
-            }
+            var bfs = engines.get();
+            bfs.run(vertex);
+            ecc[vi] = bfs.visitedAll() ? bfs.maxLevel() : Integer.MAX_VALUE;
         }
     }
 
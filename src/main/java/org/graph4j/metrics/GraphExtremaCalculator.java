@@ -19,7 +19,7 @@ package org.graph4j.metrics;
 import java.util.Arrays;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
-import org.graph4j.traversal.BFSIterator;
+import org.graph4j.traversal.BFSEngine;
 import org.graph4j.util.VertexSet;
 
 /**
@@ -47,6 +47,7 @@ class GraphExtremaCalculator extends GraphAlgorithm implements ExtremaCalculator
     private int radiusLB, radiusUB, diamLB, diamUB;
     private int[] eccLB, eccUB;
     private int[] dist;
+    private BFSEngine bfs;
     private VertexSet candidates;
     private boolean selector;
     private boolean connected;
@@ -201,17 +202,17 @@ class GraphExtremaCalculator extends GraphAlgorithm implements ExtremaCalculator
 
     private int computeEcc(int v) {
         Arrays.fill(dist, 0);
-        var bfs = new BFSIterator(graph, v);
-        int ecc = -1;
-        while (bfs.hasNext()) {
-            var node = bfs.next();
-            if (node.component() > 0) {
-                return Integer.MAX_VALUE;
-            }
-            ecc = node.level();
-            dist[graph.indexOf(node.vertex())] = ecc;
+        if (bfs == null) {
+            bfs = new BFSEngine(graph);
+        }
+        int count = bfs.run(v);
+        if (count < graph.numVertices()) {
+            return Integer.MAX_VALUE;
+        }
+        for (int k = 0; k < count; k++) {
+            dist[bfs.indexAt(k)] = bfs.levelAt(k);
         }
-        return ecc;
+        return bfs.maxLevel();
     }
 
     private int selectVertex() {
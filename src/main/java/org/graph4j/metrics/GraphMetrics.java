@@ -22,6 +22,7 @@ import org.graph4j.util.Cycle;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
 import org.graph4j.shortestpath.AllPairsShortestPath;
+import org.graph4j.shortestpath.BitParallelAllPairsShortestPath;
 import org.graph4j.shortestpath.SinglePairShortestPath;
 import org.graph4j.shortestpath.SingleSourceShortestPath;
 import org.graph4j.util.VertexSet;
@@ -161,10 +162,19 @@ public class GraphMetrics extends GraphAlgorithm {
         if (ecc != null) {
             return ecc;
         }
+        int n = graph.numVertices();
+        if (dist == null && !graph.hasEdgeWeights()) {
+            //BFS from each vertex, without storing all the distances
+            int[] e = new EccentricitiesCalculator(graph).calculate();
+            this.ecc = new double[n];
+            for (int i = 0; i < n; i++) {
+                ecc[i] = e[i] == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : e[i];
+            }
+            return ecc;
+        }
         if (dist == null) {
             distances();
         }
-        int n = graph.numVertices();
         this.ecc = new double[n];
         Arrays.fill(ecc, Double.NEGATIVE_INFINITY);
         for (int i = 0; i < n; i++) {
@@ -175,7 +185,6 @@ public class GraphMetrics extends GraphAlgorithm {
                 }
             }
         }
-        //ecc = new EccentricitiesCalculator(graph).calculate();
         return ecc;
     }
 
@@ -388,11 +397,24 @@ public class GraphMetrics extends GraphAlgorithm {
      * @return the average path length.
      */
     public double averagePathLength() {
+        int n = graph.numVertices();
+        if (dist == null && !graph.hasEdgeWeights()) {
+            //bit-parallel BFS, without storing all the distances
+            long[] sums = new long[n];
+            new BitParallelAllPairsShortestPath(graph).forEachRow((vi, d) -> {
+                long s = 0;
+                for (int j = 0; j < n; j++) {
+                    if (d[j] != BitParallelAllPairsShortestPath.UNREACHABLE) {
+                        s += d[j];
+                    }
+                }
+                sums[vi] = s;
+            });
+            return Arrays.stream(sums).sum() / ((double) n * (n - 1));
+        }
         if (dist == null) {
             distances();
-            //dist = new DistancesCalculator(graph).calculate();
         }
-        int n = graph.numVertices();
         double sum = 0;
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
@@ -401,6 +423,6 @@ public class GraphMetrics extends GraphAlgorithm {
                 }
             }
         }
-        return sum / (n * (n - 1));
+        return sum / ((double) n * (n - 1));
     }
 }
@@ -19,7 +19,7 @@ package org.graph4j.metrics;
 import java.util.Arrays;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
-import org.graph4j.traversal.BFSIterator;
+import org.graph4j.traversal.BFSEngine;
 import org.graph4j.util.VertexSet;
 
 /**
@@ -202,9 +202,11 @@ class ParallelExtremaCalculator extends GraphAlgorithm {
     private class Worker extends Thread {
 
         int[] dist;
+        BFSEngine bfs;
 
         public Worker() {
             this.dist = new int[graph.numVertices()];
+            this.bfs = new BFSEngine(graph);
         }
 
         @Override
@@ -238,18 +240,14 @@ class ParallelExtremaCalculator extends GraphAlgorithm {
         }
 
         private int computeEcc(int v) {
-            int ecc = Integer.MAX_VALUE;
-            var bfs = new BFSIterator(graph, v);
-            while (bfs.hasNext()) {
-                var node = bfs.next();
-                if (node.component() > 0) {
-                    return Integer.MAX_VALUE;
-                }
-                int u = node.vertex();
-                int ui = graph.indexOf(u);
-                ecc = dist[ui] = node.level();
+            int count = bfs.run(v);
+            if (count < graph.numVertices()) {
+                return Integer.MAX_VALUE;
+            }
+            for (int k = 0; k < count; k++) {
+                dist[bfs.indexAt(k)] = bfs.levelAt(k);
             }
-            return ecc;
+            return bfs.maxLevel();
         }
 
         private void updateBounds(int ecc) {
@@ -123,10 +123,12 @@ public class VertexOrderings {
      */
     public static int[] largestDegreeFirst(Graph graph) {
         int[] deg = graph.degrees();
-        int n = deg.length;
         return IntStream.of(graph.vertices())
                 .boxed()
-                .sorted((v, u) -> n * (deg[graph.indexOf(u)] - deg[graph.indexOf(v)]) + (v - u))
+                .sorted((v, u) -> {
+                    int cmp = Integer.compare(deg[graph.indexOf(u)], deg[graph.indexOf(v)]);
+                    return cmp != 0 ? cmp : Integer.compare(v, u);
+                })
                 .mapToInt(Integer::intValue)
                 .toArray();
     }
@@ -142,10 +144,12 @@ public class VertexOrderings {
      */
     public static int[] smallestDegreeFirst(Graph graph) {
         int[] deg = graph.degrees();
-        int n = deg.length;
         return IntStream.of(graph.vertices())
                 .boxed()
-                .sorted((v, u) -> n * (deg[graph.indexOf(v)] - deg[graph.indexOf(u)]) + (v - u))
+                .sorted((v, u) -> {
+                    int cmp = Integer.compare(deg[graph.indexOf(v)], deg[graph.indexOf(u)]);
+                    return cmp != 0 ? cmp : Integer.compare(v, u);
+                })
                 .mapToInt(Integer::intValue)
                 .toArray();
     }
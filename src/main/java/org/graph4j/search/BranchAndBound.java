@@ -0,0 +1,447 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.graph4j.exceptions.AlgorithmTimeoutException;
+
+/**
+ * A parallel branch-and-bound engine. It explores the search tree of a
+ * {@link SearchSpace}, pruning the nodes whose bounds are not better than the
+ * best solution found so far (the incumbent).
+ *
+ * The nodes are scheduled by a work-stealing pool: each thread explores its
+ * own nodes in depth-first order, while idle threads steal the unexplored
+ * nodes closest to the root. By default, the common pool is used. The incumbent is shared by all the threads and
+ * it is updated without locking. In deterministic mode, or if a single thread
+ * is used, the tree is explored in depth-first order by the calling thread, so
+ * the results are reproducible.
+ *
+ * The search may be limited by time or by the number of expanded nodes; when
+ * a limit is reached, {@link #search(Object)} throws an
+ * {@link AlgorithmTimeoutException}, and the best solution found until then
+ * is still available using {@link #getSolution()}.
+ *
+ * @param <N> the type of the nodes of the search tree.
+ * @param <S> the type of the solutions.
+ * @author Cristian Frăsinaru
+ */
+public class BranchAndBound<N, S> {
+
+    private final SearchSpace<N, S> space;
+    private final boolean maximize;
+    private int numThreads; //0 if the search runs in the pool below
+    private ForkJoinPool pool; //null for the common pool
+    private boolean deterministic;
+    private long timeLimit; //milliseconds
+    private long nodeLimit;
+    //
+    private final AtomicReference<Incumbent<S>> incumbent = new AtomicReference<>();
+    private final AtomicLong numExpanded = new AtomicLong();
+    private final LongAdder numPruned = new LongAdder();
+    private volatile boolean stopped;
+    private volatile boolean limitReached;
+    private long deadline;
+    private long elapsedTime; //nanoseconds
+    private Deque<Task> stack; //deterministic mode
+
+    private static class Incumbent<S> {
+
+        final S solution;
+        final double value;
+
+        Incumbent(S solution, double value) {
+            this.solution = solution;
+            this.value = value;
+        }
+    }
+
+    private BranchAndBound(SearchSpace<N, S> space, boolean maximize) {
+        this.space = Objects.requireNonNull(space);
+        this.maximize = maximize;
+    }
+
+    /**
+     * Creates an engine that searches for a solution of maximum value.
+     *
+     * @param <N> the type of the nodes of the search tree.
+     * @param <S> the type of the solutions.
+     * @param space the search space.
+     * @return a branch-and-bound engine.
+     */
+    public static <N, S> BranchAndBound<N, S> maximizing(SearchSpace<N, S> space) {
+        return new BranchAndBound<>(space, true);
+    }
+
+    /**
+     * Creates an engine that searches for a solution of minimum value.
+     *
+     * @param <N> the type of the nodes of the search tree.
+     * @param <S> the type of the solutions.
+     * @param space the search space.
+     * @return a branch-and-bound engine.
+     */
+    public static <N, S> BranchAndBound<N, S> minimizing(SearchSpace<N, S> space) {
+        return new BranchAndBound<>(space, false);
+    }
+
+    /**
+     *
+     * @return the number of threads exploring the search tree, or {@code 0}
+     * if the search runs in a shared pool.
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Sets the number of threads exploring the search tree. A pool with the
+     * specified number of threads is created for each search and it is shut
+     * down when the search ends.
+     *
+     * @param numThreads the number of threads.
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numThreads);
+        }
+        this.numThreads = numThreads;
+        this.pool = null;
+        return this;
+    }
+
+    /**
+     *
+     * @return the pool in which the search runs, {@code null} if the common
+     * pool or a dedicated one is used.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets the pool in which the search runs, instead of the common pool. The
+     * pool is not shut down by the engine.
+     *
+     * @param pool a fork-join pool.
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setPool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+        this.numThreads = 0;
+        return this;
+    }
+
+    /**
+     *
+     * @return {@code true} if the search is deterministic.
+     */
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * In deterministic mode, the search tree is explored by the calling
+     * thread, in depth-first order.
+     *
+     * @param deterministic {@code true} for a deterministic search.
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+        return this;
+    }
+
+    /**
+     *
+     * @param timeLimit a time limit, in milliseconds (0 for no limit).
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    /**
+     *
+     * @param nodeLimit the maximum number of expanded nodes (0 for no limit).
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+        return this;
+    }
+
+    /**
+     * Sets the initial incumbent, for example a solution computed by a
+     * heuristic. Only the nodes that may lead to better solutions are
+     * explored.
+     *
+     * @param solution a solution, may be {@code null} if only its value is
+     * known.
+     * @param value the value of the solution.
+     * @return this engine.
+     */
+    public BranchAndBound<N, S> setIncumbent(S solution, double value) {
+        incumbent.set(new Incumbent<>(solution, value));
+        return this;
+    }
+
+    /**
+     * Explores the search tree having the specified root.
+     *
+     * @param root the root of the search tree.
+     * @return the best solution found, the initial incumbent if no better
+     * solution was found, or {@code null} if there is no solution.
+     * @throws AlgorithmTimeoutException if the time limit or the node limit
+     * was reached.
+     */
+    public S search(N root) {
+        stopped = false;
+        limitReached = false;
+        numExpanded.set(0);
+        numPruned.reset();
+        long start = System.nanoTime();
+        deadline = timeLimit > 0 ? start + Math.min(timeLimit, Long.MAX_VALUE / 2_000_000) * 1_000_000 : 0;
+        var rootTask = new Task(null, root);
+        try {
+            if (deterministic || numThreads == 1) {
+                stack = new ArrayDeque<>();
+                stack.push(rootTask);
+                while (!stack.isEmpty()) {
+                    stack.pop().compute();
+                }
+            } else if (numThreads > 1) {
+                stack = null;
+                var dedicated = new ForkJoinPool(numThreads);
+                try {
+                    dedicated.invoke(rootTask);
+                } finally {
+                    dedicated.shutdownNow();
+                }
+            } else {
+                stack = null;
+                (pool != null ? pool : ForkJoinPool.commonPool()).invoke(rootTask);
+            }
+        } finally {
+            stack = null;
+            elapsedTime = System.nanoTime() - start;
+        }
+        if (limitReached) {
+            throw new AlgorithmTimeoutException("The search limit was reached.");
+        }
+        return getSolution();
+    }
+
+    /**
+     * Stops the search.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     *
+     * @return the best solution found so far, or the initial incumbent.
+     */
+    public S getSolution() {
+        var inc = incumbent.get();
+        return inc == null ? null : inc.solution;
+    }
+
+    /**
+     *
+     * @return the value of the best solution found so far, or an infinite
+     * value if there is no solution.
+     */
+    public double getSolutionValue() {
+        var inc = incumbent.get();
+        if (inc == null) {
+            return maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return inc.value;
+    }
+
+    /**
+     *
+     * @return {@code true} if the last search reached the time or the node
+     * limit.
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     *
+     * @return the number of nodes expanded by the last search.
+     */
+    public long nodesExplored() {
+        return numExpanded.get();
+    }
+
+    /**
+     *
+     * @return the number of nodes pruned by the last search, using their
+     * bounds.
+     */
+    public long nodesPruned() {
+        return numPruned.sum();
+    }
+
+    /**
+     *
+     * @return the duration of the last search, in milliseconds.
+     */
+    public long elapsedTime() {
+        return elapsedTime / 1_000_000;
+    }
+
+    /**
+     *
+     * @return the number of nodes expanded per second by the last search.
+     */
+    public double nodesPerSecond() {
+        return elapsedTime == 0 ? 0 : numExpanded.get() * 1e9 / elapsedTime;
+    }
+
+    private boolean improves(double value) {
+        double current = getSolutionValue();
+        return maximize ? value > current : value < current;
+    }
+
+    private boolean submit(S solution, double value) {
+        var candidate = new Incumbent<>(solution, value);
+        while (true) {
+            var current = incumbent.get();
+            if (current != null && !(maximize ? value > current.value : value < current.value)) {
+                return false;
+            }
+            if (incumbent.compareAndSet(current, candidate)) {
+                return true;
+            }
+        }
+    }
+
+    //checks the limits before expanding a node
+    private boolean canExpand() {
+        if (stopped) {
+            return false;
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            limitReached = true;
+            stopped = true;
+            return false;
+        }
+        if (numExpanded.incrementAndGet() > nodeLimit && nodeLimit > 0) {
+            numExpanded.decrementAndGet();
+            limitReached = true;
+            stopped = true;
+            return false;
+        }
+        return true;
+    }
+
+    //explores the subtree of a node
+    private class Task extends CountedCompleter<Void> implements SearchContext<N, S> {
+
+        private static final long serialVersionUID = 1L;
+        final N node;
+        List<N> children;
+        boolean expanded;
+
+        Task(Task parent, N node) {
+            super(parent);
+            this.node = node;
+        }
+
+        @Override
+        public void compute() {
+            double bound = space.bound(node);
+            if (!Double.isNaN(bound) && !improves(bound)) {
+                numPruned.increment();
+            } else if (canExpand()) {
+                expanded = true;
+                try {
+                    space.expand(node, this);
+                } catch (RuntimeException | Error e) {
+                    stopped = true;
+                    throw e;
+                }
+                if (children != null) {
+                    int k = children.size();
+                    addToPendingCount(k);
+                    //the first child is scheduled last, so it is explored first
+                    for (int i = k - 1; i >= 0; i--) {
+                        var task = new Task(this, children.get(i));
+                        if (stack != null) {
+                            stack.push(task);
+                        } else {
+                            task.fork();
+                        }
+                    }
+                    children = null;
+                }
+            }
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (expanded && !stopped) {
+                space.completed(node);
+            }
+        }
+
+        @Override
+        public void branch(N child) {
+            if (children == null) {
+                children = new ArrayList<>();
+            }
+            children.add(child);
+        }
+
+        @Override
+        public boolean submit(S solution, double value) {
+            return BranchAndBound.this.submit(solution, value);
+        }
+
+        @Override
+        public double incumbentValue() {
+            return getSolutionValue();
+        }
+
+        @Override
+        public boolean improves(double value) {
+            return BranchAndBound.this.improves(value);
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.search;
+
+/**
+ * The operations available to a {@link SearchSpace} while expanding a node.
+ *
+ * @param <N> the type of the nodes of the search tree.
+ * @param <S> the type of the solutions.
+ * @author Cristian Frăsinaru
+ */
+public interface SearchContext<N, S> {
+
+    /**
+     * Adds a successor of the node being expanded. The successors are
+     * explored in the order they were added, unless they are stolen by other
+     * threads.
+     *
+     * @param child a successor of the current node.
+     */
+    void branch(N child);
+
+    /**
+     * Reports a solution. The solution becomes the incumbent (the best
+     * solution found so far) if its value is better than the value of the
+     * current incumbent.
+     *
+     * @param solution a solution.
+     * @param value the value of the solution.
+     * @return {@code true} if the solution became the incumbent.
+     */
+    boolean submit(S solution, double value);
+
+    /**
+     * Returns the value of the best solution found so far, by any thread. If
+     * there is no solution, it returns {@code Double.NEGATIVE_INFINITY} for
+     * maximization problems and {@code Double.POSITIVE_INFINITY} for
+     * minimization problems.
+     *
+     * @return the value of the incumbent.
+     */
+    double incumbentValue();
+
+    /**
+     * Checks if a value is better than the value of the incumbent.
+     *
+     * @param value a value.
+     * @return {@code true} if a solution with the specified value would
+     * become the incumbent.
+     */
+    boolean improves(double value);
+
+    /**
+     * Stops the search, for example when the incumbent is known to be
+     * optimal. The nodes that are not yet expanded are discarded.
+     */
+    void stop();
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.search;
+
+/**
+ * The search space explored by a {@link BranchAndBound} engine. The nodes of
+ * the search tree are created by the problem: the engine only schedules them
+ * and invokes the methods of this interface, possibly from several threads at
+ * the same time. A node may be a lightweight decision, whose effects are
+ * computed only when it is expanded.
+ *
+ * @param <N> the type of the nodes of the search tree.
+ * @param <S> the type of the solutions.
+ * @author Cristian Frăsinaru
+ */
+public interface SearchSpace<N, S> {
+
+    /**
+     * Expands a node of the search tree. The successors of the node are
+     * added using {@link SearchContext#branch(Object)}, in the order they
+     * should be explored, and the solutions are reported using
+     * {@link SearchContext#submit(Object, double)}.
+     *
+     * @param node a node of the search tree.
+     * @param context the context of the search.
+     */
+    void expand(N node, SearchContext<N, S> context);
+
+    /**
+     * Returns an optimistic bound of the values of the solutions that can be
+     * found in the subtree of a node: an upper bound, for maximization
+     * problems, or a lower bound, for minimization problems. The node is not
+     * expanded if its bound is not better than the value of the best solution
+     * found so far. The default implementation returns {@code Double.NaN},
+     * meaning that the node has no bound.
+     *
+     * @param node a node of the search tree.
+     * @return a bound of the values of the solutions in the subtree of the
+     * node, or {@code Double.NaN}.
+     */
+    default double bound(N node) {
+        return Double.NaN;
+    }
+
+    /**
+     * Invoked after all the successors of an expanded node have been
+     * explored, unless the search was stopped.
+     *
+     * @param node a node of the search tree.
+     */
+    default void completed(N node) {
+    }
+}
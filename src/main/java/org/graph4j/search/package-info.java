@@ -0,0 +1,5 @@
+/**
+ * A parallel branch-and-bound engine, used by the exact (exponential)
+ * algorithms of the library.
+ */
+package org.graph4j.search;
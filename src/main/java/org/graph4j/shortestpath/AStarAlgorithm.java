@@ -4,7 +4,7 @@ import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
 import org.graph4j.util.Validator;
 import org.graph4j.util.Path;
-import org.graph4j.util.VertexHeap;
+import org.graph4j.util.IndexedDoubleHeap;
 
 import java.util.Arrays;
 
@@ -29,7 +29,6 @@ public class AStarAlgorithm extends GraphAlgorithm implements SinglePairShortest
     protected int[] size;
     protected boolean[] solved;
     protected int numSolved;
-    private VertexHeap heap;
     private final AStarEstimator heuristic;
 
     /**
@@ -80,6 +79,20 @@ public class AStarAlgorithm extends GraphAlgorithm implements SinglePairShortest
         return cost[graph.indexOf(target)];
     }
 
+    /**
+     * Returns the number of vertices whose shortest paths from the source were
+     * determined before reaching the target, which measures the quality of the
+     * heuristic.
+     *
+     * @return the number of solved vertices.
+     */
+    public int numSolved() {
+        if (cost == null) {
+            compute();
+        }
+        return numSolved;
+    }
+
     //computes the path from the source to the target
     protected void compute() {
         int n = vertices.length;
@@ -90,19 +103,20 @@ public class AStarAlgorithm extends GraphAlgorithm implements SinglePairShortest
         this.numSolved = 0;
         Arrays.fill(cost, Double.POSITIVE_INFINITY);
         Arrays.fill(before, -1);
-        cost[graph.indexOf(source)] = 0;
-        this.heap = new VertexHeap(graph,
-                (i, j) -> (int) Math.signum(cost[i] + heuristic.estimate(i, target)
-                        - cost[j] - heuristic.estimate(j, target)));
-
-        while (true) {
+        int si = graph.indexOf(source);
+        int ti = graph.indexOf(target);
+        cost[si] = 0;
+        //the priority of a vertex is its cost plus the estimated distance to the target
+        var heap = new IndexedDoubleHeap(n);
+        heap.addOrDecrease(si, heuristic.estimate(si, ti));
+        while (!heap.isEmpty()) {
             int vi = heap.poll();
             solved[vi] = true;
             numSolved++;
-            int v = vertices[vi];
-            if (v == target || numSolved == n) {
+            if (vi == ti) {
                 break;
             }
+            int v = vertices[vi];
             for (var it = graph.neighborIterator(v); it.hasNext();) {
                 int u = it.next();
                 int ui = graph.indexOf(u);
@@ -118,7 +132,7 @@ public class AStarAlgorithm extends GraphAlgorithm implements SinglePairShortest
                     cost[ui] = cost[vi] + weight;
                     before[ui] = vi;
                     size[ui] = size[vi] + 1;
-                    heap.update(ui);
+                    heap.addOrDecrease(ui, cost[ui] + heuristic.estimate(ui, ti));
                 }
             }
         }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Objects;
+
+/**
+ * An estimator for the A* algorithm based on landmarks, which does not require
+ * the coordinates of the vertices. The estimated distance between two vertices
+ * is the lower bound given by the triangle inequality and the precomputed
+ * distances to and from the landmarks. The estimation is admissible and
+ * consistent, so {@link AStarAlgorithm} always finds the shortest paths.
+ *
+ * @see LandmarkTable
+ * @author Cristian Frăsinaru
+ */
+public class AStarLandmarkEstimator implements AStarEstimator {
+
+    private final LandmarkTable table;
+
+    /**
+     * Creates an estimator based on the specified landmarks.
+     *
+     * @param table the landmark distances.
+     */
+    public AStarLandmarkEstimator(LandmarkTable table) {
+        this.table = Objects.requireNonNull(table);
+    }
+
+    /**
+     *
+     * @return the landmark distances used by this estimator.
+     */
+    public LandmarkTable getTable() {
+        return table;
+    }
+
+    @Override
+    public double estimate(int vertex, int target) {
+        return table.lowerBoundAt(vertex, target);
+    }
+}
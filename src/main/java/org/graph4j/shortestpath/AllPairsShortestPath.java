@@ -88,7 +88,7 @@ public interface AllPairsShortestPath {
      */
     static AllPairsShortestPath getInstance(Graph graph) {
         if (!graph.hasEdgeWeights()) {
-            return new BFSAllPairsShortestPath(graph);
+            return new BitParallelAllPairsShortestPath(graph);
         }
         return new JohnsonShortestPath(graph);
     }
@@ -22,7 +22,7 @@ import java.util.concurrent.TimeUnit;
 import org.graph4j.Graph;
 import org.graph4j.util.Path;
 import org.graph4j.GraphAlgorithm;
-import org.graph4j.traversal.BFSIterator;
+import org.graph4j.traversal.BFSEngine;
 import org.graph4j.util.Validator;
 
 /**
@@ -36,7 +36,8 @@ public class BFSAllPairsShortestPath extends GraphAlgorithm
 
     private double[][] dist;
     private int[][] before;
-    //before[i][j] = the vertex before j on the shortest path from i to j
+    //before[i][j] = the index of the vertex before j on the shortest path from i to j
+    private ThreadLocal<BFSEngine> engines; //per-thread scratch buffers
 
     /**
      * Creates an algorithm for finding all pair shortest paths in an unweighted
@@ -89,6 +90,7 @@ public class BFSAllPairsShortestPath extends GraphAlgorithm
         int n = graph.numVertices();
         this.dist = new double[n][n];
         this.before = new int[n][n];
+        this.engines = BFSEngine.threadLocal(graph);
         int cores = Runtime.getRuntime().availableProcessors();
         var executor = Executors.newFixedThreadPool(cores);
         for (int v : graph.vertices()) {
@@ -99,6 +101,7 @@ public class BFSAllPairsShortestPath extends GraphAlgorithm
             executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
         } catch (InterruptedException e) {
         }
+        engines = null;
     }
 
     private Path createPathBetween(int vi, int ui) {
@@ -126,18 +129,11 @@ public class BFSAllPairsShortestPath extends GraphAlgorithm
             int vi = graph.indexOf(vertex);
             Arrays.fill(dist[vi], Double.POSITIVE_INFINITY);
             Arrays.fill(before[vi], -1);
-            var bfs = new BFSIterator(graph, vertex);
-            while (bfs.hasNext()) {
-                var node = bfs.next();
-                if (node.component() > 0) {
-                    break;
-                }
-                int u = node.vertex();
-                int ui = graph.indexOf(u);
-                dist[vi][ui] = node.level();
-                if (node.parent() != null) {
-                    before[vi][ui] = node.parent().vertex();
-                }
+            var bfs = engines.get();
+            for (int k = 0, count = bfs.run(vertex); k < count; k++) {
+                int ui = bfs.indexAt(k);
+                dist[vi][ui] = bfs.levelAt(k);
+                before[vi][ui] = bfs.parentIndexAt(k);
             }
         }
     }
@@ -19,7 +19,9 @@ package org.graph4j.shortestpath;
 import java.util.Arrays;
 import org.graph4j.Graph;
 import org.graph4j.GraphAlgorithm;
+import org.graph4j.traversal.BFSEngine;
 import org.graph4j.traversal.BFSIterator;
+import org.graph4j.traversal.ParallelBFS;
 import org.graph4j.util.Validator;
 import org.graph4j.util.Path;
 
@@ -59,7 +61,7 @@ public class BFSSingleSourceShortestPath extends GraphAlgorithm
     public Path computePath(int target) {
         Validator.containsVertex(graph, target);
         compute(target);
-        return createPathEndingIn(target);
+        return createPathEndingIn(graph.indexOf(target));
     }
 
     @Override
@@ -100,7 +102,10 @@ public class BFSSingleSourceShortestPath extends GraphAlgorithm
         Arrays.fill(dist, Double.POSITIVE_INFINITY);
         Arrays.fill(before, -1);
         dist[graph.indexOf(source)] = 0;
-
+        if (target < 0) {
+            computeAll();
+            return;
+        }
         var bfs = new BFSIterator(graph, source);
         while (bfs.hasNext()) {
             var node = bfs.next();
@@ -111,13 +116,36 @@ public class BFSSingleSourceShortestPath extends GraphAlgorithm
             int ui = graph.indexOf(u);
             dist[ui] = node.level();
             if (node.parent() != null) {
-                before[ui] = node.parent().vertex();
+                before[ui] = graph.indexOf(node.parent().vertex());
             }
             if (u == target) {
                 break;
             }
         }
+    }
 
+    //large graphs are traversed using a parallel BFS
+    private void computeAll() {
+        if (graph.numVertices() >= ParallelBFS.PARALLEL_THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1) {
+            var bfs = new ParallelBFS(graph);
+            bfs.run(source);
+            int[] level = bfs.levels();
+            int[] parent = bfs.parents();
+            for (int i = 0, n = level.length; i < n; i++) {
+                if (level[i] >= 0) {
+                    dist[i] = level[i];
+                    before[i] = parent[i];
+                }
+            }
+            return;
+        }
+        var bfs = new BFSEngine(graph);
+        for (int k = 0, count = bfs.run(source); k < count; k++) {
+            int ui = bfs.indexAt(k);
+            dist[ui] = bfs.levelAt(k);
+            before[ui] = bfs.parentIndexAt(k);
+        }
     }
 
     protected Path createPathEndingIn(int vi) {
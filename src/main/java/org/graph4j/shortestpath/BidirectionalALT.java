@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import org.graph4j.Digraph;
+import org.graph4j.GraphAlgorithm;
+import org.graph4j.util.IndexedDoubleHeap;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * Determines the shortest path between two vertices using a bidirectional
+ * search guided by landmarks (the ALT algorithm). The forward and the backward
+ * searches are both A* searches, using the average potential function
+ * {@code p(v) = (h_t(v) - h_s(v)) / 2}, where {@code h_t(v)} is the lower
+ * bound of the distance from v to the target and {@code h_s(v)} the lower bound
+ * of the distance from the source to v, given by a {@link LandmarkTable}. The
+ * potential is consistent for both searches, so the algorithm stops as soon as
+ * the sum of the minimum keys of the two searches reaches the weight of the
+ * best path found.
+ *
+ * A. V. Goldberg, C. Harrelson, "Computing the shortest path: A* search meets
+ * graph theory", SODA 2005.
+ *
+ * @see BidirectionalDijkstra
+ * @author Cristian Frăsinaru
+ */
+public class BidirectionalALT extends GraphAlgorithm implements SinglePairShortestPath {
+
+    private final LandmarkTable table;
+    private final int source;
+    private final int target;
+    //
+    private Path bestPath;
+    private double bestWeight;
+    private int numSolved;
+    private boolean computed;
+
+    /**
+     * Creates an algorithm to find the shortest path between source and target.
+     *
+     * @param table the landmark distances of the input graph.
+     * @param source the source vertex number.
+     * @param target the target vertex number.
+     */
+    public BidirectionalALT(LandmarkTable table, int source, int target) {
+        super(table.getGraph());
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        this.table = table;
+        this.source = source;
+        this.target = target;
+    }
+
+    @Override
+    public int getSource() {
+        return source;
+    }
+
+    @Override
+    public int getTarget() {
+        return target;
+    }
+
+    @Override
+    public Path findPath() {
+        if (!computed) {
+            compute();
+        }
+        return bestPath;
+    }
+
+    @Override
+    public double getPathWeight() {
+        if (!computed) {
+            compute();
+        }
+        return bestWeight;
+    }
+
+    /**
+     * Returns the number of vertices solved by the two searches, which measures
+     * the quality of the landmarks.
+     *
+     * @return the number of solved vertices.
+     */
+    public int numSolved() {
+        if (!computed) {
+            compute();
+        }
+        return numSolved;
+    }
+
+    private void compute() {
+        computed = true;
+        bestWeight = Double.POSITIVE_INFINITY; //bestPath is null
+        int si = graph.indexOf(source);
+        int ti = graph.indexOf(target);
+        if (si == ti) {
+            bestWeight = 0;
+            bestPath = new Path(graph, new int[]{source});
+            return;
+        }
+        int n = graph.numVertices();
+        double[] costF = new double[n];
+        double[] costB = new double[n];
+        int[] beforeF = new int[n];
+        int[] beforeB = new int[n];
+        boolean[] solvedF = new boolean[n];
+        boolean[] solvedB = new boolean[n];
+        double[] potential = new double[n]; //the forward potential, computed lazily
+        Arrays.fill(costF, Double.POSITIVE_INFINITY);
+        Arrays.fill(costB, Double.POSITIVE_INFINITY);
+        Arrays.fill(potential, Double.NaN);
+        costF[si] = 0;
+        costB[ti] = 0;
+        beforeF[si] = -1;
+        beforeB[ti] = -1;
+        //forward keys: cost + p(v), backward keys: cost - p(v)
+        var heapF = new IndexedDoubleHeap(n);
+        var heapB = new IndexedDoubleHeap(n);
+        heapF.addOrDecrease(si, potential(potential, si, si, ti));
+        heapB.addOrDecrease(ti, -potential(potential, ti, si, ti));
+
+        int meeting = -1;
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            double topF = heapF.peekPriority();
+            double topB = heapB.peekPriority();
+            if (topF + topB >= bestWeight) {
+                break;
+            }
+            boolean forward = topF <= topB;
+            var heap = forward ? heapF : heapB;
+            double[] cost = forward ? costF : costB;
+            double[] otherCost = forward ? costB : costF;
+            int[] before = forward ? beforeF : beforeB;
+            boolean[] solved = forward ? solvedF : solvedB;
+            int vi = heap.poll();
+            solved[vi] = true;
+            numSolved++;
+            int v = graph.vertexAt(vi);
+            for (var it = forward || !directed
+                    ? graph.neighborIterator(v) : ((Digraph) graph).predecessorIterator(v);
+                    it.hasNext();) {
+                int u = it.next();
+                int ui = graph.indexOf(u);
+                if (solved[ui]) {
+                    continue;
+                }
+                double weight = it.getEdgeWeight();
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weighted edges are not permited: "
+                            + (forward ? graph.edge(v, u) : graph.edge(u, v)));
+                }
+                double newCost = cost[vi] + weight;
+                if (cost[ui] > newCost) {
+                    cost[ui] = newCost;
+                    before[ui] = vi;
+                    double p = potential(potential, ui, si, ti);
+                    heap.addOrDecrease(ui, forward ? newCost + p : newCost - p);
+                    if (cost[ui] + otherCost[ui] < bestWeight) {
+                        bestWeight = cost[ui] + otherCost[ui];
+                        meeting = ui;
+                    }
+                }
+            }
+        }
+        if (meeting < 0) {
+            return;
+        }
+        //s --- meeting --- t
+        bestPath = new Path(graph);
+        for (int vi = meeting; vi >= 0; vi = beforeF[vi]) {
+            bestPath.add(graph.vertexAt(vi));
+        }
+        bestPath.reverse();
+        for (int wi = beforeB[meeting]; wi >= 0; wi = beforeB[wi]) {
+            bestPath.add(graph.vertexAt(wi));
+        }
+    }
+
+    private double potential(double[] potential, int vi, int si, int ti) {
+        double p = potential[vi];
+        if (Double.isNaN(p)) {
+            p = (table.lowerBoundAt(vi, ti) - table.lowerBoundAt(si, vi)) / 2;
+            potential[vi] = p;
+        }
+        return p;
+    }
+}
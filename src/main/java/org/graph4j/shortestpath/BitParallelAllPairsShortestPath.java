@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphAlgorithm;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * Determines the distances between all pairs of vertices, in an unweighted
+ * graph, using bit-parallel breadth-first traversals. The sources are
+ * processed in batches of 64: for each vertex, the set of sources whose
+ * traversal has reached it is represented by the bits of a {@code long} word,
+ * so that a single scan of the edges advances 64 traversals at once. The
+ * batches are processed in parallel.
+ *
+ * The distances can be streamed, row by row, using
+ * {@link #forEachRow(DistancesConsumer)}, without storing them. Otherwise,
+ * they are stored compactly, using one byte per pair if the distances are
+ * known to be small, two bytes if the graph has at most 65535 vertices, or
+ * four bytes in the other cases. The predecessors are not stored; a shortest
+ * path is created on request, by following the vertices whose distances from
+ * the source decrease by one.
+ *
+ * M. Then, M. Kaufmann, F. Chirigati, T. Hoang-Vu, K. Pham, A. Kemper, T.
+ * Neumann, H. T. Vo, "The more the merrier: efficient multi-source graph
+ * traversal", Proceedings of the VLDB Endowment 8 (2014),
+ * https://doi.org/10.14778/2735496.2735507
+ *
+ * @see BFSAllPairsShortestPath
+ * @author Cristian Frăsinaru
+ */
+public class BitParallelAllPairsShortestPath extends GraphAlgorithm
+        implements AllPairsShortestPath {
+
+    /**
+     * The distance between two vertices, if there is no path between them.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int BATCH = 64;
+    private final int n;
+    private final int[] offsets, targets;
+    private byte[][] distB;
+    private char[][] distC;
+    private int[][] distI;
+
+    /**
+     * Receives the distances from a source to all the vertices.
+     */
+    @FunctionalInterface
+    public interface DistancesConsumer {
+
+        /**
+         * Receives the distances from a source to all the vertices. The array
+         * is reused after the method returns, so it must be copied in order
+         * to be stored.
+         *
+         * @param sourceIndex the index of the source vertex.
+         * @param dist the distances from the source, indexed by the vertex
+         * indices, {@link #UNREACHABLE} for the vertices that cannot be reached.
+         */
+        void accept(int sourceIndex, int[] dist);
+    }
+
+    /**
+     * Creates an algorithm for finding the distances between all pairs of
+     * vertices in an unweighted graph. The adjacency lists of the graph are
+     * copied, as vertex indices.
+     *
+     * @param graph the input graph.
+     */
+    public BitParallelAllPairsShortestPath(Graph graph) {
+        super(graph);
+        if (graph.hasEdgeWeights()) {
+            throw new IllegalArgumentException(
+                    "BitParallelAllPairsShortestPath should be used only for graphs with unweighted edges.");
+        }
+        this.n = graph.numVertices();
+        this.offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int[] count = {0};
+            graph.forEachNeighbor(graph.vertexAt(i), u -> count[0]++);
+            offsets[i + 1] = offsets[i] + count[0];
+        }
+        this.targets = new int[offsets[n]];
+        int[] pos = {0};
+        for (int i = 0; i < n; i++) {
+            graph.forEachNeighbor(graph.vertexAt(i), u -> targets[pos[0]++] = graph.indexOf(u));
+        }
+    }
+
+    /**
+     * Computes the distances from each source to all the vertices and passes
+     * them to the specified consumer, without storing them. The batches of
+     * sources are processed in parallel, so the consumer may be invoked
+     * concurrently from several threads, for different sources, in no
+     * particular order.
+     *
+     * @param consumer the consumer of the distances.
+     */
+    public void forEachRow(DistancesConsumer consumer) {
+        int numBatches = (n + BATCH - 1) / BATCH;
+        var workspace = ThreadLocal.withInitial(Batch::new);
+        var range = IntStream.range(0, numBatches);
+        if (numBatches > 1) {
+            range = range.parallel();
+        }
+        range.forEach(b -> workspace.get().run(b * BATCH, consumer));
+    }
+
+    //the multi-source BFS of a batch of sources
+    private class Batch {
+
+        final long[] seen = new long[n];
+        final long[] visit = new long[n];
+        final long[] next = new long[n];
+        final int[] frontier = new int[n];
+        final int[] touched = new int[n];
+        final int[][] rows = new int[BATCH][];
+
+        void run(int first, DistancesConsumer consumer) {
+            int count = Math.min(BATCH, n - first);
+            Arrays.fill(seen, 0);
+            int size = 0;
+            for (int b = 0; b < count; b++) {
+                if (rows[b] == null) {
+                    rows[b] = new int[n];
+                }
+                Arrays.fill(rows[b], UNREACHABLE);
+                int si = first + b;
+                rows[b][si] = 0;
+                seen[si] = 1L << b;
+                visit[si] = 1L << b;
+                frontier[size++] = si;
+            }
+            for (int level = 1; size > 0; level++) {
+                int numTouched = 0;
+                for (int k = 0; k < size; k++) {
+                    int vi = frontier[k];
+                    long bits = visit[vi];
+                    visit[vi] = 0;
+                    for (int j = offsets[vi], end = offsets[vi + 1]; j < end; j++) {
+                        int ui = targets[j];
+                        if (next[ui] == 0) {
+                            touched[numTouched++] = ui;
+                        }
+                        next[ui] |= bits;
+                    }
+                }
+                size = 0;
+                for (int k = 0; k < numTouched; k++) {
+                    int ui = touched[k];
+                    long bits = next[ui] & ~seen[ui];
+                    next[ui] = 0;
+                    if (bits == 0) {
+                        continue;
+                    }
+                    seen[ui] |= bits;
+                    visit[ui] = bits;
+                    frontier[size++] = ui;
+                    for (; bits != 0; bits &= bits - 1) {
+                        rows[Long.numberOfTrailingZeros(bits)][ui] = level;
+                    }
+                }
+            }
+            for (int b = 0; b < count; b++) {
+                consumer.accept(first + b, rows[b]);
+            }
+        }
+    }
+
+    private void computeAll() {
+        if (n <= 1) {
+            distI = new int[n][n];
+            return;
+        }
+        if (distanceBound() < 255) {
+            distB = new byte[n][];
+            forEachRow((si, dist) -> {
+                byte[] row = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    row[i] = (byte) dist[i];
+                }
+                distB[si] = row;
+            });
+        } else if (n < 0xFFFF) {
+            distC = new char[n][];
+            forEachRow((si, dist) -> {
+                char[] row = new char[n];
+                for (int i = 0; i < n; i++) {
+                    row[i] = dist[i] == UNREACHABLE ? 0xFFFF : (char) dist[i];
+                }
+                distC[si] = row;
+            });
+        } else {
+            distI = new int[n][];
+            forEachRow((si, dist) -> distI[si] = dist.clone());
+        }
+    }
+
+    //an upper bound of the diameter, for connected undirected graphs
+    private int distanceBound() {
+        if (directed) {
+            return Integer.MAX_VALUE;
+        }
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        level[0] = 0;
+        while (head < tail) {
+            int vi = queue[head++];
+            for (int j = offsets[vi], end = offsets[vi + 1]; j < end; j++) {
+                int ui = targets[j];
+                if (level[ui] < 0) {
+                    level[ui] = level[vi] + 1;
+                    queue[tail++] = ui;
+                }
+            }
+        }
+        if (tail < n) {
+            return Integer.MAX_VALUE;
+        }
+        return 2 * level[queue[n - 1]];
+    }
+
+    /**
+     * Returns the distance between the vertices at the specified indices. On
+     * the first invocation, it computes and stores the distances between all
+     * pairs of vertices.
+     *
+     * @param vi the index of the source vertex.
+     * @param ui the index of the target vertex.
+     * @return the distance from the source to the target, or
+     * {@link #UNREACHABLE} if there is no path between them.
+     */
+    public int distanceAt(int vi, int ui) {
+        if (distB == null && distC == null && distI == null) {
+            computeAll();
+        }
+        if (distB != null) {
+            return distB[vi][ui] & 0xFF;
+        }
+        if (distC != null) {
+            int d = distC[vi][ui];
+            return d == 0xFFFF ? UNREACHABLE : d;
+        }
+        return distI[vi][ui];
+    }
+
+    @Override
+    public double getPathWeight(int source, int target) {
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        int d = distanceAt(graph.indexOf(source), graph.indexOf(target));
+        return d == UNREACHABLE ? Double.POSITIVE_INFINITY : d;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The matrix is created on each invocation, using 8 bytes per pair of
+     * vertices; {@link #forEachRow(DistancesConsumer)} or
+     * {@link #distanceAt(int, int)} should be preferred for large graphs.
+     */
+    @Override
+    public double[][] getPathWeights() {
+        double[][] weights = new double[n][];
+        forEachRow((si, dist) -> {
+            double[] row = new double[n];
+            for (int i = 0; i < n; i++) {
+                row[i] = dist[i] == UNREACHABLE ? Double.POSITIVE_INFINITY : dist[i];
+            }
+            weights[si] = row;
+        });
+        return weights;
+    }
+
+    @Override
+    public Path findPath(int source, int target) {
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        int si = graph.indexOf(source);
+        int d = distanceAt(si, graph.indexOf(target));
+        if (d == UNREACHABLE) {
+            return new Path(graph, new int[]{});
+        }
+        //walking back from the target, on vertices closer to the source
+        int[] vertices = new int[d + 1];
+        int v = target;
+        vertices[d] = v;
+        for (int k = d - 1; k >= 0; k--) {
+            int[] pred = directed ? ((Digraph) graph).predecessors(v) : graph.neighbors(v);
+            for (int u : pred) {
+                if (distanceAt(si, graph.indexOf(u)) == k) {
+                    v = u;
+                    break;
+                }
+            }
+            vertices[k] = v;
+        }
+        return new Path(graph, vertices);
+    }
+
+}
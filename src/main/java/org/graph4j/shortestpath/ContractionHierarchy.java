@@ -0,0 +1,573 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Objects;
+import org.graph4j.Graph;
+import org.graph4j.InvalidVertexException;
+import org.graph4j.io.GraphFormatException;
+import org.graph4j.shortestpath.ContractionHierarchyBuilder.Arcs;
+import org.graph4j.util.Path;
+import org.graph4j.util.IndexedDoubleHeap;
+
+/**
+ * A contraction hierarchy of a weighted graph, used for answering
+ * point-to-point shortest path queries.
+ *
+ * During preprocessing, the vertices are contracted one by one, in the order
+ * of their importance: when a vertex is removed, shortcut arcs are added
+ * between its neighbors, in order to preserve the shortest paths passing
+ * through it. The rank of a vertex is its position in the contraction order. A
+ * query performs a bidirectional Dijkstra search using only arcs leading to
+ * vertices of higher rank, which explores a very small part of the graph. The
+ * shortcuts of the resulting path are then unpacked into the original edges.
+ *
+ * The preprocessing is expensive, and it must be repeated if the graph or the
+ * weights of its edges change. The hierarchy may be saved to a file, using
+ * {@link #write(java.nio.file.Path)}, and loaded later, using
+ * {@link #load(java.nio.file.Path, Graph)}. Edge weights must be non-negative.
+ *
+ * The hierarchy may be queried by multiple threads concurrently.
+ *
+ * @see ContractionHierarchyShortestPath
+ * @author Cristian Frăsinaru
+ */
+public class ContractionHierarchy {
+
+    static final int MAGIC = 0x48434A47; //"G4CH"
+    static final int VERSION = 1;
+
+    private final Graph graph;
+    private final int numVertices;
+    private final int[] rank;
+    private final int numShortcuts;
+    //upward arcs, in CSR format: fwdTarget[fwdStart[vi]..fwdStart[vi+1]) are the targets of vi
+    final int[] fwdStart, fwdTarget, fwdMiddle;
+    final double[] fwdWeight;
+    //downward arcs, reversed: bwdTarget[bwdStart[vi]..bwdStart[vi+1]) are the sources of arcs u->vi
+    final int[] bwdStart, bwdTarget, bwdMiddle;
+    final double[] bwdWeight;
+    private final ThreadLocal<Search> searches;
+
+    ContractionHierarchy(Graph graph, int[] rank, Arcs[] up, Arcs[] down, int numShortcuts) {
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.rank = rank;
+        this.numShortcuts = numShortcuts;
+        this.fwdStart = start(up);
+        this.fwdTarget = new int[fwdStart[numVertices]];
+        this.fwdWeight = new double[fwdTarget.length];
+        this.fwdMiddle = new int[fwdTarget.length];
+        fill(up, fwdStart, fwdTarget, fwdWeight, fwdMiddle);
+        if (up == down) {
+            //undirected graph
+            this.bwdStart = fwdStart;
+            this.bwdTarget = fwdTarget;
+            this.bwdWeight = fwdWeight;
+            this.bwdMiddle = fwdMiddle;
+        } else {
+            this.bwdStart = start(down);
+            this.bwdTarget = new int[bwdStart[numVertices]];
+            this.bwdWeight = new double[bwdTarget.length];
+            this.bwdMiddle = new int[bwdTarget.length];
+            fill(down, bwdStart, bwdTarget, bwdWeight, bwdMiddle);
+        }
+        this.searches = ThreadLocal.withInitial(Search::new);
+    }
+
+    private ContractionHierarchy(Graph graph, int[] rank, int numShortcuts,
+            int[] fwdStart, int[] fwdTarget, double[] fwdWeight, int[] fwdMiddle,
+            int[] bwdStart, int[] bwdTarget, double[] bwdWeight, int[] bwdMiddle) {
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.rank = rank;
+        this.numShortcuts = numShortcuts;
+        this.fwdStart = fwdStart;
+        this.fwdTarget = fwdTarget;
+        this.fwdWeight = fwdWeight;
+        this.fwdMiddle = fwdMiddle;
+        this.bwdStart = bwdStart;
+        this.bwdTarget = bwdTarget;
+        this.bwdWeight = bwdWeight;
+        this.bwdMiddle = bwdMiddle;
+        this.searches = ThreadLocal.withInitial(Search::new);
+    }
+
+    private int[] start(Arcs[] arcs) {
+        int[] start = new int[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            start[i + 1] = start[i] + arcs[i].size;
+        }
+        return start;
+    }
+
+    private void fill(Arcs[] arcs, int[] start, int[] target, double[] weight, int[] middle) {
+        for (int i = 0; i < numVertices; i++) {
+            Arcs a = arcs[i];
+            System.arraycopy(a.target, 0, target, start[i], a.size);
+            System.arraycopy(a.weight, 0, weight, start[i], a.size);
+            System.arraycopy(a.middle, 0, middle, start[i], a.size);
+        }
+    }
+
+    /**
+     * Creates the contraction hierarchy of a graph. For large graphs, the
+     * initial priorities of the vertices are computed in parallel.
+     *
+     * @param graph the input graph.
+     * @return the contraction hierarchy of the graph.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public static ContractionHierarchy create(Graph graph) {
+        Objects.requireNonNull(graph);
+        return new ContractionHierarchyBuilder(graph).build();
+    }
+
+    /**
+     *
+     * @return the graph this hierarchy was created for.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     *
+     * @return the number of shortcuts added during preprocessing.
+     */
+    public int numShortcuts() {
+        return numShortcuts;
+    }
+
+    /**
+     * Returns the rank of a vertex, that is its position in the contraction
+     * order.
+     *
+     * @param v a vertex number.
+     * @return the rank of {@code v}.
+     * @throws InvalidVertexException if the graph does not contain {@code v}.
+     */
+    public int rank(int v) {
+        int vi = graph.indexOf(v);
+        if (vi < 0) {
+            throw new InvalidVertexException(v);
+        }
+        return rank[vi];
+    }
+
+    /**
+     * Creates a query for the shortest path between two vertices.
+     *
+     * @param source the source vertex number.
+     * @param target the target vertex number.
+     * @return an algorithm for finding the shortest path between source and
+     * target.
+     */
+    public ContractionHierarchyShortestPath query(int source, int target) {
+        return new ContractionHierarchyShortestPath(this, source, target);
+    }
+
+    Search search() {
+        return searches.get();
+    }
+
+    /**
+     * Writes the hierarchy to a binary file.
+     *
+     * @param file the output file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(java.nio.file.Path file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(graph.isDirected());
+            out.writeInt(numVertices);
+            out.writeInt(numShortcuts);
+            for (int v : graph.vertices()) {
+                out.writeInt(v);
+            }
+            writeInts(out, rank);
+            writeArcs(out, fwdStart, fwdTarget, fwdWeight, fwdMiddle);
+            if (graph.isDirected()) {
+                writeArcs(out, bwdStart, bwdTarget, bwdWeight, bwdMiddle);
+            }
+        }
+    }
+
+    private static void writeArcs(DataOutputStream out,
+            int[] start, int[] target, double[] weight, int[] middle) throws IOException {
+        writeInts(out, start);
+        writeInts(out, target);
+        for (double w : weight) {
+            out.writeDouble(w);
+        }
+        writeInts(out, middle);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Loads a hierarchy written by {@link #write(java.nio.file.Path)}. The
+     * specified graph must be the graph the hierarchy was created for.
+     *
+     * @param file the input file.
+     * @param graph the graph the hierarchy was created for.
+     * @return the contraction hierarchy.
+     * @throws IOException if an I/O error occurs.
+     * @throws GraphFormatException if the file is not a valid hierarchy.
+     * @throws IllegalArgumentException if the vertices of the graph do not
+     * match the ones in the file.
+     */
+    public static ContractionHierarchy load(java.nio.file.Path file, Graph graph) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new GraphFormatException("Invalid contraction hierarchy: wrong magic number", 0);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new GraphFormatException("Unsupported contraction hierarchy version: " + version, 0);
+            }
+            boolean directed = in.readBoolean();
+            int n = in.readInt();
+            int numShortcuts = in.readInt();
+            if (directed != graph.isDirected() || n != graph.numVertices()) {
+                throw new IllegalArgumentException("The hierarchy was created for another graph");
+            }
+            for (int i = 0; i < n; i++) {
+                if (in.readInt() != graph.vertexAt(i)) {
+                    throw new IllegalArgumentException("The hierarchy was created for another graph");
+                }
+            }
+            if (numShortcuts < 0) {
+                throw corrupted();
+            }
+            int[] rank = readInts(in, n);
+            checkRanks(rank);
+            int[] fwdStart = readStarts(in, n);
+            int m = fwdStart[n];
+            int[] fwdTarget = readVertices(in, m, n, 0);
+            double[] fwdWeight = readDoubles(in, m);
+            int[] fwdMiddle = readVertices(in, m, n, -1);
+            if (!directed) {
+                return new ContractionHierarchy(graph, rank, numShortcuts,
+                        fwdStart, fwdTarget, fwdWeight, fwdMiddle,
+                        fwdStart, fwdTarget, fwdWeight, fwdMiddle);
+            }
+            int[] bwdStart = readStarts(in, n);
+            m = bwdStart[n];
+            return new ContractionHierarchy(graph, rank, numShortcuts,
+                    fwdStart, fwdTarget, fwdWeight, fwdMiddle,
+                    bwdStart, readVertices(in, m, n, 0), readDoubles(in, m),
+                    readVertices(in, m, n, -1));
+        } catch (EOFException e) {
+            throw new GraphFormatException("Invalid contraction hierarchy: unexpected end of file", 0);
+        }
+    }
+
+    private static GraphFormatException corrupted() {
+        return new GraphFormatException("Invalid contraction hierarchy: corrupted data", 0);
+    }
+
+    //the ranks must be a permutation of the vertex indices
+    private static void checkRanks(int[] rank) {
+        int n = rank.length;
+        var seen = new boolean[n];
+        for (int r : rank) {
+            if (r < 0 || r >= n || seen[r]) {
+                throw corrupted();
+            }
+            seen[r] = true;
+        }
+    }
+
+    //the offsets of the arcs of n vertices, starting with 0 and non-decreasing
+    private static int[] readStarts(DataInputStream in, int n) throws IOException {
+        int[] start = readInts(in, n + 1);
+        if (start[0] != 0) {
+            throw corrupted();
+        }
+        for (int i = 0; i < n; i++) {
+            if (start[i] > start[i + 1]) {
+                throw corrupted();
+            }
+        }
+        return start;
+    }
+
+    //vertex indices in the range [min, n)
+    private static int[] readVertices(DataInputStream in, int count, int n, int min) throws IOException {
+        int[] values = readInts(in, count);
+        for (int value : values) {
+            if (value < min || value >= n) {
+                throw corrupted();
+            }
+        }
+        return values;
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        if (count < 0) {
+            throw corrupted();
+        }
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in, int count) throws IOException {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    //the middle vertex of the arc ai->bi, or -1 if it is an original edge
+    private int middle(int ai, int bi) {
+        if (rank[ai] < rank[bi]) {
+            for (int k = fwdStart[ai], end = fwdStart[ai + 1]; k < end; k++) {
+                if (fwdTarget[k] == bi) {
+                    return fwdMiddle[k];
+                }
+            }
+        } else {
+            for (int k = bwdStart[bi], end = bwdStart[bi + 1]; k < end; k++) {
+                if (bwdTarget[k] == ai) {
+                    return bwdMiddle[k];
+                }
+            }
+        }
+        throw new IllegalStateException("Missing arc in the hierarchy");
+    }
+
+    /**
+     * Per-thread workspace of the queries: a bidirectional upward Dijkstra
+     * search, whose arrays are allocated once and reset in time proportional
+     * to the number of touched vertices.
+     */
+    class Search {
+
+        final double[] distF, distB;
+        final int[] parentF, parentB;
+        final int[] touched;
+        int numTouched;
+        final IndexedDoubleHeap heapF, heapB;
+        int[] stack = new int[64];
+        int[] walk = new int[64];
+        int numWalk;
+        final int[] walkPos;
+
+        Search() {
+            int n = numVertices;
+            distF = new double[n];
+            distB = new double[n];
+            Arrays.fill(distF, Double.POSITIVE_INFINITY);
+            Arrays.fill(distB, Double.POSITIVE_INFINITY);
+            parentF = new int[n];
+            parentB = new int[n];
+            touched = new int[n];
+            heapF = new IndexedDoubleHeap(n);
+            heapB = new IndexedDoubleHeap(n);
+            walkPos = new int[n];
+            Arrays.fill(walkPos, -1);
+        }
+
+        private void touch(int i) {
+            if (distF[i] == Double.POSITIVE_INFINITY && distB[i] == Double.POSITIVE_INFINITY) {
+                touched[numTouched++] = i;
+            }
+        }
+
+        //returns the meeting vertex, or -1 if there is no path
+        int run(int si, int ti) {
+            touch(si);
+            distF[si] = 0;
+            parentF[si] = -1;
+            heapF.addOrDecrease(si, 0);
+            touch(ti);
+            distB[ti] = 0;
+            parentB[ti] = -1;
+            heapB.addOrDecrease(ti, 0);
+            double best = si == ti ? 0 : Double.POSITIVE_INFINITY;
+            int meeting = si == ti ? si : -1;
+            while (!heapF.isEmpty() || !heapB.isEmpty()) {
+                if (!heapF.isEmpty()) {
+                    int xi = heapF.poll();
+                    if (distF[xi] >= best) {
+                        heapF.clear();
+                    } else if (!stalled(xi, distF, bwdStart, bwdTarget, bwdWeight)) {
+                        for (int k = fwdStart[xi], end = fwdStart[xi + 1]; k < end; k++) {
+                            int yi = fwdTarget[k];
+                            double d = distF[xi] + fwdWeight[k];
+                            if (d < distF[yi]) {
+                                touch(yi);
+                                distF[yi] = d;
+                                parentF[yi] = xi;
+                                heapF.addOrDecrease(yi, d);
+                                if (d + distB[yi] < best) {
+                                    best = d + distB[yi];
+                                    meeting = yi;
+                                }
+                            }
+                        }
+                    }
+                }
+                if (!heapB.isEmpty()) {
+                    int xi = heapB.poll();
+                    if (distB[xi] >= best) {
+                        heapB.clear();
+                    } else if (!stalled(xi, distB, fwdStart, fwdTarget, fwdWeight)) {
+                        for (int k = bwdStart[xi], end = bwdStart[xi + 1]; k < end; k++) {
+                            int yi = bwdTarget[k];
+                            double d = distB[xi] + bwdWeight[k];
+                            if (d < distB[yi]) {
+                                touch(yi);
+                                distB[yi] = d;
+                                parentB[yi] = xi;
+                                heapB.addOrDecrease(yi, d);
+                                if (d + distF[yi] < best) {
+                                    best = d + distF[yi];
+                                    meeting = yi;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return meeting;
+        }
+
+        //stall-on-demand: xi is reached on a shorter path through a higher vertex
+        private boolean stalled(int xi, double[] dist, int[] start, int[] target, double[] weight) {
+            for (int k = start[xi], end = start[xi + 1]; k < end; k++) {
+                if (dist[target[k]] + weight[k] < dist[xi]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        double weight(int meeting) {
+            return distF[meeting] + distB[meeting];
+        }
+
+        //unpacks the path source -> meeting -> target
+        Path path(int meeting) {
+            int size = 0;
+            for (int i = meeting; i >= 0; i = parentF[i]) {
+                push(size++, i);
+            }
+            //the forward part, in reverse order
+            int[] forward = Arrays.copyOf(stack, size);
+            numWalk = 0;
+            addToWalk(forward[size - 1]);
+            for (int k = size - 1; k > 0; k--) {
+                unpack(forward[k], forward[k - 1]);
+            }
+            for (int i = meeting; parentB[i] >= 0; i = parentB[i]) {
+                unpack(i, parentB[i]);
+            }
+            return new Path(graph, removeLoops());
+        }
+
+        //adds to the walk the vertices of the arc ai->bi, except ai
+        private void unpack(int ai, int bi) {
+            int size = 0;
+            push(size++, bi);
+            push(size++, ai);
+            while (size > 0) {
+                int xi = stack[--size];
+                int yi = stack[--size];
+                int mi = middle(xi, yi);
+                if (mi < 0) {
+                    addToWalk(yi);
+                } else {
+                    //first xi->mi, then mi->yi
+                    push(size++, yi);
+                    push(size++, mi);
+                    push(size++, mi);
+                    push(size++, xi);
+                }
+            }
+        }
+
+        private void addToWalk(int xi) {
+            if (numWalk == walk.length) {
+                walk = Arrays.copyOf(walk, 2 * numWalk);
+            }
+            walk[numWalk++] = xi;
+        }
+
+        //with zero-weight edges the unpacked walk may revisit a vertex,
+        //the closed parts have weight zero and they are removed
+        private int[] removeLoops() {
+            int len = 0;
+            for (int k = 0; k < numWalk; k++) {
+                int xi = walk[k];
+                if (walkPos[xi] >= 0) {
+                    for (int j = walkPos[xi] + 1; j < len; j++) {
+                        walkPos[walk[j]] = -1;
+                    }
+                    len = walkPos[xi] + 1;
+                } else {
+                    walkPos[xi] = len;
+                    walk[len++] = xi;
+                }
+            }
+            int[] vertices = new int[len];
+            for (int k = 0; k < len; k++) {
+                walkPos[walk[k]] = -1;
+                vertices[k] = graph.vertexAt(walk[k]);
+            }
+            return vertices;
+        }
+
+        private void push(int pos, int value) {
+            if (pos == stack.length) {
+                stack = Arrays.copyOf(stack, 2 * pos);
+            }
+            stack[pos] = value;
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                int xi = touched[i];
+                distF[xi] = Double.POSITIVE_INFINITY;
+                distB[xi] = Double.POSITIVE_INFINITY;
+            }
+            numTouched = 0;
+            heapF.clear();
+            heapB.clear();
+        }
+    }
+}
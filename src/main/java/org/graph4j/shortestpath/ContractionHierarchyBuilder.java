@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.graph4j.Graph;
+import org.graph4j.util.IndexedDoubleHeap;
+import org.graph4j.util.VertexHeap;
+
+/**
+ * Contracts the vertices of a graph, one by one, in the order given by their
+ * priorities. The priority of a vertex combines its edge difference (the
+ * number of shortcuts its contraction would add minus the number of its arcs),
+ * the number of its contracted neighbors and its level in the hierarchy. The
+ * priority of a vertex is recomputed when one of its neighbors is contracted
+ * and, lazily, when it is extracted from the queue.
+ *
+ * @author Cristian Frăsinaru
+ */
+class ContractionHierarchyBuilder {
+
+    static final int PARALLEL_THRESHOLD = 10_000;
+    //limits of the witness searches, when simulating and when contracting
+    private static final int MAX_SETTLED_SIMULATE = 50;
+    private static final int MAX_SETTLED_CONTRACT = 500;
+
+    private final Graph graph;
+    private final boolean directed;
+    private final int n;
+    //the arcs between the vertices not yet contracted
+    private final Arcs[] out;
+    private final Arcs[] in; //same as out, for undirected graphs
+    private final int[] priority;
+    private final int[] contractedNeighbors;
+    private final int[] level; //an upper bound of the number of hierarchy levels below a vertex
+    private final ThreadLocal<WitnessSearch> searches;
+    //the hierarchy
+    private final int[] rank;
+    private final Arcs[] up; //up[vi]: arcs vi->u, rank[u] > rank[vi]
+    private final Arcs[] down; //down[vi]: arcs u->vi, rank[u] > rank[vi]
+    private int numShortcuts;
+
+    ContractionHierarchyBuilder(Graph graph) {
+        this.graph = graph;
+        this.directed = graph.isDirected();
+        this.n = graph.numVertices();
+        this.out = new Arcs[n];
+        this.in = directed ? new Arcs[n] : out;
+        for (int i = 0; i < n; i++) {
+            out[i] = new Arcs();
+            if (directed) {
+                in[i] = new Arcs();
+            }
+        }
+        for (int v : graph.vertices()) {
+            int vi = graph.indexOf(v);
+            graph.forEachEdgeOf(v, (x, u, weight) -> {
+                if (weight < 0) {
+                    throw new IllegalArgumentException(
+                            "Negative weighted edges are not permited: " + graph.edge(x, u));
+                }
+                int ui = graph.indexOf(u);
+                if (ui != vi) {
+                    out[vi].addOrDecrease(ui, weight, -1);
+                    in[ui].addOrDecrease(vi, weight, -1);
+                }
+            });
+        }
+        this.priority = new int[n];
+        this.contractedNeighbors = new int[n];
+        this.level = new int[n];
+        this.searches = ThreadLocal.withInitial(WitnessSearch::new);
+        this.rank = new int[n];
+        this.up = new Arcs[n];
+        this.down = directed ? new Arcs[n] : up;
+    }
+
+    ContractionHierarchy build() {
+        //the initial simulations are independent, they may run in parallel
+        IntStream range = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(vi -> priority[vi] = computePriority(vi));
+
+        var heap = new VertexHeap(graph, true, (i, j) -> Integer.compare(priority[i], priority[j]));
+        int order = 0;
+        while (!heap.isEmpty()) {
+            int vi = heap.poll();
+            int p = computePriority(vi);
+            if (!heap.isEmpty() && p > priority[heap.peek()]) {
+                //lazy update
+                priority[vi] = p;
+                heap.add(vi);
+                continue;
+            }
+            rank[vi] = order++;
+            contract(vi);
+            updateNeighbors(vi, up[vi], heap);
+            if (directed) {
+                updateNeighbors(vi, down[vi], heap);
+            }
+        }
+        return new ContractionHierarchy(graph, rank, up, down, numShortcuts);
+    }
+
+    private void updateNeighbors(int vi, Arcs arcs, VertexHeap heap) {
+        for (int k = 0; k < arcs.size; k++) {
+            int ui = arcs.target[k];
+            contractedNeighbors[ui]++;
+            level[ui] = Math.max(level[ui], level[vi] + 1);
+            priority[ui] = computePriority(ui);
+            heap.addOrUpdate(ui);
+        }
+    }
+
+    private int computePriority(int vi) {
+        int shortcuts = findShortcuts(vi, false);
+        int numArcs = directed ? out[vi].size + in[vi].size : out[vi].size;
+        return 2 * (shortcuts - numArcs) + contractedNeighbors[vi] + level[vi];
+    }
+
+    private void contract(int vi) {
+        Arcs outArcs = out[vi];
+        Arcs inArcs = in[vi];
+        //the remaining arcs of vi are part of the hierarchy
+        up[vi] = outArcs;
+        down[vi] = inArcs;
+        for (int k = 0; k < inArcs.size; k++) {
+            out[inArcs.target[k]].remove(vi);
+        }
+        if (directed) {
+            for (int k = 0; k < outArcs.size; k++) {
+                in[outArcs.target[k]].remove(vi);
+            }
+        }
+        findShortcuts(vi, true);
+        out[vi] = null;
+        in[vi] = null;
+    }
+
+    //returns the number of shortcuts required by the contraction of vi
+    private int findShortcuts(int vi, boolean add) {
+        Arcs outArcs = out[vi];
+        Arcs inArcs = in[vi];
+        WitnessSearch search = searches.get();
+        int count = 0;
+        for (int k = 0; k < inArcs.size; k++) {
+            int ui = inArcs.target[k];
+            double inWeight = inArcs.weight[k];
+            double maxOut = -1;
+            for (int j = 0; j < outArcs.size; j++) {
+                int wi = outArcs.target[j];
+                if (wi != ui && (directed || wi > ui)) {
+                    maxOut = Math.max(maxOut, outArcs.weight[j]);
+                }
+            }
+            if (maxOut < 0) {
+                continue;
+            }
+            search.run(ui, vi, inWeight + maxOut, add ? MAX_SETTLED_CONTRACT : MAX_SETTLED_SIMULATE);
+            for (int j = 0; j < outArcs.size; j++) {
+                int wi = outArcs.target[j];
+                if (wi == ui || (!directed && wi < ui)) {
+                    continue;
+                }
+                double weight = inWeight + outArcs.weight[j];
+                if (search.dist[wi] > weight) {
+                    //no witness path, a shortcut ui->vi->wi is required
+                    count++;
+                    if (add) {
+                        if (out[ui].addOrDecrease(wi, weight, vi)) {
+                            numShortcuts++;
+                        }
+                        in[wi].addOrDecrease(ui, weight, vi);
+                    }
+                }
+            }
+            search.reset();
+        }
+        return count;
+    }
+
+    //bounded Dijkstra search on the remaining graph, avoiding a vertex
+    private class WitnessSearch {
+
+        final double[] dist;
+        final int[] touched;
+        int numTouched;
+        final IndexedDoubleHeap heap;
+
+        WitnessSearch() {
+            dist = new double[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            touched = new int[n];
+            heap = new IndexedDoubleHeap(n);
+        }
+
+        void run(int si, int exclude, double limit, int maxSettled) {
+            dist[si] = 0;
+            touched[numTouched++] = si;
+            heap.addOrDecrease(si, 0);
+            int settled = 0;
+            while (!heap.isEmpty()) {
+                int xi = heap.poll();
+                if (dist[xi] > limit || ++settled > maxSettled) {
+                    break;
+                }
+                Arcs arcs = out[xi];
+                for (int k = 0; k < arcs.size; k++) {
+                    int yi = arcs.target[k];
+                    if (yi == exclude) {
+                        continue;
+                    }
+                    double d = dist[xi] + arcs.weight[k];
+                    if (d < dist[yi]) {
+                        if (dist[yi] == Double.POSITIVE_INFINITY) {
+                            touched[numTouched++] = yi;
+                        }
+                        dist[yi] = d;
+                        heap.addOrDecrease(yi, d);
+                    }
+                }
+            }
+            heap.clear();
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            numTouched = 0;
+        }
+    }
+
+    //a growable list of arcs: targets (vertex indices), weights and middle vertices
+    static class Arcs {
+
+        int[] target = new int[4];
+        double[] weight = new double[4];
+        int[] middle = new int[4]; //-1 for original edges
+        int size;
+
+        int indexOf(int ti) {
+            for (int k = 0; k < size; k++) {
+                if (target[k] == ti) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        //returns true if a new arc was added
+        boolean addOrDecrease(int ti, double w, int mi) {
+            int k = indexOf(ti);
+            if (k >= 0) {
+                if (w < weight[k]) {
+                    weight[k] = w;
+                    middle[k] = mi;
+                }
+                return false;
+            }
+            if (size == target.length) {
+                int newLen = size + (size >> 1) + 1;
+                target = Arrays.copyOf(target, newLen);
+                weight = Arrays.copyOf(weight, newLen);
+                middle = Arrays.copyOf(middle, newLen);
+            }
+            target[size] = ti;
+            weight[size] = w;
+            middle[size] = mi;
+            size++;
+            return true;
+        }
+
+        void remove(int ti) {
+            int k = indexOf(ti);
+            if (k < 0) {
+                return;
+            }
+            size--;
+            target[k] = target[size];
+            weight[k] = weight[size];
+            middle[k] = middle[size];
+        }
+    }
+}
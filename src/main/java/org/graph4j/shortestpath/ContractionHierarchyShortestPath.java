@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Objects;
+import org.graph4j.Graph;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * Determines the shortest path between two vertices, using a precomputed
+ * {@link ContractionHierarchy}. The search allocates no memory proportional to
+ * the size of the graph, it uses a workspace owned by the current thread.
+ *
+ * @see ContractionHierarchy#query(int, int)
+ * @author Cristian Frăsinaru
+ */
+public class ContractionHierarchyShortestPath implements SinglePairShortestPath {
+
+    private final ContractionHierarchy hierarchy;
+    private final Graph graph;
+    private final int source;
+    private final int target;
+    //
+    private boolean computed;
+    private Path bestPath;
+    private double bestWeight;
+
+    /**
+     * Creates an algorithm to find the shortest path between source and target.
+     *
+     * @param hierarchy the contraction hierarchy of the graph.
+     * @param source the source vertex number.
+     * @param target the target vertex number.
+     */
+    public ContractionHierarchyShortestPath(ContractionHierarchy hierarchy, int source, int target) {
+        Objects.requireNonNull(hierarchy);
+        this.hierarchy = hierarchy;
+        this.graph = hierarchy.getGraph();
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        this.source = source;
+        this.target = target;
+    }
+
+    @Override
+    public Graph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public int getSource() {
+        return source;
+    }
+
+    @Override
+    public int getTarget() {
+        return target;
+    }
+
+    @Override
+    public Path findPath() {
+        if (!computed) {
+            compute();
+        }
+        return bestPath;
+    }
+
+    @Override
+    public double getPathWeight() {
+        if (!computed) {
+            compute();
+        }
+        return bestWeight;
+    }
+
+    private void compute() {
+        var search = hierarchy.search();
+        try {
+            int meeting = search.run(graph.indexOf(source), graph.indexOf(target));
+            if (meeting < 0) {
+                bestWeight = Double.POSITIVE_INFINITY; //bestPath is null
+            } else {
+                bestWeight = search.weight(meeting);
+                bestPath = search.path(meeting);
+            }
+        } finally {
+            search.reset();
+        }
+        computed = true;
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.graph4j.Graph;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * A parallel implementation of the delta-stepping algorithm, for graphs with
+ * non-negative edge weights.
+ *
+ * The reached vertices are kept in buckets of width {@code delta}, the bucket
+ * of a vertex being given by its tentative distance. The buckets are processed
+ * in ascending order. The <i>light</i> edges (having the weight at most
+ * {@code delta}) of the vertices in the current bucket are relaxed in parallel,
+ * repeatedly, until the bucket remains empty; then the <i>heavy</i> edges of
+ * all the vertices removed from the bucket are relaxed, in parallel, once. The
+ * distances are updated using atomic compare-and-set operations. A small
+ * {@code delta} makes the algorithm similar to Dijkstra's, while a large one
+ * makes it similar to Bellman-Ford's.
+ *
+ * The computed distances are the same as the ones computed by Dijkstra's
+ * algorithm. The shortest path tree is created only when a path is requested,
+ * using the edges {@code vu} for which {@code dist(v) + w(vu) = dist(u)}.
+ *
+ * The adjacency lists of the graph are copied, as vertex indices, when the
+ * object is created; later modifications of the graph are not visible to the
+ * algorithm.
+ *
+ * U. Meyer, P. Sanders, "Δ-stepping: a parallelizable shortest path
+ * algorithm", Journal of Algorithms 49 (2003),
+ * https://doi.org/10.1016/S0196-6774(03)00076-2
+ *
+ * @see DijkstraShortestPathHeap
+ * @author Cristian Frăsinaru
+ */
+public class DeltaSteppingShortestPath implements SingleSourceShortestPath {
+
+    /**
+     * The number of edges starting with which the parallel algorithm is
+     * usually faster than the sequential Dijkstra's algorithm.
+     */
+    public static final int PARALLEL_THRESHOLD = 1_000_000;
+
+    private static final int CHUNK = 1024; //vertices processed sequentially by a task
+    private static final int MAX_BUCKETS = 1 << 20; //the maximum number of cyclic buckets
+    private static final VarHandle DIST = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final VarHandle MARK = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Graph graph;
+    private final int source;
+    private final ForkJoinPool pool;
+    private final int numVertices;
+    private final int[] offsets, targets;
+    private final double[] weights;
+    private final double maxWeight;
+    private final double delta;
+    //
+    private double[] dist;
+    private double[] relaxed; //the distance of a vertex when its light edges were relaxed
+    private int[] mark; //the last phase in which a vertex was added to the buffer
+    private int[] updated; //the vertices updated in the current phase
+    private final AtomicInteger numUpdated = new AtomicInteger();
+    private int phase;
+    private int[] parent;
+    //cyclic buckets, the live ones are always within [i, i + maxWeight / delta + 1]
+    private int[][] buckets;
+    private int[] bucketSizes;
+
+    /**
+     * Creates an algorithm to find all shortest paths starting in the source,
+     * using the common fork-join pool and a value of {@code delta} computed
+     * from the maximum edge weight and the average degree of the graph.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     */
+    public DeltaSteppingShortestPath(Graph graph, int source) {
+        this(graph, source, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an algorithm to find all shortest paths starting in the source,
+     * using the common fork-join pool.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     * @param delta the width of a bucket, or {@code 0} for an automatically
+     * computed value.
+     */
+    public DeltaSteppingShortestPath(Graph graph, int source, double delta) {
+        this(graph, source, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an algorithm to find all shortest paths starting in the source,
+     * using the given fork-join pool.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     * @param delta the width of a bucket, or {@code 0} for an automatically
+     * computed value.
+     * @param pool the pool executing the tasks of the algorithm.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges, or if {@code delta} is negative or too small compared to the
+     * maximum edge weight.
+     */
+    public DeltaSteppingShortestPath(Graph graph, int source, double delta, ForkJoinPool pool) {
+        Objects.requireNonNull(graph);
+        Objects.requireNonNull(pool);
+        Validator.containsVertex(graph, source);
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        this.graph = graph;
+        this.source = source;
+        this.pool = pool;
+        this.numVertices = graph.numVertices();
+        this.offsets = new int[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            int[] count = {0};
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, w) -> count[0]++);
+            long total = (long) offsets[i] + count[0];
+            if (total > Integer.MAX_VALUE) {
+                throw new UnsupportedOperationException("The graph is too large.");
+            }
+            offsets[i + 1] = (int) total;
+        }
+        this.targets = new int[offsets[numVertices]];
+        this.weights = new double[targets.length];
+        int[] pos = {0};
+        for (int i = 0; i < numVertices; i++) {
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, w) -> {
+                if (w < 0) {
+                    throw new IllegalArgumentException(
+                            "Negative weighted edges are not permited: " + graph.edge(v, u));
+                }
+                targets[pos[0]] = graph.indexOf(u);
+                weights[pos[0]++] = w;
+            });
+        }
+        this.maxWeight = Arrays.stream(weights).max().orElse(0);
+        if (delta == 0) {
+            delta = defaultDelta();
+        }
+        if (maxWeight / delta > MAX_BUCKETS - 2) {
+            throw new IllegalArgumentException("Delta is too small: " + delta);
+        }
+        this.delta = delta;
+    }
+
+    //the maximum weight divided by the average degree
+    private double defaultDelta() {
+        if (maxWeight == 0) {
+            return 1;
+        }
+        double avgDegree = Math.max(1, (double) targets.length / Math.max(1, numVertices));
+        return Math.max(maxWeight / avgDegree, maxWeight / (MAX_BUCKETS - 2));
+    }
+
+    @Override
+    public Graph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     *
+     * @return the width of the buckets.
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    @Override
+    public double getPathWeight(int target) {
+        Validator.containsVertex(graph, target);
+        if (dist == null) {
+            compute();
+        }
+        return dist[graph.indexOf(target)];
+    }
+
+    @Override
+    public double[] getPathWeights() {
+        if (dist == null) {
+            compute();
+        }
+        return dist;
+    }
+
+    @Override
+    public Path findPath(int target) {
+        Validator.containsVertex(graph, target);
+        if (dist == null) {
+            compute();
+        }
+        int ti = graph.indexOf(target);
+        if (dist[ti] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        if (parent == null) {
+            computeParents();
+        }
+        Path path = new Path(graph);
+        for (int vi = ti; vi >= 0; vi = parent[vi]) {
+            path.add(graph.vertexAt(vi));
+        }
+        path.reverse();
+        return path;
+    }
+
+    private void compute() {
+        int n = numVertices;
+        dist = new double[n];
+        relaxed = new double[n];
+        mark = new int[n];
+        updated = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(relaxed, Double.POSITIVE_INFINITY);
+        int numBuckets = (int) (maxWeight / delta) + 2;
+        buckets = new int[numBuckets][];
+        bucketSizes = new int[numBuckets];
+        int si = graph.indexOf(source);
+        dist[si] = 0;
+        addToBucket(si);
+        int count = 1; //the number of entries in all buckets
+        long i = 0; //the current bucket
+        int[] settled = new int[16]; //the vertices removed from the current bucket
+        while (count > 0) {
+            int b = (int) (i % numBuckets);
+            int numSettled = 0;
+            while (bucketSizes[b] > 0) {
+                int[] current = buckets[b];
+                int size = bucketSizes[b];
+                count -= size;
+                buckets[b] = null;
+                bucketSizes[b] = 0;
+                //keep only the vertices which really belong to this bucket
+                int k = 0;
+                for (int j = 0; j < size; j++) {
+                    int vi = current[j];
+                    if ((long) (dist[vi] / delta) == i && relaxed[vi] != dist[vi]) {
+                        relaxed[vi] = dist[vi];
+                        current[k++] = vi;
+                        if (numSettled == settled.length) {
+                            settled = Arrays.copyOf(settled, 2 * numSettled);
+                        }
+                        settled[numSettled++] = vi;
+                    }
+                }
+                count += relax(current, k, true);
+            }
+            count += relax(settled, numSettled, false);
+            i++;
+        }
+        relaxed = null;
+        mark = null;
+        updated = null;
+        buckets = null;
+        bucketSizes = null;
+    }
+
+    private void addToBucket(int vi) {
+        int b = (int) ((long) (dist[vi] / delta) % buckets.length);
+        int size = bucketSizes[b];
+        if (buckets[b] == null) {
+            buckets[b] = new int[16];
+        } else if (size == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], 2 * size);
+        }
+        buckets[b][size] = vi;
+        bucketSizes[b] = size + 1;
+    }
+
+    //relaxes the light or the heavy edges of the given vertices
+    //returns the number of entries added to the buckets
+    private int relax(int[] vertices, int size, boolean light) {
+        if (size == 0) {
+            return 0;
+        }
+        phase++;
+        numUpdated.set(0);
+        var task = new RelaxTask(vertices, 0, size, light);
+        if (size <= CHUNK) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        int k = numUpdated.get();
+        for (int j = 0; j < k; j++) {
+            addToBucket(updated[j]);
+        }
+        return k;
+    }
+
+    private class RelaxTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] vertices;
+        private final int from, to;
+        private final boolean light;
+
+        RelaxTask(int[] vertices, int from, int to, boolean light) {
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RelaxTask(vertices, from, mid, light),
+                        new RelaxTask(vertices, mid, to, light));
+                return;
+            }
+            int[] buffer = new int[64];
+            int size = 0;
+            int p = phase;
+            for (int k = from; k < to; k++) {
+                int vi = vertices[k];
+                double dv = dist[vi];
+                for (int j = offsets[vi], end = offsets[vi + 1]; j < end; j++) {
+                    double w = weights[j];
+                    if ((w <= delta) != light) {
+                        continue;
+                    }
+                    int ui = targets[j];
+                    double d = dv + w;
+                    while (true) {
+                        double old = (double) DIST.getVolatile(dist, ui);
+                        if (d >= old) {
+                            break;
+                        }
+                        if (DIST.compareAndSet(dist, ui, old, d)) {
+                            int m = (int) MARK.getVolatile(mark, ui);
+                            if (m != p && MARK.compareAndSet(mark, ui, m, p)) {
+                                if (size == buffer.length) {
+                                    buffer = Arrays.copyOf(buffer, 2 * size);
+                                }
+                                buffer[size++] = ui;
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            if (size > 0) {
+                int pos = numUpdated.getAndAdd(size);
+                System.arraycopy(buffer, 0, updated, pos, size);
+            }
+        }
+    }
+
+    //a breadth first search on the tight edges, those on shortest paths
+    private void computeParents() {
+        int n = numVertices;
+        parent = new int[n];
+        Arrays.fill(parent, -2);
+        int si = graph.indexOf(source);
+        parent[si] = -1;
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        queue[tail++] = si;
+        while (head < tail) {
+            int vi = queue[head++];
+            for (int j = offsets[vi], end = offsets[vi + 1]; j < end; j++) {
+                int ui = targets[j];
+                if (parent[ui] == -2 && dist[vi] + weights[j] == dist[ui]) {
+                    parent[ui] = vi;
+                    queue[tail++] = ui;
+                }
+            }
+        }
+    }
+}
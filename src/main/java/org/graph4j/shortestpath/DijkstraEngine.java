@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.graph4j.Digraph;
+import org.graph4j.EdgeConsumer;
+import org.graph4j.Graph;
+import org.graph4j.InvalidVertexException;
+import org.graph4j.util.IndexedDoubleHeap;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * A reusable implementation of Dijkstra's algorithm, bound to a graph. Unlike
+ * {@link DijkstraShortestPathHeap}, which allocates its arrays for each source,
+ * the engine allocates them once and reuses them for all subsequent runs. The
+ * state of a previous run is discarded using timestamps, so a run costs time
+ * proportional to the number of vertices it reaches, not to the size of the
+ * graph.
+ *
+ * A run may stop as soon as a target vertex is settled, or when the distances
+ * exceed a specified bound. After a run, the settled vertices can be inspected
+ * in the order of their distances, using {@link #numSettled()} and
+ * {@link #indexAt(int)}, and the distances and the shortest path tree can be
+ * read using {@link #distance(int)}, {@link #distanceAt(int)} and
+ * {@link #parentIndexAt(int)}, without creating any objects.
+ *
+ * Edge weights must be non-negative. An instance is not thread safe. In order
+ * to perform searches in parallel, each thread should use its own instance,
+ * see {@link #threadLocal(Graph)}.
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DijkstraEngine {
+
+    private final Graph graph;
+    private final int numVertices;
+    private final double[] dist;
+    private final int[] parent; //the index of the parent, -1 for the source
+    private final int[] reached; //reached[i] == stamp if the vertex at index i was reached in the current run
+    private final int[] settled; //settled[i] == stamp if the vertex at index i was settled in the current run
+    private final int[] order; //the indices of the settled vertices
+    private final IndexedDoubleHeap heap;
+    private int stamp;
+    private int numSettled;
+    private int current; //the index of the vertex whose edges are relaxed
+    private boolean reversed; //the last run was performed on the reversed graph
+    private final EdgeConsumer relax = this::relax;
+
+    /**
+     * Creates a Dijkstra engine for the specified graph. The graph should not
+     * be structurally modified while the engine is used.
+     *
+     * @param graph the input graph.
+     */
+    public DijkstraEngine(Graph graph) {
+        Objects.requireNonNull(graph);
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.dist = new double[numVertices];
+        this.parent = new int[numVertices];
+        this.reached = new int[numVertices];
+        this.settled = new int[numVertices];
+        this.order = new int[numVertices];
+        this.heap = new IndexedDoubleHeap(numVertices);
+    }
+
+    /**
+     * Creates a thread-local supplier of Dijkstra engines for the specified
+     * graph. Each thread using it gets its own engine, created on the first
+     * access.
+     *
+     * @param graph the input graph.
+     * @return a thread-local Dijkstra engine.
+     */
+    public static ThreadLocal<DijkstraEngine> threadLocal(Graph graph) {
+        Objects.requireNonNull(graph);
+        return ThreadLocal.withInitial(() -> new DijkstraEngine(graph));
+    }
+
+    /**
+     *
+     * @return the graph on which the searches are performed.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Computes the shortest paths from the source to all the vertices.
+     *
+     * @param source the source vertex number.
+     * @return the number of settled vertices.
+     * @throws InvalidVertexException if the graph does not contain the source.
+     */
+    public int run(int source) {
+        return run(source, -1, Double.POSITIVE_INFINITY, false);
+    }
+
+    /**
+     * Computes the shortest paths from the source, stopping as soon as the
+     * shortest path to the target is found.
+     *
+     * @param source the source vertex number.
+     * @param target the target vertex number.
+     * @return the number of settled vertices.
+     * @throws InvalidVertexException if the graph does not contain the source
+     * or the target.
+     */
+    public int run(int source, int target) {
+        Validator.containsVertex(graph, target);
+        return run(source, target, Double.POSITIVE_INFINITY, false);
+    }
+
+    /**
+     * Computes the shortest paths from the source, settling only the vertices
+     * whose distance is at most {@code maxDistance}.
+     *
+     * @param source the source vertex number.
+     * @param maxDistance the maximum distance of a settled vertex.
+     * @return the number of settled vertices.
+     * @throws InvalidVertexException if the graph does not contain the source.
+     */
+    public int runWithin(int source, double maxDistance) {
+        return run(source, -1, maxDistance, false);
+    }
+
+    /**
+     * Computes the shortest paths from the source, stopping when the target
+     * (if it is not {@code -1}) is settled, or when the distance of the next
+     * vertex exceeds {@code maxDistance}. In case of directed graphs, if
+     * {@code reverse} is {@code true}, the search is performed on the reversed
+     * graph, computing the shortest paths from all the vertices to the source.
+     *
+     * @param source the source vertex number.
+     * @param target the target vertex number, or {@code -1}.
+     * @param maxDistance the maximum distance of a settled vertex.
+     * @param reverse if {@code true} the search will be performed on the
+     * reversed graph.
+     * @return the number of settled vertices.
+     * @throws InvalidVertexException if the graph does not contain the source.
+     * @throws IllegalArgumentException if a negative weighted edge is
+     * encountered.
+     */
+    public int run(int source, int target, double maxDistance, boolean reverse) {
+        Validator.containsVertex(graph, source);
+        reset();
+        int si = graph.indexOf(source);
+        int ti = target < 0 ? -1 : graph.indexOf(target);
+        dist[si] = 0;
+        parent[si] = -1;
+        reached[si] = stamp;
+        heap.addOrDecrease(si, 0);
+        reversed = reverse && graph.isDirected();
+        while (!heap.isEmpty()) {
+            if (heap.peekPriority() > maxDistance) {
+                break;
+            }
+            int vi = heap.poll();
+            settled[vi] = stamp;
+            order[numSettled++] = vi;
+            if (vi == ti) {
+                break;
+            }
+            current = vi;
+            int v = graph.vertexAt(vi);
+            if (reversed) {
+                for (var it = ((Digraph) graph).predecessorIterator(v); it.hasNext();) {
+                    int u = it.next();
+                    relax(u, v, it.getEdgeWeight());
+                }
+            } else {
+                graph.forEachEdgeOf(v, relax);
+            }
+        }
+        heap.clear();
+        return numSettled;
+    }
+
+    //relaxes the arc vu, one of its endpoints being the current vertex
+    private void relax(int v, int u, double weight) {
+        int vi = current;
+        int ui = graph.indexOf(reversed ? v : u);
+        if (settled[ui] == stamp) {
+            return;
+        }
+        if (weight < 0) {
+            throw new IllegalArgumentException(
+                    "Negative weighted edges are not permited: " + graph.edge(v, u));
+        }
+        double d = dist[vi] + weight;
+        if (reached[ui] != stamp || d < dist[ui]) {
+            reached[ui] = stamp;
+            dist[ui] = d;
+            parent[ui] = vi;
+            heap.addOrDecrease(ui, d);
+        }
+    }
+
+    private void reset() {
+        numSettled = 0;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     *
+     * @return the number of vertices settled by the last run.
+     */
+    public int numSettled() {
+        return numSettled;
+    }
+
+    /**
+     * Returns the index of a settled vertex, the settled vertices being
+     * ordered ascending by their distances.
+     *
+     * @param k a number between {@code 0} and {@code numSettled() - 1}.
+     * @return the index of the k-th settled vertex.
+     */
+    public int indexAt(int k) {
+        if (k < 0 || k >= numSettled) {
+            throw new IndexOutOfBoundsException(k);
+        }
+        return order[k];
+    }
+
+    /**
+     *
+     * @param vi a vertex index.
+     * @return {@code true} if the vertex at the specified index was settled by
+     * the last run.
+     */
+    public boolean isSettledAt(int vi) {
+        return settled[vi] == stamp;
+    }
+
+    /**
+     * Returns the distance from the source to the vertex at the specified
+     * index, or {@code Double.POSITIVE_INFINITY} if the vertex was not settled
+     * by the last run.
+     *
+     * @param vi a vertex index.
+     * @return the distance from the source to the vertex at index {@code vi}.
+     */
+    public double distanceAt(int vi) {
+        return settled[vi] == stamp ? dist[vi] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the distance from the source to a vertex, or
+     * {@code Double.POSITIVE_INFINITY} if the vertex was not settled by the
+     * last run.
+     *
+     * @param v a vertex number.
+     * @return the distance from the source to {@code v}.
+     */
+    public double distance(int v) {
+        return distanceAt(graph.indexOf(v));
+    }
+
+    /**
+     * Returns the index of the parent of a settled vertex, in the shortest path
+     * tree. In case of a reversed search, the parent is the next vertex on the
+     * shortest path towards the source.
+     *
+     * @param vi the index of a settled vertex.
+     * @return the index of its parent, or {@code -1} for the source and the
+     * vertices that were not settled.
+     */
+    public int parentIndexAt(int vi) {
+        return settled[vi] == stamp ? parent[vi] : -1;
+    }
+
+    /**
+     * Returns the shortest path from the source to the target. In case of a
+     * reversed search, the path starts in the target and ends in the source.
+     *
+     * @param target the target vertex number.
+     * @return the shortest path between the source and the target, or
+     * {@code null} if the target was not settled by the last run.
+     */
+    public Path findPath(int target) {
+        int ti = graph.indexOf(target);
+        if (settled[ti] != stamp) {
+            return null;
+        }
+        Path path = new Path(graph);
+        for (int vi = ti; vi >= 0; vi = parent[vi]) {
+            path.add(graph.vertexAt(vi));
+        }
+        if (!reversed) {
+            path.reverse();
+        }
+        return path;
+    }
+}
@@ -17,6 +17,7 @@
 package org.graph4j.shortestpath;
 
 import java.util.Arrays;
+import org.graph4j.EdgeConsumer;
 import org.graph4j.Graph;
 import org.graph4j.util.Path;
 import org.graph4j.GraphAlgorithm;
@@ -44,6 +45,8 @@ public abstract class DijkstraShortestPathBase extends GraphAlgorithm
     protected int[] size;
     protected boolean[] solved;
     protected int numSolved;
+    private int current; //the index of the vertex whose edges are relaxed
+    private final EdgeConsumer relax = this::relax;
 
     /**
      * Creates an algorithm to find all shortest paths starting in the source.
@@ -105,8 +108,36 @@ public abstract class DijkstraShortestPathBase extends GraphAlgorithm
     protected void postUpdate(int vi) {
     }
 
+    /**
+     * Returns the index of the unsolved vertex having the minimum cost.
+     * Implementations that keep only the reached vertices may return
+     * {@code -1} if no other vertex is reachable from the source.
+     *
+     * @return the index of the unsolved vertex having the minimum cost, or
+     * {@code -1}.
+     */
     protected abstract int findMinIndex();
 
+    /**
+     * Checks if all the edge weights of a graph are non-negative integers.
+     *
+     * @param graph a graph.
+     * @return the maximum edge weight, if all the weights are non-negative
+     * integers, or {@code -1} otherwise.
+     */
+    static long maxIntegerWeight(Graph graph) {
+        double max = 0;
+        for (var it = graph.edgeIterator(); it.hasNext();) {
+            it.next();
+            double w = it.getWeight();
+            if (w < 0 || w != Math.rint(w) || w > Long.MAX_VALUE) {
+                return -1;
+            }
+            max = Math.max(max, w);
+        }
+        return (long) max;
+    }
+
     //computes the paths from the source
     //if the target is specified (>=0) it stops as soon as it is solved
     protected void compute(int target) {
@@ -125,30 +156,36 @@ public abstract class DijkstraShortestPathBase extends GraphAlgorithm
 
         while (true) {
             int vi = findMinIndex();
+            if (vi < 0) {
+                break;
+            }
             solved[vi] = true;
             numSolved++;
             int v = vertices[vi];
             if (v == target || numSolved == n) {
                 break;
             }
-            for (var it = graph.neighborIterator(v); it.hasNext();) {
-                int u = it.next();
-                int ui = graph.indexOf(u);
-                if (solved[ui]) {
-                    continue;
-                }
-                double weight = it.getEdgeWeight();
-                if (weight < 0) {
-                    throw new IllegalArgumentException(
-                            "Negative weighted edges are not permited: " + graph.edge(v, u));
-                }
-                if (cost[ui] > cost[vi] + weight) {
-                    cost[ui] = cost[vi] + weight;
-                    before[ui] = vi;
-                    size[ui] = size[vi] + 1;
-                    postUpdate(ui);
-                }
-            }
+            current = vi;
+            graph.forEachEdgeOf(v, relax);
+        }
+    }
+
+    //relaxes the edge vu, where v is the current vertex
+    private void relax(int v, int u, double weight) {
+        int ui = graph.indexOf(u);
+        if (solved[ui]) {
+            return;
+        }
+        if (weight < 0) {
+            throw new IllegalArgumentException(
+                    "Negative weighted edges are not permited: " + graph.edge(v, u));
+        }
+        int vi = current;
+        if (cost[ui] > cost[vi] + weight) {
+            cost[ui] = cost[vi] + weight;
+            before[ui] = vi;
+            size[ui] = size[vi] + 1;
+            postUpdate(ui);
         }
     }
 
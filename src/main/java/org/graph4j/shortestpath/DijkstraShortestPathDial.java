@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import org.graph4j.Graph;
+
+/**
+ * Implementation of Dijkstra's algorithm for graphs whose edge weights are
+ * small non-negative integers, known as Dial's algorithm. The reached vertices
+ * are kept in a circular array of {@code C + 1} buckets, where {@code C} is
+ * the maximum edge weight, a vertex having the cost {@code d} being stored in
+ * the bucket {@code d mod (C + 1)}.
+ *
+ * The complexity of this implementation is O(m + nC), where m is the number
+ * of edges and n the number of vertices.
+ *
+ * Suitable for graphs having small integer weights.
+ *
+ * <p>
+ * {@inheritDoc}
+ *
+ * @see DijkstraShortestPathRadixHeap
+ * @author Cristian Frăsinaru
+ */
+public class DijkstraShortestPathDial extends DijkstraShortestPathBase {
+
+    /**
+     * The maximum edge weight accepted by this implementation.
+     */
+    public static final int MAX_WEIGHT = 1 << 20;
+    private final int numBuckets;
+    private int[] head; //the first vertex index in each bucket, -1 if empty
+    private int[] next;
+    private int[] prev;
+    private int[] bucketOf; //the bucket of a vertex index, -1 if none
+    private int current; //the bucket containing the minimum cost vertices
+    private int count;
+
+    /**
+     * Creates an algorithm to find all shortest paths starting in the source.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     * @throws IllegalArgumentException if the edge weights are not
+     * non-negative integers, at most {@link #MAX_WEIGHT}.
+     */
+    public DijkstraShortestPathDial(Graph graph, int source) {
+        this(graph, source, maxIntegerWeight(graph));
+    }
+
+    //the maximum edge weight was already computed, -1 if the weights are not integers
+    DijkstraShortestPathDial(Graph graph, int source, long maxWeight) {
+        super(graph, source);
+        if (maxWeight < 0 || maxWeight > MAX_WEIGHT) {
+            throw new IllegalArgumentException(
+                    "The edge weights must be non-negative integers, at most " + MAX_WEIGHT);
+        }
+        this.numBuckets = (int) maxWeight + 1;
+    }
+
+    @Override
+    protected void preCompute() {
+        int n = vertices.length;
+        this.head = new int[numBuckets];
+        this.next = new int[n];
+        this.prev = new int[n];
+        this.bucketOf = new int[n];
+        Arrays.fill(head, -1);
+        Arrays.fill(bucketOf, -1);
+        this.current = 0;
+        this.count = 0;
+        insert(graph.indexOf(source), 0);
+    }
+
+    @Override
+    protected void postUpdate(int index) {
+        if (bucketOf[index] >= 0) {
+            remove(index);
+        }
+        insert(index, (int) ((long) cost[index] % numBuckets));
+    }
+
+    @Override
+    protected int findMinIndex() {
+        if (count == 0) {
+            return -1;
+        }
+        while (head[current] < 0) {
+            current = current + 1 == numBuckets ? 0 : current + 1;
+        }
+        int vi = head[current];
+        remove(vi);
+        return vi;
+    }
+
+    private void insert(int vi, int bucket) {
+        int first = head[bucket];
+        next[vi] = first;
+        prev[vi] = -1;
+        if (first >= 0) {
+            prev[first] = vi;
+        }
+        head[bucket] = vi;
+        bucketOf[vi] = bucket;
+        count++;
+    }
+
+    private void remove(int vi) {
+        int bucket = bucketOf[vi];
+        if (prev[vi] >= 0) {
+            next[prev[vi]] = next[vi];
+        } else {
+            head[bucket] = next[vi];
+        }
+        if (next[vi] >= 0) {
+            prev[next[vi]] = prev[vi];
+        }
+        bucketOf[vi] = -1;
+        count--;
+    }
+}
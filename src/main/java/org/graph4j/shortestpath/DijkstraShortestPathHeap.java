@@ -17,7 +17,7 @@
 package org.graph4j.shortestpath;
 
 import org.graph4j.Graph;
-import org.graph4j.util.VertexHeap;
+import org.graph4j.util.IndexedDoubleHeap;
 
 /**
  * Implementation of Dijkstra's algorithm that uses a heap in order to select
@@ -35,7 +35,7 @@ import org.graph4j.util.VertexHeap;
  */
 public class DijkstraShortestPathHeap extends DijkstraShortestPathBase {
 
-    private VertexHeap heap;
+    private IndexedDoubleHeap heap;
 
     public DijkstraShortestPathHeap(Graph graph, int source) {
         super(graph, source);
@@ -43,16 +43,18 @@ public class DijkstraShortestPathHeap extends DijkstraShortestPathBase {
 
     @Override
     protected void preCompute() {
-        this.heap = new VertexHeap(graph, (i, j) -> (int) Math.signum(cost[i] - cost[j]));
+        this.heap = new IndexedDoubleHeap(vertices.length);
+        heap.addOrDecrease(graph.indexOf(source), 0);
     }
 
     @Override
     protected void postUpdate(int index) {
-        heap.update(index);
+        heap.addOrDecrease(index, cost[index]);
     }
 
     @Override
     protected int findMinIndex() {
-        return heap.poll();
+        //the heap contains only the reached vertices
+        return heap.isEmpty() ? -1 : heap.poll();
     }
 }
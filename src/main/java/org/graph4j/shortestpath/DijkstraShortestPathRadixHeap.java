@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import org.graph4j.Graph;
+
+/**
+ * Implementation of Dijkstra's algorithm for graphs whose edge weights are
+ * non-negative integers, using a monotone radix heap. The extracted costs never
+ * decrease, so a reached vertex is stored in the bucket given by the highest
+ * bit in which its cost differs from the last extracted cost. Decreasing the
+ * cost of a vertex adds a new entry, the old one being ignored when it is
+ * extracted.
+ *
+ * The complexity of this implementation is O(m + n log C), where m is the
+ * number of edges, n the number of vertices and C the maximum edge weight.
+ *
+ * <p>
+ * {@inheritDoc}
+ *
+ * @see DijkstraShortestPathDial
+ * @author Cristian Frăsinaru
+ */
+public class DijkstraShortestPathRadixHeap extends DijkstraShortestPathBase {
+
+    private static final int NUM_BUCKETS = 65;
+    private long[][] keys;
+    private int[][] items;
+    private int[] sizes;
+    private long last; //the last extracted cost
+    private int count;
+
+    /**
+     * Creates an algorithm to find all shortest paths starting in the source.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     * @throws IllegalArgumentException if the edge weights are not
+     * non-negative integers.
+     */
+    public DijkstraShortestPathRadixHeap(Graph graph, int source) {
+        super(graph, source);
+        if (maxIntegerWeight(graph) < 0) {
+            throw new IllegalArgumentException("The edge weights must be non-negative integers");
+        }
+    }
+
+    @Override
+    protected void preCompute() {
+        this.keys = new long[NUM_BUCKETS][];
+        this.items = new int[NUM_BUCKETS][];
+        this.sizes = new int[NUM_BUCKETS];
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            keys[b] = new long[4];
+            items[b] = new int[4];
+        }
+        this.last = 0;
+        this.count = 0;
+        push(graph.indexOf(source), 0);
+    }
+
+    @Override
+    protected void postUpdate(int index) {
+        push(index, (long) cost[index]);
+    }
+
+    @Override
+    protected int findMinIndex() {
+        while (count > 0) {
+            if (sizes[0] == 0) {
+                redistribute();
+                continue;
+            }
+            int pos = --sizes[0];
+            count--;
+            int vi = items[0][pos];
+            if (!solved[vi] && keys[0][pos] == (long) cost[vi]) {
+                return vi;
+            }
+            //an outdated entry
+        }
+        return -1;
+    }
+
+    private int bucket(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void push(int vi, long key) {
+        int b = bucket(key);
+        int size = sizes[b];
+        if (size == items[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], 2 * size);
+            items[b] = Arrays.copyOf(items[b], 2 * size);
+        }
+        keys[b][size] = key;
+        items[b][size] = vi;
+        sizes[b] = size + 1;
+        count++;
+    }
+
+    //empties the first non-empty bucket, moving its entries in lower buckets
+    private void redistribute() {
+        int b = 1;
+        while (sizes[b] == 0) {
+            b++;
+        }
+        long[] bucketKeys = keys[b];
+        int[] bucketItems = items[b];
+        int size = sizes[b];
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, bucketKeys[i]);
+        }
+        last = min;
+        sizes[b] = 0;
+        count -= size;
+        for (int i = 0; i < size; i++) {
+            int vi = bucketItems[i];
+            long key = bucketKeys[i];
+            if (!solved[vi] && key == (long) cost[vi]) {
+                push(vi, key);
+            }
+        }
+    }
+}
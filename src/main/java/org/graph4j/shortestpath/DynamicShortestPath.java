@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphAlgorithm;
+import org.graph4j.util.IndexedDoubleHeap;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * Maintains the shortest paths from a source vertex while the edges of the
+ * graph change: weight increases and decreases, edge insertions and removals.
+ * After each update, only the affected part of the shortest path tree is
+ * repaired, in the style of Ramalingam and Reps: the subtrees hanging from
+ * invalidated tree edges are detached and reattached to the rest of the tree,
+ * and the decreases are propagated using Dijkstra's algorithm restricted to
+ * the vertices whose distances change.
+ *
+ * The edges may be modified using the methods of this class, or directly in
+ * the graph, in which case {@link #edgeChanged(int, int)} must be invoked for
+ * each modified edge. Several updates may be grouped in a batch, between
+ * {@link #beginBatch()} and {@link #endBatch()}, and repaired together. The
+ * vertices of the graph must not be modified. The edge weights must be
+ * non-negative.
+ *
+ * G. Ramalingam, T. Reps, "An incremental algorithm for a generalization of
+ * the shortest-path problem", Journal of Algorithms 21 (1996).
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DynamicShortestPath extends GraphAlgorithm implements SingleSourceShortestPath {
+
+    private final int source;
+    private final int n;
+    private final double[] cost;
+    private final int[] before;
+    private final boolean[] affected;
+    private final int[] affectedList;
+    private final IndexedDoubleHeap heap;
+    //the modified arcs, as vertex indices, not yet repaired
+    private int[] changedSource = new int[16];
+    private int[] changedTarget = new int[16];
+    private int numChanged;
+    private boolean batch;
+    private int numUpdated;
+
+    /**
+     * Computes the shortest paths from the source, which will be maintained
+     * while the graph changes.
+     *
+     * @param graph the input graph.
+     * @param source the source vertex number.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public DynamicShortestPath(Graph graph, int source) {
+        super(graph);
+        Validator.containsVertex(graph, source);
+        this.source = source;
+        this.n = graph.numVertices();
+        this.cost = new double[n];
+        this.before = new int[n];
+        this.affected = new boolean[n];
+        this.affectedList = new int[n];
+        this.heap = new IndexedDoubleHeap(n);
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(before, -1);
+        int si = graph.indexOf(source);
+        cost[si] = 0;
+        heap.addOrDecrease(si, 0);
+        propagate();
+    }
+
+    @Override
+    public int getSource() {
+        return source;
+    }
+
+    @Override
+    public Path findPath(int target) {
+        Validator.containsVertex(graph, target);
+        int vi = graph.indexOf(target);
+        if (cost[vi] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        Path path = new Path(graph);
+        while (vi >= 0) {
+            path.add(graph.vertexAt(vi));
+            vi = before[vi];
+        }
+        path.reverse();
+        return path;
+    }
+
+    @Override
+    public double getPathWeight(int target) {
+        Validator.containsVertex(graph, target);
+        return cost[graph.indexOf(target)];
+    }
+
+    @Override
+    public double[] getPathWeights() {
+        return cost.clone();
+    }
+
+    /**
+     * Returns the number of vertices whose distances were recomputed by the
+     * last repair of the shortest path tree.
+     *
+     * @return the number of vertices updated by the last repair.
+     */
+    public int numUpdated() {
+        return numUpdated;
+    }
+
+    /**
+     * Starts a batch of updates. The shortest paths are not repaired until
+     * {@link #endBatch()} is invoked.
+     */
+    public void beginBatch() {
+        batch = true;
+    }
+
+    /**
+     * Ends a batch of updates and repairs the shortest paths.
+     */
+    public void endBatch() {
+        batch = false;
+        repair();
+    }
+
+    /**
+     * Sets the weight of an edge of the graph and updates the shortest paths.
+     *
+     * @param v a vertex number.
+     * @param u a vertex number.
+     * @param weight the new weight of the edge vu.
+     */
+    public void setEdgeWeight(int v, int u, double weight) {
+        graph.setEdgeWeight(v, u, weight);
+        edgeChanged(v, u);
+    }
+
+    /**
+     * Adds an edge to the graph and updates the shortest paths.
+     *
+     * @param v a vertex number.
+     * @param u a vertex number.
+     * @param weight the weight of the edge vu.
+     */
+    public void addEdge(int v, int u, double weight) {
+        graph.addEdge(v, u, weight);
+        edgeChanged(v, u);
+    }
+
+    /**
+     * Removes an edge from the graph and updates the shortest paths.
+     *
+     * @param v a vertex number.
+     * @param u a vertex number.
+     */
+    public void removeEdge(int v, int u) {
+        graph.removeEdge(v, u);
+        edgeChanged(v, u);
+    }
+
+    /**
+     * Notifies that the edge vu was added, removed or its weight was modified
+     * directly in the graph. The shortest paths are updated, unless a batch is
+     * in progress.
+     *
+     * @param v a vertex number.
+     * @param u a vertex number.
+     */
+    public void edgeChanged(int v, int u) {
+        Validator.containsVertex(graph, v);
+        Validator.containsVertex(graph, u);
+        if (graph.numVertices() != n) {
+            throw new IllegalStateException("The vertices of the graph have been modified.");
+        }
+        int vi = graph.indexOf(v);
+        int ui = graph.indexOf(u);
+        addChanged(vi, ui);
+        if (!directed) {
+            addChanged(ui, vi);
+        }
+        if (!batch) {
+            repair();
+        }
+    }
+
+    private void addChanged(int vi, int ui) {
+        if (numChanged == changedSource.length) {
+            changedSource = Arrays.copyOf(changedSource, 2 * numChanged);
+            changedTarget = Arrays.copyOf(changedTarget, 2 * numChanged);
+        }
+        changedSource[numChanged] = vi;
+        changedTarget[numChanged++] = ui;
+    }
+
+    private void repair() {
+        numUpdated = 0;
+        heap.clear(); //the vertices left by an update that failed
+        int numAffected = 0;
+        try {
+            //the tree arcs that no longer give the distances invalidate their subtrees
+            for (int k = 0; k < numChanged; k++) {
+                int vi = changedSource[k], ui = changedTarget[k];
+                if (before[ui] == vi && !affected[ui] && cost[vi] + weight(vi, ui) > cost[ui]) {
+                    affected[ui] = true;
+                    affectedList[numAffected++] = ui;
+                }
+            }
+            for (int i = 0; i < numAffected; i++) {
+                int xi = affectedList[i];
+                for (var it = graph.neighborIterator(graph.vertexAt(xi)); it.hasNext();) {
+                    int yi = graph.indexOf(it.next());
+                    if (!affected[yi] && before[yi] == xi) {
+                        affected[yi] = true;
+                        affectedList[numAffected++] = yi;
+                    }
+                }
+            }
+            //reattach the affected vertices using the unaffected predecessors
+            for (int i = 0; i < numAffected; i++) {
+                int yi = affectedList[i];
+                int y = graph.vertexAt(yi);
+                cost[yi] = Double.POSITIVE_INFINITY;
+                before[yi] = -1;
+                for (var it = directed ? ((Digraph) graph).predecessorIterator(y) : graph.neighborIterator(y); it.hasNext();) {
+                    int p = it.next();
+                    int pi = graph.indexOf(p);
+                    if (affected[pi]) {
+                        continue;
+                    }
+                    double weight = it.getEdgeWeight();
+                    if (weight < 0) {
+                        throw new IllegalArgumentException(
+                                "Negative weighted edges are not permited: " + graph.edge(p, y));
+                    }
+                    if (cost[pi] + weight < cost[yi]) {
+                        cost[yi] = cost[pi] + weight;
+                        before[yi] = pi;
+                    }
+                }
+                if (cost[yi] < Double.POSITIVE_INFINITY) {
+                    heap.addOrDecrease(yi, cost[yi]);
+                }
+            }
+            //the arcs whose weights decreased
+            for (int k = 0; k < numChanged; k++) {
+                int vi = changedSource[k], ui = changedTarget[k];
+                if (affected[vi] || cost[vi] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                if (graph.isAllowingMultipleEdges()) {
+                    //the modified arc may be any of the parallel ones
+                    heap.addOrDecrease(vi, cost[vi]);
+                    continue;
+                }
+                double newCost = cost[vi] + weight(vi, ui);
+                if (newCost < cost[ui]) {
+                    cost[ui] = newCost;
+                    before[ui] = vi;
+                    heap.addOrDecrease(ui, newCost);
+                }
+            }
+        } finally {
+            //an invalid weight must not leave a partial update behind
+            for (int i = 0; i < numAffected; i++) {
+                affected[affectedList[i]] = false;
+            }
+            numChanged = 0;
+        }
+        propagate();
+    }
+
+    //the weight of the arc vi -> ui, or infinity if there is none
+    private double weight(int vi, int ui) {
+        int v = graph.vertexAt(vi);
+        int u = graph.vertexAt(ui);
+        double weight = graph.getEdgeWeight(v, u);
+        if (weight < 0) {
+            throw new IllegalArgumentException(
+                    "Negative weighted edges are not permited: " + graph.edge(v, u));
+        }
+        return weight;
+    }
+
+    //Dijkstra's algorithm, starting with the vertices in the heap
+    private void propagate() {
+        while (!heap.isEmpty()) {
+            int vi = heap.poll();
+            numUpdated++;
+            int v = graph.vertexAt(vi);
+            for (var it = graph.neighborIterator(v); it.hasNext();) {
+                int u = it.next();
+                int ui = graph.indexOf(u);
+                double weight = it.getEdgeWeight();
+                if (weight < 0) {
+                    throw new IllegalArgumentException(
+                            "Negative weighted edges are not permited: " + graph.edge(v, u));
+                }
+                if (cost[vi] + weight < cost[ui]) {
+                    cost[ui] = cost[vi] + weight;
+                    before[ui] = vi;
+                    heap.addOrDecrease(ui, cost[ui]);
+                }
+            }
+        }
+    }
+}
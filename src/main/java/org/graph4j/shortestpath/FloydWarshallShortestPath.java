@@ -17,6 +17,8 @@
 package org.graph4j.shortestpath;
 
 import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import org.graph4j.util.Cycle;
 import org.graph4j.Graph;
 import org.graph4j.util.Path;
@@ -31,18 +33,69 @@ import org.graph4j.util.Validator;
  * It has a complexity of O(n^3). It is best suited for dense graphs. In case of
  * sparse graphs {@link JohnsonShortestPath} algorithm may perform better.
  *
+ * The distances are stored in a single array, row by row, and the matrix is
+ * processed in square tiles of {@link #BLOCK_SIZE} rows and columns. For each
+ * block of intermediate vertices, the diagonal tile is computed first, then
+ * the tiles on its row and column, and then all the remaining tiles; the
+ * tiles of the last two phases are independent of each other and they are
+ * processed in parallel. The distances may be stored using {@code float}
+ * precision, halving the required memory.
+ *
+ * When the paths are computed, among the paths having the same weight the one
+ * with fewer edges is preferred. Otherwise, since the tiles on the row and
+ * column of the diagonal tile are already final for the current block, the
+ * predecessors could form cycles in the presence of zero-weight edges.
+ *
+ * G. Venkataraman, S. Sahni, S. Mukhopadhyaya, "A blocked all-pairs
+ * shortest-paths algorithm", Journal of Experimental Algorithmics 8 (2003),
+ * https://doi.org/10.1145/996546.996553
+ *
  * @see JohnsonShortestPath
  * @author Cristian Frăsinaru
  */
 public class FloydWarshallShortestPath extends GraphAlgorithm
         implements AllPairsShortestPath {
 
-    private double[][] cost;
-    private int[][] before;
-    //before[i][j] = the vertex before j on the shortest path from i to j
+    /**
+     * The number of rows and columns of a tile.
+     */
+    public static final int BLOCK_SIZE = 64;
 
+    private final int n;
+    private final boolean floatPrecision;
+    private double[] cost;
+    private float[] costf;
+    private int[] before;
+    //before[i * n + j] = the vertex before j on the shortest path from i to j
+    private int[] hops;
+    //hops[i * n + j] = the number of edges of the shortest path from i to j
+    private double[][] weights;
+
+    /**
+     * Creates an algorithm for computing the shortest paths between all pairs
+     * of vertices, using double precision.
+     *
+     * @param graph the input graph.
+     */
     public FloydWarshallShortestPath(Graph graph) {
+        this(graph, false);
+    }
+
+    /**
+     * Creates an algorithm for computing the shortest paths between all pairs
+     * of vertices.
+     *
+     * @param graph the input graph.
+     * @param floatPrecision if {@code true}, the distances are stored using
+     * {@code float} values.
+     */
+    public FloydWarshallShortestPath(Graph graph, boolean floatPrecision) {
         super(graph);
+        this.n = graph.numVertices();
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new UnsupportedOperationException("The graph is too large.");
+        }
+        this.floatPrecision = floatPrecision;
     }
 
     @Override
@@ -54,7 +107,7 @@ public class FloydWarshallShortestPath extends GraphAlgorithm
         }
         int si = graph.indexOf(source);
         int ti = graph.indexOf(target);
-        if (cost[si][ti] == Double.POSITIVE_INFINITY) {
+        if (costAt(si * n + ti) == Double.POSITIVE_INFINITY) {
             return new Path(graph, new int[]{});
         }
         return createPathBetween(si, ti);
@@ -63,95 +116,225 @@ public class FloydWarshallShortestPath extends GraphAlgorithm
     @Override
     public double getPathWeight(int source, int target) {
         Validator.containsVertex(graph, source);
-        Validator.containsVertex(graph, target);        
-        if (cost == null) {
-            if (directed) {
-                computeAll();
-            } else {
-                computeWeights();
-            }
+        Validator.containsVertex(graph, target);
+        if (cost == null && costf == null) {
+            computeWeights();
         }
-        return cost[graph.indexOf(source)][graph.indexOf(target)];
+        return costAt(graph.indexOf(source) * n + graph.indexOf(target));
     }
 
+    /**
+     * {@inheritDoc}
+     * The matrix is created on the first invocation, by copying the values
+     * computed by the algorithm.
+     */
     @Override
     public double[][] getPathWeights() {
-        if (cost == null) {
-            if (directed) {
-                computeAll();
-            } else {
-                computeWeights();
+        if (weights != null) {
+            return weights;
+        }
+        if (cost == null && costf == null) {
+            computeWeights();
+        }
+        weights = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                weights[i][j] = costAt(i * n + j);
             }
         }
-        return cost;
+        return weights;
     }
 
-    private void initBefore() {
-        int n = graph.numVertices();
-        this.before = new int[n][n];
+    private double costAt(int pos) {
+        return floatPrecision ? costf[pos] : cost[pos];
+    }
+
+    private void initCost() {
+        double[] w = new double[n * n];
+        Arrays.fill(w, Double.POSITIVE_INFINITY);
         for (int i = 0; i < n; i++) {
-            Arrays.fill(before[i], -1);
+            int row = i * n;
+            w[row + i] = 0;
+            //the lightest of the multiple edges, a self loop counts only if negative
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, weight) -> {
+                int pos = row + graph.indexOf(u);
+                if (weight < w[pos]) {
+                    w[pos] = weight;
+                }
+            });
         }
-        for (int v : graph.vertices()) {
-            int vi = graph.indexOf(v);
-            for (var it = graph.neighborIterator(v); it.hasNext();) {
-                int ui = graph.indexOf(it.next());
-                before[vi][ui] = vi;
+        if (floatPrecision) {
+            costf = new float[n * n];
+            for (int i = 0; i < w.length; i++) {
+                costf[i] = (float) w[i];
             }
+        } else {
+            cost = w;
         }
-        if (graph.isAllowingSelfLoops()) {
-            for (int i = 0; i < n; i++) {
-                before[i][i] = -1;
-            }
+    }
+
+    private void initBefore() {
+        this.before = new int[n * n];
+        this.hops = new int[n * n];
+        Arrays.fill(before, -1);
+        for (int i = 0; i < n; i++) {
+            int vi = i, row = i * n;
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, weight) -> {
+                before[row + graph.indexOf(u)] = vi;
+                hops[row + graph.indexOf(u)] = 1;
+            });
+            //the diagonal is reached by a self loop only if it is negative
+            before[row + i] = costAt(row + i) < 0 ? i : -1;
+            hops[row + i] = costAt(row + i) < 0 ? 1 : 0;
         }
     }
 
     private void computeAll() {
-        this.cost = graph.weightMatrix();
+        weights = null;
+        initCost();
         initBefore();
-        int n = graph.numVertices();
-        //compute shortest paths using only k=0,1,...,n-1 as intermediate vertices
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                if (before[i][k] < 0) {
+        compute();
+    }
+
+    //weights only, without maintaining the paths
+    private void computeWeights() {
+        initCost();
+        if (!compute()) {
+            //a negative cycle was found, the paths are needed to report it
+            computeAll();
+        }
+    }
+
+    //returns false if a negative cycle was found and the paths are not computed
+    private boolean compute() {
+        int numBlocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        for (int kb = 0; kb < numBlocks; kb++) {
+            final int k = kb;
+            //the diagonal tile
+            updateTile(kb, kb, kb);
+            //the tiles on the same row or column with the diagonal tile
+            forEachParallel(2 * (numBlocks - 1), t -> {
+                int b = t % (numBlocks - 1);
+                b = b < k ? b : b + 1;
+                if (t < numBlocks - 1) {
+                    updateTile(k, b, k);
+                } else {
+                    updateTile(b, k, k);
+                }
+            });
+            //the remaining tiles
+            forEachParallel((numBlocks - 1) * (numBlocks - 1), t -> {
+                int ib = t / (numBlocks - 1);
+                int jb = t % (numBlocks - 1);
+                updateTile(ib < k ? ib : ib + 1, jb < k ? jb : jb + 1, k);
+            });
+            if (!checkNegativeCycles()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void forEachParallel(int count, IntConsumer action) {
+        var range = IntStream.range(0, count);
+        if (count > 1) {
+            range = range.parallel();
+        }
+        range.forEach(action);
+    }
+
+    private boolean checkNegativeCycles() {
+        for (int i = 0; i < n; i++) {
+            if (costAt(i * n + i) < 0) {
+                if (before == null) {
+                    return false;
+                }
+                Cycle cycle = createCycleBetween(i, i);
+                if (directed || cycle.length() != 2) {
+                    throw new NegativeCycleException(cycle);
+                }
+            }
+        }
+        return true;
+    }
+
+    //updates the tile (ib, jb) using the vertices in the block kb as intermediates
+    private void updateTile(int ib, int jb, int kb) {
+        if (floatPrecision) {
+            updateTileFloat(ib, jb, kb);
+            return;
+        }
+        double[] d = cost;
+        int[] p = before;
+        int[] h = hops;
+        int i0 = ib * BLOCK_SIZE, i1 = Math.min(n, i0 + BLOCK_SIZE);
+        int j0 = jb * BLOCK_SIZE, j1 = Math.min(n, j0 + BLOCK_SIZE);
+        int k0 = kb * BLOCK_SIZE, k1 = Math.min(n, k0 + BLOCK_SIZE);
+        for (int k = k0; k < k1; k++) {
+            int rowk = k * n;
+            for (int i = i0; i < i1; i++) {
+                int rowi = i * n;
+                double dik = d[rowi + k];
+                if (dik == Double.POSITIVE_INFINITY) {
                     continue;
                 }
-                for (int j = 0; j < n; j++) {
-                    if (cost[i][j] > cost[i][k] + cost[k][j]) {
-                        cost[i][j] = cost[i][k] + cost[k][j];
-                        before[i][j] = before[k][j];
+                if (p == null) {
+                    for (int j = j0; j < j1; j++) {
+                        double dist = dik + d[rowk + j];
+                        if (dist < d[rowi + j]) {
+                            d[rowi + j] = dist;
+                        }
                     }
+                    continue;
                 }
-                if (cost[i][i] < 0) {
-                    Cycle cycle = createCycleBetween(i, i);
-                    if (directed || cycle.length() > 2) {
-                        throw new NegativeCycleException(cycle);
+                int hik = h[rowi + k];
+                for (int j = j0; j < j1; j++) {
+                    double dist = dik + d[rowk + j];
+                    double dij = d[rowi + j];
+                    if (dist < dij || (dist == dij && dist != Double.POSITIVE_INFINITY
+                            && hik + h[rowk + j] < h[rowi + j])) {
+                        d[rowi + j] = dist;
+                        p[rowi + j] = p[rowk + j];
+                        h[rowi + j] = hik + h[rowk + j];
                     }
                 }
             }
         }
     }
 
-    //weights only - optimized for undirected graphs
-    private void computeWeights() {
-        this.cost = graph.weightMatrix();
-        int n = graph.numVertices();
-        //compute shortest paths using only k=0,1,...,n-1 as intermediate vertices
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                if (i == k || cost[i][k] == Double.POSITIVE_INFINITY) {
+    private void updateTileFloat(int ib, int jb, int kb) {
+        float[] d = costf;
+        int[] p = before;
+        int[] h = hops;
+        int i0 = ib * BLOCK_SIZE, i1 = Math.min(n, i0 + BLOCK_SIZE);
+        int j0 = jb * BLOCK_SIZE, j1 = Math.min(n, j0 + BLOCK_SIZE);
+        int k0 = kb * BLOCK_SIZE, k1 = Math.min(n, k0 + BLOCK_SIZE);
+        for (int k = k0; k < k1; k++) {
+            int rowk = k * n;
+            for (int i = i0; i < i1; i++) {
+                int rowi = i * n;
+                float dik = d[rowi + k];
+                if (dik == Float.POSITIVE_INFINITY) {
                     continue;
                 }
-                for (int j = i; j < n; j++) {
-                    if (cost[i][j] > cost[i][k] + cost[k][j]) {
-                        cost[i][j] = cost[i][k] + cost[k][j];
-                        cost[j][i] = cost[i][j];
+                if (p == null) {
+                    for (int j = j0; j < j1; j++) {
+                        float dist = dik + d[rowk + j];
+                        if (dist < d[rowi + j]) {
+                            d[rowi + j] = dist;
+                        }
                     }
+                    continue;
                 }
-                if (cost[i][i] < 0) {
-                    Cycle cycle = createCycleBetween(i, i);
-                    if (cycle.length() > 2) {
-                        throw new NegativeCycleException(cycle);
+                int hik = h[rowi + k];
+                for (int j = j0; j < j1; j++) {
+                    float dist = dik + d[rowk + j];
+                    float dij = d[rowi + j];
+                    if (dist < dij || (dist == dij && dist != Float.POSITIVE_INFINITY
+                            && hik + h[rowk + j] < h[rowi + j])) {
+                        d[rowi + j] = dist;
+                        p[rowi + j] = p[rowk + j];
+                        h[rowi + j] = hik + h[rowk + j];
                     }
                 }
             }
@@ -161,8 +344,12 @@ public class FloydWarshallShortestPath extends GraphAlgorithm
     private Path createPathBetween(int vi, int ui) {
         var path = new Path(graph);
         while (ui != vi) {
+            if (path.numVertices() == n) {
+                throw new IllegalStateException(
+                        "The predecessors of the shortest paths form a cycle.");
+            }
             path.add(graph.vertexAt(ui));
-            ui = before[vi][ui];
+            ui = before[vi * n + ui];
         }
         path.add(graph.vertexAt(vi));
         path.reverse();
@@ -173,7 +360,7 @@ public class FloydWarshallShortestPath extends GraphAlgorithm
         var cycle = new Cycle(graph);
         while (!cycle.contains(graph.vertexAt(ui))) {
             cycle.add(graph.vertexAt(ui));
-            ui = before[vi][ui];
+            ui = before[vi * n + ui];
         }
         return cycle;
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import org.graph4j.Graph;
+
+/**
+ * The transformation used by Johnson's algorithm in order to remove the
+ * negative edge weights: each edge vu receives the weight
+ * {@code w(vu) + h(v) - h(u)}, where h(v) is the weight of the shortest path
+ * to v from an auxiliary vertex connected to all the others by zero weighted
+ * edges. If the graph has no negative weights, the graph is not copied and
+ * the potential is zero.
+ *
+ * @author Cristian Frăsinaru
+ */
+class JohnsonReweighting {
+
+    final Graph graph; //the input graph
+    final Graph auxGraph; //Dijkstra will be executed on this graph
+    final double[] h; //used to adjust the edge weights
+
+    /**
+     * @param graph the input graph.
+     * @throws NegativeCycleException if the graph contains a negative cycle.
+     */
+    JohnsonReweighting(Graph graph) {
+        this.graph = graph;
+        int n = graph.numVertices();
+        this.h = new double[n];
+        if (!hasNegativeWeights(graph)) {
+            this.auxGraph = graph;
+            return;
+        }
+        //Create a copy of the graph
+        this.auxGraph = graph.copy();
+        //Add a new auxiliary node connected to all vertices, with weight 0
+        int newNode = auxGraph.addVertex();
+        for (int v : graph.vertices()) {
+            auxGraph.addEdge(newNode, v, 0.0);
+        }
+        //Use Bellman–Ford algorithm O(nm) from the auxiliary node
+        //to find for each vertex the shortest path to it h(v)
+        //h(v) cannot be Infinity
+        var bellmanFord = new BellmanFordShortestPath(auxGraph, newNode);
+        for (int i = 0; i < n; i++) {
+            h[i] = bellmanFord.getPathWeight(auxGraph.vertexAt(i));
+        }
+        auxGraph.removeVertex(newNode);
+
+        //Modify the weight of all edges
+        //to make sure that they all have non-negative weights.
+        for (int v : auxGraph.vertices()) {
+            int vi = auxGraph.indexOf(v);
+            for (var it = auxGraph.neighborIterator(v); it.hasNext();) {
+                int u = it.next();
+                int ui = auxGraph.indexOf(u);
+                double weight = it.getEdgeWeight(); //of vu
+                it.setEdgeWeight(weight + h[vi] - h[ui]);
+            }
+        }
+    }
+
+    private static boolean hasNegativeWeights(Graph graph) {
+        if (!graph.hasEdgeWeights()) {
+            return false;
+        }
+        for (var it = graph.edgeIterator(); it.hasNext();) {
+            it.next();
+            if (it.getWeight() < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on the reweighted graph and stores the
+     * distances in the original graph.
+     *
+     * @param engine a Dijkstra engine bound to the reweighted graph.
+     * @param vi the index of the source.
+     * @param dist the array where the distances will be stored.
+     * @param parent the array where the parents will be stored.
+     */
+    void run(DijkstraEngine engine, int vi, double[] dist, int[] parent) {
+        engine.run(graph.vertexAt(vi));
+        for (int ui = 0, n = dist.length; ui < n; ui++) {
+            dist[ui] = engine.distanceAt(ui) + h[ui] - h[vi];
+            parent[ui] = engine.parentIndexAt(ui);
+        }
+    }
+}
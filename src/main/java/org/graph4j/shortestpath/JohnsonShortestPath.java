@@ -46,73 +46,36 @@ import org.graph4j.util.Validator;
 public class JohnsonShortestPath extends GraphAlgorithm
         implements AllPairsShortestPath {
 
-    private Graph auxGraph; //Dijkstra will be executed on this graph
-    private double[] h; //used to adjust the edge weights
-    private SingleSourceShortestPath[] algs; //Dijkstra alg instances
-    private double[][] weights; //redundant
+    private final JohnsonReweighting reweighting;
+    private ThreadLocal<DijkstraEngine> engines; //per-thread Dijkstra engines
+    private double[][] weights;
+    private int[][] parents; //parents[si][ui] = the index of the vertex before ui, on the path from si
 
     public JohnsonShortestPath(Graph graph) {
         super(graph);
-        prepare();
-    }
-
-    private void prepare() {
-        //Create a copy of the graph
-        this.auxGraph = graph.copy();
-        if (!auxGraph.hasEdgeWeights()) {
-            //put weight 1.0 on each edge
-            for (int v : auxGraph.vertices()) {
-                for (var it = auxGraph.neighborIterator(v); it.hasNext();) {
-                    it.next();
-                    it.setEdgeWeight(1.0);
-                }
-            }
-        }        
-        //Add a new auxiliary node connected to all vertices, with weight 0        
-        int newNode = auxGraph.addVertex();
-        for (int v : graph.vertices()) {
-            auxGraph.addEdge(newNode, v, 0.0);            
-        }
-        //Use Bellman–Ford algorithm O(nm) from the auxiliary node
-        //to find for each vertex the shortest path to it h(v)
-        //if there are no negative edges, h(v)=0 for all v
-        //h(v) cannot be Infinity
-        var bellmanFord = new BellmanFordShortestPath(auxGraph, newNode);
-        int n = graph.numVertices();
-        this.h = new double[n];
-        for (int i = 0; i < n; i++) {
-            h[i] = bellmanFord.getPathWeight(auxGraph.vertexAt(i));
-        }
-        auxGraph.removeVertex(newNode);
-
-        //Modify the weight of all edges
-        //to make sure that they all have non-negative weights.
-        for (int v : auxGraph.vertices()) {
-            int vi = auxGraph.indexOf(v);
-            for (var it = auxGraph.neighborIterator(v); it.hasNext();) {
-                int u = it.next();
-                int ui = auxGraph.indexOf(u);
-                double weight = it.getEdgeWeight(); //of vu
-                it.setEdgeWeight(weight + h[vi] - h[ui]);
-            }
-        }
-        //Use Dijkstra's algorithm with binary heap O(m logn) 
+        //Use Dijkstra's algorithm with binary heap O(m logn)
         //to find the shortest paths from each node to every other node in the reweighted graph.
         //LAZY
+        this.reweighting = new JohnsonReweighting(graph);
     }
 
     @Override
     public Path findPath(int source, int target) {
         Validator.containsVertex(graph, source);
         Validator.containsVertex(graph, target);
-        if (algs == null) {
+        if (weights == null) {
             computeAll();
         }
-        var dijkstra = algs[graph.indexOf(source)];
-        Path path = dijkstra.findPath(target);
-        if (path != null) {
-            path = new Path(graph, path.vertices());
+        int si = graph.indexOf(source);
+        int ti = graph.indexOf(target);
+        if (weights[si][ti] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        Path path = new Path(graph);
+        for (int vi = ti; vi >= 0; vi = parents[si][vi]) {
+            path.add(graph.vertexAt(vi));
         }
+        path.reverse();
         return path;
     }
 
@@ -120,7 +83,7 @@ public class JohnsonShortestPath extends GraphAlgorithm
     public double getPathWeight(int source, int target) {
         Validator.containsVertex(graph, source);
         Validator.containsVertex(graph, target);
-        if (algs == null) {
+        if (weights == null) {
             computeAll();
         }
         int si = graph.indexOf(source);
@@ -137,7 +100,7 @@ public class JohnsonShortestPath extends GraphAlgorithm
      */
     @Override
     public double[][] getPathWeights() {
-        if (algs == null) {
+        if (weights == null) {
             computeAll();
         }
         return weights;
@@ -146,8 +109,9 @@ public class JohnsonShortestPath extends GraphAlgorithm
     //runs Dijkstra algorithm from all vertices
     private void computeAll() {
         int n = graph.numVertices();
-        this.algs = new SingleSourceShortestPath[n];
+        this.engines = DijkstraEngine.threadLocal(reweighting.auxGraph);
         this.weights = new double[n][];
+        this.parents = new int[n][];
         var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
         for (int i = 0; i < n; i++) {
             final int v = graph.vertexAt(i);
@@ -163,12 +127,12 @@ public class JohnsonShortestPath extends GraphAlgorithm
     //runs Dijkstra algorithm from a single vertex, on the auxiliary graph
     private void compute(int v) {
         int vi = graph.indexOf(v);
-        var dijkstra = new DijkstraShortestPathHeap(auxGraph, v);
-        algs[vi] = dijkstra;
-        weights[vi] = dijkstra.getPathWeights();
-        for (int ui = 0, n = graph.numVertices(); ui < n; ui++) {
-            weights[vi][ui] += h[ui] - h[vi];
-        }
+        int n = graph.numVertices();
+        double[] w = new double[n];
+        int[] p = new int[n];
+        reweighting.run(engines.get(), vi, w, p);
+        weights[vi] = w;
+        parents[vi] = p;
     }
 
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.graph4j.Graph;
+
+/**
+ * The distances between a set of landmark vertices and all the vertices of a
+ * graph, used to compute lower bounds for the distances between any two
+ * vertices, based on the triangle inequality: for a landmark L,
+ * {@code d(v,t) >= d(L,t) - d(L,v)} and {@code d(v,t) >= d(v,L) - d(t,L)}.
+ * These bounds are used by the ALT algorithms (A*, landmarks, triangle
+ * inequality), see {@link AStarLandmarkEstimator} and
+ * {@link BidirectionalALT}.
+ *
+ * The landmarks may be selected randomly, using the <i>farthest</i> strategy
+ * (each new landmark is the vertex farthest from the ones already selected),
+ * or the <i>avoid</i> strategy (the new landmark is chosen in a region of the
+ * graph where the existing lower bounds are weak). The distances are computed
+ * using Dijkstra's algorithm, in parallel when possible. They are stored in
+ * arrays indexed by the vertex indices, the values corresponding to a vertex
+ * being contiguous.
+ *
+ * A. V. Goldberg, C. Harrelson, "Computing the shortest path: A* search meets
+ * graph theory", SODA 2005.
+ *
+ * @author Cristian Frăsinaru
+ */
+public class LandmarkTable {
+
+    /**
+     * The strategies for selecting the landmarks.
+     */
+    public enum Selection {
+        /**
+         * Random vertices.
+         */
+        RANDOM,
+        /**
+         * Each new landmark is the vertex farthest from the existing ones.
+         */
+        FARTHEST,
+        /**
+         * Each new landmark is a leaf of a shortest path tree, in the subtree
+         * where the existing lower bounds are the weakest.
+         */
+        AVOID
+    }
+
+    private final Graph graph;
+    private final int numLandmarks;
+    private final int[] landmarks; //vertex indices
+    //from[vi * k + l] = d(landmark l, vi), to[vi * k + l] = d(vi, landmark l)
+    private final double[] from;
+    private final double[] to;
+
+    private LandmarkTable(Graph graph, int[] landmarks, double[] from, double[] to) {
+        this.graph = graph;
+        this.numLandmarks = landmarks.length;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a table of landmarks using the {@link Selection#AVOID}
+     * strategy.
+     *
+     * @param graph the input graph.
+     * @param numLandmarks the number of landmarks.
+     * @return a table of landmarks.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public static LandmarkTable create(Graph graph, int numLandmarks) {
+        return create(graph, numLandmarks, Selection.AVOID, new Random());
+    }
+
+    /**
+     * Creates a table of landmarks using the specified strategy.
+     *
+     * @param graph the input graph.
+     * @param numLandmarks the number of landmarks.
+     * @param selection the strategy for selecting the landmarks.
+     * @param random the source of randomness, used for choosing the first
+     * landmark or all of them.
+     * @return a table of landmarks.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public static LandmarkTable create(Graph graph, int numLandmarks, Selection selection, Random random) {
+        Objects.requireNonNull(graph);
+        Objects.requireNonNull(selection);
+        Objects.requireNonNull(random);
+        int n = graph.numVertices();
+        int k = Math.min(numLandmarks, n);
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid number of landmarks: " + numLandmarks);
+        }
+        if ((long) n * k > Integer.MAX_VALUE - 8) {
+            throw new UnsupportedOperationException("Too many landmarks for the size of the graph.");
+        }
+        double[] from = new double[n * k];
+        double[] to = graph.isDirected() ? new double[n * k] : from;
+        var engines = DijkstraEngine.threadLocal(graph);
+        int[] landmarks;
+        if (selection == Selection.RANDOM) {
+            landmarks = k == 0 ? new int[0] : random.ints(0, n).distinct().limit(k).toArray();
+            IntStream.range(0, k).parallel().forEach(l -> {
+                var engine = engines.get();
+                engine.run(graph.vertexAt(landmarks[l]));
+                store(engine, from, l, k);
+            });
+        } else {
+            landmarks = new Selector(graph, k, from, random).select(selection);
+        }
+        if (graph.isDirected()) {
+            IntStream.range(0, k).parallel().forEach(l -> {
+                var engine = engines.get();
+                engine.run(graph.vertexAt(landmarks[l]), -1, Double.POSITIVE_INFINITY, true);
+                store(engine, to, l, k);
+            });
+        }
+        return new LandmarkTable(graph, landmarks, from, to);
+    }
+
+    private static void store(DijkstraEngine engine, double[] table, int l, int k) {
+        for (int vi = 0, n = engine.getGraph().numVertices(); vi < n; vi++) {
+            table[vi * k + l] = engine.distanceAt(vi);
+        }
+    }
+
+    //selects the landmarks one by one, computing their distances
+    private static class Selector {
+
+        final Graph graph;
+        final int n, k;
+        final double[] from;
+        final Random random;
+        final DijkstraEngine engine;
+        final boolean[] isLandmark;
+        int count;
+
+        Selector(Graph graph, int k, double[] from, Random random) {
+            this.graph = graph;
+            this.n = graph.numVertices();
+            this.k = k;
+            this.from = from;
+            this.random = random;
+            this.engine = new DijkstraEngine(graph);
+            this.isLandmark = new boolean[n];
+        }
+
+        int[] select(Selection selection) {
+            int[] landmarks = new int[k];
+            double[] minDist = new double[n];
+            Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+            for (count = 0; count < k; count++) {
+                int li;
+                if (selection == Selection.FARTHEST) {
+                    li = count == 0 ? farthestFrom(random.nextInt(n)) : argmax(minDist);
+                } else {
+                    li = avoid(random.nextInt(n));
+                }
+                landmarks[count] = li;
+                isLandmark[li] = true;
+                engine.run(graph.vertexAt(li));
+                store(engine, from, count, k);
+                for (int vi = 0; vi < n; vi++) {
+                    minDist[vi] = Math.min(minDist[vi], from[vi * k + count]);
+                }
+            }
+            return landmarks;
+        }
+
+        private int farthestFrom(int ri) {
+            engine.run(graph.vertexAt(ri));
+            return engine.indexAt(engine.numSettled() - 1);
+        }
+
+        //the vertex with the largest distance to the landmarks (unreachable first)
+        private int argmax(double[] minDist) {
+            int best = -1;
+            for (int vi = 0; vi < n; vi++) {
+                if (!isLandmark[vi] && (best < 0 || minDist[vi] > minDist[best])) {
+                    best = vi;
+                }
+            }
+            return best;
+        }
+
+        private int avoid(int ri) {
+            engine.run(graph.vertexAt(ri));
+            int settled = engine.numSettled();
+            double[] size = new double[n];
+            int[] bestChild = new int[n];
+            boolean[] covered = new boolean[n]; //the subtree contains a landmark
+            Arrays.fill(bestChild, -1);
+            for (int j = 0; j < settled; j++) {
+                int vi = engine.indexAt(j);
+                //how much the lower bound underestimates d(r, v)
+                size[vi] = engine.distanceAt(vi) - lowerBound(ri, vi);
+                covered[vi] = isLandmark[vi];
+            }
+            //accumulate the sizes of the subtrees, from the leaves
+            for (int j = settled - 1; j > 0; j--) {
+                int vi = engine.indexAt(j);
+                int pi = engine.parentIndexAt(vi);
+                if (covered[vi]) {
+                    covered[pi] = true;
+                    continue;
+                }
+                size[pi] += size[vi];
+                if (bestChild[pi] < 0 || size[vi] > size[bestChild[pi]]) {
+                    bestChild[pi] = vi;
+                }
+            }
+            int wi = -1;
+            for (int j = 0; j < settled; j++) {
+                int vi = engine.indexAt(j);
+                if (!covered[vi] && (wi < 0 || size[vi] > size[wi])) {
+                    wi = vi;
+                }
+            }
+            if (wi < 0) {
+                //all the subtrees contain landmarks
+                do {
+                    wi = random.nextInt(n);
+                } while (isLandmark[wi]);
+                return wi;
+            }
+            while (bestChild[wi] >= 0) {
+                wi = bestChild[wi];
+            }
+            return wi;
+        }
+
+        private double lowerBound(int vi, int ui) {
+            double best = 0;
+            for (int l = 0; l < count; l++) {
+                double d = Math.abs(from[ui * k + l] - from[vi * k + l]);
+                if (d > best && d < Double.POSITIVE_INFINITY) {
+                    best = d;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     *
+     * @return the graph for which the table was created.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     *
+     * @return the number of landmarks.
+     */
+    public int numLandmarks() {
+        return numLandmarks;
+    }
+
+    /**
+     *
+     * @return the landmark vertices.
+     */
+    public int[] landmarks() {
+        int[] vertices = new int[numLandmarks];
+        for (int l = 0; l < numLandmarks; l++) {
+            vertices[l] = graph.vertexAt(landmarks[l]);
+        }
+        return vertices;
+    }
+
+    /**
+     * Returns a lower bound of the distance between two vertices.
+     *
+     * @param v a vertex number.
+     * @param t a vertex number.
+     * @return a lower bound of the distance from {@code v} to {@code t}.
+     */
+    public double lowerBound(int v, int t) {
+        return lowerBoundAt(graph.indexOf(v), graph.indexOf(t));
+    }
+
+    /**
+     * Returns a lower bound of the distance between the vertices at the
+     * specified indices.
+     *
+     * @param vi a vertex index.
+     * @param ti a vertex index.
+     * @return a lower bound of the distance from the vertex at index
+     * {@code vi} to the vertex at index {@code ti}.
+     */
+    public double lowerBoundAt(int vi, int ti) {
+        int k = numLandmarks;
+        int v0 = vi * k, t0 = ti * k;
+        double best = 0;
+        for (int l = 0; l < k; l++) {
+            //d(L,t) - d(L,v) and d(v,L) - d(t,L); infinite values give no bound
+            double a = from[t0 + l] - from[v0 + l];
+            if (a > best && a < Double.POSITIVE_INFINITY) {
+                best = a;
+            }
+            double b = to[v0 + l] - to[t0 + l];
+            if (b > best && b < Double.POSITIVE_INFINITY) {
+                best = b;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import org.graph4j.Graph;
+import org.graph4j.GraphAlgorithm;
+import org.graph4j.util.Path;
+import org.graph4j.util.Validator;
+
+/**
+ * An all-pairs shortest path oracle using bounded memory. The shortest paths
+ * from a source are computed only when they are requested, using Dijkstra's
+ * algorithm, and they are kept in a cache holding at most a specified number
+ * of sources; when the cache is full, the least recently used source is
+ * evicted. The distances may be stored using {@code float} precision.
+ *
+ * Negative edge weights are allowed, but no negative-weight cycles may exist.
+ * In this case, the edges are reweighted as in Johnson's algorithm, the
+ * transformation being computed once, when the object is created.
+ *
+ * The methods of this class may be invoked concurrently from several threads.
+ * Each thread computes the missing sources using its own Dijkstra engine; if
+ * two threads request the same missing source at the same time, it may be
+ * computed twice. The numbers of cache hits and misses are available using
+ * {@link #hitCount()} and {@link #missCount()}.
+ *
+ * @see JohnsonShortestPath
+ * @author Cristian Frăsinaru
+ */
+public class LazyAllPairsShortestPath extends GraphAlgorithm
+        implements AllPairsShortestPath {
+
+    private final int maxSources;
+    private final boolean floatPrecision;
+    private final JohnsonReweighting reweighting;
+    private final ThreadLocal<DijkstraEngine> engines;
+    private final LinkedHashMap<Integer, Row> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    //the shortest paths from a source
+    private static class Row {
+
+        double[] dist;
+        float[] distf;
+        int[] parent; //the index of the vertex before, on the path from the source
+    }
+
+    /**
+     * Creates an oracle caching the shortest paths from at most
+     * {@code maxSources} sources, using double precision.
+     *
+     * @param graph the input graph.
+     * @param maxSources the maximum number of sources kept in the cache.
+     * @throws NegativeCycleException if the graph contains a negative cycle.
+     */
+    public LazyAllPairsShortestPath(Graph graph, int maxSources) {
+        this(graph, maxSources, false);
+    }
+
+    /**
+     * Creates an oracle caching the shortest paths from at most
+     * {@code maxSources} sources.
+     *
+     * @param graph the input graph.
+     * @param maxSources the maximum number of sources kept in the cache.
+     * @param floatPrecision if {@code true}, the distances are stored using
+     * {@code float} values.
+     * @throws NegativeCycleException if the graph contains a negative cycle.
+     */
+    public LazyAllPairsShortestPath(Graph graph, int maxSources, boolean floatPrecision) {
+        super(graph);
+        if (maxSources <= 0) {
+            throw new IllegalArgumentException("The cache capacity must be positive: " + maxSources);
+        }
+        this.maxSources = maxSources;
+        this.floatPrecision = floatPrecision;
+        this.reweighting = new JohnsonReweighting(graph);
+        this.engines = DijkstraEngine.threadLocal(reweighting.auxGraph);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Row> eldest) {
+                return size() > LazyAllPairsShortestPath.this.maxSources;
+            }
+        };
+    }
+
+    @Override
+    public Path findPath(int source, int target) {
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        Row row = row(graph.indexOf(source));
+        int ti = graph.indexOf(target);
+        if (distance(row, ti) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        Path path = new Path(graph);
+        for (int vi = ti; vi >= 0; vi = row.parent[vi]) {
+            path.add(graph.vertexAt(vi));
+        }
+        path.reverse();
+        return path;
+    }
+
+    @Override
+    public double getPathWeight(int source, int target) {
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        return distance(row(graph.indexOf(source)), graph.indexOf(target));
+    }
+
+    /**
+     * Returns the weights of the shortest paths from a source to all the
+     * vertices.
+     *
+     * @param source the number of the source vertex.
+     * @return a new array containing the weights of the shortest paths from
+     * the source, indexed by the vertex indices.
+     */
+    public double[] getPathWeights(int source) {
+        Validator.containsVertex(graph, source);
+        Row row = row(graph.indexOf(source));
+        int n = graph.numVertices();
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = distance(row, i);
+        }
+        return weights;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The matrix is computed in parallel, without using or filling the cache.
+     */
+    @Override
+    public double[][] getPathWeights() {
+        int n = graph.numVertices();
+        double[][] weights = new double[n][];
+        IntStream.range(0, n).parallel().forEach(vi -> {
+            weights[vi] = new double[n];
+            reweighting.run(engines.get(), vi, weights[vi], new int[n]);
+        });
+        return weights;
+    }
+
+    private double distance(Row row, int ui) {
+        return floatPrecision ? row.distf[ui] : row.dist[ui];
+    }
+
+    private Row row(int vi) {
+        Row row;
+        synchronized (cache) {
+            row = cache.get(vi);
+        }
+        if (row != null) {
+            hits.increment();
+            return row;
+        }
+        misses.increment();
+        int n = graph.numVertices();
+        row = new Row();
+        double[] dist = new double[n];
+        row.parent = new int[n];
+        reweighting.run(engines.get(), vi, dist, row.parent);
+        if (floatPrecision) {
+            row.distf = new float[n];
+            for (int i = 0; i < n; i++) {
+                row.distf[i] = (float) dist[i];
+            }
+        } else {
+            row.dist = dist;
+        }
+        synchronized (cache) {
+            cache.put(vi, row);
+        }
+        return row;
+    }
+
+    /**
+     *
+     * @return the maximum number of sources kept in the cache.
+     */
+    public int getMaxSources() {
+        return maxSources;
+    }
+
+    /**
+     *
+     * @return the number of sources currently kept in the cache.
+     */
+    public int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes all the sources from the cache. The hit and miss counters are
+     * not reset.
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     *
+     * @return the number of queries whose source was found in the cache.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     *
+     * @return the number of queries whose source had to be computed.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+import org.graph4j.Graph;
+import org.graph4j.io.GraphFormatException;
+import org.graph4j.shortestpath.PrunedLandmarkLabelingBuilder.Label;
+import org.graph4j.util.Validator;
+
+/**
+ * A distance index based on pruned landmark labeling (a 2-hop cover). Each
+ * vertex v stores a label: a set of hubs, together with the distances between
+ * v and them, such that any shortest path between two vertices passes through
+ * a hub common to their labels. The distance between two vertices is obtained
+ * by intersecting their labels, which are sorted by hub ranks, so a query
+ * takes time proportional to the label sizes, typically a few microseconds.
+ *
+ * In case of directed graphs, each vertex has two labels, one for the
+ * distances to the hubs and one for the distances from the hubs. The edge
+ * weights, if present, must be non-negative; otherwise the edges are
+ * considered to have weight 1.
+ *
+ * The hubs are chosen in decreasing order of the vertex degrees, which works
+ * well for social, web and other complex networks, where the high degree
+ * vertices cover most shortest paths. On graphs having almost uniform degrees
+ * and a large diameter, such as grids or road networks, the degrees carry no
+ * information and the labels become very large (up to thousands of entries
+ * per vertex), so both the construction and the queries are slow; a
+ * {@link ContractionHierarchy} is more suitable for such graphs.
+ *
+ * The index is created using {@link #create(Graph)} or
+ * {@link #create(Graph, boolean)}, it may be saved to a file using
+ * {@link #write(java.nio.file.Path)} and loaded later using
+ * {@link #load(java.nio.file.Path, Graph)}. It is immutable and it may be
+ * queried by multiple threads concurrently.
+ *
+ * T. Akiba, Y. Iwata, Y. Yoshida, "Fast exact shortest-path distance queries
+ * on large networks by pruned landmark labeling", SIGMOD 2013,
+ * https://doi.org/10.1145/2463676.2465315
+ *
+ * @see ContractionHierarchy
+ * @author Cristian Frăsinaru
+ */
+public class PrunedLandmarkLabeling {
+
+    static final int MAGIC = 0x4C504A47; //"G4PL"
+    static final int VERSION = 1;
+
+    private final Graph graph;
+    private final int numVertices;
+    private final long buildTime;
+    //labels in CSR format: outHub[outStart[vi]..outStart[vi+1]) are the hubs reachable from vi
+    private final int[] outStart, outHub;
+    private final double[] outDist;
+    //inHub[inStart[vi]..inStart[vi+1]) are the hubs from which vi is reachable
+    private final int[] inStart, inHub;
+    private final double[] inDist;
+
+    PrunedLandmarkLabeling(Graph graph, Label[] out, Label[] in, long buildTime) {
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.buildTime = buildTime;
+        this.outStart = start(out);
+        this.outHub = new int[outStart[numVertices]];
+        this.outDist = new double[outHub.length];
+        fill(out, outStart, outHub, outDist);
+        if (in == out) {
+            this.inStart = outStart;
+            this.inHub = outHub;
+            this.inDist = outDist;
+        } else {
+            this.inStart = start(in);
+            this.inHub = new int[inStart[numVertices]];
+            this.inDist = new double[inHub.length];
+            fill(in, inStart, inHub, inDist);
+        }
+    }
+
+    private PrunedLandmarkLabeling(Graph graph, long buildTime,
+            int[] outStart, int[] outHub, double[] outDist,
+            int[] inStart, int[] inHub, double[] inDist) {
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.buildTime = buildTime;
+        this.outStart = outStart;
+        this.outHub = outHub;
+        this.outDist = outDist;
+        this.inStart = inStart;
+        this.inHub = inHub;
+        this.inDist = inDist;
+    }
+
+    private int[] start(Label[] labels) {
+        int[] start = new int[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            long total = (long) start[i] + labels[i].size;
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new UnsupportedOperationException("The labels are too large.");
+            }
+            start[i + 1] = (int) total;
+        }
+        return start;
+    }
+
+    private void fill(Label[] labels, int[] start, int[] hub, double[] dist) {
+        for (int i = 0; i < numVertices; i++) {
+            Label label = labels[i];
+            System.arraycopy(label.hub, 0, hub, start[i], label.size);
+            System.arraycopy(label.dist, 0, dist, start[i], label.size);
+            labels[i] = null;
+        }
+    }
+
+    /**
+     * Creates the pruned landmark labeling of a graph, sequentially.
+     *
+     * @param graph the input graph.
+     * @return the labeling of the graph.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public static PrunedLandmarkLabeling create(Graph graph) {
+        return create(graph, false);
+    }
+
+    /**
+     * Creates the pruned landmark labeling of a graph. In parallel mode, the
+     * labels of large graphs are created faster, but they may contain more
+     * entries than the ones created sequentially.
+     *
+     * @param graph the input graph.
+     * @param parallel {@code true} if the labels should be created in
+     * parallel.
+     * @return the labeling of the graph.
+     * @throws IllegalArgumentException if the graph has negative weighted
+     * edges.
+     */
+    public static PrunedLandmarkLabeling create(Graph graph, boolean parallel) {
+        Objects.requireNonNull(graph);
+        return new PrunedLandmarkLabelingBuilder(graph, parallel).build();
+    }
+
+    /**
+     *
+     * @return the graph this labeling was created for.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the distance between two vertices, that is the weight of the
+     * shortest path from the source to the target.
+     *
+     * @param source the source vertex number.
+     * @param target the target vertex number.
+     * @return the distance from the source to the target, or
+     * {@code Double.POSITIVE_INFINITY} if there is no path between them.
+     */
+    public double distance(int source, int target) {
+        Validator.containsVertex(graph, source);
+        Validator.containsVertex(graph, target);
+        int si = graph.indexOf(source);
+        int ti = graph.indexOf(target);
+        double best = Double.POSITIVE_INFINITY;
+        int i = outStart[si], iend = outStart[si + 1];
+        int j = inStart[ti], jend = inStart[ti + 1];
+        while (i < iend && j < jend) {
+            int hi = outHub[i], hj = inHub[j];
+            if (hi == hj) {
+                double d = outDist[i++] + inDist[j++];
+                if (d < best) {
+                    best = d;
+                }
+            } else if (hi < hj) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     *
+     * @return the time spent creating the labels, in milliseconds.
+     */
+    public long buildTime() {
+        return buildTime;
+    }
+
+    /**
+     *
+     * @return the total number of entries in the labels.
+     */
+    public long numEntries() {
+        return graph.isDirected() ? (long) outHub.length + inHub.length : outHub.length;
+    }
+
+    /**
+     *
+     * @return the average number of entries in a label.
+     */
+    public double averageLabelSize() {
+        int numLabels = graph.isDirected() ? 2 * numVertices : numVertices;
+        return numLabels == 0 ? 0 : (double) numEntries() / numLabels;
+    }
+
+    /**
+     *
+     * @return the maximum number of entries in a label.
+     */
+    public int maxLabelSize() {
+        int max = 0;
+        for (int i = 0; i < numVertices; i++) {
+            max = Math.max(max, outStart[i + 1] - outStart[i]);
+            max = Math.max(max, inStart[i + 1] - inStart[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Writes the labeling to a binary file.
+     *
+     * @param file the output file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(java.nio.file.Path file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(graph.isDirected());
+            out.writeInt(numVertices);
+            out.writeLong(buildTime);
+            for (int v : graph.vertices()) {
+                out.writeInt(v);
+            }
+            writeLabels(out, outStart, outHub, outDist);
+            if (graph.isDirected()) {
+                writeLabels(out, inStart, inHub, inDist);
+            }
+        }
+    }
+
+    private static void writeLabels(DataOutputStream out,
+            int[] start, int[] hub, double[] dist) throws IOException {
+        for (int value : start) {
+            out.writeInt(value);
+        }
+        for (int value : hub) {
+            out.writeInt(value);
+        }
+        for (double value : dist) {
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Loads a labeling written by {@link #write(java.nio.file.Path)}. The
+     * specified graph must be the graph the labeling was created for.
+     *
+     * @param file the input file.
+     * @param graph the graph the labeling was created for.
+     * @return the pruned landmark labeling.
+     * @throws IOException if an I/O error occurs.
+     * @throws GraphFormatException if the file is not a valid labeling.
+     * @throws IllegalArgumentException if the vertices of the graph do not
+     * match the ones in the file.
+     */
+    public static PrunedLandmarkLabeling load(java.nio.file.Path file, Graph graph) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new GraphFormatException("Invalid landmark labeling: wrong magic number", 0);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new GraphFormatException("Unsupported landmark labeling version: " + version, 0);
+            }
+            boolean directed = in.readBoolean();
+            int n = in.readInt();
+            long buildTime = in.readLong();
+            if (directed != graph.isDirected() || n != graph.numVertices()) {
+                throw new IllegalArgumentException("The labeling was created for another graph");
+            }
+            for (int i = 0; i < n; i++) {
+                if (in.readInt() != graph.vertexAt(i)) {
+                    throw new IllegalArgumentException("The labeling was created for another graph");
+                }
+            }
+            int[] outStart = readInts(in, n + 1);
+            int m = outStart[n];
+            int[] outHub = readInts(in, m);
+            double[] outDist = readDoubles(in, m);
+            if (!directed) {
+                return new PrunedLandmarkLabeling(graph, buildTime,
+                        outStart, outHub, outDist, outStart, outHub, outDist);
+            }
+            int[] inStart = readInts(in, n + 1);
+            m = inStart[n];
+            return new PrunedLandmarkLabeling(graph, buildTime,
+                    outStart, outHub, outDist, inStart, readInts(in, m), readDoubles(in, m));
+        } catch (EOFException e) {
+            throw new GraphFormatException("Invalid landmark labeling: unexpected end of file", 0);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        if (count < 0) {
+            throw new GraphFormatException("Invalid landmark labeling: corrupted data", 0);
+        }
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in, int count) throws IOException {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
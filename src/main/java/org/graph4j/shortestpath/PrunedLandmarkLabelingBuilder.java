@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.util.IndexedDoubleHeap;
+
+/**
+ * Creates the pruned landmark labeling of a graph. The vertices are taken as
+ * hubs in decreasing order of their degrees, the ties being broken randomly
+ * (with a fixed seed); from each hub, a breadth-first search (or Dijkstra's
+ * algorithm, for weighted graphs) adds the hub to the labels of the reached
+ * vertices, pruning the vertices whose distance from the hub is already given
+ * by the labels created so far.
+ *
+ * In parallel mode, after the first hubs, which prune most of the searches,
+ * the hubs are processed in batches: the searches of a batch run in parallel,
+ * using only the labels created by the previous batches, and their entries are
+ * added after all of them finish. The labels may be larger than the ones
+ * created sequentially, but they are still exact.
+ *
+ * @author Cristian Frăsinaru
+ */
+class PrunedLandmarkLabelingBuilder {
+
+    static final int PARALLEL_THRESHOLD = 10_000; //minimum number of vertices
+    static final int SEQUENTIAL_HUBS = 256; //the first hubs, always processed sequentially
+    static final long SEED = 0; //for breaking the ties between hubs, reproducibly
+
+    private final Graph graph;
+    private final int n;
+    private final boolean directed;
+    private final boolean weighted;
+    private final boolean parallel;
+    //the arcs, in CSR format, as vertex indices
+    private final int[] fwdStart, fwdTarget, bwdStart, bwdTarget;
+    private final double[] fwdWeight, bwdWeight;
+    private final int[] order; //order[k] = the index of the k-th hub
+    //out[vi] contains (k, d(vi, hub k)), in[vi] contains (k, d(hub k, vi))
+    private final Label[] out, in;
+    private final ThreadLocal<Search> searches;
+
+    static class Label {
+
+        int[] hub = new int[4];
+        double[] dist = new double[4];
+        int size;
+
+        void add(int k, double d) {
+            if (size == hub.length) {
+                hub = Arrays.copyOf(hub, 2 * size);
+                dist = Arrays.copyOf(dist, 2 * size);
+            }
+            hub[size] = k;
+            dist[size++] = d;
+        }
+    }
+
+    PrunedLandmarkLabelingBuilder(Graph graph, boolean parallel) {
+        this.graph = graph;
+        this.n = graph.numVertices();
+        this.directed = graph.isDirected();
+        this.weighted = graph.hasEdgeWeights();
+        this.parallel = parallel && n >= PARALLEL_THRESHOLD;
+        this.fwdStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int[] count = {0};
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, w) -> {
+                if (w < 0) {
+                    throw new IllegalArgumentException(
+                            "Negative weighted edges are not permited: " + graph.edge(v, u));
+                }
+                count[0]++;
+            });
+            fwdStart[i + 1] = fwdStart[i] + count[0];
+        }
+        this.fwdTarget = new int[fwdStart[n]];
+        this.fwdWeight = new double[fwdStart[n]];
+        int[] pos = {0};
+        for (int i = 0; i < n; i++) {
+            graph.forEachEdgeOf(graph.vertexAt(i), (v, u, w) -> {
+                fwdTarget[pos[0]] = graph.indexOf(u);
+                fwdWeight[pos[0]++] = w;
+            });
+        }
+        if (directed) {
+            var digraph = (Digraph) graph;
+            this.bwdStart = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                int count = 0;
+                for (var it = digraph.predecessorIterator(graph.vertexAt(i)); it.hasNext(); it.next()) {
+                    count++;
+                }
+                bwdStart[i + 1] = bwdStart[i] + count;
+            }
+            this.bwdTarget = new int[bwdStart[n]];
+            this.bwdWeight = new double[bwdStart[n]];
+            for (int i = 0, p = 0; i < n; i++) {
+                for (var it = digraph.predecessorIterator(graph.vertexAt(i)); it.hasNext(); p++) {
+                    bwdTarget[p] = graph.indexOf(it.next());
+                    bwdWeight[p] = it.getEdgeWeight();
+                }
+            }
+        } else {
+            this.bwdStart = fwdStart;
+            this.bwdTarget = fwdTarget;
+            this.bwdWeight = fwdWeight;
+        }
+        this.order = hubOrder();
+        this.out = new Label[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = new Label();
+        }
+        if (directed) {
+            this.in = new Label[n];
+            for (int i = 0; i < n; i++) {
+                in[i] = new Label();
+            }
+        } else {
+            this.in = out;
+        }
+        this.searches = ThreadLocal.withInitial(Search::new);
+    }
+
+    //the vertex indices in decreasing order of their degrees, the ties being
+    //broken randomly: by index, the hubs of grid-like graphs would be clustered
+    private int[] hubOrder() {
+        int[] deg = graph.degrees();
+        int[] perm = new int[n];
+        var rand = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            int j = rand.nextInt(i + 1);
+            perm[i] = perm[j];
+            perm[j] = i;
+        }
+        int maxDeg = 0;
+        for (int d : deg) {
+            maxDeg = Math.max(maxDeg, d);
+        }
+        //counting sort, stable, by decreasing degree
+        int[] bin = new int[maxDeg + 2];
+        for (int d : deg) {
+            bin[maxDeg - d + 1]++;
+        }
+        for (int d = 1; d <= maxDeg + 1; d++) {
+            bin[d] += bin[d - 1];
+        }
+        int[] hubs = new int[n];
+        for (int vi : perm) {
+            hubs[bin[maxDeg - deg[vi]]++] = vi;
+        }
+        return hubs;
+    }
+
+    PrunedLandmarkLabeling build() {
+        long time = System.currentTimeMillis();
+        var search = searches.get();
+        int first = parallel ? Math.min(n, SEQUENTIAL_HUBS) : n;
+        for (int k = 0; k < first; k++) {
+            search.run(k, true, null);
+            if (directed) {
+                search.run(k, false, null);
+            }
+        }
+        if (first < n) {
+            int batch = 4 * ForkJoinPool.commonPool().getParallelism();
+            Entries[] fwd = new Entries[batch];
+            Entries[] bwd = new Entries[batch];
+            for (int k0 = first; k0 < n; k0 += batch) {
+                int start = k0, count = Math.min(batch, n - k0);
+                IntStream.range(0, count).parallel().forEach(j -> {
+                    var s = searches.get();
+                    fwd[j] = new Entries();
+                    s.run(start + j, true, fwd[j]);
+                    if (directed) {
+                        bwd[j] = new Entries();
+                        s.run(start + j, false, bwd[j]);
+                    }
+                });
+                for (int j = 0; j < count; j++) {
+                    fwd[j].addTo(in, start + j);
+                    if (directed) {
+                        bwd[j].addTo(out, start + j);
+                    }
+                }
+            }
+        }
+        time = System.currentTimeMillis() - time;
+        return new PrunedLandmarkLabeling(graph, out, in, time);
+    }
+
+    //the entries created by the search of a hub, in parallel mode
+    private static class Entries {
+
+        int[] vertex = new int[16];
+        double[] dist = new double[16];
+        int size;
+
+        void add(int vi, double d) {
+            if (size == vertex.length) {
+                vertex = Arrays.copyOf(vertex, 2 * size);
+                dist = Arrays.copyOf(dist, 2 * size);
+            }
+            vertex[size] = vi;
+            dist[size++] = d;
+        }
+
+        void addTo(Label[] labels, int k) {
+            for (int i = 0; i < size; i++) {
+                labels[vertex[i]].add(k, dist[i]);
+            }
+        }
+    }
+
+    //a pruned search from a hub
+    private class Search {
+
+        final double[] dist = new double[n];
+        final double[] root = new double[n]; //the label of the hub, indexed by hub rank
+        final int[] visited = new int[n];
+        final int[] queue;
+        final IndexedDoubleHeap heap;
+
+        Search() {
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(root, Double.POSITIVE_INFINITY);
+            queue = weighted ? null : new int[n];
+            heap = weighted ? new IndexedDoubleHeap(n) : null;
+        }
+
+        //forward: computes d(hub, u) and adds the entries to in[u]
+        //backward: computes d(u, hub) and adds the entries to out[u]
+        //the entries are added directly to the labels if the sink is null
+        void run(int k, boolean forward, Entries sink) {
+            int hi = order[k];
+            Label hubLabel = forward ? out[hi] : in[hi];
+            for (int i = 0; i < hubLabel.size; i++) {
+                root[hubLabel.hub[i]] = hubLabel.dist[i];
+            }
+            Label[] labels = forward ? in : out;
+            int[] start = forward ? fwdStart : bwdStart;
+            int[] target = forward ? fwdTarget : bwdTarget;
+            double[] weight = forward ? fwdWeight : bwdWeight;
+            int numVisited = 0, head = 0, tail = 0;
+            dist[hi] = 0;
+            visited[numVisited++] = hi;
+            if (weighted) {
+                heap.addOrDecrease(hi, 0);
+            } else {
+                queue[tail++] = hi;
+            }
+            while (weighted ? !heap.isEmpty() : head < tail) {
+                int ui = weighted ? heap.poll() : queue[head++];
+                double d = dist[ui];
+                if (pruned(labels[ui], d)) {
+                    continue;
+                }
+                if (sink == null) {
+                    labels[ui].add(k, d);
+                } else {
+                    sink.add(ui, d);
+                }
+                for (int j = start[ui], end = start[ui + 1]; j < end; j++) {
+                    int wi = target[j];
+                    double nd = d + (weighted ? weight[j] : 1);
+                    if (nd < dist[wi]) {
+                        if (dist[wi] == Double.POSITIVE_INFINITY) {
+                            visited[numVisited++] = wi;
+                        }
+                        dist[wi] = nd;
+                        if (weighted) {
+                            heap.addOrDecrease(wi, nd);
+                        } else {
+                            queue[tail++] = wi;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < numVisited; i++) {
+                dist[visited[i]] = Double.POSITIVE_INFINITY;
+            }
+            for (int i = 0; i < hubLabel.size; i++) {
+                root[hubLabel.hub[i]] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        //the labels already give a distance at most d
+        private boolean pruned(Label label, double d) {
+            for (int i = 0; i < label.size; i++) {
+                if (root[label.hub[i]] + label.dist[i] <= d) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
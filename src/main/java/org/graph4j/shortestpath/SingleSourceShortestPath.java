@@ -27,6 +27,13 @@ import org.graph4j.util.Path;
  */
 public interface SingleSourceShortestPath {
 
+    /**
+     * The maximum edge weight for which {@link #getInstance(Graph, int)}
+     * returns Dial's implementation of Dijkstra's algorithm, in case of
+     * integer weights.
+     */
+    int DIAL_MAX_WEIGHT = 100;
+
     /**
      *
      * @return the input graph.
@@ -118,17 +125,32 @@ public interface SingleSourceShortestPath {
 
         //if it has negative cost edges, should use Bellman-Ford-Moore
         boolean negativeCostEdge = false;
+        boolean integerWeights = true;
+        double maxWeight = 0;
         for (var it = graph.edgeIterator(); it.hasNext();) {
             it.next();
-            if (it.getWeight() < 0) {
+            double weight = it.getWeight();
+            if (weight < 0) {
                 negativeCostEdge = true;
                 break;
             }
+            if (weight != Math.rint(weight)) {
+                integerWeights = false;
+            }
+            maxWeight = Math.max(maxWeight, weight);
         }
         if (negativeCostEdge) {
             return new BellmanFordShortestPath(graph, source);
         }
-        //otherwise Dijkstra
+        //large graphs, if there are several processors, use delta-stepping
+        if (graph.numEdges() >= DeltaSteppingShortestPath.PARALLEL_THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1) {
+            return new DeltaSteppingShortestPath(graph, source);
+        }
+        //otherwise Dijkstra, using buckets if the weights are small integers
+        if (integerWeights && maxWeight <= DIAL_MAX_WEIGHT) {
+            return new DijkstraShortestPathDial(graph, source, (long) maxWeight);
+        }
         return new DijkstraShortestPathHeap(graph, source);
     }
 
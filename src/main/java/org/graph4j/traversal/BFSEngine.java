@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.traversal;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.InvalidVertexException;
+import org.graph4j.util.Validator;
+
+/**
+ * An array based breadth first search (BFS) of the graph, starting from a
+ * single vertex. Unlike {@link BFSIterator}, it does not create any objects
+ * during the traversal: the queue, the levels and the parents of the vertices
+ * are stored in primitive arrays, allocated once and reused by all subsequent
+ * runs.
+ *
+ * After a run, the reached vertices can be inspected in the order they were
+ * visited, using {@link #numVisited()}, {@link #indexAt(int)},
+ * {@link #levelAt(int)} and {@link #parentIndexAt(int)}. The first visited
+ * vertex is the start vertex, at level 0. Only the vertices reachable from the
+ * start vertex are visited.
+ *
+ * An instance is not thread safe. In order to perform traversals in parallel,
+ * each thread should use its own instance, see
+ * {@link #threadLocal(Graph)}.
+ *
+ * @author Cristian Frăsinaru
+ */
+public class BFSEngine {
+
+    private final Graph graph;
+    private final int numVertices;
+    private final int[] queue; //vertex indices, in the order they were visited
+    private final int[] level; //level[i] = -1 if the vertex at index i was not visited
+    private final int[] parent; //parent[i] = the index of the parent, -1 for the root
+    private int head, tail;
+    private int current; //the index of the vertex whose neighbors are discovered
+    private final IntConsumer discover = this::discover;
+
+    /**
+     * Creates a BFS engine for the specified graph. The graph should not be
+     * structurally modified while the engine is used.
+     *
+     * @param graph the input graph.
+     */
+    public BFSEngine(Graph graph) {
+        Objects.requireNonNull(graph);
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.queue = new int[numVertices];
+        this.level = new int[numVertices];
+        this.parent = new int[numVertices];
+        Arrays.fill(level, -1);
+    }
+
+    /**
+     * Creates a thread-local supplier of BFS engines for the specified graph.
+     * Each thread using it gets its own engine, created on the first access, so
+     * that multiple traversals executed by the same thread share the same
+     * buffers.
+     *
+     * @param graph the input graph.
+     * @return a thread-local BFS engine.
+     */
+    public static ThreadLocal<BFSEngine> threadLocal(Graph graph) {
+        Objects.requireNonNull(graph);
+        return ThreadLocal.withInitial(() -> new BFSEngine(graph));
+    }
+
+    /**
+     *
+     * @return the graph traversed by this engine.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Performs a BFS traversal starting with the specified vertex.
+     *
+     * @param start the start vertex number.
+     * @return the number of visited vertices.
+     * @throws InvalidVertexException if the graph does not contain the start
+     * vertex.
+     */
+    public int run(int start) {
+        return run(start, false);
+    }
+
+    /**
+     * Performs a BFS traversal starting with the specified vertex, either in
+     * the direction of the arcs, or in reversed direction. In case of
+     * undirected graphs, the {@code reverse} argument is ignored.
+     *
+     * @param start the start vertex number.
+     * @param reverse if {@code true} the traversal will be performed on the
+     * reversed graph.
+     * @return the number of visited vertices.
+     * @throws InvalidVertexException if the graph does not contain the start
+     * vertex.
+     */
+    public int run(int start, boolean reverse) {
+        Validator.containsVertex(graph, start);
+        reset();
+        int si = graph.indexOf(start);
+        level[si] = 0;
+        parent[si] = -1;
+        queue[tail++] = si;
+        boolean pred = reverse && graph.isDirected();
+        while (head < tail) {
+            current = queue[head++];
+            int v = graph.vertexAt(current);
+            if (pred) {
+                ((Digraph) graph).forEachPredecessor(v, discover);
+            } else {
+                graph.forEachNeighbor(v, discover);
+            }
+        }
+        return tail;
+    }
+
+    private void discover(int u) {
+        int ui = graph.indexOf(u);
+        if (level[ui] < 0) {
+            level[ui] = level[current] + 1;
+            parent[ui] = current;
+            queue[tail++] = ui;
+        }
+    }
+
+    /**
+     * Clears the result of the previous run. It is automatically invoked at
+     * the beginning of each run, its cost being proportional to the number of
+     * vertices visited by the previous run.
+     */
+    public void reset() {
+        for (int k = 0; k < tail; k++) {
+            level[queue[k]] = -1;
+        }
+        head = tail = 0;
+    }
+
+    /**
+     *
+     * @return the number of vertices visited by the last run.
+     */
+    public int numVisited() {
+        return tail;
+    }
+
+    /**
+     *
+     * @return {@code true} if the last run visited all the vertices of the
+     * graph.
+     */
+    public boolean visitedAll() {
+        return tail == numVertices;
+    }
+
+    /**
+     * Returns the maximum level in the search tree, that is the eccentricity of
+     * the start vertex in its connected component.
+     *
+     * @return the maximum level in the search tree, or {@code -1} if there was
+     * no run.
+     */
+    public int maxLevel() {
+        return tail == 0 ? -1 : level[queue[tail - 1]];
+    }
+
+    /**
+     * Returns the index of the vertex visited at the specified position.
+     *
+     * @param order the visiting order, a number between {@code 0} and
+     * {@code numVisited() - 1}.
+     * @return the index of the vertex visited at the specified position.
+     */
+    public int indexAt(int order) {
+        checkOrder(order);
+        return queue[order];
+    }
+
+    /**
+     * Returns the vertex visited at the specified position.
+     *
+     * @param order the visiting order, a number between {@code 0} and
+     * {@code numVisited() - 1}.
+     * @return the number of the vertex visited at the specified position.
+     */
+    public int vertexAt(int order) {
+        return graph.vertexAt(indexAt(order));
+    }
+
+    /**
+     * Returns the level of the vertex visited at the specified position.
+     *
+     * @param order the visiting order, a number between {@code 0} and
+     * {@code numVisited() - 1}.
+     * @return the level of the vertex visited at the specified position.
+     */
+    public int levelAt(int order) {
+        return level[indexAt(order)];
+    }
+
+    /**
+     * Returns the index of the parent, in the search tree, of the vertex
+     * visited at the specified position.
+     *
+     * @param order the visiting order, a number between {@code 0} and
+     * {@code numVisited() - 1}.
+     * @return the index of the parent of the vertex visited at the specified
+     * position, or {@code -1} if it is the start vertex.
+     */
+    public int parentIndexAt(int order) {
+        return parent[indexAt(order)];
+    }
+
+    /**
+     *
+     * @param v a vertex number.
+     * @return {@code true} if v was visited by the last run.
+     */
+    public boolean isVisited(int v) {
+        return level[graph.indexOf(v)] >= 0;
+    }
+
+    /**
+     *
+     * @param v a vertex number.
+     * @return the level of v in the search tree, or {@code -1} if it was not
+     * visited by the last run.
+     */
+    public int level(int v) {
+        return level[graph.indexOf(v)];
+    }
+
+    /**
+     *
+     * @param v a vertex number.
+     * @return the parent of v in the search tree, or {@code -1} if v is the
+     * start vertex or it was not visited by the last run.
+     */
+    public int parent(int v) {
+        int vi = graph.indexOf(v);
+        if (level[vi] <= 0) {
+            return -1;
+        }
+        return graph.vertexAt(parent[vi]);
+    }
+
+    private void checkOrder(int order) {
+        if (order < 0 || order >= tail) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid visiting order: " + order + ", visited vertices: " + tail);
+        }
+    }
+}
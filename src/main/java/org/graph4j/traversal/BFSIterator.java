@@ -16,11 +16,12 @@
  */
 package org.graph4j.traversal;
 
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.function.IntConsumer;
 import org.graph4j.Digraph;
 import org.graph4j.Graph;
 import org.graph4j.InvalidVertexException;
@@ -44,6 +45,8 @@ public class BFSIterator implements Iterator<SearchNode> {
     private int orderNumber;
     private int maxLevel;
     private boolean reverse;
+    private SearchNode current; //the node whose neighbors are discovered
+    private final IntConsumer discover = this::discover;
 
     /**
      * Creates an iterator starting with the first vertex of the graph (the one
@@ -110,7 +113,7 @@ public class BFSIterator implements Iterator<SearchNode> {
         if (this.visited == null) {
             this.visited = new boolean[numVertices];
         }
-        this.queue = new LinkedList<>();
+        this.queue = new ArrayDeque<>();
         if (startVertex >= 0) {
             queue.offer(new SearchNode(0, startVertex, 0, orderNumber++, null));
             visited[graph.indexOf(startVertex)] = true;
@@ -118,6 +121,14 @@ public class BFSIterator implements Iterator<SearchNode> {
         this.maxLevel = -1;
     }
 
+    private void discover(int u) {
+        int j = graph.indexOf(u);
+        if (!visited[j]) {
+            queue.offer(new SearchNode(compIndex, u, current.level() + 1, orderNumber++, current));
+            visited[j] = true;
+        }
+    }
+
     @Override
     public boolean hasNext() {
         return !queue.isEmpty();
@@ -134,17 +145,11 @@ public class BFSIterator implements Iterator<SearchNode> {
         }
         var v = current.vertex();
         numIterations++;
-        //memory aggressive
-        for (var it = (reverse && graph.isDirected()
-                ? ((Digraph) graph).predecessorIterator(v)
-                : graph.neighborIterator(v));
-                it.hasNext();) {
-            int u = it.next();
-            int j = graph.indexOf(u);
-            if (!visited[j]) {
-                queue.offer(new SearchNode(compIndex, u, current.level() + 1, orderNumber++, current));
-                visited[j] = true;
-            }
+        this.current = current;
+        if (reverse && graph.isDirected()) {
+            ((Digraph) graph).forEachPredecessor(v, discover);
+        } else {
+            graph.forEachNeighbor(v, discover);
         }
         if (queue.isEmpty()) {
             //try and traverse to another connected component
@@ -0,0 +1,425 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.traversal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.InvalidVertexException;
+import org.graph4j.util.Validator;
+
+/**
+ * A parallel, direction-optimizing, breadth first search (BFS) of the graph,
+ * starting from a single vertex.
+ *
+ * Each level of the traversal is computed in parallel, using a fork-join pool,
+ * either <i>top-down</i> (the vertices in the frontier discover their
+ * unvisited neighbors) or <i>bottom-up</i> (the unvisited vertices look for a
+ * neighbor in the frontier, stored as a bitmap). The bottom-up step is chosen
+ * when the frontier is large compared to the unexplored part of the graph,
+ * which is typical for the middle levels of low-diameter graphs, such as
+ * social networks.
+ *
+ * The result of a run consists of the level and the parent of each vertex,
+ * see {@link #levels()} and {@link #parents()}. Unlike a sequential BFS, the
+ * parent of a vertex may be any of its neighbors in the previous level.
+ *
+ * The adjacency lists of the graph are copied, as vertex indices, when the
+ * object is created; later modifications of the graph are not visible to the
+ * traversal.
+ *
+ * S. Beamer, K. Asanović, D. Patterson, "Direction-optimizing breadth-first
+ * search", SC '12, https://doi.org/10.1109/SC.2012.50
+ *
+ * @see BFSEngine
+ * @author Cristian Frăsinaru
+ */
+public class ParallelBFS {
+
+    /**
+     * The number of vertices starting with which a parallel BFS is usually
+     * faster than a sequential one.
+     */
+    public static final int PARALLEL_THRESHOLD = 100_000;
+
+    private static final int ALPHA = 14; //top-down -> bottom-up
+    private static final int BETA = 24; //bottom-up -> top-down
+    private static final int CHUNK = 2048; //vertices processed sequentially by a task
+    private static final VarHandle LEVEL = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private final int numVertices;
+    private final int[] outOffsets, outTargets; //successors or neighbors
+    private final int[] inOffsets, inTargets; //predecessors or neighbors
+    //
+    private int[] offsets, targets; //used in the top-down steps
+    private int[] revOffsets, revTargets; //used in the bottom-up steps
+    private int[] level;
+    private int[] parent;
+    private int[] frontier, next;
+    private int frontierSize;
+    private final AtomicInteger nextSize = new AtomicInteger();
+    private long[] frontierBits;
+    private int depth;
+    private int numVisited;
+    private int maxLevel = -1;
+
+    /**
+     * Creates a parallel BFS for the specified graph, using the common
+     * fork-join pool. In case of directed graphs, the traversal follows the
+     * direction of the arcs.
+     *
+     * @param graph the input graph.
+     */
+    public ParallelBFS(Graph graph) {
+        this(graph, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parallel BFS for the specified graph, using the common
+     * fork-join pool.
+     *
+     * @param graph the input graph.
+     * @param ignoreDirection if {@code true}, a directed graph is traversed as
+     * its support graph.
+     */
+    public ParallelBFS(Graph graph, boolean ignoreDirection) {
+        this(graph, ignoreDirection, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parallel BFS for the specified graph, using the given
+     * fork-join pool.
+     *
+     * @param graph the input graph.
+     * @param ignoreDirection if {@code true}, a directed graph is traversed as
+     * its support graph.
+     * @param pool the pool executing the tasks of the traversal.
+     */
+    public ParallelBFS(Graph graph, boolean ignoreDirection, ForkJoinPool pool) {
+        Objects.requireNonNull(graph);
+        Objects.requireNonNull(pool);
+        this.graph = graph;
+        this.pool = pool;
+        this.numVertices = graph.numVertices();
+        boolean directed = graph.isDirected();
+        this.outOffsets = new int[numVertices + 1];
+        if (!directed) {
+            this.outTargets = adjacency(outOffsets, true, false);
+            this.inOffsets = outOffsets;
+            this.inTargets = outTargets;
+        } else if (ignoreDirection) {
+            this.outTargets = adjacency(outOffsets, true, true);
+            this.inOffsets = outOffsets;
+            this.inTargets = outTargets;
+        } else {
+            this.outTargets = adjacency(outOffsets, true, false);
+            this.inOffsets = new int[numVertices + 1];
+            this.inTargets = adjacency(inOffsets, false, true);
+        }
+    }
+
+    //creates the adjacency lists of all vertices, as indices, in CSR format
+    private int[] adjacency(int[] offs, boolean succ, boolean pred) {
+        long[] count = {0};
+        for (int i = 0; i < numVertices; i++) {
+            int v = graph.vertexAt(i);
+            count[0] = 0;
+            if (succ) {
+                graph.forEachNeighbor(v, u -> count[0]++);
+            }
+            if (pred) {
+                ((Digraph) graph).forEachPredecessor(v, u -> count[0]++);
+            }
+            long total = offs[i] + count[0];
+            if (total > Integer.MAX_VALUE) {
+                throw new UnsupportedOperationException("The graph is too large.");
+            }
+            offs[i + 1] = (int) total;
+        }
+        int[] adj = new int[offs[numVertices]];
+        int[] pos = {0};
+        for (int i = 0; i < numVertices; i++) {
+            int v = graph.vertexAt(i);
+            pos[0] = offs[i];
+            if (succ) {
+                graph.forEachNeighbor(v, u -> adj[pos[0]++] = graph.indexOf(u));
+            }
+            if (pred) {
+                ((Digraph) graph).forEachPredecessor(v, u -> adj[pos[0]++] = graph.indexOf(u));
+            }
+        }
+        return adj;
+    }
+
+    /**
+     *
+     * @return the graph traversed by this object.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Performs a parallel BFS traversal starting with the specified vertex.
+     *
+     * @param start the start vertex number.
+     * @return the number of visited vertices.
+     * @throws InvalidVertexException if the graph does not contain the start
+     * vertex.
+     */
+    public int run(int start) {
+        return run(start, false);
+    }
+
+    /**
+     * Performs a parallel BFS traversal starting with the specified vertex,
+     * either in the direction of the arcs, or in reversed direction. In case
+     * of undirected graphs, the {@code reverse} argument is ignored.
+     *
+     * @param start the start vertex number.
+     * @param reverse if {@code true} the traversal will be performed on the
+     * reversed graph.
+     * @return the number of visited vertices.
+     * @throws InvalidVertexException if the graph does not contain the start
+     * vertex.
+     */
+    public int run(int start, boolean reverse) {
+        Validator.containsVertex(graph, start);
+        if (reverse) {
+            offsets = inOffsets;
+            targets = inTargets;
+            revOffsets = outOffsets;
+            revTargets = outTargets;
+        } else {
+            offsets = outOffsets;
+            targets = outTargets;
+            revOffsets = inOffsets;
+            revTargets = inTargets;
+        }
+        int n = numVertices;
+        this.level = new int[n];
+        this.parent = new int[n];
+        Arrays.fill(level, -1);
+        Arrays.fill(parent, -1);
+        this.frontier = new int[n];
+        this.next = new int[n];
+        int si = graph.indexOf(start);
+        level[si] = 0;
+        parent[si] = -1;
+        frontier[0] = si;
+        frontierSize = 1;
+        numVisited = 1;
+        depth = 0;
+
+        long unexploredEdges = targets.length - degree(si);
+        boolean bottomUp = false;
+        while (frontierSize > 0) {
+            long frontierEdges = 0;
+            for (int k = 0; k < frontierSize; k++) {
+                frontierEdges += degree(frontier[k]);
+            }
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+            nextSize.set(0);
+            if (bottomUp) {
+                bottomUpStep();
+            } else {
+                topDownStep();
+            }
+            depth++;
+            int[] temp = frontier;
+            frontier = next;
+            next = temp;
+            frontierSize = nextSize.get();
+            numVisited += frontierSize;
+            for (int k = 0; k < frontierSize; k++) {
+                unexploredEdges -= degree(frontier[k]);
+            }
+        }
+        maxLevel = depth - 1;
+        frontier = next = null;
+        frontierBits = null;
+        return numVisited;
+    }
+
+    private int degree(int vi) {
+        return offsets[vi + 1] - offsets[vi];
+    }
+
+    private void topDownStep() {
+        if (frontierSize <= CHUNK) {
+            new TopDownTask(0, frontierSize).compute();
+        } else {
+            pool.invoke(new TopDownTask(0, frontierSize));
+        }
+    }
+
+    private void bottomUpStep() {
+        frontierBits = new long[(numVertices + 63) >>> 6];
+        for (int k = 0; k < frontierSize; k++) {
+            int vi = frontier[k];
+            frontierBits[vi >>> 6] |= 1L << vi;
+        }
+        if (numVertices <= CHUNK) {
+            new BottomUpTask(0, numVertices).compute();
+        } else {
+            pool.invoke(new BottomUpTask(0, numVertices));
+        }
+    }
+
+    //appends the vertices discovered by a task to the next frontier
+    private void flush(int[] buffer, int size) {
+        if (size > 0) {
+            int pos = nextSize.getAndAdd(size);
+            System.arraycopy(buffer, 0, next, pos, size);
+        }
+    }
+
+    //the frontier vertices discover their unvisited neighbors
+    private class TopDownTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int from, to; //positions in the frontier
+
+        TopDownTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TopDownTask(from, mid), new TopDownTask(mid, to));
+                return;
+            }
+            int[] buffer = new int[64];
+            int size = 0;
+            int d = depth + 1;
+            for (int k = from; k < to; k++) {
+                int vi = frontier[k];
+                for (int j = offsets[vi], end = offsets[vi + 1]; j < end; j++) {
+                    int ui = targets[j];
+                    if (level[ui] < 0 && LEVEL.compareAndSet(level, ui, -1, d)) {
+                        parent[ui] = vi;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, 2 * size);
+                        }
+                        buffer[size++] = ui;
+                    }
+                }
+            }
+            flush(buffer, size);
+        }
+    }
+
+    //the unvisited vertices look for a parent in the frontier
+    private class BottomUpTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int from, to; //vertex indices
+
+        BottomUpTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BottomUpTask(from, mid), new BottomUpTask(mid, to));
+                return;
+            }
+            int[] buffer = new int[64];
+            int size = 0;
+            int d = depth + 1;
+            for (int ui = from; ui < to; ui++) {
+                if (level[ui] >= 0) {
+                    continue;
+                }
+                for (int j = revOffsets[ui], end = revOffsets[ui + 1]; j < end; j++) {
+                    int vi = revTargets[j];
+                    if ((frontierBits[vi >>> 6] & (1L << vi)) != 0) {
+                        level[ui] = d;
+                        parent[ui] = vi;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, 2 * size);
+                        }
+                        buffer[size++] = ui;
+                        break;
+                    }
+                }
+            }
+            flush(buffer, size);
+        }
+    }
+
+    /**
+     * Returns the levels of the vertices, computed by the last run. The
+     * returned array is indexed by vertex indices and it is not used by any
+     * other run.
+     *
+     * @return the levels of the vertices in the search tree, {@code -1}
+     * for the vertices that were not visited, or {@code null} if there was no
+     * run.
+     */
+    public int[] levels() {
+        return level;
+    }
+
+    /**
+     * Returns the parents of the vertices in the search tree, computed by the
+     * last run. The returned array is indexed by vertex indices and contains
+     * vertex indices.
+     *
+     * @return the indices of the parents, {@code -1} for the start vertex and
+     * for the vertices that were not visited, or {@code null} if there was no
+     * run.
+     */
+    public int[] parents() {
+        return parent;
+    }
+
+    /**
+     *
+     * @return the number of vertices visited by the last run.
+     */
+    public int numVisited() {
+        return numVisited;
+    }
+
+    /**
+     *
+     * @return the maximum level in the search tree, or {@code -1} if there was
+     * no run.
+     */
+    public int maxLevel() {
+        return maxLevel;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.util;
+
+/**
+ * A binary min-heap of integers in the range {@code [0, capacity)}, usually
+ * vertex indices, having primitive {@code double} priorities. Unlike
+ * {@link VertexHeap}, the priorities are stored inside the heap, so no
+ * comparator is invoked, which makes it suitable for Dijkstra-like searches
+ * executed many times on the same graph. The heap can be emptied using
+ * {@link #clear()} in time proportional to its size.
+ *
+ * @author Cristian Frăsinaru
+ */
+public class IndexedDoubleHeap {
+
+    private final int[] items; //items[1..size]
+    private final double[] priorities; //priorities[pos] = the priority of items[pos]
+    private final int[] positions; //positions[item] = 0 if the item is not in the heap
+    private int size;
+
+    /**
+     *
+     * @param capacity the number of distinct values that may be stored in the
+     * heap.
+     */
+    public IndexedDoubleHeap(int capacity) {
+        this.items = new int[capacity + 1];
+        this.priorities = new double[capacity + 1];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     *
+     * @return the number of elements in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return {@code true} if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     *
+     * @param item a value in the range {@code [0, capacity)}.
+     * @return {@code true} if the item is contained in the heap.
+     */
+    public boolean contains(int item) {
+        return positions[item] > 0;
+    }
+
+    /**
+     * Adds an item to the heap or, if it is already present, decreases its
+     * priority. If the item is present with a smaller priority, the heap is
+     * not changed.
+     *
+     * @param item a value in the range {@code [0, capacity)}.
+     * @param priority the priority of the item.
+     * @return {@code true} if the heap has changed.
+     */
+    public boolean addOrDecrease(int item, double priority) {
+        int pos = positions[item];
+        if (pos == 0) {
+            pos = ++size;
+        } else if (priorities[pos] <= priority) {
+            return false;
+        }
+        siftUp(pos, item, priority);
+        return true;
+    }
+
+    /**
+     *
+     * @return the item having the minimum priority.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        return items[1];
+    }
+
+    /**
+     *
+     * @return the minimum priority.
+     */
+    public double peekPriority() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        return priorities[1];
+    }
+
+    /**
+     * Returns and removes the item having the minimum priority.
+     *
+     * @return the item having the minimum priority.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        int top = items[1];
+        positions[top] = 0;
+        int last = items[size];
+        double lastPriority = priorities[size];
+        size--;
+        if (size > 0) {
+            siftDown(1, last, lastPriority);
+        }
+        return top;
+    }
+
+    /**
+     * Removes all the items from the heap.
+     */
+    public void clear() {
+        for (int pos = 1; pos <= size; pos++) {
+            positions[items[pos]] = 0;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int pos, int item, double priority) {
+        while (pos > 1) {
+            int parent = pos >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, pos);
+            pos = parent;
+        }
+        set(pos, item, priority);
+    }
+
+    private void siftDown(int pos, int item, double priority) {
+        int half = size >>> 1;
+        while (pos <= half) {
+            int child = pos << 1;
+            if (child < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            move(child, pos);
+            pos = child;
+        }
+        set(pos, item, priority);
+    }
+
+    private void move(int from, int to) {
+        int item = items[from];
+        items[to] = item;
+        priorities[to] = priorities[from];
+        positions[item] = to;
+    }
+
+    private void set(int pos, int item, double priority) {
+        items[pos] = item;
+        priorities[pos] = priority;
+        positions[item] = pos;
+    }
+
+    @Override
+    public String toString() {
+        return IntArrays.toString(items, 1, size);
+    }
+}
@@ -17,22 +17,21 @@
 package org.graph4j.vsp;
 
 import org.graph4j.util.Domain;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
-import java.util.List;
 import org.graph4j.Graph;
 import org.graph4j.GraphUtils;
+import org.graph4j.exceptions.AlgorithmTimeoutException;
 import org.graph4j.measures.GraphMeasures;
+import org.graph4j.search.BranchAndBound;
+import org.graph4j.search.SearchContext;
+import org.graph4j.search.SearchSpace;
 
 /**
  * WORK IN PROGRESS.
  *
  * Attempts at finding an optimum vertex separator using a systematic
- * exploration of the search space. The backtracking is implemented in a
- * non-recursive manner, using multiple threads.
+ * exploration of the search space. The search tree is explored by a
+ * {@link BranchAndBound} engine, using multiple threads.
  *
  * <p>
  * A time limit may be imposed. If the algorithm stops due to the time limit, it
@@ -47,9 +46,8 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
     private boolean timeExpired;
     private VertexSeparator solution;
 
-    private List<Worker> workers;
+    private BranchAndBound<Decision, VertexSeparator> engine;
     private long nodesExplored;
-    private int minSepSize = Integer.MAX_VALUE; //the size of the best separator found so far
     private int vertexConnectivity;
     private int greedySepSize;
     private final int LEFT = 0, RIGHT = 1, SEP = 2;
@@ -74,20 +72,28 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
         if (root == null) {
             return;
         }
-        //int cores = 1;
-        int cores = Runtime.getRuntime().availableProcessors();
-        this.workers = new ArrayList<>(cores);
-        for (int i = 0; i < cores; i++) {
-            var worker = new Worker(root);
-            workers.add(worker);
-            worker.start();
-        }
-        for (var worker : workers) {
-            try {
-                worker.join();
-            } catch (InterruptedException ex) {
+        long remainingTime = 0;
+        if (timeLimit > 0) {
+            remainingTime = timeLimit - (System.currentTimeMillis() - startTime);
+            if (remainingTime <= 0) {
+                timeExpired = true;
+                return;
             }
         }
+        engine = BranchAndBound.minimizing(new SeparatorSearch()).setTimeLimit(remainingTime);
+        try {
+            engine.search(new Decision(root));
+        } catch (AlgorithmTimeoutException e) {
+            timeExpired = true;
+        }
+        solution = engine.getSolution();
+        nodesExplored = engine.nodesExplored();
+    }
+
+    //the size of the best separator found so far
+    private int minSepSize() {
+        double value = engine == null ? Double.POSITIVE_INFINITY : engine.getSolutionValue();
+        return value == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) value;
     }
 
     //before the algorithm starts
@@ -112,7 +118,6 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
         domains[graph.indexOf(v)].remove(RIGHT); //avoid a simple symmetry
         //
         Node root = new Node(this, null, -1, -1, domains, sep);
-        nodesExplored = 1;
         root.prepare();
         return root;
     }
@@ -133,8 +138,8 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
                 sep.rightShore().add(v);
                 break;
             default:
-                //if (sep.separator().size() >= minSepSize - 1 || sep.separator().size() >= greedySepSize) {
-                if (sep.separator().size() >= minSepSize - 1) {
+                //if (sep.separator().size() >= minSepSize() - 1 || sep.separator().size() >= greedySepSize) {
+                if (sep.separator().size() >= minSepSize() - 1) {
                     return FAILURE;
                 }
                 sep.separator().add(v);
@@ -239,7 +244,7 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
                         && node.separator.rightShore().size() < maxShoreSize) {
                     node.separator.rightShore().add(u);
                 } else {
-                    if (node.separator.separator().size() >= minSepSize) {
+                    if (node.separator.separator().size() >= minSepSize()) {
                         return FAILURE;
                     }
                     node.separator.separator().add(u);
@@ -256,7 +261,7 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
                         && node.separator.leftShore().size() < maxShoreSize) {
                     node.separator.leftShore().add(u);
                 } else {
-                    if (node.separator.separator().size() >= minSepSize) {
+                    if (node.separator.separator().size() >= minSepSize()) {
                         return FAILURE;
                     }
                     node.separator.separator().add(u);
@@ -264,7 +269,7 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
             }
             return POTENTIAL_SOLUTION;
         }
-        if (value == SEP && node.separator.separator().size() == minSepSize - 1) {
+        if (value == SEP && node.separator.separator().size() == minSepSize() - 1) {
             //process the left shore
             for (int u : node.separator.leftShore().vertices()) {
                 for (var it = graph.neighborIterator(u); it.hasNext();) {
@@ -328,19 +333,6 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
         return UNKNOWN;
     }
 
-    //finds a node for a jobless thread
-    private Node findNode() {
-        List<Worker> aux = new ArrayList<>(workers);
-        Collections.shuffle(aux);
-        for (Worker w : aux) {
-            Node node = w.offerNode();
-            if (node != null) {
-                return node;
-            }
-        }
-        return null;
-    }
-
     /**
      *
      * @return the number of nodes explored during the search.
@@ -349,114 +341,95 @@ public class BacktrackVertexSeparator extends VertexSeparatorBase {
         return nodesExplored;
     }
 
-    //a thread exploring the search space
-    private class Worker extends Thread {
+    //a decision in the search tree: the root node or vertex = value
+    private static class Decision {
 
-        boolean running;
-        final int[][] assignQueue;
-        final Deque<Node> nodeStack;
+        final Node parent;
+        final int value;
+        Node node; //the node created by this decision, if it has successors
 
-        Worker(Node root) {
-            assignQueue = new int[3 * graph.numVertices()][2];
-            nodeStack = new ArrayDeque<>();
-            nodeStack.push(root);
+        Decision(Node root) {
+            this.parent = null;
+            this.value = -1;
+            this.node = root;
         }
 
+        Decision(Node parent, int value) {
+            this.parent = parent;
+            this.value = value;
+        }
+    }
+
+    //the search space explored by the branch-and-bound engine
+    private class SeparatorSearch implements SearchSpace<Decision, VertexSeparator> {
+
+        final ThreadLocal<int[][]> assignQueues
+                = ThreadLocal.withInitial(() -> new int[3 * graph.numVertices()][2]);
+
         @Override
-        public void run() {
-            running = true;
-            while (running) {
-                if (timeLimit > 0 && System.currentTimeMillis() - startTime > timeLimit) {
-                    timeExpired = true;
+        public void expand(Decision decision, SearchContext<Decision, VertexSeparator> context) {
+            Node node = decision.parent == null ? decision.node : createChild(decision);
+            decision.node = null;
+            if (node == null) {
+                return;
+            }
+            if (node.separator.isComplete()) {
+                if (!node.separator.isValid()) {
                     return;
                 }
-                Node node;
-                int v, value;
-                synchronized (graph) {
-                    node = nodeStack.peek();
-                    if (node == null) {
-                        node = findNode();
-                        if (node == null) {
-                            return;
-                        }
-                    }
-                    if (node.separator.isComplete()) {
-                        nodeStack.pop();
-                        if (!node.separator.isValid()) {
-                            continue;
-                        }
-                        //found a solution
-                        int sepSize = node.separator.separator().size();
-                        if (sepSize < minSepSize) {
-                            minSepSize = sepSize;
-                            solution = node.separator;
-                            if (minSepSize == vertexConnectivity) {
-                                break;
-                            }
-                        }
-                        continue;
-                    }
-                    assert node.minDomain != null;
-
-                    if (node.failed && !nodeStack.isEmpty()) {
-                        nodeStack.pop();
-                        continue;
-                    }
-                    if (node.minDomain.size() == 0) {
-                        //the current node has failed, remove it from stack
-                        //when popping a non propagator
-                        //it's parent should pe popped too
-                        if (!node.propagator && node.parent != null) {
-                            node.parent.failed = true;
-                        }
-                        nodeStack.pop();
-                        continue;
-                    }
-                    //pick a value in the node's domain
-                    v = node.minDomain.vertex();
-                    value = node.minDomain.poll();
+                //found a solution
+                int sepSize = node.separator.separator().size();
+                if (context.submit(node.separator, sepSize) && sepSize == vertexConnectivity) {
+                    context.stop();
                 }
+                return;
+            }
+            assert node.minDomain != null;
+            decision.node = node;
+            //pick the values in the node's domain
+            while (node.minDomain.size() > 0) {
+                context.branch(new Decision(node, node.minDomain.poll()));
+            }
+        }
 
-                //create the new domains (lazy)
-                Domain[] newDomains = Arrays.copyOf(node.domains, node.domains.length);
-                //the domain of the selected vertex v becomes singleton
-                newDomains[graph.indexOf(v)] = new Domain(v, value);
+        //returns null if the assignment is infeasible
+        private Node createChild(Decision decision) {
+            Node node = decision.parent;
+            if (node.failed) {
+                return null;
+            }
+            int v = node.minDomain.vertex();
+            int value = decision.value;
+            //create the new domains (lazy)
+            Domain[] newDomains = Arrays.copyOf(node.domains, node.domains.length);
+            //the domain of the selected vertex v becomes singleton
+            newDomains[graph.indexOf(v)] = new Domain(v, value);
 
-                //create the new separator
-                //assign value and propagate the assignment v=c
-                var newSep = new VertexSeparator(node.separator);
-                int ret = setValue(v, value, newSep);
-                if (ret == FAILURE) {
-                    continue;
-                }
-                Node newNode = new Node(BacktrackVertexSeparator.this, node, v, value, newDomains, newSep);
-                nodesExplored++;
-                ret = propagateAssignment(v, value, newNode, assignQueue);
-                if (ret == FAILURE) {
-                    continue;
-                }
-                newNode.prepare();
-                synchronized (graph) {
-                    nodeStack.push(newNode);
-                }
+            //create the new separator
+            //assign value and propagate the assignment v=c
+            var newSep = new VertexSeparator(node.separator);
+            int ret = setValue(v, value, newSep);
+            if (ret == FAILURE) {
+                return null;
+            }
+            Node newNode = new Node(BacktrackVertexSeparator.this, node, v, value, newDomains, newSep);
+            ret = propagateAssignment(v, value, newNode, assignQueues.get());
+            if (ret == FAILURE) {
+                return null;
             }
+            newNode.prepare();
+            return newNode;
         }
 
-        private Node offerNode() {
-            synchronized (graph) {
-                if (nodeStack.isEmpty()) {
-                    return null;
-                }
-                Node selected = null;
-                Node node = nodeStack.peek();
-                while (node != null) {
-                    if (node.minDomain != null && node.minDomain.size() > 0) {
-                        selected = node;
-                    }
-                    node = node.parent;
-                }
-                return selected;
+        @Override
+        public void completed(Decision decision) {
+            //all the successors of the node have failed
+            //if the node was not a propagator, its parent fails too
+            Node node = decision.node;
+            if (node != null && !node.failed && !node.propagator && node.parent != null) {
+                node.parent.failed = true;
             }
+            decision.node = null;
         }
     }
 
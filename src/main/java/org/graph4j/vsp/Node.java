@@ -38,7 +38,7 @@ class Node {
     Domain[] domains;
     Domain minDomain;
     boolean propagator;
-    boolean failed;
+    volatile boolean failed;
 
     public Node(BacktrackVertexSeparator alg, Node parent, int vertex, int value, Domain[] domains, VertexSeparator separator) {
         this.alg = alg;
@@ -16,11 +16,19 @@
  */
 package org.graph4j.alg;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.graph4j.Graph;
 import org.graph4j.GraphBuilder;
+import org.graph4j.clique.BronKerboschCliqueEnumerator;
 import org.graph4j.clique.BronKerboschCliqueIterator;
 import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.util.Clique;
 
 /**
  *
@@ -68,4 +76,56 @@ public class BronKerboschTest {
         }
         assertEquals(5, count);
     }
+
+    private Set<String> keys(Iterable<Clique> cliques) {
+        Set<String> set = new HashSet<>();
+        for (var q : cliques) {
+            assertTrue(q.isValid());
+            int[] vertices = q.vertices().clone();
+            Arrays.sort(vertices);
+            set.add(Arrays.toString(vertices));
+        }
+        return set;
+    }
+
+    private Set<String> iteratorKeys(Graph g) {
+        Set<String> set = new HashSet<>();
+        for (var it = new BronKerboschCliqueIterator(g); it.hasNext();) {
+            int[] vertices = it.next().vertices().clone();
+            Arrays.sort(vertices);
+            set.add(Arrays.toString(vertices));
+        }
+        return set;
+    }
+
+    @Test
+    public void enumerator() {
+        for (double p : new double[]{0.1, 0.5, 0.9}) {
+            var g = new RandomGnpGraphGenerator(50, p).createGraph();
+            var expected = iteratorKeys(g);
+            var seq = new BronKerboschCliqueEnumerator(g).getCliques();
+            assertEquals(expected.size(), seq.size());
+            assertEquals(expected, keys(seq));
+            var par = new BronKerboschCliqueEnumerator(g, true);
+            assertEquals(expected, keys(par.getCliques()));
+            assertEquals(expected.size(), par.count());
+        }
+    }
+
+    @Test
+    public void enumeratorHighDegree() {
+        //two adjacent hubs with many leaves and a common neighbor
+        int leaves = 5000;
+        var g = GraphBuilder.numVertices(2 * leaves + 3).buildGraph();
+        g.addEdge(0, 1);
+        g.addEdge(0, 2);
+        g.addEdge(1, 2);
+        for (int i = 0; i < leaves; i++) {
+            g.addEdge(0, 3 + i);
+            g.addEdge(1, 3 + leaves + i);
+        }
+        var alg = new BronKerboschCliqueEnumerator(g, true);
+        assertEquals(2 * leaves + 1, alg.count());
+        assertEquals(iteratorKeys(g), keys(alg.getCliques()));
+    }
 }
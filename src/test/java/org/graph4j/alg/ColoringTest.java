@@ -97,4 +97,17 @@ public class ColoringTest {
         assertTrue(col.isProper());
     }
 
+    @Test
+    public void backtrackThreads() {
+        var g = GraphGenerator.mycielski(5);
+        for (int threads = 1; threads <= 4; threads *= 2) {
+            var alg = new BacktrackColoring(g);
+            alg.setNumThreads(threads);
+            var col = alg.findColoring();
+            assertEquals(5, col.numUsedColors());
+            assertTrue(col.isProper());
+            assertTrue(alg.nodesExplored() > 0);
+        }
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.alg;
+
+import java.util.Random;
+import org.graph4j.Graph;
+import org.graph4j.clique.BronKerboschCliqueEnumerator;
+import org.graph4j.clique.MaximalCliqueFinder;
+import org.graph4j.clique.MaximumCliqueFinder;
+import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class MaximumCliqueTest {
+
+    public MaximumCliqueTest() {
+    }
+
+    private double maxWeight(Graph g, boolean weighted) {
+        double[] best = {0};
+        new BronKerboschCliqueEnumerator(g).forEach(q -> {
+            double w = weighted ? q.computeVerticesWeight() : q.size();
+            synchronized (best) {
+                best[0] = Math.max(best[0], w);
+            }
+        });
+        return best[0];
+    }
+
+    @Test
+    public void random() {
+        for (double p : new double[]{0.1, 0.5, 0.8}) {
+            var g = new RandomGnpGraphGenerator(80, p).createGraph();
+            var alg = new MaximumCliqueFinder(g);
+            var q = alg.findMaximumClique();
+            assertTrue(q.isValid());
+            assertTrue(alg.isOptimal());
+            assertEquals(maxWeight(g, false), q.size());
+            assertEquals(q.size(), new MaximalCliqueFinder(g).findMaximumClique(0).size());
+        }
+    }
+
+    @Test
+    public void sequential() {
+        var g = new RandomGnpGraphGenerator(100, 0.7).createGraph();
+        int size = new MaximumCliqueFinder(g).setNumThreads(1).findMaximumClique().size();
+        assertEquals(size, new MaximumCliqueFinder(g).setNumThreads(4).findMaximumClique().size());
+    }
+
+    @Test
+    public void weighted() {
+        var rand = new Random(0);
+        for (int k = 0; k < 5; k++) {
+            var g = new RandomGnpGraphGenerator(60, 0.5).createGraph();
+            for (int v : g.vertices()) {
+                g.setVertexWeight(v, 1 + rand.nextInt(10));
+            }
+            var alg = new MaximumCliqueFinder(g);
+            var q = alg.findMaximumWeightClique();
+            assertTrue(q.isValid());
+            assertEquals(maxWeight(g, true), q.computeVerticesWeight());
+        }
+    }
+
+    @Test
+    public void timeLimit() {
+        var g = new RandomGnpGraphGenerator(1000, 0.9).createGraph();
+        var alg = new MaximumCliqueFinder(g).setTimeLimit(50);
+        var q = alg.findMaximumClique();
+        assertTrue(q.isValid());
+        assertFalse(alg.isOptimal());
+    }
+
+    @Test
+    public void complete() {
+        var g = GraphGenerator.complete(10);
+        var alg = new MaximumCliqueFinder(g);
+        assertEquals(10, alg.findMaximumClique().size());
+        assertTrue(alg.isOptimal());
+    }
+}
@@ -17,8 +17,12 @@
 package org.graph4j.alg;
 
 import org.graph4j.GraphBuilder;
+import org.graph4j.generators.BarabasiAlbertGenerator;
+import org.graph4j.measures.GraphMeasures;
+import org.graph4j.measures.ParallelTriangleCounter;
 import org.graph4j.measures.TriangleCounter;
 import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
 
@@ -72,6 +76,55 @@ public class TriangleCounterTest {
         }
         assertEquals(8, new TriangleCounter(g).count());
     }
+    @Test
+    public void parallel() {
+        for (double p : new double[]{0.05, 0.3, 0.8}) {
+            var g = new RandomGnpGraphGenerator(200, p).createGraph();
+            var alg = new ParallelTriangleCounter(g);
+            long count = new TriangleCounter(g).count();
+            assertEquals(count, alg.count());
+            long sum = 0;
+            for (long t : alg.vertexTriangles()) {
+                sum += t;
+            }
+            assertEquals(3 * count, sum);
+        }
+        var g = new BarabasiAlbertGenerator(10, 5, 20000).createGraph();
+        assertEquals(new TriangleCounter(g).count(), GraphMeasures.numberOfTriangles(g));
+    }
+
+    @Test
+    public void clustering() {
+        int n = 10;
+        var g = GraphGenerator.wheel(n);
+        var alg = new ParallelTriangleCounter(g);
+        double[] coef = alg.localClusteringCoefficients();
+        int hub = g.indexOf(GraphMeasures.maxDegreeVertex(g));
+        for (int i = 0; i < n; i++) {
+            int deg = g.degree(g.vertexAt(i));
+            //the hub has n-1 triangles, each rim vertex has 2
+            double expected = i == hub ? 2.0 * (n - 1) / (deg * (deg - 1)) : 2.0 * 2 / (deg * (deg - 1));
+            assertEquals(expected, coef[i], 1e-12);
+        }
+        var complete = GraphGenerator.complete(n);
+        assertEquals(1.0, GraphMeasures.averageClusteringCoefficient(complete), 1e-12);
+        assertEquals(1.0, GraphMeasures.globalClusteringCoefficient(complete), 1e-12);
+        assertEquals(0.0, GraphMeasures.averageClusteringCoefficient(GraphGenerator.cycle(n)), 1e-12);
+    }
+
+    @Test
+    public void multipleEdgesIgnored() {
+        var g = GraphBuilder.numVertices(4).buildMultigraph();
+        int[][] edges = {{0, 1}, {1, 2}, {2, 0}, {1, 3}, {2, 3}, {2, 1}};
+        for (int[] e : edges) {
+            g.addEdge(e[0], e[1]);
+        }
+        assertEquals(2, new ParallelTriangleCounter(g).count());
+        //the edge 12 is doubled, so each triangle is counted twice
+        assertEquals(4, GraphMeasures.numberOfTriangles(g));
+        assertEquals(6, java.util.stream.LongStream.of(GraphMeasures.vertexTriangles(g)).sum());
+    }
+
     /*
     private void test() {
         int n = 20;
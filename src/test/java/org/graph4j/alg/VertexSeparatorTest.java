@@ -19,9 +19,12 @@ package org.graph4j.alg;
 import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import org.graph4j.Graph;
 import org.graph4j.GraphTests;
+import org.graph4j.vsp.BacktrackVertexSeparator;
 import org.graph4j.vsp.GreedyVertexSeparator;
 import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
 import org.graph4j.util.VertexSet;
 
 /**
@@ -45,4 +48,60 @@ public class VertexSeparatorTest {
         //assertTrue(alg.getRightShore().size() <= maxShoreSize);
     }
 
+    @Test
+    public void backtrackOptimum() {
+        var rand = new Random(11);
+        for (int k = 0; k < 20; k++) {
+            int n = 6 + rand.nextInt(4);
+            var g = new RandomGnpGraphGenerator(n, 0.3 + 0.4 * rand.nextDouble()).createGraph();
+            int maxShoreSize = 2 * n / 3;
+            int expected = bruteForce(g, maxShoreSize);
+            var sep = new BacktrackVertexSeparator(g, maxShoreSize).getSeparator();
+            if (expected < 0) {
+                assertNull(sep);
+                continue;
+            }
+            assertNotNull(sep);
+            assertTrue(sep.isValid());
+            assertTrue(sep.isComplete());
+            assertEquals(expected, sep.separator().size());
+        }
+    }
+
+    //the minimum separator size, over all the partitions; -1 if none exists
+    private int bruteForce(Graph g, int maxShoreSize) {
+        int n = g.numVertices();
+        int[] part = new int[n]; //0 left, 1 right, 2 separator
+        int best = -1;
+        int total = (int) Math.pow(3, n);
+        for (int code = 0; code < total; code++) {
+            int c = code, left = 0, right = 0;
+            for (int i = 0; i < n; i++) {
+                part[i] = c % 3;
+                c /= 3;
+                left += part[i] == 0 ? 1 : 0;
+                right += part[i] == 1 ? 1 : 0;
+            }
+            if (left == 0 || right == 0 || left > maxShoreSize || right > maxShoreSize) {
+                continue;
+            }
+            int sepSize = n - left - right;
+            if (best >= 0 && sepSize >= best) {
+                continue;
+            }
+            boolean valid = true;
+            for (var e : g.edges()) {
+                int a = part[g.indexOf(e.source())], b = part[g.indexOf(e.target())];
+                if (a + b == 1) {
+                    valid = false;
+                    break;
+                }
+            }
+            if (valid) {
+                best = sepSize;
+            }
+        }
+        return best;
+    }
+
 }
@@ -22,6 +22,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.graph4j.Graph;
 import org.graph4j.GraphBuilder;
+import org.graph4j.Network;
+import org.graph4j.NetworkBuilder;
+import org.graph4j.flow.PushRelabelMaximumFlow;
 import org.graph4j.generators.GraphGenerator;
 
 /**
@@ -165,4 +168,98 @@ public class BuilderTest {
         assertEquals(4, g.numEdges());
     }
 
+    @Test
+    public void fromEdgeArrays() {
+        int[] sources = {1, 2, 3, 2, 4, 1};
+        int[] targets = {2, 3, 1, 1, 4, 4};
+        double[] weights = {5, 6, 7, 8, 9, 10};
+        var g = GraphBuilder.vertexRange(1, 4)
+                .fromEdgeArrays(sources, targets, weights).buildGraph();
+        assertEquals(4, g.numEdges()); //2-1 is a duplicate, 4-4 a self loop
+        assertEquals(5, g.getEdgeWeight(1, 2));
+        assertEquals(5, g.getEdgeWeight(2, 1));
+        assertEquals(10, g.getEdgeWeight(4, 1));
+        assertFalse(g.containsEdge(4, 4));
+        g.addEdge(3, 4);
+        g.removeEdge(1, 2);
+        assertEquals(4, g.numEdges());
+        assertEquals(3, g.degree(3));
+
+        var d = GraphBuilder.empty()
+                .fromEdgeArrays(new int[]{0, 1, 1, 0}, new int[]{1, 0, 2, 1}, null)
+                .buildDigraph();
+        assertEquals(3, d.numVertices());
+        assertEquals(3, d.numEdges());
+        assertArrayEquals(new int[]{0}, d.predecessors(1));
+        assertArrayEquals(new int[]{1}, d.predecessors(0));
+        assertEquals(1, d.indegree(2));
+
+        var p = GraphBuilder.vertexRange(0, 2)
+                .fromEdgeArrays(new int[]{0, 0, 2}, new int[]{1, 1, 2}, null)
+                .buildPseudograph();
+        assertEquals(3, p.numEdges());
+        assertEquals(2, p.neighbors(0).length);
+    }
+
+    @Test
+    public void fromEdgeArraysSelfLoops() {
+        int[] sources = {0, 2, 1, 2};
+        int[] targets = {1, 2, 2, 2};
+        var p = GraphBuilder.vertexRange(0, 2).fromEdgeArrays(sources, targets, null).buildPseudograph();
+        var q = GraphBuilder.vertexRange(0, 2).buildPseudograph();
+        for (int i = 0; i < sources.length; i++) {
+            q.addEdge(sources[i], targets[i]);
+        }
+        assertEquals(2, p.selfLoops(2));
+        for (int v = 0; v <= 2; v++) {
+            assertEquals(q.degree(v), p.degree(v));
+        }
+        p.removeEdge(2, 2);
+        q.removeEdge(2, 2);
+        assertEquals(0, p.selfLoops(2));
+        assertEquals(1, p.degree(2));
+        assertEquals(q.degree(2), p.degree(2));
+        assertEquals(q.numEdges(), p.numEdges());
+
+        var d = GraphBuilder.vertexRange(0, 2).fromEdgeArrays(sources, targets, null).buildDirectedPseudograph();
+        assertEquals(2, d.selfLoops(2));
+        d.removeEdge(2, 2);
+        assertEquals(0, d.selfLoops(2));
+        assertEquals(2, d.numEdges());
+    }
+
+    @Test
+    public void fromEdgeArraysNetwork() {
+        var net = NetworkBuilder.numVertices(4).source(0).sink(3)
+                .fromEdgeArrays(new int[]{0, 0, 1, 2}, new int[]{1, 2, 3, 3}, new double[]{3, 2, 1, 5})
+                .buildNetwork();
+        assertEquals(3, net.getEdgeData(Network.CAPACITY, 0, 1));
+        assertEquals(5, net.getEdgeData(Network.CAPACITY, 2, 3));
+        assertFalse(net.hasEdgeData(Network.WEIGHT));
+        assertEquals(3, new PushRelabelMaximumFlow(net).getMaximumFlowValue());
+        assertThrows(IllegalArgumentException.class, () -> NetworkBuilder.numVertices(2)
+                .fromEdgeArrays(new int[]{0}, new int[]{1}, new double[]{-1}).buildNetwork());
+    }
+
+    @Test
+    public void fromEdgeArraysLarge() {
+        var rand = new java.util.Random(1);
+        int n = 10_000;
+        int m = 200_000;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = rand.nextInt(n);
+            targets[i] = rand.nextInt(n);
+        }
+        var g1 = GraphBuilder.numVertices(n).fromEdgeArrays(sources, targets, null).buildGraph();
+        var g2 = GraphBuilder.numVertices(n).buildGraph();
+        for (int i = 0; i < m; i++) {
+            g2.addEdge(sources[i], targets[i]);
+        }
+        assertEquals(g2.numEdges(), g1.numEdges());
+        for (int v = 0; v < n; v++) {
+            assertArrayEquals(g2.neighbors(v), g1.neighbors(v));
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.core;
+
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.connectivity.ConnectivityAlgorithm;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.metrics.GraphMetrics;
+import org.graph4j.shortestpath.DijkstraShortestPathHeap;
+import org.graph4j.util.IntArrays;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class CompactGraphTest {
+
+    public CompactGraphTest() {
+    }
+
+    @Test
+    public void simple() {
+        var g = GraphBuilder.vertexRange(1, 5)
+                .addEdges("1-5,1-3,1-2,2-3,3-4").buildGraph();
+        g.setEdgeWeight(1, 3, 7);
+        var f = g.freeze();
+        assertEquals(5, f.numVertices());
+        assertEquals(5, f.numEdges());
+        assertArrayEquals(new int[]{2, 3, 5}, f.neighbors(1));
+        assertTrue(f.containsEdge(3, 1));
+        assertFalse(f.containsEdge(4, 5));
+        assertEquals(7, f.getEdgeWeight(3, 1));
+        assertEquals(3, f.degree(1));
+        assertSame(f, f.freeze());
+        assertThrows(UnsupportedOperationException.class, () -> f.addEdge(4, 5));
+        assertThrows(UnsupportedOperationException.class, () -> f.setEdgeWeight(1, 2, 0));
+    }
+
+    @Test
+    public void sameAsMutable() {
+        int n = 50;
+        Graph g = new RandomGnpGraphGenerator(n, 0.2).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        Graph f = g.freeze();
+        assertEquals(g.numEdges(), f.numEdges());
+        for (int v : g.vertices()) {
+            assertTrue(IntArrays.haveSameValues(g.neighbors(v), f.neighbors(v)));
+            for (var it = f.neighborIterator(v); it.hasNext();) {
+                int u = it.next();
+                assertEquals(g.getEdgeWeight(v, u), it.getEdgeWeight());
+            }
+        }
+        assertEquals(new ConnectivityAlgorithm(g).countConnectedComponents(),
+                new ConnectivityAlgorithm(f).countConnectedComponents());
+        assertEquals(new GraphMetrics(g).diameter(), new GraphMetrics(f).diameter());
+        var alg1 = new DijkstraShortestPathHeap(g, 0);
+        var alg2 = new DijkstraShortestPathHeap(f, 0);
+        assertArrayEquals(alg1.getPathWeights(), alg2.getPathWeights());
+    }
+
+    @Test
+    public void digraph() {
+        Digraph g = GraphBuilder.vertices(10, 20, 30, 40)
+                .addEdges("10-20,30-20,40-20,20-40").buildDigraph();
+        Digraph f = g.freeze();
+        assertTrue(f.isDirected());
+        assertEquals(3, f.indegree(20));
+        assertTrue(IntArrays.haveSameValues(new int[]{10, 30, 40}, f.predecessors(20)));
+        assertTrue(f.containsEdge(20, 40));
+        assertFalse(f.containsEdge(20, 10));
+        int count = 0;
+        for (var it = f.predecessorIterator(20); it.hasNext();) {
+            int u = it.next();
+            assertEquals(u, it.edge().source());
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void copyIsMutable() {
+        var g = GraphBuilder.numVertices(4).addPath(0, 1, 2, 3).buildCompactGraph();
+        var copy = g.copy();
+        copy.addEdge(0, 3);
+        assertEquals(4, copy.numEdges());
+        assertEquals(3, g.numEdges());
+    }
+}
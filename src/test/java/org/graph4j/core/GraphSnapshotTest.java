@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.GraphSnapshot;
+import org.graph4j.Network;
+import org.graph4j.NetworkBuilder;
+import org.graph4j.connectivity.ConnectivityAlgorithm;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.io.GraphFormatException;
+import org.graph4j.shortestpath.DijkstraShortestPathHeap;
+import org.graph4j.util.IntArrays;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class GraphSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    public GraphSnapshotTest() {
+    }
+
+    private Graph roundTrip(Graph g) throws IOException {
+        Path file = dir.resolve("graph.g4j");
+        GraphSnapshot.write(g, file);
+        return GraphSnapshot.load(file);
+    }
+
+    private void assertSameGraph(Graph g, Graph f) {
+        assertEquals(g.numVertices(), f.numVertices());
+        assertEquals(g.numEdges(), f.numEdges());
+        assertArrayEquals(g.vertices(), f.vertices());
+        for (int v : g.vertices()) {
+            assertEquals(g.degree(v), f.degree(v));
+            assertTrue(IntArrays.haveSameValues(g.neighbors(v), f.neighbors(v)));
+        }
+    }
+
+    @Test
+    public void weightedGraph() throws IOException {
+        Graph g = new RandomGnpGraphGenerator(40, 0.2).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        g.setName("gnp");
+        var f = roundTrip(g);
+        assertFalse(f.isDirected());
+        assertEquals("gnp", f.getName());
+        assertSameGraph(g, f);
+        for (var e : g.edges()) {
+            assertEquals(e.weight(), f.getEdgeWeight(e.source(), e.target()));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> f.addEdge(0, 1));
+    }
+
+    @Test
+    public void digraph() throws IOException {
+        var g = GraphBuilder.vertices(10, 20, 30, 40)
+                .addEdges("10-20,10-30,20-30,40-10,30-40").buildDigraph();
+        g.setVertexWeight(20, 5);
+        var f = (Digraph) roundTrip(g);
+        assertTrue(f.isDirected());
+        assertSameGraph(g, f);
+        assertEquals(5, f.getVertexWeight(20));
+        for (int v : g.vertices()) {
+            assertEquals(g.indegree(v), f.indegree(v));
+            assertTrue(IntArrays.haveSameValues(g.predecessors(v), f.predecessors(v)));
+        }
+        assertTrue(f.containsEdge(40, 10));
+        assertFalse(f.containsEdge(10, 40));
+    }
+
+    @Test
+    public void multigraph() throws IOException {
+        var g = GraphBuilder.vertexRange(1, 4)
+                .addEdges("1-2,1-2,2-3,3-3,3-4").buildPseudograph();
+        var f = roundTrip(g);
+        assertTrue(f.isAllowingMultipleEdges());
+        assertTrue(f.isAllowingSelfLoops());
+        assertSameGraph(g, f);
+    }
+
+    @Test
+    public void network() throws IOException {
+        Network g = NetworkBuilder.numVertices(4).source(0).sink(2).buildNetwork();
+        g.addEdge(0, 1, 5, 2);
+        g.addEdge(1, 2, 3, 1);
+        g.addEdge(0, 3, 4, 7);
+        var f = (Digraph) roundTrip(g);
+        assertSameGraph(g, f);
+        assertEquals(5, f.getEdgeData(Network.CAPACITY, 0, 1));
+        assertEquals(7, f.getEdgeData(Network.COST, 0, 3));
+    }
+
+    @Test
+    public void invalidFile() throws IOException {
+        Path file = dir.resolve("invalid.g4j");
+        Files.write(file, new byte[100]);
+        assertThrows(GraphFormatException.class, () -> GraphSnapshot.load(file));
+    }
+
+    @Test
+    public void offHeap() {
+        Graph g = new RandomGnpGraphGenerator(100, 0.1).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var f = GraphSnapshot.offHeapCopy(g);
+        assertSameGraph(g, f);
+        assertEquals(new ConnectivityAlgorithm(g).countConnectedComponents(),
+                new ConnectivityAlgorithm(f).countConnectedComponents());
+        assertArrayEquals(new DijkstraShortestPathHeap(g, 0).getPathWeights(),
+                new DijkstraShortestPathHeap(f, 0).getPathWeights());
+        f.close();
+        assertThrows(IllegalStateException.class, () -> f.neighbors(0));
+    }
+
+    @Test
+    public void offHeapDigraph() {
+        Digraph g = new RandomGnpGraphGenerator(50, 0.1).createDigraph();
+        var f = (Digraph) GraphSnapshot.offHeapCopy(g);
+        assertSameGraph(g, f);
+        for (int v : g.vertices()) {
+            assertTrue(IntArrays.haveSameValues(g.predecessors(v), f.predecessors(v)));
+        }
+        f.close();
+    }
+
+    @Test
+    public void closeMapped() throws IOException {
+        Graph g = new RandomGnpGraphGenerator(20, 0.3).createGraph();
+        var f = roundTrip(g);
+        assertSameGraph(g, f);
+        f.close();
+        assertThrows(IllegalStateException.class, () -> f.degree(0));
+    }
+
+    @Test
+    public void writeEdgeArrays() throws IOException {
+        int[] sources = {0, 0, 1, 2, 3, 3, 4};
+        int[] targets = {1, 1, 2, 2, 0, 4, 1};
+        double[] weights = {1, 2, 3, 4, 5, 6, 7};
+        Path file = dir.resolve("edges.g4j");
+        GraphSnapshot.write(file, 5, false, sources, targets, weights);
+        var f = GraphSnapshot.load(file);
+        var g = GraphBuilder.numVertices(5).fromEdgeArrays(sources, targets, weights).buildPseudograph();
+        assertFalse(f.isDirected());
+        assertSameGraph(g, f);
+        assertEquals(4, f.getEdgeWeight(2, 2));
+        assertEquals(6, f.getEdgeWeight(4, 3));
+        for (int v : g.vertices()) {
+            double sum = 0;
+            for (var it = f.neighborIterator(v); it.hasNext();) {
+                it.next();
+                sum += it.getEdgeWeight();
+            }
+            double expected = 0;
+            for (var it = g.neighborIterator(v); it.hasNext();) {
+                it.next();
+                expected += it.getEdgeWeight();
+            }
+            assertEquals(expected, sum);
+        }
+        f.close();
+    }
+
+    @Test
+    public void offHeapEdgeChunks() throws IOException {
+        int n = 200, m = 3000, chunk = 256;
+        var rand = new java.util.Random(3);
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int e = 0; e < m; e++) {
+            sources[e] = rand.nextInt(n);
+            targets[e] = rand.nextInt(n);
+        }
+        GraphSnapshot.EdgeSource edges = consumer -> {
+            int[] s = new int[chunk];
+            int[] t = new int[chunk];
+            for (int from = 0; from < m; from += chunk) {
+                int len = Math.min(chunk, m - from);
+                System.arraycopy(sources, from, s, 0, len);
+                System.arraycopy(targets, from, t, 0, len);
+                consumer.accept(s, t, null, len);
+            }
+        };
+        var f = (Digraph) GraphSnapshot.offHeapGraph(n, true, false, edges);
+        var g = GraphBuilder.numVertices(n).fromEdgeArrays(sources, targets, null).buildDirectedPseudograph();
+        assertTrue(f.isDirected());
+        assertSameGraph(g, f);
+        for (int v : g.vertices()) {
+            assertEquals(g.indegree(v), f.indegree(v));
+            assertTrue(IntArrays.haveSameValues(g.predecessors(v), f.predecessors(v)));
+        }
+        f.close();
+
+        Path file = dir.resolve("chunks.g4j");
+        GraphSnapshot.write(file, n, true, false, edges);
+        var h = (Digraph) GraphSnapshot.load(file);
+        assertSameGraph(g, h);
+        for (int v : g.vertices()) {
+            assertTrue(IntArrays.haveSameValues(g.predecessors(v), h.predecessors(v)));
+        }
+        h.close();
+    }
+
+    @Test
+    public void inconsistentEdgeSource() {
+        int[] calls = new int[1];
+        GraphSnapshot.EdgeSource edges = consumer -> {
+            int v = calls[0]++;
+            consumer.accept(new int[]{v}, new int[]{2}, null, 1);
+        };
+        assertThrows(IllegalStateException.class, () -> GraphSnapshot.offHeapGraph(3, false, false, edges));
+        assertThrows(org.graph4j.InvalidVertexException.class, () -> GraphSnapshot.offHeapGraph(3, false, false,
+                consumer -> consumer.accept(new int[]{0}, new int[]{3}, null, 1)));
+    }
+}
@@ -19,12 +19,15 @@ package org.graph4j.core;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
 import org.graph4j.Edge;
+import org.graph4j.Graph;
 import org.graph4j.GraphBuilder;
 import org.graph4j.generators.GraphGenerator;
+import org.graph4j.traversal.BFSEngine;
 import org.graph4j.traversal.BFSIterator;
 import org.graph4j.traversal.DFSIterator;
 import org.graph4j.traversal.LexBFSIterator;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
  *
@@ -69,6 +72,42 @@ public class IteratorTest {
         }
     }
 
+    @Test
+    public void predecessorIteratorAfterRemoval() {
+        var g = GraphBuilder.numVertices(4).buildDigraph();
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 2, 2);
+        g.addEdge(0, 3, 3);
+        g.removeEdge(0, 1); //0 -> 3 is moved in the freed slot
+        var it = g.predecessorIterator(3);
+        assertEquals(0, it.next());
+        assertEquals(3.0, it.getEdgeWeight());
+        assertEquals(3, it.edge().target());
+        it.removeEdge();
+        assertFalse(g.containsEdge(0, 3));
+        assertEquals(2.0, g.getEdgeWeight(0, 2));
+
+        var mg = GraphBuilder.numVertices(3).buildDirectedPseudograph();
+        mg.addEdge(0, 1, 1);
+        mg.addEdge(0, 1, 2);
+        mg.addEdge(0, 0, 5);
+        mg.addEdge(0, 2, 3);
+        for (var si = mg.successorIterator(0); si.hasNext();) {
+            if (si.next() == 1) {
+                si.removeEdge(); //the first 0 -> 1
+                break;
+            }
+        }
+        for (int v = 0; v < 3; v++) {
+            for (var pi = mg.predecessorIterator(v); pi.hasNext();) {
+                int u = pi.next();
+                assertEquals(v, pi.edge().target());
+                assertEquals(u, pi.edge().source());
+                assertEquals(v == 0 ? 5.0 : v == 1 ? 2.0 : 3.0, pi.getEdgeWeight());
+            }
+        }
+    }
+
     @Test
     public void testDFS() {
         var g = GraphBuilder.numVertices(8)
@@ -95,6 +134,30 @@ public class IteratorTest {
         assertEquals("01352467", sb.toString());
     }
 
+    @Test
+    public void testBFSEngine() {
+        var g = GraphBuilder.vertexRange(1, 8)
+                .addEdges("1-2,2-3,1-4,4-5,1-6,6-7")
+                .buildGraph();
+        var bfs = new BFSEngine(g);
+        assertEquals(7, bfs.run(1));
+        assertFalse(bfs.visitedAll());
+        assertFalse(bfs.isVisited(8));
+        assertEquals(2, bfs.maxLevel());
+        var sb = new StringBuilder();
+        for (int k = 0; k < bfs.numVisited(); k++) {
+            sb.append(bfs.vertexAt(k));
+        }
+        assertEquals("1246357", sb.toString());
+        assertEquals(2, bfs.level(5));
+        assertEquals(4, bfs.parent(5));
+        assertEquals(-1, bfs.parent(1));
+        //reuse the buffers
+        assertEquals(1, bfs.run(8));
+        assertEquals(0, bfs.maxLevel());
+        assertEquals(-1, bfs.level(5));
+    }
+
     @Test
     public void testLexBFS1() {
         var g = GraphBuilder.edges("0-1,0-2,1-3,1-4,2-5,4-6").buildGraph();
@@ -125,4 +188,26 @@ public class IteratorTest {
         }
         assertEquals(n, k);
     }
+
+    @Test
+    public void forEachNeighbor() {
+        var g = GraphBuilder.vertexRange(1, 4).addEdges("1-2,1-3,1-4,2-3").buildGraph();
+        g.setEdgeWeight(1, 2, 2);
+        g.setEdgeWeight(1, 3, 5);
+        g.setEdgeWeight(1, 4, 3);
+        for (var graph : new Graph[]{g, g.freeze()}) {
+            int[] sum = new int[1];
+            graph.forEachNeighbor(1, u -> sum[0] += u);
+            assertEquals(9, sum[0]);
+            double[] weight = new double[1];
+            graph.forEachEdgeOf(1, (v, u, w) -> weight[0] += w);
+            assertEquals(10, weight[0]);
+            int[] count = new int[1];
+            graph.forEachEdge((v, u, w) -> count[0]++);
+            assertEquals(4, count[0]);
+            for (int pos = 0; pos < graph.degree(1); pos++) {
+                assertEquals(graph.neighbors(1)[pos], graph.neighborAt(1, pos));
+            }
+        }
+    }
 }
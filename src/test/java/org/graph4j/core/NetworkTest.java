@@ -13,10 +13,13 @@ import static org.graph4j.Network.CAPACITY;
 import static org.graph4j.Network.COST;
 import static org.graph4j.Network.FLOW;
 import org.graph4j.NetworkBuilder;
+import org.graph4j.EdgeDataFormat;
+import org.graph4j.flow.DinicMaximumFlow;
 import org.graph4j.generators.RandomGnpGraphGenerator;
 import org.graph4j.measures.GraphMeasures;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -107,7 +110,27 @@ public class NetworkTest {
         assertArrayEquals(GraphMeasures.indegreeHistogram(g), GraphMeasures.indegreeHistogram(net));
         assertArrayEquals(GraphMeasures.outdegreeHistogram(g), GraphMeasures.outdegreeHistogram(net));
     }
-    
-    
 
+    @Test
+    public void intCapacities() {
+        Network g = NetworkBuilder.numVertices(4).source(0).sink(3)
+                .edgeDataFormat(CAPACITY, EdgeDataFormat.INT)
+                .buildNetwork();
+        g.addEdge(0, 1, 5);
+        g.addEdge(0, 2, 4);
+        g.addEdge(1, 3, 3);
+        g.addEdge(2, 3, 6);
+        assertEquals(EdgeDataFormat.INT, g.getEdgeDataFormat(CAPACITY));
+        assertEquals(EdgeDataFormat.DOUBLE, g.getEdgeDataFormat(FLOW));
+        assertEquals(7, new DinicMaximumFlow(g).getMaximumFlowValue());
+        assertThrows(IllegalArgumentException.class, () -> g.setEdgeData(CAPACITY, 0, 1, 1.5));
+
+        g.setEdgeDataFormat(COST, EdgeDataFormat.FLOAT);
+        g.setEdgeData(COST, 0, 1, 0.1);
+        assertEquals((float) 0.1, g.getEdgeData(COST, 0, 1));
+        g.setEdgeDataFormat(CAPACITY, EdgeDataFormat.DOUBLE);
+        g.setEdgeData(CAPACITY, 0, 1, 3.5);
+        assertEquals(3.5, g.getEdgeData(CAPACITY, 0, 1));
+        assertEquals(4, g.copy().getEdgeData(CAPACITY, 0, 2));
+    }
 }
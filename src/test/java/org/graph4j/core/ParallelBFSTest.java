@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.core;
+
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.BarabasiAlbertGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.traversal.BFSEngine;
+import org.graph4j.traversal.ParallelBFS;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class ParallelBFSTest {
+
+    public ParallelBFSTest() {
+    }
+
+    private void check(Graph g, int start, boolean reverse) {
+        var seq = new BFSEngine(g);
+        var par = new ParallelBFS(g);
+        int count = seq.run(start, reverse);
+        assertEquals(count, par.run(start, reverse));
+        assertEquals(seq.maxLevel(), par.maxLevel());
+        int[] level = par.levels();
+        int[] parent = par.parents();
+        for (int i = 0; i < g.numVertices(); i++) {
+            int v = g.vertexAt(i);
+            assertEquals(seq.level(v), level[i]);
+            if (level[i] > 0) {
+                //the parent is a neighbor in the previous level
+                int p = g.vertexAt(parent[i]);
+                assertEquals(level[i] - 1, level[parent[i]]);
+                assertTrue(reverse ? g.containsEdge(v, p) : g.containsEdge(p, v));
+            }
+        }
+    }
+
+    @Test
+    public void barabasiAlbert() {
+        Graph g = new BarabasiAlbertGenerator(5, 3, 20_000).createGraph();
+        check(g, 0, false);
+        check(g, g.numVertices() - 1, false);
+    }
+
+    @Test
+    public void gnp() {
+        Graph g = new RandomGnpGraphGenerator(5000, 0.002).createGraph();
+        check(g, 0, false);
+        Digraph d = new RandomGnpGraphGenerator(5000, 0.001).createDigraph();
+        check(d, 0, false);
+        check(d, 0, true);
+    }
+
+    @Test
+    public void path() {
+        var g = GraphBuilder.numVertices(10_000).buildGraph();
+        for (int i = 0; i < 9_999; i++) {
+            g.addEdge(i, i + 1);
+        }
+        var bfs = new ParallelBFS(g);
+        assertEquals(10_000, bfs.run(0));
+        assertEquals(9_999, bfs.maxLevel());
+    }
+}
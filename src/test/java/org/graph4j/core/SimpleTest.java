@@ -102,4 +102,40 @@ public class SimpleTest {
             k++;
         }
     }
+
+    @Test
+    public void removeEdgeAdjacencyPositions() {
+        //a high degree vertex, whose positions are stored in a map
+        int n = 16;
+        var g = GraphBuilder.numVertices(n).buildDigraph();
+        for (int u = 1; u < n; u++) {
+            g.addEdge(0, u, u);
+        }
+        assertEquals(n - 1, g.getEdgeWeight(0, n - 1));
+        g.removeEdge(0, 3);
+        g.addEdge(0, 3, 100);
+        for (int u = 1; u < n; u++) {
+            assertEquals(u == 3 ? 100 : u, g.getEdgeWeight(0, u));
+            assertEquals(u, g.neighborAt(0, g.adjListPos(0, u)));
+        }
+
+        var mg = GraphBuilder.numVertices(n).buildDirectedMultigraph();
+        for (int u = 1; u < n; u++) {
+            mg.addEdge(0, u, u);
+        }
+        mg.addEdge(0, 1, 1);
+        mg.addEdge(0, 2, 2);
+        assertEquals(1, mg.getEdgeWeight(0, 1));
+        //remove only the first occurrence of 1
+        for (var it = mg.neighborIterator(0); it.hasNext();) {
+            if (it.next() == 1) {
+                it.removeEdge();
+                break;
+            }
+        }
+        for (int u = 1; u < n; u++) {
+            assertEquals(u, mg.getEdgeWeight(0, u));
+            assertEquals(u, mg.neighborAt(0, mg.adjListPos(0, u)));
+        }
+    }
 }
@@ -92,6 +92,39 @@ public class DinicTest {
         assertEquals(4, alg.getMaximumFlowValue());
     }
 
+    @Test
+    public void warmStart() {
+        int s = 0;
+        int t = 5;
+        var g = NetworkBuilder.numVertices(6).source(s).sink(t).buildNetwork();
+        g.addEdge(s, 1, 9);
+        g.addEdge(s, 4, 8);
+        g.addEdge(1, 2, 10);
+        g.addEdge(1, 3, 5);
+        g.addEdge(2, t, 7);
+        g.addEdge(3, t, 6);
+        g.addEdge(4, 1, 2);
+        g.addEdge(4, 3, 5);
+        FlowData flow = new DinicMaximumFlow(g).getMaximumFlowData();
+        assertEquals(13, flow.value());
+        assertEquals(flow.get(2, t), flow.getAt(g.indexOf(2), 0));
+        assertEquals(0, flow.get(t, 2));
+        double[] total = {0};
+        flow.forEach((v, u, value) -> {
+            if (u == t) {
+                total[0] += value;
+            }
+        });
+        assertEquals(13, total[0]);
+        assertEquals(g.numEdges(), flow.edges().size());
+        assertSame(flow.edges(), flow.edges());
+
+        g.setEdgeData(CAPACITY, 2, t, 10);
+        assertEquals(16, new DinicMaximumFlow(g, flow).getMaximumFlowValue());
+        assertEquals(16, new EdmondsKarpMaximumFlow(g, flow).getMaximumFlowValue());
+        assertEquals(16, new PushRelabelMaximumFlow(g, flow).getMaximumFlowValue());
+    }
+
     public void algorithmConsistencyTest() {
         int n = 100;
         for (int i = 0; i < 10; i++) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2023 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DimacsIOTest {
+
+    @TempDir
+    Path dir;
+
+    public DimacsIOTest() {
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("graph.col");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    public void simple() throws IOException {
+        var file = write("c a comment\n"
+                + "p edge 4 5\n"
+                + "e 1 2\n"
+                + "e 2 1\n"
+                + "e 2 3 2.5\n"
+                + "\n"
+                + "e 3 3\n"
+                + "e 3 4 7\r\n"
+                + "e 4 1 1e1\n");
+        var g = new DimacsIO().read(file);
+        assertEquals(4, g.numVertices());
+        assertEquals(4, g.numEdges());
+        assertTrue(g.containsEdge(1, 2));
+        assertTrue(g.containsEdge(4, 3));
+        assertEquals(2.5, g.getEdgeWeight(3, 2));
+        assertEquals(7, g.getEdgeWeight(3, 4));
+        assertEquals(10, g.getEdgeWeight(1, 4));
+    }
+
+    @Test
+    public void large() throws IOException {
+        int n = 2000;
+        var sb = new StringBuilder("p edge " + n + " " + n * 100 + "\n");
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= 100; j++) {
+                int k = (i + j * 7) % n + 1;
+                sb.append("e ").append(i).append(" ").append(k).append("\n");
+            }
+        }
+        var g = new DimacsIO().read(write(sb.toString()));
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= 100; j++) {
+                int k = (i + j * 7) % n + 1;
+                assertTrue(i == k || g.containsEdge(i, k));
+            }
+        }
+        long m = g.edges().length;
+        assertEquals(m, g.numEdges());
+        assertEquals(2 * m, IntStream.of(g.degrees()).sum());
+    }
+
+    @Test
+    public void malformed() throws IOException {
+        var file = write("p edge 3 2\ne 1 2\ne 1 x\n");
+        var e = assertThrows(GraphFormatException.class, () -> new DimacsIO().read(file));
+        assertEquals(3, e.getLineNumber());
+
+        var file2 = write("e 1 2\np edge 3 2\n");
+        e = assertThrows(GraphFormatException.class, () -> new DimacsIO().read(file2));
+        assertEquals(1, e.getLineNumber());
+
+        var file3 = write("p edge 3 2\ne 1 4\n");
+        e = assertThrows(GraphFormatException.class, () -> new DimacsIO().read(file3));
+        assertEquals(2, e.getLineNumber());
+    }
+
+    @Test
+    public void wrongNumberOfEdges() throws IOException {
+        int n = 500;
+        var sb = new StringBuilder("p edge " + n + " 1\n");
+        for (int i = 1; i < n; i++) {
+            sb.append("e ").append(i).append(" ").append(i + 1).append("\n");
+        }
+        var g = new DimacsIO().read(write(sb.toString()).toString());
+        assertEquals(n - 1, g.numEdges());
+        assertThrows(java.io.UncheckedIOException.class,
+                () -> new DimacsIO().read(dir.resolve("missing.col").toString()));
+    }
+}
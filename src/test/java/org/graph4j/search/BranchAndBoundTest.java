@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.search;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.graph4j.Graph;
+import org.graph4j.clique.BronKerboschCliqueIterator;
+import org.graph4j.clique.MaximalCliqueFinder;
+import org.graph4j.exceptions.AlgorithmTimeoutException;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.hamiltonian.BacktrackLongestPathAlgoritm;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class BranchAndBoundTest {
+
+    public BranchAndBoundTest() {
+    }
+
+    //0-1 knapsack: a node is {item, weight, value}, deciding the items in order
+    private static class Knapsack implements SearchSpace<double[], Double> {
+
+        final double[] weight, value;
+        final double capacity;
+
+        Knapsack(int n, long seed) {
+            var rand = new Random(seed);
+            weight = new double[n];
+            value = new double[n];
+            for (int i = 0; i < n; i++) {
+                weight[i] = 1 + rand.nextInt(20);
+                value[i] = 1 + rand.nextInt(20);
+            }
+            capacity = 5 * n;
+        }
+
+        @Override
+        public void expand(double[] node, SearchContext<double[], Double> context) {
+            int i = (int) node[0];
+            if (i == weight.length) {
+                context.submit(node[2], node[2]);
+                return;
+            }
+            if (node[1] + weight[i] <= capacity) {
+                context.branch(new double[]{i + 1, node[1] + weight[i], node[2] + value[i]});
+            }
+            context.branch(new double[]{i + 1, node[1], node[2]});
+        }
+
+        @Override
+        public double bound(double[] node) {
+            double total = node[2];
+            for (int i = (int) node[0]; i < value.length; i++) {
+                total += value[i];
+            }
+            return total;
+        }
+
+        double bruteForce() {
+            int n = weight.length;
+            double best = 0;
+            for (int mask = 0; mask < (1 << n); mask++) {
+                double w = 0, v = 0;
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        w += weight[i];
+                        v += value[i];
+                    }
+                }
+                if (w <= capacity && v > best) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+    }
+
+    @Test
+    public void deterministicAndParallel() {
+        for (long seed = 0; seed < 5; seed++) {
+            var space = new Knapsack(14, seed);
+            double expected = space.bruteForce();
+            var seq = BranchAndBound.maximizing(space).setDeterministic(true);
+            assertEquals(expected, seq.search(new double[3]));
+            var par = BranchAndBound.maximizing(space).setNumThreads(4);
+            assertEquals(expected, par.search(new double[3]));
+            assertEquals(expected, par.getSolutionValue());
+            assertTrue(seq.nodesExplored() > 0 && par.nodesExplored() > 0);
+            assertEquals(expected, BranchAndBound.maximizing(space).search(new double[3]));
+        }
+    }
+
+    @Test
+    public void suppliedPool() {
+        var pool = new ForkJoinPool(3);
+        try {
+            for (long seed = 0; seed < 3; seed++) {
+                var space = new Knapsack(14, seed);
+                var engine = BranchAndBound.maximizing(space).setPool(pool);
+                assertEquals(space.bruteForce(), engine.search(new double[3]));
+                assertSame(pool, engine.getPool());
+                assertFalse(pool.isShutdown());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void nodeLimit() {
+        var space = new Knapsack(20, 1);
+        var engine = BranchAndBound.maximizing(space).setNodeLimit(100);
+        assertThrows(AlgorithmTimeoutException.class, () -> engine.search(new double[3]));
+        assertTrue(engine.isLimitReached());
+        assertTrue(engine.nodesExplored() <= 100);
+    }
+
+    @Test
+    public void longestPath() {
+        for (int k = 0; k < 5; k++) {
+            var g = new RandomGnpGraphGenerator(10, 0.3).createGraph();
+            var alg = new BacktrackLongestPathAlgoritm(g);
+            var path = alg.getLongestPath();
+            assertTrue(path.isValid());
+            int v = g.vertexAt(0);
+            assertEquals(longestFrom(g, v, new boolean[g.numVertices()]), alg.getLongestPath(v).numVertices());
+        }
+    }
+
+    //the number of vertices of the longest path starting in v, 0 if it has no edges
+    private int longestFrom(Graph g, int v, boolean[] visited) {
+        visited[g.indexOf(v)] = true;
+        int best = 0;
+        for (int u : g.neighbors(v)) {
+            if (!visited[g.indexOf(u)]) {
+                best = Math.max(best, 1 + Math.max(1, longestFrom(g, u, visited)));
+            }
+        }
+        visited[g.indexOf(v)] = false;
+        return best;
+    }
+
+    @Test
+    public void maximumClique() {
+        for (int k = 0; k < 5; k++) {
+            var g = new RandomGnpGraphGenerator(40, 0.5).createGraph();
+            int expected = 0;
+            for (var it = new BronKerboschCliqueIterator(g); it.hasNext();) {
+                expected = Math.max(expected, it.next().size());
+            }
+            var clique = new MaximalCliqueFinder(g).findMaximumClique(0);
+            assertTrue(clique.isValid());
+            assertEquals(expected, clique.size());
+        }
+    }
+}
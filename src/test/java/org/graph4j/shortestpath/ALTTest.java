@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Random;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.GridGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class ALTTest {
+
+    public ALTTest() {
+    }
+
+    private void checkQueries(Graph g, LandmarkTable table, int numQueries) {
+        var rand = new Random(0);
+        int n = g.numVertices();
+        var estimator = new AStarLandmarkEstimator(table);
+        for (int k = 0; k < numQueries; k++) {
+            int s = g.vertexAt(rand.nextInt(n));
+            int t = g.vertexAt(rand.nextInt(n));
+            double expected = new DijkstraShortestPathHeap(g, s).getPathWeight(t);
+            assertTrue(table.lowerBound(s, t) <= expected + 1e-9);
+            var astar = new AStarAlgorithm(g, s, t, estimator);
+            assertEquals(expected, astar.getPathWeight(), 1e-9);
+            var alt = new BidirectionalALT(table, s, t);
+            assertEquals(expected, alt.getPathWeight(), 1e-9);
+            var path = alt.findPath();
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(path);
+            } else {
+                assertTrue(path.isValid());
+                assertEquals(s, path.firstVertex());
+                assertEquals(t, path.lastVertex());
+                assertEquals(expected, path.computeEdgesWeight(), 1e-9);
+            }
+        }
+    }
+
+    private Digraph createDigraphWithRemovals(int n, double p, long seed) {
+        var rand = new Random(seed);
+        var g = GraphBuilder.numVertices(n).buildDigraph();
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                if (v != u && rand.nextDouble() < p) {
+                    g.addEdge(v, u, 1 + rand.nextInt(20));
+                }
+            }
+        }
+        //removals move arcs inside the adjacency lists, the freed slots are reused
+        for (var e : g.edges()) {
+            if (rand.nextInt(3) == 0) {
+                g.removeEdge(e.source(), e.target());
+                int v = e.source(), u = rand.nextInt(n);
+                if (v != u && !g.containsEdge(v, u)) {
+                    g.addEdge(v, u, 1 + rand.nextInt(20));
+                }
+            }
+        }
+        return g;
+    }
+
+    @Test
+    public void selections() {
+        var g = new RandomGnpGraphGenerator(150, 0.05).createGraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        for (var selection : LandmarkTable.Selection.values()) {
+            var table = LandmarkTable.create(g, 4, selection, new Random(1));
+            assertEquals(4, table.numLandmarks());
+            assertEquals(4, java.util.Arrays.stream(table.landmarks()).distinct().count());
+            checkQueries(g, table, 50);
+        }
+    }
+
+    @Test
+    public void digraph() {
+        var g = new RandomGnpGraphGenerator(150, 0.03).createDigraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 20);
+        checkQueries(g, LandmarkTable.create(g, 6), 100);
+    }
+
+    @Test
+    public void fewerSolvedVertices() {
+        var g = new GridGenerator(60, 60).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var table = LandmarkTable.create(g, 8, LandmarkTable.Selection.AVOID, new Random(0));
+        int s = 0, t = g.numVertices() - 1;
+        var dijkstra = new AStarAlgorithm(g, s, t, (v, u) -> 0);
+        var astar = new AStarAlgorithm(g, s, t, new AStarLandmarkEstimator(table));
+        var alt = new BidirectionalALT(table, s, t);
+        assertEquals(dijkstra.getPathWeight(), astar.getPathWeight(), 1e-9);
+        assertEquals(dijkstra.getPathWeight(), alt.getPathWeight(), 1e-9);
+        assertTrue(astar.numSolved() < dijkstra.numSolved());
+        assertTrue(alt.numSolved() < dijkstra.numSolved());
+    }
+
+    @Test
+    public void digraphAfterRemoval() {
+        var g = createDigraphWithRemovals(150, 0.04, 13);
+        checkQueries(g, LandmarkTable.create(g, 6), 100);
+    }
+}
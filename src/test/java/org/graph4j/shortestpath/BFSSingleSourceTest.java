@@ -55,4 +55,22 @@ public class BFSSingleSourceTest {
         }
     }
 
+    @Test
+    public void allPairs() {
+        int n = 30;
+        Digraph g = new RandomGnpGraphGenerator(n, 0.1).createDigraph();
+        var alg = new BFSAllPairsShortestPath(g);
+        for (int v = 0; v < n; v++) {
+            var sssp = new BFSSingleSourceShortestPath(g, v);
+            for (int u = 0; u < n; u++) {
+                assertEquals(sssp.getPathWeight(u), alg.getPathWeight(v, u));
+                Path p = alg.findPath(v, u);
+                if (alg.getPathWeight(v, u) < Double.POSITIVE_INFINITY) {
+                    assertEquals(alg.getPathWeight(v, u), p.length());
+                    assertTrue(p.isValid());
+                }
+            }
+        }
+    }
+
 }
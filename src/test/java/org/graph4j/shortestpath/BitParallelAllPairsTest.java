@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import org.graph4j.Graph;
+import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.metrics.GraphMetrics;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class BitParallelAllPairsTest {
+
+    public BitParallelAllPairsTest() {
+    }
+
+    @Test
+    public void randomGraph() {
+        //connected, small distances
+        check(new RandomGnpGraphGenerator(200, 0.1).createGraph());
+    }
+
+    @Test
+    public void randomDigraph() {
+        check(new RandomGnpGraphGenerator(150, 0.02).createDigraph());
+    }
+
+    @Test
+    public void longPath() {
+        //distances greater than 255
+        var g = GraphGenerator.path(300);
+        check(g);
+        var alg = new BitParallelAllPairsShortestPath(g);
+        assertEquals(299, alg.getPathWeight(0, 299));
+        assertEquals(300, alg.findPath(0, 299).numVertices());
+    }
+
+    @Test
+    public void streamRows() {
+        var g = new RandomGnpGraphGenerator(100, 0.05).createGraph();
+        var alg = new BitParallelAllPairsShortestPath(g);
+        double[][] expected = new BFSAllPairsShortestPath(g).getPathWeights();
+        alg.forEachRow((vi, dist) -> {
+            for (int ui = 0; ui < dist.length; ui++) {
+                double d = dist[ui] == BitParallelAllPairsShortestPath.UNREACHABLE
+                        ? Double.POSITIVE_INFINITY : dist[ui];
+                assertEquals(expected[vi][ui], d);
+            }
+        });
+        var metrics = new GraphMetrics(g);
+        double apl = metrics.averagePathLength();
+        metrics.distances();
+        assertEquals(metrics.averagePathLength(), apl, 1e-9);
+    }
+
+    private void check(Graph g) {
+        var alg = new BitParallelAllPairsShortestPath(g);
+        var bfs = new BFSAllPairsShortestPath(g);
+        double[][] expected = bfs.getPathWeights();
+        assertArrayEquals(expected, alg.getPathWeights());
+        for (int v : g.vertices()) {
+            for (int u : g.vertices()) {
+                assertEquals(expected[g.indexOf(v)][g.indexOf(u)], alg.getPathWeight(v, u));
+                var path = alg.findPath(v, u);
+                if (path.isEmpty()) {
+                    assertTrue(bfs.findPath(v, u).isEmpty());
+                } else {
+                    assertEquals(v, path.firstVertex());
+                    assertEquals(u, path.lastVertex());
+                    assertEquals(alg.getPathWeight(v, u), path.numVertices() - 1);
+                    assertTrue(path.isValid());
+                }
+            }
+        }
+    }
+}
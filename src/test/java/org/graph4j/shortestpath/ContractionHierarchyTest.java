@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.InvalidVertexException;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.GridGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.generators.RandomUnitDiskGenerator;
+import org.graph4j.io.GraphFormatException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class ContractionHierarchyTest {
+
+    @TempDir
+    java.nio.file.Path dir;
+
+    public ContractionHierarchyTest() {
+    }
+
+    private void checkQueries(Graph g, ContractionHierarchy ch, int numSources) {
+        var random = new Random(0);
+        int n = g.numVertices();
+        for (int i = 0; i < numSources; i++) {
+            int s = g.vertexAt(random.nextInt(n));
+            var dijkstra = new DijkstraShortestPathHeap(g, s);
+            for (int t : g.vertices()) {
+                var alg = ch.query(s, t);
+                double expected = dijkstra.getPathWeight(t);
+                assertEquals(expected, alg.getPathWeight(), 1e-9);
+                var path = alg.findPath();
+                if (expected == Double.POSITIVE_INFINITY) {
+                    assertNull(path);
+                } else {
+                    assertEquals(s, path.firstVertex());
+                    assertEquals(t, path.lastVertex());
+                    assertTrue(path.isValid());
+                    assertEquals(expected, path.computeEdgesWeight(), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void simple() {
+        var g = GraphBuilder.vertexRange(1, 5)
+                .addEdges("1-2,1-3,2-3,2-4,2-5,3-5,4-5").buildGraph();
+        g.setEdgeWeight(1, 2, 3);
+        g.setEdgeWeight(1, 3, 1);
+        g.setEdgeWeight(2, 3, 1);
+        g.setEdgeWeight(2, 4, 1);
+        g.setEdgeWeight(2, 5, 3);
+        g.setEdgeWeight(3, 5, 9);
+        g.setEdgeWeight(4, 5, 1);
+        var ch = ContractionHierarchy.create(g);
+        var alg = ch.query(1, 5);
+        assertEquals(4, alg.getPathWeight());
+        assertEquals(5, alg.findPath().numVertices());
+        assertEquals(0, ch.query(3, 3).getPathWeight());
+    }
+
+    @Test
+    public void grid() {
+        Graph g = new GridGenerator(20, 20).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        checkQueries(g, ContractionHierarchy.create(g), 5);
+    }
+
+    @Test
+    public void unitDisk() {
+        Graph g = new RandomUnitDiskGenerator(300, 0.1).createGraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        checkQueries(g, ContractionHierarchy.create(g), 5);
+    }
+
+    @Test
+    public void digraph() {
+        var g = new RandomGnpGraphGenerator(200, 0.02).createDigraph();
+        EdgeWeightsGenerator.randomIntegers(g, 0, 20);
+        checkQueries(g, ContractionHierarchy.create(g), 5);
+    }
+
+    @Test
+    public void zeroWeights() {
+        var random = new Random(3);
+        int n = 150;
+        for (boolean directed : new boolean[]{false, true}) {
+            var g = directed
+                    ? GraphBuilder.numVertices(n).buildDigraph()
+                    : GraphBuilder.numVertices(n).buildGraph();
+            for (int v = 0; v < n; v++) {
+                for (int u = 0; u < n; u++) {
+                    if (v != u && !g.containsEdge(v, u) && random.nextDouble() < 0.03) {
+                        g.addEdge(v, u, random.nextInt(4));
+                    }
+                }
+            }
+            checkQueries(g, ContractionHierarchy.create(g), 10);
+        }
+    }
+
+    @Test
+    public void parallelPreprocessing() {
+        Graph g = new GridGenerator(100, 100).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 100);
+        checkQueries(g, ContractionHierarchy.create(g), 1);
+    }
+
+    @Test
+    public void writeAndLoad() throws IOException {
+        var g = new RandomGnpGraphGenerator(100, 0.05).createDigraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var file = dir.resolve("graph.ch");
+        var ch = ContractionHierarchy.create(g);
+        ch.write(file);
+        var loaded = ContractionHierarchy.load(file, g);
+        assertEquals(ch.numShortcuts(), loaded.numShortcuts());
+        checkQueries(g, loaded, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> ContractionHierarchy.load(file, new RandomGnpGraphGenerator(10, 0.5).createDigraph()));
+    }
+
+    @Test
+    public void loadCorrupted() throws IOException {
+        var g = GraphBuilder.vertexRange(1, 5)
+                .addEdges("1-2,1-3,2-3,2-4,2-5,3-5,4-5").buildGraph();
+        var ch = ContractionHierarchy.create(g);
+        assertThrows(InvalidVertexException.class, () -> ch.rank(6));
+        var file = dir.resolve("graph.ch");
+        ch.write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        int n = g.numVertices();
+        int rankPos = 17 + 4 * n; //magic, version, directed, n, shortcuts, vertices
+        int startPos = rankPos + 4 * n;
+        int targetPos = startPos + 4 * (n + 1);
+        //a rank out of range, decreasing offsets, a target out of range
+        int[][] corruptions = {{rankPos, n}, {startPos + 4, -1}, {targetPos, n}};
+        for (int[] corruption : corruptions) {
+            var copy = ByteBuffer.wrap(bytes.clone());
+            copy.putInt(corruption[0], corruption[1]);
+            Files.write(file, copy.array());
+            assertThrows(GraphFormatException.class, () -> ContractionHierarchy.load(file, g));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.concurrent.ForkJoinPool;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.GridGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DeltaSteppingShortestPathTest {
+
+    public DeltaSteppingShortestPathTest() {
+    }
+
+    @Test
+    public void simple() {
+        var g = GraphBuilder.vertexRange(1, 6)
+                .addEdges("1-2,1-3,2-3,2-4,2-5,3-5,4-5").buildGraph();
+        g.setEdgeWeight(1, 2, 3);
+        g.setEdgeWeight(1, 3, 1);
+        g.setEdgeWeight(2, 3, 1);
+        g.setEdgeWeight(2, 4, 1);
+        g.setEdgeWeight(2, 5, 3);
+        g.setEdgeWeight(3, 5, 9);
+        g.setEdgeWeight(4, 5, 1);
+        var alg = new DeltaSteppingShortestPath(g, 1, 2);
+        assertEquals(4, alg.getPathWeight(5));
+        assertEquals(Double.POSITIVE_INFINITY, alg.getPathWeight(6));
+        assertEquals(5, alg.findPath(5).numVertices());
+        assertNull(alg.findPath(6));
+    }
+
+    @Test
+    public void randomDigraph() {
+        int n = 300;
+        var g = new RandomGnpGraphGenerator(n, 0.05).createDigraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        for (double delta : new double[]{0, 0.01, 0.1, 1, 10}) {
+            check(g, new DeltaSteppingShortestPath(g, 0, delta));
+        }
+    }
+
+    @Test
+    public void parallel() {
+        var g = new GridGenerator(100, 100).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 0, 10);
+        var pool = new ForkJoinPool(4);
+        try {
+            //a large delta puts many vertices in the same bucket
+            check(g, new DeltaSteppingShortestPath(g, 0, 1000, pool));
+            check(g, new DeltaSteppingShortestPath(g, 0, 0, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void negativeWeights() {
+        var g = GraphBuilder.numVertices(3).addEdges("0-1,1-2").buildGraph();
+        g.setEdgeWeight(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> new DeltaSteppingShortestPath(g, 0));
+    }
+
+    private void check(Graph g, DeltaSteppingShortestPath alg) {
+        int s = alg.getSource();
+        var dijkstra = new DijkstraShortestPathHeap(g, s);
+        assertArrayEquals(dijkstra.getPathWeights(), alg.getPathWeights(), 1e-9);
+        for (int v : g.vertices()) {
+            var path = alg.findPath(v);
+            if (path == null) {
+                assertEquals(Double.POSITIVE_INFINITY, alg.getPathWeight(v));
+                continue;
+            }
+            assertEquals(s, path.firstVertex());
+            assertEquals(v, path.lastVertex());
+            assertEquals(alg.getPathWeight(v), path.computeEdgesWeight(), 1e-9);
+        }
+    }
+}
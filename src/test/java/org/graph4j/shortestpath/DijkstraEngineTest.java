@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Random;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import org.graph4j.util.Path;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DijkstraEngineTest {
+
+    public DijkstraEngineTest() {
+    }
+
+    @Test
+    public void simple() {
+        var g = GraphBuilder.vertexRange(1, 5)
+                .addEdges("1-2,1-3,2-3,2-4,2-5,3-5,4-5").buildGraph();
+        g.setEdgeWeight(1, 2, 3);
+        g.setEdgeWeight(1, 3, 1);
+        g.setEdgeWeight(2, 3, 1);
+        g.setEdgeWeight(2, 4, 1);
+        g.setEdgeWeight(2, 5, 3);
+        g.setEdgeWeight(3, 5, 9);
+        g.setEdgeWeight(4, 5, 1);
+        var engine = new DijkstraEngine(g);
+        assertEquals(5, engine.run(1));
+        assertEquals(4, engine.distance(5));
+        assertEquals(new Path(g, new int[]{1, 3, 2, 4, 5}), engine.findPath(5));
+        assertEquals(0, engine.indexAt(0)); //vertex 1 has index 0
+        //early termination
+        engine.run(1, 2);
+        assertEquals(2, engine.distance(2));
+        assertEquals(Double.POSITIVE_INFINITY, engine.distance(5));
+        assertNull(engine.findPath(5));
+        //distance bound
+        assertEquals(3, engine.runWithin(1, 2.5));
+        assertEquals(Double.POSITIVE_INFINITY, engine.distance(4));
+    }
+
+    @Test
+    public void reuse() {
+        int n = 100;
+        var g = new RandomGnpGraphGenerator(n, 0.05).createDigraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        var engine = new DijkstraEngine(g);
+        for (int v : g.vertices()) {
+            engine.run(v);
+            var alg = new DijkstraShortestPathHeap(g, v);
+            for (int u : g.vertices()) {
+                assertEquals(alg.getPathWeight(u), engine.distance(u));
+            }
+        }
+    }
+
+    @Test
+    public void reverse() {
+        int n = 50;
+        var g = new RandomGnpGraphGenerator(n, 0.1).createDigraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var forward = new DijkstraEngine(g);
+        var backward = new DijkstraEngine(g);
+        int t = g.vertexAt(n - 1);
+        backward.run(t, -1, Double.POSITIVE_INFINITY, true);
+        for (int v : g.vertices()) {
+            forward.run(v, t);
+            assertEquals(forward.distance(t), backward.distance(v));
+            var path = backward.findPath(v);
+            if (path != null) {
+                assertEquals(v, path.firstVertex());
+                assertEquals(t, path.lastVertex());
+                assertEquals(backward.distance(v), path.computeEdgesWeight(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void reverseAfterRemoval() {
+        int n = 50;
+        var rand = new Random(7);
+        var g = GraphBuilder.numVertices(n).estimatedAvgDegree(5).buildDigraph();
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                if (v != u && rand.nextDouble() < 0.1) {
+                    g.addEdge(v, u, 1 + rand.nextInt(10));
+                }
+            }
+        }
+        //removals move arcs inside the adjacency lists, the freed slots are reused
+        for (var e : g.edges()) {
+            if (rand.nextInt(3) == 0) {
+                g.removeEdge(e.source(), e.target());
+                int v = e.source(), u = rand.nextInt(n);
+                if (v != u && !g.containsEdge(v, u)) {
+                    g.addEdge(v, u, 1 + rand.nextInt(10));
+                }
+            }
+        }
+        var forward = new DijkstraEngine(g);
+        var backward = new DijkstraEngine(g);
+        int t = n - 1;
+        backward.run(t, -1, Double.POSITIVE_INFINITY, true);
+        for (int v : g.vertices()) {
+            forward.run(v, t);
+            assertEquals(forward.distance(t), backward.distance(v));
+        }
+    }
+}
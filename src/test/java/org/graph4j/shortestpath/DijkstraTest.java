@@ -25,7 +25,9 @@ import org.graph4j.shortestpath.BellmanFordShortestPath;
 import org.graph4j.shortestpath.BidirectionalDijkstra;
 import org.graph4j.shortestpath.DijkstraShortestPathDefault;
 import org.graph4j.shortestpath.DijkstraShortestPathHeap;
+import org.graph4j.generators.BarabasiAlbertGenerator;
 import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.GridGenerator;
 import org.graph4j.generators.RandomGnpGraphGenerator;
 
 /**
@@ -68,4 +70,40 @@ public class DijkstraTest {
         assertEquals(x1, x3);
     }
 
+    @Test
+    public void integerWeights() {
+        var g = new GridGenerator(20, 30).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 0, 10);
+        var alg1 = new DijkstraShortestPathHeap(g, 0);
+        var alg2 = new DijkstraShortestPathDial(g, 0);
+        var alg3 = new DijkstraShortestPathRadixHeap(g, 0);
+        assertArrayEquals(alg1.getPathWeights(), alg2.getPathWeights());
+        assertArrayEquals(alg1.getPathWeights(), alg3.getPathWeights());
+        assertEquals(alg1.findPath(599).computeEdgesWeight(), alg3.findPath(599).computeEdgesWeight());
+        assertEquals(alg1.getPathWeight(100), new DijkstraShortestPathDial(g, 0).computePath(100).computeEdgesWeight());
+    }
+
+    @Test
+    public void integerWeightsDisconnected() {
+        Digraph g = new RandomGnpGraphGenerator(100, 0.02).createDigraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 1000);
+        var alg1 = new DijkstraShortestPathDefault(g, 0);
+        var alg2 = new DijkstraShortestPathDial(g, 0);
+        var alg3 = new DijkstraShortestPathRadixHeap(g, 0);
+        assertArrayEquals(alg1.getPathWeights(), alg2.getPathWeights());
+        assertArrayEquals(alg1.getPathWeights(), alg3.getPathWeights());
+    }
+
+    @Test
+    public void selectImplementation() {
+        var g = new BarabasiAlbertGenerator(3, 2, 100).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        assertTrue(SingleSourceShortestPath.getInstance(g, 0) instanceof DijkstraShortestPathDial);
+        EdgeWeightsGenerator.randomIntegers(g, 1, 1_000_000);
+        assertTrue(SingleSourceShortestPath.getInstance(g, 0) instanceof DijkstraShortestPathHeap);
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        assertTrue(SingleSourceShortestPath.getInstance(g, 0) instanceof DijkstraShortestPathHeap);
+        assertThrows(IllegalArgumentException.class, () -> new DijkstraShortestPathDial(g, 0));
+    }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.Random;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.GraphGenerator;
+import org.graph4j.generators.GridGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class DynamicShortestPathTest {
+
+    public DynamicShortestPathTest() {
+    }
+
+    private void check(Graph g, DynamicShortestPath alg) {
+        var expected = new DijkstraShortestPathHeap(g, alg.getSource()).getPathWeights();
+        assertArrayEquals(expected, alg.getPathWeights(), 1e-9);
+        for (int v : g.vertices()) {
+            var path = alg.findPath(v);
+            if (expected[g.indexOf(v)] == Double.POSITIVE_INFINITY) {
+                assertNull(path);
+            } else {
+                assertTrue(path.isValid());
+                assertEquals(expected[g.indexOf(v)], path.computeEdgesWeight(), 1e-9);
+            }
+        }
+    }
+
+    //a random update: weight change, insertion or removal
+    private void randomUpdate(Graph g, DynamicShortestPath alg, Random rand) {
+        int n = g.numVertices();
+        int v = rand.nextInt(n), u = rand.nextInt(n);
+        if (v == u) {
+            return;
+        }
+        if (g.containsEdge(v, u)) {
+            if (rand.nextInt(3) == 0) {
+                alg.removeEdge(v, u);
+            } else {
+                alg.setEdgeWeight(v, u, rand.nextInt(20));
+            }
+        } else {
+            alg.addEdge(v, u, rand.nextInt(20));
+        }
+    }
+
+    @Test
+    public void simple() {
+        var g = GraphBuilder.numVertices(4).buildDigraph();
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(0, 2, 5);
+        g.addEdge(2, 3, 1);
+        var alg = new DynamicShortestPath(g, 0);
+        assertEquals(3, alg.getPathWeight(3));
+        alg.setEdgeWeight(1, 2, 10);
+        assertEquals(6, alg.getPathWeight(3));
+        assertArrayEquals(new int[]{0, 2, 3}, alg.findPath(3).vertices());
+        alg.removeEdge(0, 2);
+        assertEquals(12, alg.getPathWeight(3));
+        alg.removeEdge(2, 3);
+        assertNull(alg.findPath(3));
+        alg.addEdge(0, 3, 2);
+        assertEquals(2, alg.getPathWeight(3));
+    }
+
+    @Test
+    public void digraphUpdates() {
+        var rand = new Random(37);
+        int n = 100;
+        var g = GraphBuilder.numVertices(n).buildDigraph();
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                if (v != u && rand.nextDouble() < 0.04) {
+                    g.addEdge(v, u, rand.nextInt(21));
+                }
+            }
+        }
+        var alg = new DynamicShortestPath(g, 0);
+        for (int k = 0; k < 500; k++) {
+            randomUpdate(g, alg, rand);
+            check(g, alg);
+        }
+    }
+
+    @Test
+    public void graphBatchUpdates() {
+        var rand = new Random(1);
+        var g = new GridGenerator(15, 15).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 20);
+        var alg = new DynamicShortestPath(g, 7);
+        for (int k = 0; k < 100; k++) {
+            alg.beginBatch();
+            for (int j = 0; j < 10; j++) {
+                randomUpdate(g, alg, rand);
+            }
+            alg.endBatch();
+            check(g, alg);
+        }
+    }
+
+    @Test
+    public void multigraphUpdates() {
+        var g = GraphBuilder.numVertices(3).buildDirectedMultigraph();
+        g.addEdge(0, 1, 5);
+        g.addEdge(0, 1, 7);
+        g.addEdge(1, 2, 1);
+        var alg = new DynamicShortestPath(g, 0);
+        assertEquals(6, alg.getPathWeight(2));
+        for (var it = g.successorIterator(0); it.hasNext();) {
+            if (it.next() == 1 && it.getEdgeWeight() == 7) {
+                it.setEdgeWeight(2);
+            }
+        }
+        alg.edgeChanged(0, 1);
+        assertEquals(3, alg.getPathWeight(2));
+        check(g, alg);
+    }
+
+    @Test
+    public void negativeWeight() {
+        var g = GraphGenerator.complete(5);
+        var alg = new DynamicShortestPath(g, 0);
+        assertThrows(IllegalArgumentException.class, () -> alg.setEdgeWeight(0, 1, -1));
+
+        //the update fails while the subtree of 2 is reattached
+        var d = GraphBuilder.numVertices(4).buildDigraph();
+        d.addEdge(0, 1, 1);
+        d.addEdge(1, 2, 1);
+        d.addEdge(0, 3, 1);
+        d.addEdge(3, 2, 5);
+        var alg2 = new DynamicShortestPath(d, 0);
+        d.setEdgeWeight(3, 2, -1);
+        assertThrows(IllegalArgumentException.class, () -> alg2.setEdgeWeight(1, 2, 10));
+        d.setEdgeWeight(3, 2, 5);
+        alg2.edgeChanged(3, 2);
+        alg2.edgeChanged(1, 2);
+        assertEquals(6, alg2.getPathWeight(2));
+        alg2.setEdgeWeight(3, 2, 20);
+        assertEquals(11, alg2.getPathWeight(2));
+        check(d, alg2);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class FloydWarshallTest {
+
+    public FloydWarshallTest() {
+    }
+
+    @Test
+    public void severalBlocks() {
+        int n = 3 * FloydWarshallShortestPath.BLOCK_SIZE + 5;
+        var g = new RandomGnpGraphGenerator(n, 0.05).createDigraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        var alg = new FloydWarshallShortestPath(g);
+        var weights = alg.getPathWeights();
+        for (int v : g.vertices()) {
+            var dijkstra = new DijkstraShortestPathHeap(g, v);
+            assertArrayEquals(dijkstra.getPathWeights(), weights[g.indexOf(v)], 1e-9);
+        }
+        for (int v = 0; v < n; v += 7) {
+            for (int u = 0; u < n; u += 5) {
+                var path = alg.findPath(v, u);
+                if (alg.getPathWeight(v, u) == Double.POSITIVE_INFINITY) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(alg.getPathWeight(v, u), path.computeEdgesWeight(), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void floatPrecision() {
+        int n = 2 * FloydWarshallShortestPath.BLOCK_SIZE + 1;
+        var g = new RandomGnpGraphGenerator(n, 0.1).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 100);
+        var alg1 = new FloydWarshallShortestPath(g);
+        var alg2 = new FloydWarshallShortestPath(g, true);
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                assertEquals(alg1.getPathWeight(v, u), alg2.getPathWeight(v, u));
+            }
+        }
+        assertEquals(alg1.getPathWeight(0, n - 1), alg2.findPath(0, n - 1).computeEdgesWeight());
+    }
+
+    @Test
+    public void negativeCycle() {
+        int n = 2 * FloydWarshallShortestPath.BLOCK_SIZE;
+        var g = GraphBuilder.numVertices(n).buildDigraph();
+        for (int i = 0; i < n; i++) {
+            g.addEdge(i, (i + 1) % n, 1);
+        }
+        g.setEdgeWeight(n - 1, 0, -n);
+        assertThrows(NegativeCycleException.class,
+                () -> new FloydWarshallShortestPath(g).getPathWeight(0, 1));
+        assertThrows(NegativeCycleException.class,
+                () -> new FloydWarshallShortestPath(g, true).findPath(0, 1));
+    }
+
+    @Test
+    public void multipleEdges() {
+        var g = GraphBuilder.numVertices(3).buildMultigraph();
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 1, 5);
+        g.addEdge(1, 2, 1);
+        var alg = new FloydWarshallShortestPath(g);
+        assertEquals(2.0, alg.getPathWeight(0, 2));
+        assertArrayEquals(new int[]{0, 1, 2}, alg.findPath(0, 2).vertices());
+
+        int n = FloydWarshallShortestPath.BLOCK_SIZE + 10;
+        var rand = new java.util.Random(7);
+        var h = GraphBuilder.numVertices(n).buildDirectedMultigraph();
+        for (int i = 0; i < 8 * n; i++) {
+            int v = rand.nextInt(n), u = rand.nextInt(n);
+            if (v != u) {
+                h.addEdge(v, u, 1 + rand.nextInt(20));
+            }
+        }
+        var weights = new FloydWarshallShortestPath(h).getPathWeights();
+        for (int v : h.vertices()) {
+            var dijkstra = new DijkstraShortestPathHeap(h, v);
+            assertArrayEquals(dijkstra.getPathWeights(), weights[h.indexOf(v)], 1e-9);
+        }
+    }
+
+    @Test
+    public void selfLoops() {
+        var g = GraphBuilder.numVertices(3).buildPseudograph();
+        g.addEdge(0, 0, 3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        var alg = new FloydWarshallShortestPath(g);
+        assertEquals(0, alg.getPathWeight(0, 0));
+        assertEquals(1, alg.findPath(0, 0).numVertices());
+        assertEquals(2.0, alg.getPathWeight(0, 2));
+
+        var d = GraphBuilder.numVertices(2).buildDirectedPseudograph();
+        d.addEdge(0, 1, 1);
+        d.addEdge(1, 1, -1);
+        assertThrows(NegativeCycleException.class,
+                () -> new FloydWarshallShortestPath(d).getPathWeight(0, 1));
+    }
+
+    @Test
+    public void zeroWeights() {
+        int n = 2 * FloydWarshallShortestPath.BLOCK_SIZE + 3;
+        var rand = new java.util.Random(11);
+        for (boolean directed : new boolean[]{false, true}) {
+            var g = directed
+                    ? GraphBuilder.numVertices(n).buildDigraph()
+                    : GraphBuilder.numVertices(n).buildGraph();
+            for (int v = 0; v < n; v++) {
+                for (int u = 0; u < n; u++) {
+                    if (v != u && !g.containsEdge(v, u) && rand.nextDouble() < 0.05) {
+                        g.addEdge(v, u, rand.nextInt(4));
+                    }
+                }
+            }
+            for (boolean floatPrecision : new boolean[]{false, true}) {
+                var alg = new FloydWarshallShortestPath(g, floatPrecision);
+                for (int v = 0; v < n; v++) {
+                    for (int u = 0; u < n; u++) {
+                        var path = alg.findPath(v, u);
+                        if (alg.getPathWeight(v, u) == Double.POSITIVE_INFINITY) {
+                            assertTrue(path.isEmpty());
+                        } else {
+                            assertTrue(path.isValid());
+                            assertEquals(alg.getPathWeight(v, u), path.computeEdgesWeight());
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
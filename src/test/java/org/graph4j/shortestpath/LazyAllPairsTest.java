@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.util.stream.IntStream;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class LazyAllPairsTest {
+
+    public LazyAllPairsTest() {
+    }
+
+    @Test
+    public void cache() {
+        int n = 50;
+        var g = new RandomGnpGraphGenerator(n, 0.1).createDigraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        var alg = new LazyAllPairsShortestPath(g, 10);
+        var expected = new JohnsonShortestPath(g).getPathWeights();
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                assertEquals(expected[v][u], alg.getPathWeight(v, u));
+            }
+        }
+        assertEquals(n, alg.missCount());
+        assertEquals(n * (n - 1), alg.hitCount());
+        assertEquals(10, alg.cacheSize());
+        alg.getPathWeight(n - 1, 0); //still cached
+        assertEquals(n, alg.missCount());
+        alg.getPathWeight(0, 0); //evicted
+        assertEquals(n + 1, alg.missCount());
+        assertArrayEquals(expected, alg.getPathWeights());
+    }
+
+    @Test
+    public void negativeWeights() {
+        var g = GraphBuilder.vertexRange(1, 4)
+                .addEdges("1-2,1-3,2-4,3-4").buildDigraph();
+        g.setEdgeWeight(1, 2, 1);
+        g.setEdgeWeight(1, 3, 5);
+        g.setEdgeWeight(2, 4, 2);
+        g.setEdgeWeight(3, 4, -4);
+        var alg = new LazyAllPairsShortestPath(g, 2, true);
+        assertEquals(1, alg.getPathWeight(1, 4));
+        assertEquals(3, alg.findPath(1, 4).numVertices());
+        assertArrayEquals(new int[]{1, 3, 4}, alg.findPath(1, 4).vertices());
+        assertNull(alg.findPath(4, 1));
+    }
+
+    @Test
+    public void concurrent() {
+        int n = 100;
+        var g = new RandomGnpGraphGenerator(n, 0.1).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var alg = new LazyAllPairsShortestPath(g, 20);
+        var expected = new JohnsonShortestPath(g).getPathWeights();
+        IntStream.range(0, n * n).parallel().forEach(k -> {
+            int v = (k * 7) % n, u = k / n;
+            assertEquals(expected[v][u], alg.getPathWeight(v, u));
+        });
+        assertEquals(n * n, alg.hitCount() + alg.missCount());
+        assertTrue(alg.cacheSize() <= 20);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2022 Cristian Frăsinaru and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.graph4j.shortestpath;
+
+import java.io.IOException;
+import java.util.Random;
+import org.graph4j.Digraph;
+import org.graph4j.Graph;
+import org.graph4j.GraphBuilder;
+import org.graph4j.generators.BarabasiAlbertGenerator;
+import org.graph4j.generators.EdgeWeightsGenerator;
+import org.graph4j.generators.RandomGnpGraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Cristian Frăsinaru
+ */
+public class PrunedLandmarkLabelingTest {
+
+    @TempDir
+    java.nio.file.Path tempDir;
+
+    public PrunedLandmarkLabelingTest() {
+    }
+
+    private void checkQueries(Graph g, PrunedLandmarkLabeling pll, int numSources) {
+        var rand = new Random(0);
+        int n = g.numVertices();
+        for (int k = 0; k < numSources; k++) {
+            int v = g.vertexAt(rand.nextInt(n));
+            var alg = new DijkstraShortestPathHeap(g, v);
+            for (int u : g.vertices()) {
+                assertEquals(alg.getPathWeight(u), pll.distance(v, u), 1e-9);
+            }
+        }
+    }
+
+    private Digraph createDigraphWithRemovals(int n, double p, long seed) {
+        var rand = new Random(seed);
+        var g = GraphBuilder.numVertices(n).buildDigraph();
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                if (v != u && rand.nextDouble() < p) {
+                    g.addEdge(v, u, 1 + rand.nextInt(20));
+                }
+            }
+        }
+        //removals move arcs inside the adjacency lists, the freed slots are reused
+        for (var e : g.edges()) {
+            if (rand.nextInt(3) == 0) {
+                g.removeEdge(e.source(), e.target());
+                int v = e.source(), u = rand.nextInt(n);
+                if (v != u && !g.containsEdge(v, u)) {
+                    g.addEdge(v, u, 1 + rand.nextInt(20));
+                }
+            }
+        }
+        return g;
+    }
+
+    @Test
+    public void unweighted() {
+        var g = new BarabasiAlbertGenerator(3, 2, 500).createGraph();
+        var pll = PrunedLandmarkLabeling.create(g);
+        var expected = new BitParallelAllPairsShortestPath(g).getPathWeights();
+        for (int v : g.vertices()) {
+            for (int u : g.vertices()) {
+                assertEquals(expected[g.indexOf(v)][g.indexOf(u)], pll.distance(v, u));
+            }
+        }
+        assertTrue(pll.averageLabelSize() < g.numVertices());
+        assertTrue(pll.maxLabelSize() >= pll.averageLabelSize());
+    }
+
+    @Test
+    public void weightedDigraph() {
+        var g = new RandomGnpGraphGenerator(200, 0.03).createDigraph();
+        EdgeWeightsGenerator.randomDoubles(g, 0, 1);
+        checkQueries(g, PrunedLandmarkLabeling.create(g), 20);
+    }
+
+    @Test
+    public void parallel() {
+        var g = new BarabasiAlbertGenerator(3, 2, 10_000).createGraph();
+        EdgeWeightsGenerator.randomIntegers(g, 1, 10);
+        var pll = PrunedLandmarkLabeling.create(g, true);
+        checkQueries(g, pll, 5);
+    }
+
+    @Test
+    public void writeAndLoad() throws IOException {
+        var g = new RandomGnpGraphGenerator(100, 0.05).createDigraph();
+        var pll = PrunedLandmarkLabeling.create(g);
+        var file = tempDir.resolve("g.pll");
+        pll.write(file);
+        var loaded = PrunedLandmarkLabeling.load(file, g);
+        assertEquals(pll.numEntries(), loaded.numEntries());
+        for (int v : g.vertices()) {
+            for (int u : g.vertices()) {
+                assertEquals(pll.distance(v, u), loaded.distance(v, u));
+            }
+        }
+        var other = new RandomGnpGraphGenerator(101, 0.05).createDigraph();
+        assertThrows(IllegalArgumentException.class, () -> PrunedLandmarkLabeling.load(file, other));
+    }
+
+    @Test
+    public void digraphAfterRemoval() {
+        var g = createDigraphWithRemovals(200, 0.03, 11);
+        checkQueries(g, PrunedLandmarkLabeling.create(g), 20);
+    }
+}